@@ -0,0 +1,152 @@
+/**
+ * A blocked bloom filter. The bit array is split into blocks of 512 bits, the size of a 64 byte
+ * cache line, and all k bits of a key are set in the single block picked by the upper half of the
+ * key's 64-bit hash. A membership test therefore reads one 512-bit block, where {@link BloomFilter}
+ * reads k scattered words. Java does not align array data to 64 bytes, so a block usually spans
+ * two adjacent cache lines, which the hardware prefetcher tends to fetch together.
+ *
+ * <p>The k bit positions inside the block are derived from the lower half of the same hash, made
+ * odd, by repeatedly multiplying it with an odd constant and taking the top 9 bits, so a key needs
+ * only one hash computation. Keeping the value odd keeps it from ever becoming 0, which would put
+ * all k bits on bit 0 of the block. Concentrating the bits in one block makes the false positive
+ * rate a little higher than that of a standard bloom filter of the same size, {@link #create}
+ * leaves some room for it.
+ *
+ * <p>The batch query checks every key without branching on the individual bits, so the block loads
+ * of consecutive keys are independent and their cache misses overlap.
+ */
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import java.util.Arrays;
+
+public class BlockedBloomFilter {
+
+  // The number of longs of a block, 8 * 64 = 512 bits.
+  static final int BLOCK_WORDS = 8;
+
+  // The most bits set per key. Beyond this the block is filled too quickly to be useful.
+  static final int MAX_HASHES = 16;
+
+  private static final double LN2 = Math.log(2);
+
+  private final int numBlocks, numHashes;
+  private final long[] words;
+
+  // Creates a filter of `numBlocks` 512-bit blocks which sets `numHashes` bits per key.
+  public BlockedBloomFilter(int numBlocks, int numHashes) {
+    if (numBlocks <= 0 || numBlocks > Integer.MAX_VALUE / BLOCK_WORDS)
+      throw new IllegalArgumentException("Illegal number of blocks: " + numBlocks);
+    if (numHashes <= 0 || numHashes > MAX_HASHES)
+      throw new IllegalArgumentException("Illegal number of hashes: " + numHashes);
+    this.numBlocks = numBlocks;
+    this.numHashes = numHashes;
+    words = new long[numBlocks * BLOCK_WORDS];
+  }
+
+  // Creates a filter sized for `expectedKeys` keys at the given false positive rate. The size of a
+  // standard bloom filter, m = -n ln(p) / ln(2)^2 bits, is increased by 1/8 to make up for the
+  // blocking.
+  public static BlockedBloomFilter create(long expectedKeys, double falsePositiveRate) {
+    if (expectedKeys <= 0) throw new IllegalArgumentException("Illegal expectedKeys");
+    if (!(falsePositiveRate > 0 && falsePositiveRate < 1))
+      throw new IllegalArgumentException("Illegal falsePositiveRate: " + falsePositiveRate);
+    double bitsPerKey = -Math.log(falsePositiveRate) / (LN2 * LN2);
+    int numHashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerKey * LN2)));
+    double bits = Math.ceil(expectedKeys * bitsPerKey * 9 / 8);
+    long numBlocks = (long) Math.ceil(bits / (BLOCK_WORDS * 64));
+    if (numBlocks > Integer.MAX_VALUE / BLOCK_WORDS)
+      throw new IllegalArgumentException("Filter too large");
+    return new BlockedBloomFilter((int) Math.max(1, numBlocks), numHashes);
+  }
+
+  // Scrambles the bits of a key (the finalizer of MurmurHash3) into a hash suitable for the filter.
+  // Keys such as sequential ids must be hashed before they are added or tested.
+  public static long hash(long key) {
+    key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+    key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return key ^ (key >>> 33);
+  }
+
+  public int getNumBlocks() {
+    return numBlocks;
+  }
+
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  // Returns the index of the first word of the block of the hash. The upper 32 bits of the hash are
+  // scaled to [0, numBlocks) with a multiplication instead of a modulo.
+  private int blockOffset(long hash) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32) * BLOCK_WORDS;
+  }
+
+  // Returns the seed of the bit positions of the hash in its block, see the class comment.
+  private static int bitSeed(long hash) {
+    return (int) hash | 1;
+  }
+
+  // Adds a key given by its 64-bit hash.
+  public void add(long hash) {
+    int offset = blockOffset(hash);
+    int h = bitSeed(hash);
+    for (int i = 0; i < numHashes; i++) {
+      h *= 0x9E3779B9;
+      // The top 9 bits select one of the 512 bits, the word by the top 3 and the bit by the rest
+      int bit = h >>> 23;
+      words[offset + (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  public void addAll(long[] hashes) {
+    for (long hash : hashes) add(hash);
+  }
+
+  // Returns false if the key was never added, true if it may have been.
+  public boolean mightContain(long hash) {
+    int offset = blockOffset(hash);
+    int h = bitSeed(hash);
+    for (int i = 0; i < numHashes; i++) {
+      h *= 0x9E3779B9;
+      int bit = h >>> 23;
+      if ((words[offset + (bit >>> 6)] & (1L << bit)) == 0) return false;
+    }
+    return true;
+  }
+
+  // Tests every hash of the array, out[i] is set to mightContain(hashes[i]). The bits of a key are
+  // checked without an early exit, which costs a few more operations per key but lets the CPU run
+  // the lookups of neighbouring keys, and their cache misses, in parallel.
+  public void mightContain(long[] hashes, boolean[] out) {
+    if (out.length < hashes.length) throw new IllegalArgumentException("Output array too short");
+    for (int k = 0; k < hashes.length; k++) {
+      long hash = hashes[k];
+      int offset = blockOffset(hash);
+      int h = bitSeed(hash);
+      long missing = 0;
+      for (int i = 0; i < numHashes; i++) {
+        h *= 0x9E3779B9;
+        int bit = h >>> 23;
+        missing |= ~words[offset + (bit >>> 6)] & (1L << bit);
+      }
+      out[k] = missing == 0;
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(words, 0);
+  }
+
+  // Returns the fraction of the bits which are set. The false positive rate of the filter is about
+  // this fraction to the power of the number of hashes.
+  public double fillRatio() {
+    long set = 0;
+    for (long word : words) set += Long.bitCount(word);
+    return (double) set / (64L * words.length);
+  }
+
+  // The bit array, used mostly for testing.
+  long[] words() {
+    return words;
+  }
+}
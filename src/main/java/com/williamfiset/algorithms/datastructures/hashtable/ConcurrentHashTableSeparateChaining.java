@@ -0,0 +1,452 @@
+/**
+ * A thread safe hash-table using separate chaining, with lock striping for writers and lock free
+ * reads.
+ *
+ * <p>The buckets are split between a fixed number of stripes, each guarded by its own lock, so
+ * writers to different stripes never wait for each other. The chains are made of nodes whose key
+ * and successor never change, and new chains are published with a volatile write of the bucket
+ * head, so readers take no lock at all and always see a consistent chain.
+ *
+ * <p>The table has a power of two capacity and grows by doubling. A resize is cooperative: the
+ * writers which meet a resize in progress claim chunks of the old buckets and move them, leaving a
+ * forwarding node behind so that readers and writers continue in the new table.
+ *
+ * <p>Statistics are collected once enabled with setStatsEnabled(true), see {@link HashTableStats}.
+ * The resize time they report is summed over all the threads which helped with each resize.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+public class ConcurrentHashTableSeparateChaining<K, V> implements Iterable<K> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+  private static final double DEFAULT_LOAD_FACTOR = 0.75;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  // The number of buckets a thread claims at a time while helping with a resize.
+  private static final int TRANSFER_CHUNK = 64;
+
+  static class Node<K, V> {
+    final int hash;
+    final K key;
+    volatile V value;
+    final Node<K, V> next;
+
+    Node(int hash, K key, V value, Node<K, V> next) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  // Replaces the head of a bucket which has been moved to the next table. A single instance is
+  // shared by all the buckets moved by one resize.
+  static final class ForwardingNode<K, V> extends Node<K, V> {
+    final AtomicReferenceArray<Node<K, V>> nextTable;
+
+    ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+      super(0, null, null, null);
+      this.nextTable = nextTable;
+    }
+  }
+
+  // A lock guarding every bucket whose index is congruent to the stripe index modulo the number of
+  // stripes. The capacity is a multiple of the number of stripes, so a bucket and the two buckets
+  // it splits into on a resize always belong to the same stripe.
+  static final class Stripe extends ReentrantLock {
+    // The number of keys in the buckets of the stripe, only written while holding the lock.
+    volatile int size;
+  }
+
+  // The state of a resize shared by the threads helping with it.
+  static final class Resize<K, V> {
+    // The number of buckets of the old table.
+    final int n;
+    final AtomicReferenceArray<Node<K, V>> nextTable;
+    final ForwardingNode<K, V> forward;
+    final AtomicInteger claimed = new AtomicInteger(), transferred = new AtomicInteger();
+
+    // The old table, dropped once the resize is done so that it can be garbage collected. Only
+    // threads holding an unfinished chunk read it, and all chunks finish before it is dropped.
+    AtomicReferenceArray<Node<K, V>> table;
+
+    // Set once the next table has been installed.
+    volatile boolean done;
+
+    Resize(AtomicReferenceArray<Node<K, V>> table) {
+      this.table = table;
+      n = table.length();
+      nextTable = new AtomicReferenceArray<>(2 * n);
+      forward = new ForwardingNode<>(nextTable);
+    }
+  }
+
+  private final double loadFactor;
+  private final Stripe[] stripes;
+  private volatile AtomicReferenceArray<Node<K, V>> table;
+
+  // The latest resize. A finished resize stays here rather than being replaced by null, so that a
+  // thread which looked at the table before that resize cannot start another one from it. It then
+  // only references the current table and its forwarding node.
+  private final AtomicReference<Resize<K, V>> resize = new AtomicReference<>();
+
+  // The statistics of the table, null unless enabled. Threads may keep using an earlier value of
+  // the field for a while after it changes.
+  private HashTableStats stats;
+
+  public ConcurrentHashTableSeparateChaining() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  public ConcurrentHashTableSeparateChaining(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  // Designated constructor. The concurrency level is the number of lock stripes, rounded up to a
+  // power of two.
+  public ConcurrentHashTableSeparateChaining(
+      int capacity, double loadFactor, int concurrencyLevel) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    if (loadFactor <= 0 || Double.isNaN(loadFactor) || Double.isInfinite(loadFactor))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    if (concurrencyLevel <= 0 || concurrencyLevel > MAXIMUM_CAPACITY)
+      throw new IllegalArgumentException("Illegal concurrencyLevel: " + concurrencyLevel);
+    this.loadFactor = loadFactor;
+    stripes = new Stripe[powerOfTwoAtLeast(concurrencyLevel)];
+    for (int i = 0; i < stripes.length; i++) stripes[i] = new Stripe();
+    int tableCapacity = powerOfTwoAtLeast(Math.max(capacity, Math.max(stripes.length, 2)));
+    table = new AtomicReferenceArray<>(tableCapacity);
+  }
+
+  private static int powerOfTwoAtLeast(int n) {
+    if (n >= MAXIMUM_CAPACITY) return MAXIMUM_CAPACITY;
+    int pow2 = Integer.highestOneBit(n);
+    return pow2 == n ? n : pow2 << 1;
+  }
+
+  // Mixes the upper bits of the hash code into the lower bits which select the bucket and stripe.
+  private static int spread(int hashCode) {
+    return hashCode ^ (hashCode >>> 16);
+  }
+
+  private Stripe stripeOf(int hash) {
+    return stripes[hash & (stripes.length - 1)];
+  }
+
+  // Returns the number of keys in the table. The count is exact when no writer is active.
+  public int size() {
+    long size = 0;
+    for (Stripe stripe : stripes) size += stripe.size;
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // Returns the number of buckets of the table (used mostly for testing)
+  public int getCapacity() {
+    return table.length();
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled. The occupancy is counted
+  // without locking, like the entries seen by forEach.
+  public HashTableStats getStats() {
+    HashTableStats s = stats;
+    if (s == null) return null;
+    // The number of used buckets and the longest chain
+    int[] counts = new int[2];
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    for (int i = 0; i < tab.length(); i++) countChains(tab, i, counts);
+    s.setOccupancy(tab.length(), counts[0], 0);
+    s.setMaxChainLength(counts[1]);
+    return s;
+  }
+
+  private void countChains(AtomicReferenceArray<Node<K, V>> tab, int i, int[] counts) {
+    Node<K, V> head = tab.get(i);
+    if (head instanceof ForwardingNode) {
+      AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) head).nextTable;
+      countChains(next, i, counts);
+      countChains(next, i + tab.length(), counts);
+      return;
+    }
+    if (head != null) counts[0]++;
+    counts[1] = Math.max(counts[1], compared(head, null));
+  }
+
+  // Returns the number of nodes a search compares from the head of a chain up to the target node,
+  // or the whole chain if the target is null. Chains are walked again instead of counting in the
+  // search loops, so that searches do no extra work while statistics are disabled.
+  private static <K, V> int compared(Node<K, V> head, Node<K, V> target) {
+    int n = 0;
+    for (Node<K, V> node = head; node != target; node = node.next) n++;
+    return target == null ? n : n + 1;
+  }
+
+  public boolean containsKey(K key) {
+    return findNode(key) != null;
+  }
+
+  // Returns the value associated with the key, or null if the key does not exist.
+  public V get(K key) {
+    Node<K, V> node = findNode(key);
+    return node == null ? null : node.value;
+  }
+
+  // Lock free lookup, following forwarding nodes into the table being filled by a resize.
+  private Node<K, V> findNode(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int hash = spread(key.hashCode());
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> node = tab.get(hash & (tab.length() - 1));
+      if (node instanceof ForwardingNode) {
+        tab = ((ForwardingNode<K, V>) node).nextTable;
+        continue;
+      }
+      Node<K, V> head = node;
+      for (; node != null; node = node.next)
+        if (node.hash == hash && node.key.equals(key)) break;
+      HashTableStats s = stats;
+      if (s != null) s.recordProbes(HashTableStats.Operation.GET, compared(head, node));
+      return node;
+    }
+  }
+
+  public V put(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V add(K key, V value) {
+    return insert(key, value);
+  }
+
+  // Associates the value with the key and returns the previous value, or null if the key did not
+  // exist.
+  public V insert(K key, V value) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int hash = spread(key.hashCode());
+    helpResize();
+
+    Stripe stripe = stripeOf(hash);
+    AtomicReferenceArray<Node<K, V>> tab;
+    stripe.lock();
+    try {
+      tab = lockedTable(hash);
+      int i = hash & (tab.length() - 1);
+      Node<K, V> head = tab.get(i);
+      for (Node<K, V> node = head; node != null; node = node.next) {
+        if (node.hash == hash && node.key.equals(key)) {
+          V oldValue = node.value;
+          node.value = value;
+          HashTableStats s = stats;
+          if (s != null) s.recordProbes(HashTableStats.Operation.INSERT, compared(head, node));
+          return oldValue;
+        }
+      }
+      HashTableStats s = stats;
+      if (s != null) s.recordProbes(HashTableStats.Operation.INSERT, compared(head, null));
+      tab.set(i, new Node<>(hash, key, value, head));
+      stripe.size++;
+    } finally {
+      stripe.unlock();
+    }
+
+    // Every stripe holds about the same share of the keys, so a stripe over its share of the
+    // threshold means the whole table is close to it.
+    if (stripe.size > loadFactor * tab.length() / stripes.length) startResize(tab);
+    return null;
+  }
+
+  // Removes the key and returns its value, or null if the key did not exist.
+  public V remove(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int hash = spread(key.hashCode());
+    helpResize();
+
+    Stripe stripe = stripeOf(hash);
+    stripe.lock();
+    try {
+      AtomicReferenceArray<Node<K, V>> tab = lockedTable(hash);
+      int i = hash & (tab.length() - 1);
+      Node<K, V> head = tab.get(i), target = head;
+      while (target != null && !(target.hash == hash && target.key.equals(key)))
+        target = target.next;
+      HashTableStats s = stats;
+      if (s != null) s.recordProbes(HashTableStats.Operation.REMOVE, compared(head, target));
+      if (target == null) return null;
+
+      // The successors are immutable, so the nodes in front of the removed one are copied.
+      Node<K, V> chain = target.next;
+      for (Node<K, V> node = head; node != target; node = node.next)
+        chain = new Node<>(node.hash, node.key, node.value, chain);
+      tab.set(i, chain);
+      stripe.size--;
+      return target.value;
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  // Returns the table holding the bucket of the hash. The caller holds the lock of the stripe, so
+  // the bucket cannot be moved until the lock is released.
+  private AtomicReferenceArray<Node<K, V>> lockedTable(int hash) {
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    Node<K, V> head;
+    while ((head = tab.get(hash & (tab.length() - 1))) instanceof ForwardingNode)
+      tab = ((ForwardingNode<K, V>) head).nextTable;
+    return tab;
+  }
+
+  // Starts doubling the table unless it has already been resized or a resize is in progress.
+  private void startResize(AtomicReferenceArray<Node<K, V>> tab) {
+    Resize<K, V> current = resize.get();
+    if (current != null && !current.done) return;
+    // The table is read after the finished resize, so it is the table that resize installed or a
+    // later one.
+    if (tab != table || tab.length() >= MAXIMUM_CAPACITY) return;
+    Resize<K, V> r = new Resize<>(tab);
+    if (!resize.compareAndSet(current, r)) return;
+    HashTableStats s = stats;
+    long start = s == null ? 0 : System.nanoTime();
+    transfer(r);
+    if (s != null) s.recordResize(System.nanoTime() - start);
+  }
+
+  // Lets the calling thread take part in the resize in progress, if any.
+  private void helpResize() {
+    Resize<K, V> r = resize.get();
+    if (r == null || r.done) return;
+    HashTableStats s = stats;
+    long start = s == null ? 0 : System.nanoTime();
+    transfer(r);
+    if (s != null) s.addResizeTime(System.nanoTime() - start);
+  }
+
+  // Moves chunks of buckets to the next table until every bucket has been claimed. The thread that
+  // moves the last bucket installs the next table.
+  private void transfer(Resize<K, V> r) {
+    int n = r.n;
+    int start;
+    while ((start = r.claimed.getAndAdd(TRANSFER_CHUNK)) < n) {
+      int end = Math.min(n, start + TRANSFER_CHUNK);
+      for (int i = start; i < end; i++) transferBucket(r, i);
+      if (r.transferred.addAndGet(end - start) == n) {
+        table = r.nextTable;
+        r.table = null;
+        r.done = true;
+      }
+    }
+  }
+
+  // Splits bucket i between buckets i and i + n of the next table, then forwards it.
+  private void transferBucket(Resize<K, V> r, int i) {
+    int n = r.n;
+    Stripe stripe = stripes[i & (stripes.length - 1)];
+    stripe.lock();
+    try {
+      Node<K, V> low = null, high = null;
+      for (Node<K, V> node = r.table.get(i); node != null; node = node.next) {
+        if ((node.hash & n) == 0) low = new Node<>(node.hash, node.key, node.value, low);
+        else high = new Node<>(node.hash, node.key, node.value, high);
+      }
+      r.nextTable.set(i, low);
+      r.nextTable.set(i + n, high);
+      r.table.set(i, r.forward);
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  // Removes every key. Writers are held off by taking every lock, concurrent readers may still
+  // see some of the keys while the buckets are being cleared.
+  public void clear() {
+    for (Stripe stripe : stripes) stripe.lock();
+    try {
+      AtomicReferenceArray<Node<K, V>> tab = table;
+      for (int i = 0; i < tab.length(); i++) clearBucket(tab, i);
+      for (Stripe stripe : stripes) stripe.size = 0;
+    } finally {
+      for (Stripe stripe : stripes) stripe.unlock();
+    }
+  }
+
+  // Clears a bucket, or the buckets of the next table it has been moved to.
+  private void clearBucket(AtomicReferenceArray<Node<K, V>> tab, int i) {
+    Node<K, V> head = tab.get(i);
+    if (head instanceof ForwardingNode) {
+      AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) head).nextTable;
+      clearBucket(next, i);
+      clearBucket(next, i + tab.length());
+    } else {
+      tab.set(i, null);
+    }
+  }
+
+  // Calls the action for every entry. Like the iterator it does not lock the table, so it sees the
+  // entries present when each bucket is visited.
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    for (int i = 0; i < tab.length(); i++) forEachInBucket(tab, i, action);
+  }
+
+  private void forEachInBucket(
+      AtomicReferenceArray<Node<K, V>> tab, int i, BiConsumer<? super K, ? super V> action) {
+    Node<K, V> head = tab.get(i);
+    if (head instanceof ForwardingNode) {
+      AtomicReferenceArray<Node<K, V>> next = ((ForwardingNode<K, V>) head).nextTable;
+      forEachInBucket(next, i, action);
+      forEachInBucket(next, i + tab.length(), action);
+      return;
+    }
+    for (Node<K, V> node = head; node != null; node = node.next)
+      action.accept(node.key, node.value);
+  }
+
+  // Returns a list of keys found in the hash table
+  public List<K> keys() {
+    List<K> keys = new ArrayList<>();
+    forEach((key, value) -> keys.add(key));
+    return keys;
+  }
+
+  // Returns a list of non-unique values found in the hash table
+  public List<V> values() {
+    List<V> values = new ArrayList<>();
+    forEach((key, value) -> values.add(value));
+    return values;
+  }
+
+  // Iterates over a snapshot of the keys, so the iterator never throws a
+  // ConcurrentModificationException.
+  @Override
+  public Iterator<K> iterator() {
+    return keys().iterator();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{");
+    forEach((key, value) -> sb.append(key + " => " + value + ", "));
+    sb.append("}");
+    return sb.toString();
+  }
+}
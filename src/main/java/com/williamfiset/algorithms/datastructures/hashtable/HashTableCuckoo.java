@@ -0,0 +1,490 @@
+/**
+ * An implementation of a hash-table using bucketized cuckoo hashing. Every key has two candidate
+ * buckets of 4 slots each, chosen by two hash functions, so a lookup inspects at most 8 slots (and
+ * a small stash) no matter how full the table is. Load factors around 0.9 are reached before
+ * insertions start to fail.
+ *
+ * <p>The two hash functions are derived the way double hashing derives its probe step: keys which
+ * implement {@link SecondaryHash} provide their second hash with hashCode2(), for other keys it is
+ * computed from hashCode(). Both hashes are scrambled with a seed, which changes on every rehash.
+ *
+ * <p>When both buckets of a new key are full, a breadth-first search over the alternative buckets
+ * of the keys already stored finds the shortest chain of moves which frees a slot. If no chain is
+ * found within a bounded search the key goes to the stash, and when the stash is full too the
+ * table is rehashed with new seeds, or grown if rehashing does not help.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+@SuppressWarnings("unchecked")
+public class HashTableCuckoo<K, V> implements Iterable<K> {
+
+  static final int SLOTS = 4;
+  static final int STASH_SIZE = 8;
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final double DEFAULT_LOAD_FACTOR = 0.9;
+
+  // The maximum number of buckets visited by the search for a chain of moves.
+  private static final int MAX_SEARCH_BUCKETS = 256;
+
+  // The number of seeds tried before a failing rehash grows the table instead.
+  private static final int REHASH_ATTEMPTS = 4;
+
+  private final double loadFactor;
+  private int bucketMask, threshold, keyCount, modificationCount, seed, rehashCount;
+
+  // Slot s of bucket b is at index SLOTS * b + s. A slot is free when its key is null. The two
+  // hashes of every key are kept so that keys can be moved without calling hashCode again.
+  private K[] keys;
+  private V[] values;
+  private int[] hashes1, hashes2;
+
+  // Keys which could not be placed in either bucket. The stash only grows beyond STASH_SIZE when
+  // many keys share both of their hashes.
+  private K[] stashKeys = (K[]) new Object[STASH_SIZE];
+  private V[] stashValues = (V[]) new Object[STASH_SIZE];
+  private int[] stashHashes1 = new int[STASH_SIZE], stashHashes2 = new int[STASH_SIZE];
+  private int stashSize;
+
+  // Scratch arrays of the breadth-first search: the bucket of every visited node, its parent node
+  // and the slot of the parent bucket whose key moves into the node's bucket.
+  private final int[] searchBucket = new int[MAX_SEARCH_BUCKETS];
+  private final int[] searchParent = new int[MAX_SEARCH_BUCKETS];
+  private final int[] searchSlot = new int[MAX_SEARCH_BUCKETS];
+
+  // The statistics of the table (null unless enabled), and the number of buckets inspected by the
+  // last search (the stash counting as one), which is only counted while statistics are enabled.
+  private HashTableStats stats;
+  private int probes;
+
+  public HashTableCuckoo() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableCuckoo(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  // Designated constructor
+  public HashTableCuckoo(int capacity, double loadFactor) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    if (!(loadFactor > 0 && loadFactor <= 0.95))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    this.loadFactor = loadFactor;
+    allocate(bucketsFor(Math.max(capacity, DEFAULT_CAPACITY)));
+  }
+
+  // Returns the power of two number of buckets which holds `keys` keys below the load factor.
+  private int bucketsFor(int keys) {
+    long buckets = (long) Math.ceil(keys / loadFactor / SLOTS);
+    if (buckets > (1 << 28)) throw new IllegalArgumentException("Capacity too large");
+    int pow2 = Integer.highestOneBit((int) Math.max(buckets, 2));
+    return pow2 == buckets ? pow2 : pow2 << 1;
+  }
+
+  private void allocate(int buckets) {
+    int slots = buckets * SLOTS;
+    bucketMask = buckets - 1;
+    threshold = (int) (slots * loadFactor);
+    keys = (K[]) new Object[slots];
+    values = (V[]) new Object[slots];
+    hashes1 = new int[slots];
+    hashes2 = new int[slots];
+  }
+
+  // The finalizer of MurmurHash3.
+  private static int mix(int h) {
+    h = (h ^ (h >>> 16)) * 0x85ebca6b;
+    h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  // Returns the second hash of a key whose first hash is h1.
+  private static int secondaryHash(Object key, int h1) {
+    if (key instanceof SecondaryHash) return ((SecondaryHash) key).hashCode2();
+    // Keys with equal hash codes get equal second hashes too, so heavily colliding hash codes
+    // should be avoided or a SecondaryHash provided.
+    return mix(h1 * 0x9E3779B9 + 0x7F4A7C15);
+  }
+
+  private int bucket1(int h1) {
+    return mix(h1 ^ seed) & bucketMask;
+  }
+
+  private int bucket2(int h2) {
+    return mix(h2 ^ seed ^ 0x5BD1E995) & bucketMask;
+  }
+
+  public int size() {
+    return keyCount;
+  }
+
+  public boolean isEmpty() {
+    return keyCount == 0;
+  }
+
+  // Returns the number of slots of the table (used mostly for testing)
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  // Returns the number of keys currently in the stash (used mostly for testing)
+  public int getStashSize() {
+    return stashSize;
+  }
+
+  // Returns the number of times the table was rebuilt with new seeds or grown.
+  public int getRehashCount() {
+    return rehashCount;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled. The buckets of the
+  // statistics are the slots of the table, and rebuilds with new seeds count as resizes.
+  public HashTableStats getStats() {
+    if (stats != null) stats.setOccupancy(keys.length, keyCount - stashSize, 0);
+    return stats;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    Arrays.fill(stashKeys, null);
+    Arrays.fill(stashValues, null);
+    keyCount = stashSize = 0;
+    modificationCount++;
+  }
+
+  public V put(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V add(K key, V value) {
+    return insert(key, value);
+  }
+
+  // Returns true/false on whether a given key exists within the hash-table.
+  public boolean containsKey(K key) {
+    return hasKey(key);
+  }
+
+  public boolean hasKey(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int h1 = key.hashCode();
+    int i = indexOf(key, h1, secondaryHash(key, h1));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    return i != -1;
+  }
+
+  // Get the value associated with the input key.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V get(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int h1 = key.hashCode();
+    int i = indexOf(key, h1, secondaryHash(key, h1));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    if (i == -1) return null;
+    return i < keys.length ? values[i] : stashValues[i - keys.length];
+  }
+
+  // Returns the slot of the key, capacity + j if the key is in stash slot j, or -1.
+  private int indexOf(K key, int h1, int h2) {
+    int i = findInBucket(bucket1(h1), key, h1);
+    if (stats != null) probes = i == -1 ? 2 : 1;
+    if (i == -1) i = findInBucket(bucket2(h2), key, h1);
+    if (i == -1 && stashSize > 0) {
+      if (stats != null) probes++;
+      for (int j = 0; j < stashSize; j++)
+        if (stashHashes1[j] == h1 && key.equals(stashKeys[j])) return keys.length + j;
+    }
+    return i;
+  }
+
+  private int findInBucket(int bucket, K key, int h1) {
+    for (int i = bucket * SLOTS; i < (bucket + 1) * SLOTS; i++)
+      if (keys[i] != null && hashes1[i] == h1 && key.equals(keys[i])) return i;
+    return -1;
+  }
+
+  // Place a key-value pair into the hash-table. If the value already
+  // exists inside the hash-table then the value is updated.
+  public V insert(K key, V value) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int h1 = key.hashCode(), h2 = secondaryHash(key, h1);
+
+    int i = indexOf(key, h1, h2);
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, probes);
+    if (i != -1) {
+      V oldValue;
+      if (i < keys.length) {
+        oldValue = values[i];
+        values[i] = value;
+      } else {
+        oldValue = stashValues[i - keys.length];
+        stashValues[i - keys.length] = value;
+      }
+      modificationCount++;
+      return oldValue;
+    }
+
+    if (keyCount >= threshold) rebuild(2 * (bucketMask + 1), key, value, h1, h2);
+    else if (!place(key, value, h1, h2)) rebuild(bucketMask + 1, key, value, h1, h2);
+    keyCount++;
+    modificationCount++;
+    return null;
+  }
+
+  // Puts a key which is not in the table into a free slot of one of its buckets, moving other keys
+  // to their alternative buckets if needed, or into the stash. Returns false if all of these fail.
+  private boolean place(K key, V value, int h1, int h2) {
+    int b1 = bucket1(h1), b2 = bucket2(h2);
+    int slot = freeSlot(b1);
+    if (slot == -1) slot = freeSlot(b2);
+    if (slot == -1) slot = freeSlotByMoves(b1, b2);
+    if (slot != -1) {
+      setSlot(slot, key, value, h1, h2);
+      return true;
+    }
+    if (stashSize == stashKeys.length) return false;
+    stashKeys[stashSize] = key;
+    stashValues[stashSize] = value;
+    stashHashes1[stashSize] = h1;
+    stashHashes2[stashSize] = h2;
+    stashSize++;
+    return true;
+  }
+
+  private int freeSlot(int bucket) {
+    for (int i = bucket * SLOTS; i < (bucket + 1) * SLOTS; i++) if (keys[i] == null) return i;
+    return -1;
+  }
+
+  private void setSlot(int i, K key, V value, int h1, int h2) {
+    keys[i] = key;
+    values[i] = value;
+    hashes1[i] = h1;
+    hashes2[i] = h2;
+  }
+
+  // Searches breadth first for the shortest chain of keys which can each move to their other
+  // bucket, ending in a bucket with a free slot. Performs the moves and returns the slot freed in
+  // bucket b1 or b2, or -1 if no chain is found among the first MAX_SEARCH_BUCKETS buckets.
+  private int freeSlotByMoves(int b1, int b2) {
+    int nodes = 0;
+    searchBucket[nodes] = b1;
+    searchParent[nodes++] = -1;
+    if (b2 != b1) {
+      searchBucket[nodes] = b2;
+      searchParent[nodes++] = -1;
+    }
+
+    for (int node = 0; node < nodes; node++) {
+      int bucket = searchBucket[node];
+      for (int s = bucket * SLOTS; s < (bucket + 1) * SLOTS && nodes < MAX_SEARCH_BUCKETS; s++) {
+        int h1 = hashes1[s], alternative = bucket1(h1);
+        if (alternative == bucket) alternative = bucket2(hashes2[s]);
+        if (alternative == bucket || onPath(node, alternative)) continue;
+
+        searchBucket[nodes] = alternative;
+        searchParent[nodes] = node;
+        searchSlot[nodes] = s;
+        int free = freeSlot(alternative);
+        if (free != -1) return moveAlongPath(nodes, free);
+        nodes++;
+      }
+    }
+    return -1;
+  }
+
+  // Returns true if the bucket appears on the path from the root to the node. Moving keys along a
+  // path which visits a bucket twice could overwrite a key.
+  private boolean onPath(int node, int bucket) {
+    for (; node != -1; node = searchParent[node]) if (searchBucket[node] == bucket) return true;
+    return false;
+  }
+
+  // Moves every key on the path to the node one step further, starting with the key that fills the
+  // free slot. Returns the slot freed in the root bucket.
+  private int moveAlongPath(int node, int free) {
+    for (; searchParent[node] != -1; node = searchParent[node]) {
+      int s = searchSlot[node];
+      setSlot(free, keys[s], values[s], hashes1[s], hashes2[s]);
+      free = s;
+    }
+    return free;
+  }
+
+  // Rebuilds the table with `buckets` buckets and new seeds, adding the pending key. If some key
+  // cannot be placed the next seed is tried, and after REHASH_ATTEMPTS failed seeds the number of
+  // buckets (or the stash) is doubled.
+  private void rebuild(int buckets, K pendingKey, V pendingValue, int pendingH1, int pendingH2) {
+    long start = stats == null ? 0 : System.nanoTime();
+    int n = keyCount + 1;
+    K[] ks = (K[]) new Object[n];
+    V[] vs = (V[]) new Object[n];
+    int[] h1s = new int[n], h2s = new int[n];
+    int at = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] == null) continue;
+      ks[at] = keys[i];
+      vs[at] = values[i];
+      h1s[at] = hashes1[i];
+      h2s[at++] = hashes2[i];
+    }
+    for (int j = 0; j < stashSize; j++) {
+      ks[at] = stashKeys[j];
+      vs[at] = stashValues[j];
+      h1s[at] = stashHashes1[j];
+      h2s[at++] = stashHashes2[j];
+    }
+    ks[at] = pendingKey;
+    vs[at] = pendingValue;
+    h1s[at] = pendingH1;
+    h2s[at] = pendingH2;
+
+    for (int attempt = 1; ; attempt++) {
+      rehashCount++;
+      seed = mix(seed + 0x9E3779B9);
+      allocate(buckets);
+      Arrays.fill(stashKeys, null);
+      Arrays.fill(stashValues, null);
+      stashSize = 0;
+
+      int placed = 0;
+      while (placed < n && place(ks[placed], vs[placed], h1s[placed], h2s[placed])) placed++;
+      if (placed == n) break;
+      if (attempt % REHASH_ATTEMPTS != 0) continue;
+      // Keys with equal hashes cannot be separated by any table size, so once the table is much
+      // larger than the keys need the stash grows instead.
+      if (buckets < 4 * bucketsFor(n)) buckets *= 2;
+      else growStash();
+    }
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  private void growStash() {
+    int length = 2 * stashKeys.length;
+    stashKeys = Arrays.copyOf(stashKeys, length);
+    stashValues = Arrays.copyOf(stashValues, length);
+    stashHashes1 = Arrays.copyOf(stashHashes1, length);
+    stashHashes2 = Arrays.copyOf(stashHashes2, length);
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V remove(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int h1 = key.hashCode();
+    int i = indexOf(key, h1, secondaryHash(key, h1));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.REMOVE, probes);
+    if (i == -1) return null;
+
+    V oldValue;
+    if (i < keys.length) {
+      oldValue = values[i];
+      keys[i] = null;
+      values[i] = null;
+      // The freed slot may take back a key from the stash
+      if (stashSize > 0) drainStash(i / SLOTS);
+    } else {
+      int j = i - keys.length;
+      oldValue = stashValues[j];
+      removeFromStash(j);
+    }
+    keyCount--;
+    modificationCount++;
+    return oldValue;
+  }
+
+  // Moves the stash keys with the given bucket as one of their buckets into that bucket.
+  private void drainStash(int bucket) {
+    for (int j = stashSize - 1; j >= 0; j--) {
+      if (bucket1(stashHashes1[j]) != bucket && bucket2(stashHashes2[j]) != bucket) continue;
+      int slot = freeSlot(bucket);
+      if (slot == -1) return;
+      setSlot(slot, stashKeys[j], stashValues[j], stashHashes1[j], stashHashes2[j]);
+      removeFromStash(j);
+    }
+  }
+
+  // Removes stash entry j by moving the last entry into its place.
+  private void removeFromStash(int j) {
+    int last = --stashSize;
+    stashKeys[j] = stashKeys[last];
+    stashValues[j] = stashValues[last];
+    stashHashes1[j] = stashHashes1[last];
+    stashHashes2[j] = stashHashes2[last];
+    stashKeys[last] = null;
+    stashValues[last] = null;
+  }
+
+  // Returns a list of keys found in the hash table
+  public List<K> keys() {
+    List<K> hashtableKeys = new ArrayList<>(size());
+    for (K key : this) hashtableKeys.add(key);
+    return hashtableKeys;
+  }
+
+  // Returns a list of non-unique values found in the hash table
+  public List<V> values() {
+    List<V> hashtableValues = new ArrayList<>(size());
+    for (int i = 0; i < keys.length; i++) if (keys[i] != null) hashtableValues.add(values[i]);
+    for (int j = 0; j < stashSize; j++) hashtableValues.add(stashValues[j]);
+    return hashtableValues;
+  }
+
+  // Return a String view of this hash-table.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{");
+    for (int i = 0; i < keys.length; i++)
+      if (keys[i] != null) sb.append(keys[i] + " => " + values[i] + ", ");
+    for (int j = 0; j < stashSize; j++) sb.append(stashKeys[j] + " => " + stashValues[j] + ", ");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    final int MODIFICATION_COUNT = modificationCount;
+
+    return new Iterator<K>() {
+      // Indexes past the last slot refer to the stash.
+      int index, keysLeft = keyCount;
+
+      @Override
+      public boolean hasNext() {
+        // The contents of the table have been altered
+        if (MODIFICATION_COUNT != modificationCount) throw new ConcurrentModificationException();
+        return keysLeft != 0;
+      }
+
+      @Override
+      public K next() {
+        while (index < keys.length && keys[index] == null) index++;
+        keysLeft--;
+        K key = index < keys.length ? keys[index] : stashKeys[index - keys.length];
+        index++;
+        return key;
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -8,11 +8,6 @@ package com.williamfiset.algorithms.datastructures.hashtable;
 
 public class HashTableLinearProbing<K, V> extends HashTableOpenAddressingBase<K, V> {
 
-  // This is the linear constant used in the linear probing, it can be
-  // any positive number. The table capacity will be adjusted so that
-  // the GCD(capacity, LINEAR_CONSTANT) = 1 so that all buckets can be probed.
-  private static final int LINEAR_CONSTANT = 17;
-
   public HashTableLinearProbing() {
     super();
   }
@@ -31,15 +26,13 @@ public class HashTableLinearProbing<K, V> extends HashTableOpenAddressingBase<K,
 
   @Override
   protected int probe(int x) {
-    return LINEAR_CONSTANT * x;
+    return ProbingStrategy.LINEAR.probe(x, 0);
   }
 
   // Adjust the capacity so that the linear constant and
   // the table capacity are relatively prime.
   @Override
   protected void adjustCapacity() {
-    while (gcd(LINEAR_CONSTANT, capacity) != 1) {
-      capacity++;
-    }
+    capacity = ProbingStrategy.LINEAR.adjustCapacity(capacity);
   }
 }
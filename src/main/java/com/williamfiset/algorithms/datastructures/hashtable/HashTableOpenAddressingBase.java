@@ -2,6 +2,14 @@
  * Base class for hashtables with an open addressing collision resolution method such as linear
  * probing, quadratic probing and double hashing.
  *
+ * <p>By default a resize rehashes every key at once. With incremental resizing enabled the old
+ * arrays are kept next to the new ones instead, and every insertion or removal moves a bounded
+ * number of their buckets over. Lookups search both tables until the old one has been emptied, so
+ * no single operation pays for rehashing the whole table.
+ *
+ * <p>Statistics about probe lengths, tombstones and resizes are collected once enabled with
+ * setStatsEnabled(true), see {@link HashTableStats}.
+ *
  * @author William Fiset, william.alexandre.fiset@gmail.com
  */
 package com.williamfiset.algorithms.datastructures.hashtable;
@@ -32,6 +40,21 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
   private static final int DEFAULT_CAPACITY = 7;
   private static final double DEFAULT_LOAD_FACTOR = 0.65;
 
+  // The number of old buckets moved to the new arrays by each insertion or removal.
+  private static final int MIGRATION_STEP = 8;
+
+  // The arrays being emptied by an incremental resize (null when no resize is in progress), and
+  // the index of the next bucket to move out of them.
+  private boolean incrementalResize;
+  private K[] oldKeys;
+  private V[] oldValues;
+  private int oldCapacity, migrationIndex;
+
+  // The statistics of the table (null unless enabled), and the number of buckets inspected so far
+  // by the current operation, which is only counted while statistics are enabled.
+  private HashTableStats stats;
+  private int probes;
+
   protected HashTableOpenAddressingBase() {
     this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
   }
@@ -77,6 +100,8 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
       keys[i] = null;
       values[i] = null;
     }
+    oldKeys = null;
+    oldValues = null;
     keyCount = usedBuckets = 0;
     modificationCount++;
   }
@@ -96,6 +121,51 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     return keyCount == 0;
   }
 
+  // Enables or disables incremental resizing. Disabling it completes a resize in progress.
+  public void setIncrementalResize(boolean enabled) {
+    if (!enabled) finishMigration();
+    incrementalResize = enabled;
+  }
+
+  public boolean isIncrementalResize() {
+    return incrementalResize;
+  }
+
+  // Returns true while an incremental resize has keys left in the old arrays
+  public boolean isResizing() {
+    return oldKeys != null;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled
+  public HashTableStats getStats() {
+    if (stats == null) return null;
+    int used = 0, tombstones = 0;
+    for (int i = 0; i < bucketCount(); i++) {
+      K key = i < capacity ? keys[i] : oldKeys[i - capacity];
+      if (key != null) used++;
+      if (key == TOMBSTONE) tombstones++;
+    }
+    stats.setOccupancy(bucketCount(), used, tombstones);
+    return stats;
+  }
+
+  private int bucketCount() {
+    return capacity + (oldKeys == null ? 0 : oldCapacity);
+  }
+
+  // Records the probes of the finished operation, the last search of which inspected `lastProbes`
+  // buckets.
+  private void recordProbes(HashTableStats.Operation operation, int lastProbes) {
+    stats.recordProbes(operation, probes + lastProbes);
+    probes = 0;
+  }
+
   public V put(K key, V value) {
     return insert(key, value);
   }
@@ -114,6 +184,8 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     List<K> hashtableKeys = new ArrayList<>(size());
     for (int i = 0; i < capacity; i++)
       if (keys[i] != null && keys[i] != TOMBSTONE) hashtableKeys.add(keys[i]);
+    for (int i = 0; oldKeys != null && i < oldCapacity; i++)
+      if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) hashtableKeys.add(oldKeys[i]);
     return hashtableKeys;
   }
 
@@ -122,11 +194,18 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     List<V> hashtableValues = new ArrayList<>(size());
     for (int i = 0; i < capacity; i++)
       if (keys[i] != null && keys[i] != TOMBSTONE) hashtableValues.add(values[i]);
+    for (int i = 0; oldKeys != null && i < oldCapacity; i++)
+      if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE) hashtableValues.add(oldValues[i]);
     return hashtableValues;
   }
 
   // Double the size of the hash-table
   protected void resizeTable() {
+    if (incrementalResize) {
+      startMigration();
+      return;
+    }
+    long start = stats == null ? 0 : System.nanoTime();
     increaseCapacity();
     adjustCapacity();
 
@@ -149,12 +228,101 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     // re-insert all the keys into the hash-table.
     keyCount = usedBuckets = 0;
 
+    // Re-inserting the keys is not recorded as insertions
+    HashTableStats tableStats = stats;
+    stats = null;
     for (int i = 0; i < oldKeyTable.length; i++) {
       if (oldKeyTable[i] != null && oldKeyTable[i] != TOMBSTONE)
         insert(oldKeyTable[i], oldValueTable[i]);
       oldValueTable[i] = null;
       oldKeyTable[i] = null;
     }
+    stats = tableStats;
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Allocates the larger arrays and keeps the current ones as the old arrays, whose keys are moved
+  // over a few buckets at a time by the following insertions and removals.
+  private void startMigration() {
+    finishMigration();
+    long start = stats == null ? 0 : System.nanoTime();
+    oldKeys = keys;
+    oldValues = values;
+    oldCapacity = capacity;
+    migrationIndex = 0;
+
+    increaseCapacity();
+    adjustCapacity();
+    threshold = (int) (capacity * loadFactor);
+    keys = (K[]) new Object[capacity];
+    values = (V[]) new Object[capacity];
+    usedBuckets = 0;
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Moves the keys of the next `count` old buckets to the new arrays.
+  private void migrateBuckets(int count) {
+    if (oldKeys == null) return;
+    long start = stats == null ? 0 : System.nanoTime();
+    int end = (int) Math.min(oldCapacity, (long) migrationIndex + count);
+    for (; migrationIndex < end; migrationIndex++) {
+      K key = oldKeys[migrationIndex];
+      if (key == null || key == TOMBSTONE) continue;
+      placeMigratedKey(key, oldValues[migrationIndex]);
+      // Leave a tombstone rather than null, which would cut the probe
+      // sequences of the keys still in the old arrays.
+      oldKeys[migrationIndex] = TOMBSTONE;
+      oldValues[migrationIndex] = null;
+    }
+    if (migrationIndex == oldCapacity) {
+      oldKeys = null;
+      oldValues = null;
+    }
+    modificationCount++;
+    if (stats != null) stats.addResizeTime(System.nanoTime() - start);
+  }
+
+  private void finishMigration() {
+    migrateBuckets(oldCapacity);
+  }
+
+  // Puts a key from the old arrays in the first free or deleted bucket of its probe sequence. A key
+  // is only ever in one of the two tables, so it cannot already be in the new arrays.
+  private void placeMigratedKey(K key, V value) {
+    setupProbing(key);
+    final int offset = normalizeIndex(key.hashCode());
+    int i = offset;
+    for (int x = 1; keys[i] != null && keys[i] != TOMBSTONE; )
+      i = normalizeIndex(offset + probe(x++));
+    if (keys[i] == null) usedBuckets++;
+    keys[i] = key;
+    values[i] = value;
+  }
+
+  // Swaps the current arrays with the old arrays. The probing methods work on the current arrays
+  // and capacity, so lookups in the old arrays run between two swaps.
+  private void swapTables() {
+    K[] keysTmp = keys;
+    keys = oldKeys;
+    oldKeys = keysTmp;
+    V[] valuesTmp = values;
+    values = oldValues;
+    oldValues = valuesTmp;
+    int capacityTmp = capacity;
+    capacity = oldCapacity;
+    oldCapacity = capacityTmp;
+  }
+
+  // Returns the index of the key in the old arrays, or -1 if it is not there.
+  private int oldIndexOf(K key) {
+    if (oldKeys == null) return -1;
+    swapTables();
+    try {
+      // Relocating keys in the old arrays could move them behind the migration index.
+      return indexOf(key, false);
+    } finally {
+      swapTables();
+    }
   }
 
   // Converts a hash value to an index. Essentially, this strips the
@@ -175,6 +343,19 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     if (key == null) throw new IllegalArgumentException("Null key");
     if (usedBuckets >= threshold) resizeTable();
 
+    if (oldKeys != null) {
+      migrateBuckets(MIGRATION_STEP);
+      // The key is updated where it is if it has not been moved yet
+      int i = oldIndexOf(key);
+      if (i != -1) {
+        V oldValue = oldValues[i];
+        oldValues[i] = val;
+        modificationCount++;
+        if (stats != null) recordProbes(HashTableStats.Operation.INSERT, 0);
+        return oldValue;
+      }
+    }
+
     setupProbing(key);
     final int offset = normalizeIndex(key.hashCode());
 
@@ -200,6 +381,7 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
             values[j] = val;
           }
           modificationCount++;
+          if (stats != null) recordProbes(HashTableStats.Operation.INSERT, x);
           return oldValue;
         }
 
@@ -222,6 +404,7 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
         }
 
         modificationCount++;
+        if (stats != null) recordProbes(HashTableStats.Operation.INSERT, x);
         return null;
       }
     }
@@ -230,43 +413,9 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
   // Returns true/false on whether a given key exists within the hash-table
   public boolean hasKey(K key) {
     if (key == null) throw new IllegalArgumentException("Null key");
-
-    setupProbing(key);
-    final int offset = normalizeIndex(key.hashCode());
-
-    // Start at the original hash value and probe until we find a spot where our key
-    // is or hit a null element in which case our element does not exist.
-    for (int i = offset, j = -1, x = 1; ; i = normalizeIndex(offset + probe(x++))) {
-
-      // Ignore deleted cells, but record where the first index
-      // of a deleted cell is found to perform lazy relocation later.
-      if (keys[i] == TOMBSTONE) {
-
-        if (j == -1) j = i;
-
-        // We hit a non-null key, perhaps it's the one we're looking for.
-      } else if (keys[i] != null) {
-
-        // The key we want is in the hash-table!
-        if (keys[i].equals(key)) {
-
-          // If j != -1 this means we previously encountered a deleted cell.
-          // We can perform an optimization by swapping the entries in cells
-          // i and j so that the next time we search for this key it will be
-          // found faster. This is called lazy deletion/relocation.
-          if (j != -1) {
-            // Swap the key-value pairs of positions i and j.
-            keys[j] = keys[i];
-            values[j] = values[i];
-            keys[i] = TOMBSTONE;
-            values[i] = null;
-          }
-          return true;
-        }
-
-        // Key was not found in the hash-table :/
-      } else return false;
-    }
+    boolean found = indexOf(key, true) != -1 || oldIndexOf(key) != -1;
+    if (stats != null) recordProbes(HashTableStats.Operation.GET, 0);
+    return found;
   }
 
   // Get the value associated with the input key.
@@ -274,12 +423,21 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
   // null if the key does not exists.
   public V get(K key) {
     if (key == null) throw new IllegalArgumentException("Null key");
+    V value = null;
+    int i = indexOf(key, true);
+    if (i != -1) value = values[i];
+    else if ((i = oldIndexOf(key)) != -1) value = oldValues[i];
+    if (stats != null) recordProbes(HashTableStats.Operation.GET, 0);
+    return value;
+  }
 
+  // Returns the index of the key in the current arrays, or -1 if the key is not there.
+  private int indexOf(K key, boolean relocate) {
     setupProbing(key);
     final int offset = normalizeIndex(key.hashCode());
 
     // Start at the original hash value and probe until we find a spot where our key
-    // is or we hit a null element in which case our element does not exist.
+    // is or hit a null element in which case our element does not exist.
     for (int i = offset, j = -1, x = 1; ; i = normalizeIndex(offset + probe(x++))) {
 
       // Ignore deleted cells, but record where the first index
@@ -298,20 +456,24 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
           // We can perform an optimization by swapping the entries in cells
           // i and j so that the next time we search for this key it will be
           // found faster. This is called lazy deletion/relocation.
-          if (j != -1) {
-            // Swap key-values pairs at indexes i and j.
+          if (j != -1 && relocate) {
+            // Swap the key-value pairs of positions i and j.
             keys[j] = keys[i];
             values[j] = values[i];
             keys[i] = TOMBSTONE;
             values[i] = null;
-            return values[j];
-          } else {
-            return values[i];
+            if (stats != null) probes += x;
+            return j;
           }
+          if (stats != null) probes += x;
+          return i;
         }
 
-        // Element was not found in the hash-table :/
-      } else return null;
+        // Key was not found in the hash-table :/
+      } else {
+        if (stats != null) probes += x;
+        return -1;
+      }
     }
   }
 
@@ -320,30 +482,26 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
   // null if the key does not exists.
   public V remove(K key) {
     if (key == null) throw new IllegalArgumentException("Null key");
-
-    setupProbing(key);
-    final int offset = normalizeIndex(key.hashCode());
-
-    // Starting at the original hash probe until we find a spot where our key is
-    // or we hit a null element in which case our element does not exist.
-    for (int i = offset, x = 1; ; i = normalizeIndex(offset + probe(x++))) {
-
-      // Ignore deleted cells
-      if (keys[i] == TOMBSTONE) continue;
-
-      // Key was not found in hash-table.
-      if (keys[i] == null) return null;
-
-      // The key we want to remove is in the hash-table!
-      if (keys[i].equals(key)) {
-        keyCount--;
-        modificationCount++;
-        V oldValue = values[i];
-        keys[i] = TOMBSTONE;
-        values[i] = null;
-        return oldValue;
-      }
+    migrateBuckets(MIGRATION_STEP);
+
+    K[] table = keys;
+    V[] tableValues = values;
+    int i = indexOf(key, false);
+    if (i == -1) {
+      // The key may not have been moved out of the old arrays yet
+      table = oldKeys;
+      tableValues = oldValues;
+      i = oldIndexOf(key);
     }
+    if (stats != null) recordProbes(HashTableStats.Operation.REMOVE, 0);
+    if (i == -1) return null;
+
+    keyCount--;
+    modificationCount++;
+    V oldValue = tableValues[i];
+    table[i] = TOMBSTONE;
+    tableValues[i] = null;
+    return oldValue;
   }
 
   // Return a String view of this hash-table.
@@ -354,6 +512,9 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
     sb.append("{");
     for (int i = 0; i < capacity; i++)
       if (keys[i] != null && keys[i] != TOMBSTONE) sb.append(keys[i] + " => " + values[i] + ", ");
+    for (int i = 0; oldKeys != null && i < oldCapacity; i++)
+      if (oldKeys[i] != null && oldKeys[i] != TOMBSTONE)
+        sb.append(oldKeys[i] + " => " + oldValues[i] + ", ");
     sb.append("}");
 
     return sb.toString();
@@ -376,12 +537,18 @@ public abstract class HashTableOpenAddressingBase<K, V> implements Iterable<K> {
         return keysLeft != 0;
       }
 
-      // Find the next element and return it
+      // Find the next element and return it, the old arrays of an
+      // incremental resize follow the current arrays.
       @Override
       public K next() {
-        while (keys[index] == null || keys[index] == TOMBSTONE) index++;
-        keysLeft--;
-        return keys[index++];
+        while (true) {
+          K key = index < capacity ? keys[index] : oldKeys[index - capacity];
+          index++;
+          if (key != null && key != TOMBSTONE) {
+            keysLeft--;
+            return key;
+          }
+        }
       }
 
       @Override
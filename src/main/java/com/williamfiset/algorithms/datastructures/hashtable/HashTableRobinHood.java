@@ -0,0 +1,344 @@
+/**
+ * An implementation of a hash-table using open addressing with Robin Hood hashing, a variant of
+ * linear probing which keeps the mean and the variance of the probe lengths low even at load
+ * factors above 0.9. The longest probe length is not bounded, it still grows slowly with the size
+ * of the table.
+ *
+ * <p>Every bucket records its probe distance, i.e. how far its entry is from the bucket the entry
+ * hashes to. When an insertion meets an entry which is closer to its home bucket than the new entry
+ * is to its own ("richer"), the new entry takes the bucket and the insertion continues with the
+ * displaced entry. This evens out the probe distances of all entries, and allows a lookup to stop
+ * as soon as it meets an entry richer than the key would be at that position.
+ *
+ * <p>Removals use backward shift deletion: the entries following the removed one are moved back
+ * by one bucket until an empty bucket or an entry in its home bucket is reached. Unlike {@link
+ * HashTableOpenAddressingBase} no tombstones are left behind, so lookups never get slower because
+ * of earlier removals.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+@SuppressWarnings("unchecked")
+public class HashTableRobinHood<K, V> implements Iterable<K> {
+
+  private static final int DEFAULT_CAPACITY = 8;
+  private static final double DEFAULT_LOAD_FACTOR = 0.9;
+
+  // Probe distance marking an empty bucket.
+  private static final int EMPTY = -1;
+
+  private final double loadFactor;
+  private int capacity, mask, threshold, keyCount, modificationCount;
+
+  // The longest probe distance of any entry since the table was last rebuilt.
+  private int maxProbeDistance;
+
+  // These arrays store the entries, their hashes and their probe distances.
+  private K[] keys;
+  private V[] values;
+  private int[] hashes, distances;
+
+  // The statistics of the table (null unless enabled), and the number of buckets inspected by the
+  // last search, which is only counted while statistics are enabled.
+  private HashTableStats stats;
+  private int probes;
+
+  public HashTableRobinHood() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public HashTableRobinHood(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  // Designated constructor
+  public HashTableRobinHood(int capacity, double loadFactor) {
+    if (capacity <= 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    this.loadFactor = loadFactor;
+    allocate(Math.max(DEFAULT_CAPACITY, nextPowerOfTwo(capacity)));
+  }
+
+  private static int nextPowerOfTwo(int n) {
+    int pow2 = Integer.highestOneBit(n);
+    return pow2 == n ? n : pow2 << 1;
+  }
+
+  // Creates empty arrays of the given power of two capacity.
+  private void allocate(int capacity) {
+    this.capacity = capacity;
+    mask = capacity - 1;
+    threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    keys = (K[]) new Object[capacity];
+    values = (V[]) new Object[capacity];
+    hashes = new int[capacity];
+    distances = new int[capacity];
+    Arrays.fill(distances, EMPTY);
+    maxProbeDistance = 0;
+  }
+
+  // Spreads the bits of the hash code so that keys with similar hash codes do not cluster.
+  private static int hash(Object key) {
+    int h = key.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  public int size() {
+    return keyCount;
+  }
+
+  public boolean isEmpty() {
+    return keyCount == 0;
+  }
+
+  // Returns the capacity of the hashtable (used mostly for testing)
+  public int getCapacity() {
+    return capacity;
+  }
+
+  // Returns the longest probe distance of any entry since the table was last resized, which bounds
+  // the number of buckets a lookup inspects.
+  public int getMaxProbeDistance() {
+    return maxProbeDistance;
+  }
+
+  // Returns the mean probe distance of the entries (used mostly for testing)
+  double averageProbeDistance() {
+    long sum = 0;
+    for (int d : distances) if (d != EMPTY) sum += d;
+    return keyCount == 0 ? 0 : (double) sum / keyCount;
+  }
+
+  // Returns the variance of the probe distances of the entries, which Robin Hood insertion keeps
+  // small (used mostly for testing)
+  double probeDistanceVariance() {
+    double mean = averageProbeDistance(), sum = 0;
+    for (int d : distances) if (d != EMPTY) sum += (d - mean) * (d - mean);
+    return keyCount == 0 ? 0 : sum / keyCount;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled. Removals leave no
+  // tombstones, so the tombstone count is always 0.
+  public HashTableStats getStats() {
+    if (stats != null) stats.setOccupancy(capacity, keyCount, 0);
+    return stats;
+  }
+
+  public void clear() {
+    for (int i = 0; i < capacity; i++) {
+      keys[i] = null;
+      values[i] = null;
+      distances[i] = EMPTY;
+    }
+    keyCount = maxProbeDistance = 0;
+    modificationCount++;
+  }
+
+  public V put(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V add(K key, V value) {
+    return insert(key, value);
+  }
+
+  // Returns true/false on whether a given key exists within the hash-table.
+  public boolean containsKey(K key) {
+    return hasKey(key);
+  }
+
+  public boolean hasKey(K key) {
+    int i = indexOf(key);
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    return i != -1;
+  }
+
+  // Get the value associated with the input key.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V get(K key) {
+    int i = indexOf(key);
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    return i == -1 ? null : values[i];
+  }
+
+  // Place a key-value pair into the hash-table. If the value already
+  // exists inside the hash-table then the value is updated.
+  public V insert(K key, V value) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    if (keyCount >= threshold) resizeTable();
+
+    int h = hash(key);
+    for (int i = h & mask, d = 0; ; i = (i + 1) & mask, d++) {
+      // Any existing entry of the key is found before a richer entry.
+      if (distances[i] < d) {
+        place(key, value, h, i, d);
+        keyCount++;
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, d + 1);
+        return null;
+      }
+      if (hashes[i] == h && keys[i].equals(key)) {
+        V oldValue = values[i];
+        values[i] = value;
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, d + 1);
+        return oldValue;
+      }
+    }
+  }
+
+  // Puts the entry at bucket i, where it is probe distance d from home, and moves the entries it
+  // displaces further along, each taking the bucket of the first entry richer than itself.
+  private void place(K key, V value, int h, int i, int d) {
+    while (true) {
+      if (distances[i] == EMPTY) {
+        set(i, key, value, h, d);
+        return;
+      }
+      if (distances[i] < d) {
+        K k = keys[i];
+        V v = values[i];
+        int kh = hashes[i], kd = distances[i];
+        set(i, key, value, h, d);
+        key = k;
+        value = v;
+        h = kh;
+        d = kd;
+      }
+      i = (i + 1) & mask;
+      d++;
+    }
+  }
+
+  private void set(int i, K key, V value, int h, int d) {
+    keys[i] = key;
+    values[i] = value;
+    hashes[i] = h;
+    distances[i] = d;
+    if (d > maxProbeDistance) maxProbeDistance = d;
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V remove(K key) {
+    int i = indexOf(key);
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.REMOVE, probes);
+    if (i == -1) return null;
+    V oldValue = values[i];
+
+    // Backward shift deletion: move the following entries one bucket closer to home
+    // until an empty bucket or an entry in its home bucket is reached.
+    for (int next = (i + 1) & mask; distances[next] > 0; i = next, next = (next + 1) & mask) {
+      keys[i] = keys[next];
+      values[i] = values[next];
+      hashes[i] = hashes[next];
+      distances[i] = distances[next] - 1;
+    }
+    keys[i] = null;
+    values[i] = null;
+    distances[i] = EMPTY;
+
+    keyCount--;
+    modificationCount++;
+    return oldValue;
+  }
+
+  // Returns the bucket of the key, or -1 if the key is not in the table.
+  private int indexOf(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    int h = hash(key);
+    for (int i = h & mask, d = 0; ; i = (i + 1) & mask, d++) {
+      // An empty bucket or an entry closer to home than the key would be ends the search.
+      if (distances[i] < d) {
+        if (stats != null) probes = d + 1;
+        return -1;
+      }
+      if (hashes[i] == h && keys[i].equals(key)) {
+        if (stats != null) probes = d + 1;
+        return i;
+      }
+    }
+  }
+
+  // Double the size of the hash-table
+  private void resizeTable() {
+    K[] oldKeys = keys;
+    V[] oldValues = values;
+    int[] oldHashes = hashes, oldDistances = distances;
+    long start = stats == null ? 0 : System.nanoTime();
+    allocate(2 * capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldDistances[i] != EMPTY) {
+        place(oldKeys[i], oldValues[i], oldHashes[i], oldHashes[i] & mask, 0);
+      }
+    }
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Returns a list of keys found in the hash table
+  public List<K> keys() {
+    List<K> hashtableKeys = new ArrayList<>(size());
+    for (int i = 0; i < capacity; i++) if (distances[i] != EMPTY) hashtableKeys.add(keys[i]);
+    return hashtableKeys;
+  }
+
+  // Returns a list of non-unique values found in the hash table
+  public List<V> values() {
+    List<V> hashtableValues = new ArrayList<>(size());
+    for (int i = 0; i < capacity; i++) if (distances[i] != EMPTY) hashtableValues.add(values[i]);
+    return hashtableValues;
+  }
+
+  // Return a String view of this hash-table.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{");
+    for (int i = 0; i < capacity; i++)
+      if (distances[i] != EMPTY) sb.append(keys[i] + " => " + values[i] + ", ");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    final int MODIFICATION_COUNT = modificationCount;
+
+    return new Iterator<K>() {
+      int index, keysLeft = keyCount;
+
+      @Override
+      public boolean hasNext() {
+        // The contents of the table have been altered
+        if (MODIFICATION_COUNT != modificationCount) throw new ConcurrentModificationException();
+        return keysLeft != 0;
+      }
+
+      @Override
+      public K next() {
+        while (distances[index] == EMPTY) index++;
+        keysLeft--;
+        return keys[index++];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -1,6 +1,13 @@
 /**
  * An implementation of a hash-table using separate chaining with a linked list.
  *
+ * <p>With incremental resizing enabled, growing the table allocates the new bucket array but keeps
+ * the old one, and every insertion or removal of a key moves a bounded number of old buckets over.
+ * Lookups check both arrays until the old one is empty, so no single insertion rehashes every key.
+ *
+ * <p>Statistics about chain lengths and resizes are collected once enabled with
+ * setStatsEnabled(true), see {@link HashTableStats}.
+ *
  * @author William Fiset, william.alexandre.fiset@gmail.com
  */
 package com.williamfiset.algorithms.datastructures.hashtable;
@@ -41,10 +48,24 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
   private static final int DEFAULT_CAPACITY = 3;
   private static final double DEFAULT_LOAD_FACTOR = 0.75;
 
+  // The number of old buckets moved to the new table by each insertion or removal.
+  private static final int MIGRATION_STEP = 8;
+
   private double maxLoadFactor;
   private int capacity, threshold, size = 0;
   private LinkedList<Entry<K, V>>[] table;
 
+  // The table being emptied by an incremental resize (null when no resize is
+  // in progress), and the index of the next bucket to move out of it.
+  private boolean incrementalResize;
+  private LinkedList<Entry<K, V>>[] oldTable;
+  private int migrationIndex;
+
+  // The statistics of the table (null unless enabled), and the number of entries compared so far
+  // by the current operation, which is only counted while statistics are enabled.
+  private HashTableStats stats;
+  private int probes;
+
   public HashTableSeparateChaining() {
     this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
   }
@@ -74,15 +95,62 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
     return size == 0;
   }
 
+  // Enables or disables incremental resizing. Disabling it completes a resize in progress.
+  public void setIncrementalResize(boolean enabled) {
+    if (!enabled) finishMigration();
+    incrementalResize = enabled;
+  }
+
+  public boolean isIncrementalResize() {
+    return incrementalResize;
+  }
+
+  // Returns true while an incremental resize has entries left in the old table
+  public boolean isResizing() {
+    return oldTable != null;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled
+  public HashTableStats getStats() {
+    if (stats == null) return null;
+    int used = 0, maxChainLength = 0;
+    for (int i = 0; i < bucketCount(); i++) {
+      LinkedList<Entry<K, V>> bucket = bucketAt(i);
+      if (bucket == null || bucket.isEmpty()) continue;
+      used++;
+      maxChainLength = Math.max(maxChainLength, bucket.size());
+    }
+    stats.setOccupancy(bucketCount(), used, 0);
+    stats.setMaxChainLength(maxChainLength);
+    return stats;
+  }
+
+  // Records the entries compared by the finished operation.
+  private void recordProbes(HashTableStats.Operation operation) {
+    stats.recordProbes(operation, probes);
+    probes = 0;
+  }
+
   // Converts a hash value to an index. Essentially, this strips the
   // negative sign and places the hash value in the domain [0, capacity)
   private int normalizeIndex(int keyHash) {
     return (keyHash & 0x7FFFFFFF) % capacity;
   }
 
+  private int oldIndex(int keyHash) {
+    return (keyHash & 0x7FFFFFFF) % oldTable.length;
+  }
+
   // Clears all the contents of the hash-table
   public void clear() {
     Arrays.fill(table, null);
+    oldTable = null;
     size = 0;
   }
 
@@ -92,8 +160,9 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 
   // Returns true/false depending on whether a key is in the hash table
   public boolean hasKey(K key) {
-    int bucketIndex = normalizeIndex(key.hashCode());
-    return bucketSeekEntry(bucketIndex, key) != null;
+    boolean found = seekEntry(key) != null;
+    if (stats != null) recordProbes(HashTableStats.Operation.GET);
+    return found;
   }
 
   // Insert, put and add all place a value in the hash-table
@@ -109,6 +178,18 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 
     if (key == null) throw new IllegalArgumentException("Null key");
     Entry<K, V> newEntry = new Entry<>(key, value);
+
+    // A key which has not been moved out of the old table yet is updated there
+    if (oldTable != null) {
+      Entry<K, V> oldEntry = bucketSeekEntry(oldTable, oldIndex(newEntry.hash), key);
+      if (oldEntry != null) {
+        V oldVal = oldEntry.value;
+        oldEntry.value = value;
+        if (stats != null) recordProbes(HashTableStats.Operation.INSERT);
+        return oldVal;
+      }
+    }
+
     int bucketIndex = normalizeIndex(newEntry.hash);
     return bucketInsertEntry(bucketIndex, newEntry);
   }
@@ -119,8 +200,8 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
   public V get(K key) {
 
     if (key == null) return null;
-    int bucketIndex = normalizeIndex(key.hashCode());
-    Entry<K, V> entry = bucketSeekEntry(bucketIndex, key);
+    Entry<K, V> entry = seekEntry(key);
+    if (stats != null) recordProbes(HashTableStats.Operation.GET);
     if (entry != null) return entry.value;
     return null;
   }
@@ -131,20 +212,22 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
   public V remove(K key) {
 
     if (key == null) return null;
-    int bucketIndex = normalizeIndex(key.hashCode());
-    return bucketRemoveEntry(bucketIndex, key);
+    int hash = key.hashCode();
+    Entry<K, V> entry = bucketRemoveEntry(table, normalizeIndex(hash), key);
+    if (entry == null && oldTable != null) entry = bucketRemoveEntry(oldTable, oldIndex(hash), key);
+    if (stats != null) recordProbes(HashTableStats.Operation.REMOVE);
+    if (entry == null) return null;
+    --size;
+    migrateBuckets(MIGRATION_STEP);
+    return entry.value;
   }
 
-  // Removes an entry from a given bucket if it exists
-  private V bucketRemoveEntry(int bucketIndex, K key) {
+  // Removes an entry from a given bucket if it exists and returns it
+  private Entry<K, V> bucketRemoveEntry(LinkedList<Entry<K, V>>[] buckets, int bucketIndex, K key) {
 
-    Entry<K, V> entry = bucketSeekEntry(bucketIndex, key);
-    if (entry != null) {
-      LinkedList<Entry<K, V>> links = table[bucketIndex];
-      links.remove(entry);
-      --size;
-      return entry.value;
-    } else return null;
+    Entry<K, V> entry = bucketSeekEntry(buckets, bucketIndex, key);
+    if (entry != null) buckets[bucketIndex].remove(entry);
+    return entry;
   }
 
   // Inserts an entry in a given bucket only if the entry does not already
@@ -154,9 +237,11 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
     LinkedList<Entry<K, V>> bucket = table[bucketIndex];
     if (bucket == null) table[bucketIndex] = bucket = new LinkedList<>();
 
-    Entry<K, V> existentEntry = bucketSeekEntry(bucketIndex, entry.key);
+    Entry<K, V> existentEntry = bucketSeekEntry(table, bucketIndex, entry.key);
+    if (stats != null) recordProbes(HashTableStats.Operation.INSERT);
     if (existentEntry == null) {
       bucket.add(entry);
+      migrateBuckets(MIGRATION_STEP);
       if (++size > threshold) resizeTable();
       return null; // Use null to indicate that there was no previous entry
     } else {
@@ -166,19 +251,40 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
     }
   }
 
+  // Finds the entry of a key in the table, or in the old table during an incremental resize
+  private Entry<K, V> seekEntry(K key) {
+    int hash = key.hashCode();
+    Entry<K, V> entry = bucketSeekEntry(table, normalizeIndex(hash), key);
+    if (entry == null && oldTable != null) entry = bucketSeekEntry(oldTable, oldIndex(hash), key);
+    return entry;
+  }
+
   // Finds and returns a particular entry in a given bucket if it exists, returns null otherwise
-  private Entry<K, V> bucketSeekEntry(int bucketIndex, K key) {
+  private Entry<K, V> bucketSeekEntry(LinkedList<Entry<K, V>>[] buckets, int bucketIndex, K key) {
 
     if (key == null) return null;
-    LinkedList<Entry<K, V>> bucket = table[bucketIndex];
+    LinkedList<Entry<K, V>> bucket = buckets[bucketIndex];
     if (bucket == null) return null;
-    for (Entry<K, V> entry : bucket) if (entry.key.equals(key)) return entry;
+    for (Entry<K, V> entry : bucket) {
+      if (entry.key.equals(key)) {
+        // Counting the compared entries in the loop would cost even with statistics disabled
+        if (stats != null) probes += bucket.indexOf(entry) + 1;
+        return entry;
+      }
+    }
+    if (stats != null) probes += bucket.size();
     return null;
   }
 
   // Resizes the internal table holding buckets of entries
   private void resizeTable() {
 
+    if (incrementalResize) {
+      startMigration();
+      return;
+    }
+
+    long start = stats == null ? 0 : System.nanoTime();
     capacity *= 2;
     threshold = (int) (capacity * maxLoadFactor);
 
@@ -201,14 +307,62 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
     }
 
     table = newTable;
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Allocates the larger table and keeps the current one as the old table, whose
+  // buckets are moved over by the following insertions and removals.
+  private void startMigration() {
+    finishMigration();
+    long start = stats == null ? 0 : System.nanoTime();
+    oldTable = table;
+    migrationIndex = 0;
+    capacity *= 2;
+    threshold = (int) (capacity * maxLoadFactor);
+    table = new LinkedList[capacity];
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Moves the entries of the next `count` old buckets to the new table.
+  private void migrateBuckets(int count) {
+    if (oldTable == null) return;
+    long start = stats == null ? 0 : System.nanoTime();
+    int end = (int) Math.min(oldTable.length, (long) migrationIndex + count);
+    for (; migrationIndex < end; migrationIndex++) {
+      if (oldTable[migrationIndex] == null) continue;
+      for (Entry<K, V> entry : oldTable[migrationIndex]) {
+        int bucketIndex = normalizeIndex(entry.hash);
+        LinkedList<Entry<K, V>> bucket = table[bucketIndex];
+        if (bucket == null) table[bucketIndex] = bucket = new LinkedList<>();
+        bucket.add(entry);
+      }
+      oldTable[migrationIndex] = null;
+    }
+    if (migrationIndex == oldTable.length) oldTable = null;
+    if (stats != null) stats.addResizeTime(System.nanoTime() - start);
+  }
+
+  private void finishMigration() {
+    if (oldTable != null) migrateBuckets(oldTable.length);
+  }
+
+  // The buckets of the old table follow the buckets of the table when iterating
+  private LinkedList<Entry<K, V>> bucketAt(int index) {
+    return index < capacity ? table[index] : oldTable[index - capacity];
+  }
+
+  private int bucketCount() {
+    return capacity + (oldTable == null ? 0 : oldTable.length);
   }
 
   // Returns the list of keys found within the hash table
   public List<K> keys() {
 
     List<K> keys = new ArrayList<>(size());
-    for (LinkedList<Entry<K, V>> bucket : table)
+    for (int i = 0; i < bucketCount(); i++) {
+      LinkedList<Entry<K, V>> bucket = bucketAt(i);
       if (bucket != null) for (Entry<K, V> entry : bucket) keys.add(entry.key);
+    }
     return keys;
   }
 
@@ -216,8 +370,10 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
   public List<V> values() {
 
     List<V> values = new ArrayList<>(size());
-    for (LinkedList<Entry<K, V>> bucket : table)
+    for (int i = 0; i < bucketCount(); i++) {
+      LinkedList<Entry<K, V>> bucket = bucketAt(i);
       if (bucket != null) for (Entry<K, V> entry : bucket) values.add(entry.value);
+    }
     return values;
   }
 
@@ -240,11 +396,11 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
         if (bucketIter == null || !bucketIter.hasNext()) {
 
           // Search next buckets until a valid iterator is found
-          while (++bucketIndex < capacity) {
-            if (table[bucketIndex] != null) {
+          while (++bucketIndex < bucketCount()) {
+            if (bucketAt(bucketIndex) != null) {
 
               // Make sure this iterator actually has elements -_-
-              java.util.Iterator<Entry<K, V>> nextIter = table[bucketIndex].iterator();
+              java.util.Iterator<Entry<K, V>> nextIter = bucketAt(bucketIndex).iterator();
               if (nextIter.hasNext()) {
                 bucketIter = nextIter;
                 break;
@@ -252,7 +408,7 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
             }
           }
         }
-        return bucketIndex < capacity;
+        return bucketIndex < bucketCount();
       }
 
       @Override
@@ -273,9 +429,9 @@ public class HashTableSeparateChaining<K, V> implements Iterable<K> {
 
     StringBuilder sb = new StringBuilder();
     sb.append("{");
-    for (int i = 0; i < capacity; i++) {
-      if (table[i] == null) continue;
-      for (Entry<K, V> entry : table[i]) sb.append(entry + ", ");
+    for (int i = 0; i < bucketCount(); i++) {
+      if (bucketAt(i) == null) continue;
+      for (Entry<K, V> entry : bucketAt(i)) sb.append(entry + ", ");
     }
     sb.append("}");
     return sb.toString();
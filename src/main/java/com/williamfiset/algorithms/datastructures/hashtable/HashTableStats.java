@@ -0,0 +1,160 @@
+/**
+ * Statistics collected by a hash table while they are enabled with setStatsEnabled(true). Tables
+ * only touch this class behind a null check, so a table with statistics disabled does no extra
+ * work on lookups, insertions or removals.
+ *
+ * <p>The probe length of an operation is the number of buckets it inspects: slots for the open
+ * addressing tables, groups for {@link HashTableSwiss}, and chain entries compared for the
+ * separate chaining tables (where a miss in an empty bucket has length 0). Probe lengths are
+ * recorded per operation type in a histogram whose last bin also counts all longer probes.
+ *
+ * <p>The occupancy numbers (used buckets, tombstones and the longest chain) describe the table at
+ * the last call to its getStats() method. Counters are atomic so that concurrent tables can share
+ * one instance between threads.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public final class HashTableStats {
+
+  public enum Operation {
+    GET,
+    INSERT,
+    REMOVE
+  }
+
+  // The number of bins of every probe length histogram.
+  public static final int HISTOGRAM_SIZE = 32;
+
+  private static final int OPERATIONS = Operation.values().length;
+
+  private final AtomicLongArray histograms = new AtomicLongArray(OPERATIONS * HISTOGRAM_SIZE);
+  private final AtomicLongArray totalProbes = new AtomicLongArray(OPERATIONS);
+  private final AtomicIntegerArray maxProbes = new AtomicIntegerArray(OPERATIONS);
+  private final AtomicLong resizeCount = new AtomicLong(), resizeNanos = new AtomicLong();
+
+  private volatile int buckets, usedBuckets, tombstones, maxChainLength;
+
+  HashTableStats() {}
+
+  void recordProbes(Operation operation, int probes) {
+    int op = operation.ordinal();
+    histograms.incrementAndGet(op * HISTOGRAM_SIZE + Math.min(probes, HISTOGRAM_SIZE - 1));
+    totalProbes.addAndGet(op, probes);
+    if (probes > maxProbes.get(op)) maxProbes.accumulateAndGet(op, probes, Math::max);
+  }
+
+  // Records a resize which took `nanos` nanoseconds.
+  void recordResize(long nanos) {
+    resizeCount.incrementAndGet();
+    resizeNanos.addAndGet(nanos);
+  }
+
+  // Adds time spent on a resize which was already counted, such as a step of an incremental
+  // resize.
+  void addResizeTime(long nanos) {
+    resizeNanos.addAndGet(nanos);
+  }
+
+  void setOccupancy(int buckets, int usedBuckets, int tombstones) {
+    this.buckets = buckets;
+    this.usedBuckets = usedBuckets;
+    this.tombstones = tombstones;
+  }
+
+  void setMaxChainLength(int maxChainLength) {
+    this.maxChainLength = maxChainLength;
+  }
+
+  // Returns a copy of the probe length histogram of the operation, where bin i counts the
+  // operations which inspected i buckets.
+  public long[] getProbeHistogram(Operation operation) {
+    long[] histogram = new long[HISTOGRAM_SIZE];
+    for (int i = 0; i < HISTOGRAM_SIZE; i++)
+      histogram[i] = histograms.get(operation.ordinal() * HISTOGRAM_SIZE + i);
+    return histogram;
+  }
+
+  // Returns the number of recorded operations of the given type
+  public long getOperationCount(Operation operation) {
+    long count = 0;
+    for (long bin : getProbeHistogram(operation)) count += bin;
+    return count;
+  }
+
+  public double getAverageProbeLength(Operation operation) {
+    long count = getOperationCount(operation);
+    return count == 0 ? 0 : (double) totalProbes.get(operation.ordinal()) / count;
+  }
+
+  public int getMaxProbeLength(Operation operation) {
+    return maxProbes.get(operation.ordinal());
+  }
+
+  // Returns the length of the longest chain of a separate chaining table (0 for other tables)
+  public int getMaxChainLength() {
+    return maxChainLength;
+  }
+
+  public int getBuckets() {
+    return buckets;
+  }
+
+  // Returns the number of buckets which are not free, including tombstones
+  public int getUsedBuckets() {
+    return usedBuckets;
+  }
+
+  public int getTombstones() {
+    return tombstones;
+  }
+
+  // Returns the fraction of the used buckets which are tombstones
+  public double getTombstoneRatio() {
+    int used = usedBuckets;
+    return used == 0 ? 0 : (double) tombstones / used;
+  }
+
+  public long getResizeCount() {
+    return resizeCount.get();
+  }
+
+  // Returns the total time spent resizing, in nanoseconds
+  public long getResizeNanos() {
+    return resizeNanos.get();
+  }
+
+  // Clears the recorded operations and resizes
+  public void reset() {
+    for (int i = 0; i < histograms.length(); i++) histograms.set(i, 0);
+    for (int op = 0; op < OPERATIONS; op++) {
+      totalProbes.set(op, 0);
+      maxProbes.set(op, 0);
+    }
+    resizeCount.set(0);
+    resizeNanos.set(0);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (Operation operation : Operation.values()) {
+      sb.append(
+          String.format(
+              "%s: %d ops, avg probes %.2f, max probes %d%n",
+              operation,
+              getOperationCount(operation),
+              getAverageProbeLength(operation),
+              getMaxProbeLength(operation)));
+    }
+    sb.append(
+        String.format(
+            "buckets %d, used %d, tombstones %d (%.1f%%), max chain %d%n",
+            buckets, usedBuckets, tombstones, 100 * getTombstoneRatio(), maxChainLength));
+    sb.append(String.format("resizes %d, %.3f ms", getResizeCount(), getResizeNanos() / 1e6));
+    return sb.toString();
+  }
+}
@@ -0,0 +1,351 @@
+/**
+ * An implementation of a hash-table in the style of Google's SwissTable. Besides the key and value
+ * arrays, the table keeps one control byte per bucket which is either EMPTY, DELETED or holds 7
+ * bits of the key's hash. The buckets are split into groups of 8 whose control bytes are packed in
+ * one long, so a whole group is checked with a few word operations (SWAR, SIMD within a register):
+ * only buckets whose hash fragment matches are compared with the key, which means that a lookup
+ * rarely calls equals on a key other than the one it is looking for.
+ *
+ * <p>Groups are probed quadratically and a search stops at the first group with an EMPTY bucket,
+ * which makes unsuccessful lookups cheap even at the maximum load factor of 7/8.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+@SuppressWarnings("unchecked")
+public class HashTableSwiss<K, V> implements Iterable<K> {
+
+  static final int GROUP_SIZE = 8;
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  // Control bytes. A full bucket holds the low 7 bits of its key's hash, so its high bit is clear.
+  static final int EMPTY = 0x80, DELETED = 0xFE;
+
+  // Byte masks used by the SWAR group scans.
+  static final long LSBS = 0x0101010101010101L, MSBS = 0x8080808080808080L;
+
+  // Every group stores the control bytes of its 8 buckets, bucket j of the group in byte j.
+  private long[] control;
+  private K[] keys;
+  private V[] values;
+
+  private int capacity, groupMask, keyCount, modificationCount;
+
+  // The number of EMPTY buckets which may still be filled before the table must be rebuilt.
+  private int growthLeft;
+
+  // The statistics of the table (null unless enabled), and the number of groups inspected by the
+  // last search, which is only counted while statistics are enabled.
+  private HashTableStats stats;
+  private int probes;
+
+  public HashTableSwiss() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  // Creates a table able to hold `capacity` keys without being resized.
+  public HashTableSwiss(int capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    allocate(bucketsFor(capacity));
+  }
+
+  // Returns the number of buckets needed to hold `keys` keys at a load factor of at most 7/8.
+  private static int bucketsFor(int keys) {
+    long buckets = Math.max(GROUP_SIZE, ((long) keys * 8 + 6) / 7);
+    if (buckets > MAXIMUM_CAPACITY) throw new IllegalArgumentException("Capacity too large");
+    int pow2 = Integer.highestOneBit((int) buckets);
+    return pow2 == buckets ? pow2 : pow2 << 1;
+  }
+
+  private void allocate(int buckets) {
+    capacity = buckets;
+    groupMask = buckets / GROUP_SIZE - 1;
+    control = new long[buckets / GROUP_SIZE];
+    Arrays.fill(control, EMPTY * LSBS);
+    keys = (K[]) new Object[buckets];
+    values = (V[]) new Object[buckets];
+    // One bucket in 8 always stays EMPTY, so every probe sequence reaches a group with an EMPTY
+    // bucket and searches terminate.
+    growthLeft = buckets - buckets / 8;
+  }
+
+  // Scrambles the hash code (the finalizer of MurmurHash3) so that both the group index taken from
+  // the upper bits and the fragment taken from the lower 7 bits are well distributed.
+  private static int hash(Object key) {
+    int h = key.hashCode();
+    h = (h ^ (h >>> 16)) * 0x85ebca6b;
+    h = (h ^ (h >>> 13)) * 0xc2b2ae35;
+    return h ^ (h >>> 16);
+  }
+
+  // Returns a word with the high bit set in every byte of the group equal to b. A byte equal to
+  // b ^ 1 just above a match may be reported as well, so candidates must be checked.
+  static long matchByte(long group, int b) {
+    long x = group ^ (LSBS * b);
+    return (x - LSBS) & ~x & MSBS;
+  }
+
+  // Returns a word with the high bit set in every EMPTY byte of the group. EMPTY is the only
+  // control byte with bit 7 set and bit 1 clear.
+  static long matchEmpty(long group) {
+    return group & ~(group << 6) & MSBS;
+  }
+
+  // Returns a word with the high bit set in every EMPTY or DELETED byte of the group.
+  static long matchEmptyOrDeleted(long group) {
+    return group & MSBS;
+  }
+
+  // Returns the bucket index of the lowest byte flagged in a match word of group g.
+  private static int bucket(int g, long match) {
+    return g * GROUP_SIZE + (Long.numberOfTrailingZeros(match) >>> 3);
+  }
+
+  private int controlByte(int bucket) {
+    return (int) (control[bucket / GROUP_SIZE] >>> ((bucket % GROUP_SIZE) * 8)) & 0xFF;
+  }
+
+  private void setControlByte(int bucket, int b) {
+    int shift = (bucket % GROUP_SIZE) * 8;
+    int g = bucket / GROUP_SIZE;
+    control[g] = (control[g] & ~(0xFFL << shift)) | ((long) b << shift);
+  }
+
+  public int size() {
+    return keyCount;
+  }
+
+  public boolean isEmpty() {
+    return keyCount == 0;
+  }
+
+  // Returns the number of buckets (used mostly for testing)
+  public int getCapacity() {
+    return capacity;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the table, or null if they are not enabled. Probe lengths count
+  // groups, and DELETED buckets are the tombstones.
+  public HashTableStats getStats() {
+    if (stats == null) return null;
+    int deleted = 0;
+    for (int i = 0; i < capacity; i++) if (controlByte(i) == DELETED) deleted++;
+    stats.setOccupancy(capacity, keyCount + deleted, deleted);
+    return stats;
+  }
+
+  public void clear() {
+    Arrays.fill(control, EMPTY * LSBS);
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    keyCount = 0;
+    growthLeft = capacity - capacity / 8;
+    modificationCount++;
+  }
+
+  public V put(K key, V value) {
+    return insert(key, value);
+  }
+
+  public V add(K key, V value) {
+    return insert(key, value);
+  }
+
+  // Returns true/false on whether a given key exists within the hash-table.
+  public boolean containsKey(K key) {
+    return hasKey(key);
+  }
+
+  public boolean hasKey(K key) {
+    int i = indexOf(key, hash(checkKey(key)));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    return i != -1;
+  }
+
+  // Get the value associated with the input key.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V get(K key) {
+    int i = indexOf(key, hash(checkKey(key)));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.GET, probes);
+    return i == -1 ? null : values[i];
+  }
+
+  private static <K> K checkKey(K key) {
+    if (key == null) throw new IllegalArgumentException("Null key");
+    return key;
+  }
+
+  // Returns the bucket holding the key, or -1 if the key is not in the table.
+  private int indexOf(K key, int hash) {
+    int fragment = hash & 0x7F;
+    for (int g = (hash >>> 7) & groupMask, step = 1; ; g = (g + step++) & groupMask) {
+      long group = control[g];
+      for (long match = matchByte(group, fragment); match != 0; match &= match - 1) {
+        int i = bucket(g, match);
+        if (key.equals(keys[i])) {
+          if (stats != null) probes = step;
+          return i;
+        }
+      }
+      if (matchEmpty(group) != 0) {
+        if (stats != null) probes = step;
+        return -1;
+      }
+    }
+  }
+
+  // Place a key-value pair into the hash-table. If the value already
+  // exists inside the hash-table then the value is updated.
+  public V insert(K key, V value) {
+    int hash = hash(checkKey(key));
+    int i = indexOf(key, hash);
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, probes);
+    if (i != -1) {
+      V oldValue = values[i];
+      values[i] = value;
+      modificationCount++;
+      return oldValue;
+    }
+
+    i = findInsertSlot(hash);
+    // The table is rebuilt before it would fill an EMPTY bucket reserved by the load factor,
+    // reusing a DELETED bucket does not use up any of them.
+    if (controlByte(i) == EMPTY && growthLeft == 0) {
+      rehash();
+      i = findInsertSlot(hash);
+    }
+    if (controlByte(i) == EMPTY) growthLeft--;
+    setControlByte(i, hash & 0x7F);
+    keys[i] = key;
+    values[i] = value;
+    keyCount++;
+    modificationCount++;
+    return null;
+  }
+
+  // Returns the first EMPTY or DELETED bucket of the probe sequence of the hash.
+  private int findInsertSlot(int hash) {
+    for (int g = (hash >>> 7) & groupMask, step = 1; ; g = (g + step++) & groupMask) {
+      long match = matchEmptyOrDeleted(control[g]);
+      if (match != 0) return bucket(g, match);
+    }
+  }
+
+  // Removes a key from the map and returns the value.
+  // NOTE: returns null if the value is null AND also returns
+  // null if the key does not exists.
+  public V remove(K key) {
+    int i = indexOf(key, hash(checkKey(key)));
+    if (stats != null) stats.recordProbes(HashTableStats.Operation.REMOVE, probes);
+    if (i == -1) return null;
+    V oldValue = values[i];
+    keys[i] = null;
+    values[i] = null;
+
+    // A group which still has an EMPTY bucket never stopped being a place where searches end, so
+    // no probe sequence continues past it and the bucket can become EMPTY again. Otherwise some
+    // search may depend on the group being full and a DELETED marker is left.
+    if (matchEmpty(control[i / GROUP_SIZE]) != 0) {
+      setControlByte(i, EMPTY);
+      growthLeft++;
+    } else {
+      setControlByte(i, DELETED);
+    }
+    keyCount--;
+    modificationCount++;
+    return oldValue;
+  }
+
+  // Rebuilds the table without DELETED buckets. The capacity is doubled unless the keys fill at
+  // most 25/32 of the buckets, in which case enough DELETED buckets are reclaimed to make the next
+  // rebuild a long way off.
+  private void rehash() {
+    long[] oldControl = control;
+    K[] oldKeys = keys;
+    V[] oldValues = values;
+    long start = stats == null ? 0 : System.nanoTime();
+    int maxKeys = capacity - capacity / 8;
+    int buckets = (long) keyCount * 32 <= (long) capacity * 25 ? capacity : bucketsFor(2 * maxKeys);
+    allocate(buckets);
+
+    for (int g = 0; g < oldControl.length; g++) {
+      // Visit the full buckets of the group, whose control bytes have the high bit clear.
+      for (long full = ~oldControl[g] & MSBS; full != 0; full &= full - 1) {
+        int b = bucket(g, full);
+        int hash = hash(oldKeys[b]);
+        int i = findInsertSlot(hash);
+        setControlByte(i, hash & 0x7F);
+        keys[i] = oldKeys[b];
+        values[i] = oldValues[b];
+        growthLeft--;
+      }
+    }
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+
+  // Returns a list of keys found in the hash table
+  public List<K> keys() {
+    List<K> hashtableKeys = new ArrayList<>(size());
+    for (int i = 0; i < capacity; i++) if (controlByte(i) < EMPTY) hashtableKeys.add(keys[i]);
+    return hashtableKeys;
+  }
+
+  // Returns a list of non-unique values found in the hash table
+  public List<V> values() {
+    List<V> hashtableValues = new ArrayList<>(size());
+    for (int i = 0; i < capacity; i++) if (controlByte(i) < EMPTY) hashtableValues.add(values[i]);
+    return hashtableValues;
+  }
+
+  // Return a String view of this hash-table.
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("{");
+    for (int i = 0; i < capacity; i++)
+      if (controlByte(i) < EMPTY) sb.append(keys[i] + " => " + values[i] + ", ");
+    sb.append("}");
+    return sb.toString();
+  }
+
+  @Override
+  public Iterator<K> iterator() {
+    final int MODIFICATION_COUNT = modificationCount;
+
+    return new Iterator<K>() {
+      int index, keysLeft = keyCount;
+
+      @Override
+      public boolean hasNext() {
+        // The contents of the table have been altered
+        if (MODIFICATION_COUNT != modificationCount) throw new ConcurrentModificationException();
+        return keysLeft != 0;
+      }
+
+      @Override
+      public K next() {
+        while (controlByte(index) >= EMPTY) index++;
+        keysLeft--;
+        return keys[index++];
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
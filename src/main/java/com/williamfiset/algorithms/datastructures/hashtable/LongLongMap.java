@@ -0,0 +1,203 @@
+/**
+ * An open addressing hash map from long keys to long values which stores both in primitive arrays,
+ * so that neither lookups nor updates allocate. The probing strategy is chosen at construction.
+ *
+ * <p>Since there is no null for primitives, reading the value of a missing key returns 0 (or the
+ * given default), use {@link #containsKey} to tell a missing key from a stored 0.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.Arrays;
+
+public class LongLongMap extends PrimitiveHashTableBase {
+
+  // Sentinel keys marking free and deleted buckets.
+  static final long FREE = 0, DELETED = Long.MIN_VALUE;
+
+  @FunctionalInterface
+  public interface LongLongConsumer {
+    void accept(long key, long value);
+  }
+
+  private long[] keys, values;
+
+  // The sentinel keys cannot be stored in the arrays, so their entries are kept here.
+  private boolean hasFreeKey, hasDeletedKey;
+  private long freeKeyValue, deletedKeyValue;
+
+  public LongLongMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LongLongMap(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR, ProbingStrategy.LINEAR);
+  }
+
+  // Designated constructor
+  public LongLongMap(int capacity, double loadFactor, ProbingStrategy probing) {
+    super(capacity, loadFactor, probing);
+    keys = new long[this.capacity];
+    values = new long[this.capacity];
+  }
+
+  public boolean containsKey(long key) {
+    if (key == FREE) return hasFreeKey;
+    if (key == DELETED) return hasDeletedKey;
+    return indexOf(key, HashTableStats.Operation.GET) != -1;
+  }
+
+  // Returns the value of the key, or 0 if the key does not exist.
+  public long get(long key) {
+    return getOrDefault(key, 0);
+  }
+
+  public long getOrDefault(long key, long defaultValue) {
+    if (key == FREE) return hasFreeKey ? freeKeyValue : defaultValue;
+    if (key == DELETED) return hasDeletedKey ? deletedKeyValue : defaultValue;
+    int i = indexOf(key, HashTableStats.Operation.GET);
+    return i == -1 ? defaultValue : values[i];
+  }
+
+  // Associates the value with the key. Returns the previous value, or 0 if the key did not exist.
+  public long put(long key, long value) {
+    if (key == FREE || key == DELETED) return putSentinel(key, value);
+    if (usedBuckets >= threshold) resizeTable();
+
+    long hash = hash(key);
+    final int step = step(hash);
+    for (int i = normalizeIndex((int) hash), j = -1, x = 1; ; i = nextProbe(i, x++, step)) {
+      long k = keys[i];
+      if (k == key) {
+        long oldValue = values[i];
+        values[i] = value;
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, x);
+        return oldValue;
+      } else if (k == DELETED) {
+        // Remember the first deleted bucket to reuse it
+        if (j == -1) j = i;
+      } else if (k == FREE) {
+        if (j == -1) {
+          usedBuckets++;
+          j = i;
+        }
+        keys[j] = key;
+        values[j] = value;
+        keyCount++;
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, x);
+        return 0;
+      }
+    }
+  }
+
+  // Removes the key. Returns its value, or 0 if the key did not exist.
+  public long remove(long key) {
+    if (key == FREE || key == DELETED) return removeSentinel(key);
+    int i = indexOf(key, HashTableStats.Operation.REMOVE);
+    if (i == -1) return 0;
+    keys[i] = DELETED;
+    keyCount--;
+    modificationCount++;
+    return values[i];
+  }
+
+  public void clear() {
+    Arrays.fill(keys, FREE);
+    hasFreeKey = hasDeletedKey = false;
+    keyCount = usedBuckets = 0;
+    modificationCount++;
+  }
+
+  // Calls the action for every entry of the map, in no particular order.
+  public void forEach(LongLongConsumer action) {
+    if (hasFreeKey) action.accept(FREE, freeKeyValue);
+    if (hasDeletedKey) action.accept(DELETED, deletedKeyValue);
+    for (int i = 0; i < capacity; i++) {
+      if (keys[i] != FREE && keys[i] != DELETED) action.accept(keys[i], values[i]);
+    }
+  }
+
+  public long[] keys() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasFreeKey) result[n++] = FREE;
+    if (hasDeletedKey) result[n++] = DELETED;
+    for (int i = 0; i < capacity; i++) {
+      if (keys[i] != FREE && keys[i] != DELETED) result[n++] = keys[i];
+    }
+    return result;
+  }
+
+  // Returns the bucket holding the key, or -1. The key must not be a sentinel.
+  private int indexOf(long key, HashTableStats.Operation operation) {
+    long hash = hash(key);
+    final int step = step(hash);
+    for (int i = normalizeIndex((int) hash), x = 1; ; i = nextProbe(i, x++, step)) {
+      long k = keys[i];
+      if (k == key || k == FREE) {
+        if (stats != null) stats.recordProbes(operation, x);
+        return k == key ? i : -1;
+      }
+    }
+  }
+
+  private long putSentinel(long key, long value) {
+    long oldValue;
+    if (key == FREE) {
+      oldValue = hasFreeKey ? freeKeyValue : 0;
+      if (!hasFreeKey) keyCount++;
+      hasFreeKey = true;
+      freeKeyValue = value;
+    } else {
+      oldValue = hasDeletedKey ? deletedKeyValue : 0;
+      if (!hasDeletedKey) keyCount++;
+      hasDeletedKey = true;
+      deletedKeyValue = value;
+    }
+    modificationCount++;
+    return oldValue;
+  }
+
+  private long removeSentinel(long key) {
+    if (key == FREE ? !hasFreeKey : !hasDeletedKey) return 0;
+    keyCount--;
+    modificationCount++;
+    if (key == FREE) {
+      hasFreeKey = false;
+      return freeKeyValue;
+    }
+    hasDeletedKey = false;
+    return deletedKeyValue;
+  }
+
+  @Override
+  protected int sentinelKeyCount() {
+    return (hasFreeKey ? 1 : 0) + (hasDeletedKey ? 1 : 0);
+  }
+
+  // Rebuilds the arrays, which drops all deleted buckets, and grows them unless most of the used
+  // buckets were deleted.
+  private void resizeTable() {
+    long start = stats == null ? 0 : System.nanoTime();
+    int tableKeys = keyCount - sentinelKeyCount();
+    long[] oldKeys = keys, oldValues = values;
+    capacity = rebuildCapacity(tableKeys);
+    threshold = (int) (capacity * loadFactor);
+    keys = new long[capacity];
+    values = new long[capacity];
+    usedBuckets = tableKeys;
+
+    for (int b = 0; b < oldKeys.length; b++) {
+      long key = oldKeys[b];
+      if (key == FREE || key == DELETED) continue;
+      long hash = hash(key);
+      final int step = step(hash);
+      int i = normalizeIndex((int) hash);
+      for (int x = 1; keys[i] != FREE; ) i = nextProbe(i, x++, step);
+      keys[i] = key;
+      values[i] = oldValues[b];
+    }
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+}
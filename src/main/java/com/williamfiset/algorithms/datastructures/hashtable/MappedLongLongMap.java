@@ -0,0 +1,368 @@
+/**
+ * An open addressing hash map from long keys to long values stored off-heap in a memory mapped
+ * file. The buckets are fixed width (a 16 byte key-value pair) and laid out in the file exactly as
+ * they are probed, so opening an existing file maps it and reads a 64 byte header, without parsing
+ * or rehashing anything. The map may be larger than memory, the operating system pages the touched
+ * buckets in and out.
+ *
+ * <p>Like {@link LongLongMap}, 0 and Long.MIN_VALUE mark free and deleted buckets and the entries
+ * of these two keys are stored in the header. Every update writes through to the mapping; {@link
+ * #force} flushes the mapping to the storage device.
+ *
+ * <p>A single mapping is limited to 2^31 bytes, so the buckets are mapped as a sequence of segments
+ * of 2^segmentShift buckets each, which allows files larger than 2GB.
+ *
+ * <p>Growing the map rehashes it into a new file next to the current one, which then replaces the
+ * current file. An I/O error while growing is rethrown as an UncheckedIOException.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+public class MappedLongLongMap extends PrimitiveHashTableBase implements Closeable {
+
+  static final long FREE = LongLongMap.FREE, DELETED = LongLongMap.DELETED;
+
+  static final int MAGIC = 0x484D4150; // "HMAP"
+  static final int VERSION = 1;
+
+  // The header: magic, version, probing strategy, capacity, load factor, key count, used buckets,
+  // flags for the sentinel keys and the values of the sentinel keys.
+  static final int HEADER_BYTES = 64;
+  private static final int PROBING = 8, CAPACITY = 12, LOAD_FACTOR = 16, KEY_COUNT = 24;
+  private static final int USED_BUCKETS = 32, FLAGS = 40, FREE_VALUE = 48, DELETED_VALUE = 56;
+  private static final int HAS_FREE_KEY = 1, HAS_DELETED_KEY = 2;
+
+  static final int BUCKET_BYTES = 16;
+  static final int DEFAULT_SEGMENT_SHIFT = 26;
+
+  private final Path path;
+  private final int shift;
+  private final long mask;
+  private MappedByteBuffer header;
+  private MappedByteBuffer[] segments;
+
+  private MappedLongLongMap(
+      Path path, int capacity, double loadFactor, ProbingStrategy probing, int segmentShift) {
+    super(capacity, loadFactor, probing);
+    if (segmentShift < 1 || segmentShift > 26) {
+      throw new IllegalArgumentException("Invalid segment shift: " + segmentShift);
+    }
+    this.path = path;
+    this.shift = segmentShift;
+    this.mask = (1L << segmentShift) - 1;
+  }
+
+  // Creates a map file at `path`, replacing any existing file.
+  public static MappedLongLongMap create(Path path, int capacity) throws IOException {
+    return create(path, capacity, DEFAULT_LOAD_FACTOR, ProbingStrategy.LINEAR);
+  }
+
+  public static MappedLongLongMap create(
+      Path path, int capacity, double loadFactor, ProbingStrategy probing) throws IOException {
+    return create(path, capacity, loadFactor, probing, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  // Creates a map file with buckets mapped in segments of 2^segmentShift buckets. Small shifts let
+  // tests exercise many segments.
+  static MappedLongLongMap create(
+      Path path, int capacity, double loadFactor, ProbingStrategy probing, int segmentShift)
+      throws IOException {
+    MappedLongLongMap map =
+        new MappedLongLongMap(path, capacity, loadFactor, probing, segmentShift);
+    // A new file reads as zeros, which is an empty table since FREE == 0.
+    Files.deleteIfExists(path);
+    map.mapFile();
+    map.header.putInt(0, MAGIC);
+    map.header.putInt(4, VERSION);
+    map.header.putInt(PROBING, probing.ordinal());
+    map.header.putInt(CAPACITY, map.capacity);
+    map.header.putDouble(LOAD_FACTOR, loadFactor);
+    return map;
+  }
+
+  // Opens a map file written by this class.
+  public static MappedLongLongMap open(Path path) throws IOException {
+    return open(path, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  static MappedLongLongMap open(Path path, int segmentShift) throws IOException {
+    int capacity, probing;
+    double loadFactor;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_BYTES) throw new IOException("Not a map file: " + path);
+      MappedByteBuffer h = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+      h.order(ByteOrder.LITTLE_ENDIAN);
+      if (h.getInt(0) != MAGIC) throw new IOException("Not a map file: " + path);
+      if (h.getInt(4) != VERSION) throw new IOException("Unsupported version: " + h.getInt(4));
+      probing = h.getInt(PROBING);
+      capacity = h.getInt(CAPACITY);
+      loadFactor = h.getDouble(LOAD_FACTOR);
+      if (probing < 0 || probing >= ProbingStrategy.values().length || capacity <= 0) {
+        throw new IOException("Corrupt map file: " + path);
+      }
+      if (!(loadFactor > 0 && loadFactor < 1)) throw new IOException("Corrupt map file: " + path);
+      if (channel.size() < HEADER_BYTES + (long) capacity * BUCKET_BYTES) {
+        throw new IOException("Truncated map file: " + path);
+      }
+    }
+
+    MappedLongLongMap map =
+        new MappedLongLongMap(
+            path, capacity, loadFactor, ProbingStrategy.values()[probing], segmentShift);
+    if (map.capacity != capacity) throw new IOException("Corrupt map file: " + path);
+    map.mapFile();
+    map.keyCount = (int) map.header.getLong(KEY_COUNT);
+    map.usedBuckets = (int) map.header.getLong(USED_BUCKETS);
+    return map;
+  }
+
+  // Maps the header and the buckets of the file, extending the file to its full size.
+  private void mapFile() throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+      header = channel.map(mode, 0, HEADER_BYTES);
+      header.order(ByteOrder.LITTLE_ENDIAN);
+
+      long perSegment = 1L << shift;
+      segments = new MappedByteBuffer[(int) ((capacity + perSegment - 1) / perSegment)];
+      for (int s = 0; s < segments.length; s++) {
+        long first = s * perSegment;
+        long length = Math.min(perSegment, capacity - first);
+        segments[s] = channel.map(mode, HEADER_BYTES + first * BUCKET_BYTES, length * BUCKET_BYTES);
+        segments[s].order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+  }
+
+  private long keyAt(int bucket) {
+    return segments[bucket >>> shift].getLong((int) (bucket & mask) * BUCKET_BYTES);
+  }
+
+  private long valueAt(int bucket) {
+    return segments[bucket >>> shift].getLong((int) (bucket & mask) * BUCKET_BYTES + 8);
+  }
+
+  private void setKey(int bucket, long key) {
+    segments[bucket >>> shift].putLong((int) (bucket & mask) * BUCKET_BYTES, key);
+  }
+
+  private void setValue(int bucket, long value) {
+    segments[bucket >>> shift].putLong((int) (bucket & mask) * BUCKET_BYTES + 8, value);
+  }
+
+  private int flags() {
+    return header.getInt(FLAGS);
+  }
+
+  private boolean hasSentinel(long key) {
+    return (flags() & (key == FREE ? HAS_FREE_KEY : HAS_DELETED_KEY)) != 0;
+  }
+
+  private void setCounts() {
+    header.putLong(KEY_COUNT, keyCount);
+    header.putLong(USED_BUCKETS, usedBuckets);
+  }
+
+  public Path getPath() {
+    return path;
+  }
+
+  public boolean containsKey(long key) {
+    if (key == FREE || key == DELETED) return hasSentinel(key);
+    return indexOf(key, HashTableStats.Operation.GET) != -1;
+  }
+
+  // Returns the value of the key, or 0 if the key does not exist.
+  public long get(long key) {
+    return getOrDefault(key, 0);
+  }
+
+  public long getOrDefault(long key, long defaultValue) {
+    if (key == FREE || key == DELETED) {
+      if (!hasSentinel(key)) return defaultValue;
+      return header.getLong(key == FREE ? FREE_VALUE : DELETED_VALUE);
+    }
+    int i = indexOf(key, HashTableStats.Operation.GET);
+    return i == -1 ? defaultValue : valueAt(i);
+  }
+
+  // Associates the value with the key. Returns the previous value, or 0 if the key did not exist.
+  public long put(long key, long value) {
+    if (key == FREE || key == DELETED) return putSentinel(key, value);
+    if (usedBuckets >= threshold) resizeTable();
+
+    long hash = hash(key);
+    final int step = step(hash);
+    for (int i = normalizeIndex((int) hash), j = -1, x = 1; ; i = nextProbe(i, x++, step)) {
+      long k = keyAt(i);
+      if (k == key) {
+        long oldValue = valueAt(i);
+        setValue(i, value);
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, x);
+        return oldValue;
+      } else if (k == DELETED) {
+        // Remember the first deleted bucket to reuse it
+        if (j == -1) j = i;
+      } else if (k == FREE) {
+        if (j == -1) {
+          usedBuckets++;
+          j = i;
+        }
+        setValue(j, value);
+        setKey(j, key);
+        keyCount++;
+        setCounts();
+        modificationCount++;
+        if (stats != null) stats.recordProbes(HashTableStats.Operation.INSERT, x);
+        return 0;
+      }
+    }
+  }
+
+  // Removes the key. Returns its value, or 0 if the key did not exist.
+  public long remove(long key) {
+    if (key == FREE || key == DELETED) return removeSentinel(key);
+    int i = indexOf(key, HashTableStats.Operation.REMOVE);
+    if (i == -1) return 0;
+    long oldValue = valueAt(i);
+    setKey(i, DELETED);
+    setValue(i, 0);
+    keyCount--;
+    setCounts();
+    modificationCount++;
+    return oldValue;
+  }
+
+  public void clear() {
+    for (MappedByteBuffer segment : segments) {
+      for (int b = 0; b < segment.limit(); b += 8) segment.putLong(b, 0);
+    }
+    header.putInt(FLAGS, 0);
+    keyCount = usedBuckets = 0;
+    setCounts();
+    modificationCount++;
+  }
+
+  // Calls the action for every entry of the map, in no particular order.
+  public void forEach(LongLongMap.LongLongConsumer action) {
+    if (hasSentinel(FREE)) action.accept(FREE, header.getLong(FREE_VALUE));
+    if (hasSentinel(DELETED)) action.accept(DELETED, header.getLong(DELETED_VALUE));
+    for (int i = 0; i < capacity; i++) {
+      long key = keyAt(i);
+      if (key != FREE && key != DELETED) action.accept(key, valueAt(i));
+    }
+  }
+
+  public long[] keys() {
+    long[] result = new long[keyCount];
+    int n = 0;
+    if (hasSentinel(FREE)) result[n++] = FREE;
+    if (hasSentinel(DELETED)) result[n++] = DELETED;
+    for (int i = 0; i < capacity; i++) {
+      long key = keyAt(i);
+      if (key != FREE && key != DELETED) result[n++] = key;
+    }
+    return result;
+  }
+
+  // Flushes all changes of the mapping to the storage device.
+  public void force() {
+    for (MappedByteBuffer segment : segments) segment.force();
+    header.force();
+  }
+
+  // Flushes the map. The buffers are unmapped by the garbage collector, the map must not be used
+  // afterwards.
+  @Override
+  public void close() {
+    force();
+    segments = null;
+    header = null;
+  }
+
+  // Returns the bucket holding the key, or -1. The key must not be a sentinel.
+  private int indexOf(long key, HashTableStats.Operation operation) {
+    long hash = hash(key);
+    final int step = step(hash);
+    for (int i = normalizeIndex((int) hash), x = 1; ; i = nextProbe(i, x++, step)) {
+      long k = keyAt(i);
+      if (k == key || k == FREE) {
+        if (stats != null) stats.recordProbes(operation, x);
+        return k == key ? i : -1;
+      }
+    }
+  }
+
+  private long putSentinel(long key, long value) {
+    int flag = key == FREE ? HAS_FREE_KEY : HAS_DELETED_KEY;
+    int position = key == FREE ? FREE_VALUE : DELETED_VALUE;
+    long oldValue = hasSentinel(key) ? header.getLong(position) : 0;
+    if (!hasSentinel(key)) {
+      keyCount++;
+      setCounts();
+    }
+    header.putLong(position, value);
+    header.putInt(FLAGS, flags() | flag);
+    modificationCount++;
+    return oldValue;
+  }
+
+  private long removeSentinel(long key) {
+    if (!hasSentinel(key)) return 0;
+    int flag = key == FREE ? HAS_FREE_KEY : HAS_DELETED_KEY;
+    int position = key == FREE ? FREE_VALUE : DELETED_VALUE;
+    long oldValue = header.getLong(position);
+    header.putInt(FLAGS, flags() & ~flag);
+    header.putLong(position, 0);
+    keyCount--;
+    setCounts();
+    modificationCount++;
+    return oldValue;
+  }
+
+  @Override
+  protected int sentinelKeyCount() {
+    return (hasSentinel(FREE) ? 1 : 0) + (hasSentinel(DELETED) ? 1 : 0);
+  }
+
+  // Rehashes the map into a new file, which drops all deleted buckets and grows the table unless
+  // most of the used buckets were deleted. The new file is then moved over the current one.
+  private void resizeTable() {
+    long start = stats == null ? 0 : System.nanoTime();
+    int tableKeys = keyCount - sentinelKeyCount();
+    Path tmp = path.resolveSibling(path.getFileName() + ".resize");
+    MappedLongLongMap reopened;
+    try {
+      try (MappedLongLongMap rebuilt =
+          create(tmp, rebuildCapacity(tableKeys), loadFactor, probing, shift)) {
+        // The capacity is already adjusted, so the new map must not grow while it is filled.
+        rebuilt.threshold = Integer.MAX_VALUE;
+        forEach(rebuilt::put);
+      }
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      reopened = open(path, shift);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    header = reopened.header;
+    segments = reopened.segments;
+    capacity = reopened.capacity;
+    threshold = reopened.threshold;
+    usedBuckets = reopened.usedBuckets;
+    keyCount = reopened.keyCount;
+    if (stats != null) stats.recordResize(System.nanoTime() - start);
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Base class for the open addressing hash maps with primitive keys such as {@link IntIntMap}. Like
+ * {@link HashTableOpenAddressingBase} it probes with one of the {@link ProbingStrategy}s, but the
+ * subclasses store keys and values in parallel primitive arrays, so no key or value is ever boxed.
+ * Free and deleted slots are marked with two reserved sentinel keys, and entries whose key happens
+ * to be a sentinel are stored outside of the arrays.
+ *
+ * <p>Statistics about probe lengths, deleted buckets and resizes are collected once enabled with
+ * setStatsEnabled(true), see {@link HashTableStats}.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+public abstract class PrimitiveHashTableBase {
+
+  protected static final int DEFAULT_CAPACITY = 7;
+  protected static final double DEFAULT_LOAD_FACTOR = 0.65;
+
+  protected final ProbingStrategy probing;
+  protected final double loadFactor;
+  protected int capacity, threshold, modificationCount;
+
+  // 'usedBuckets' counts the buckets of the arrays which are not free (including
+  // deleted buckets) while 'keyCount' tracks the number of keys in the map.
+  protected int usedBuckets, keyCount;
+
+  // The statistics of the map, null unless enabled.
+  protected HashTableStats stats;
+
+  protected PrimitiveHashTableBase(int capacity, double loadFactor, ProbingStrategy probing) {
+    if (capacity <= 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    // Some bucket must always stay free so that unsuccessful searches terminate.
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    if (probing == null) throw new IllegalArgumentException("Null probing strategy");
+    this.probing = probing;
+    this.loadFactor = loadFactor;
+    this.capacity = probing.adjustCapacity(Math.max(DEFAULT_CAPACITY, capacity));
+    threshold = (int) (this.capacity * loadFactor);
+  }
+
+  // Returns the number of keys currently inside the map
+  public int size() {
+    return keyCount;
+  }
+
+  public boolean isEmpty() {
+    return keyCount == 0;
+  }
+
+  // Returns the capacity of the arrays (used mostly for testing)
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public ProbingStrategy getProbingStrategy() {
+    return probing;
+  }
+
+  // Enables or disables collecting statistics. Disabling them drops the statistics collected.
+  public void setStatsEnabled(boolean enabled) {
+    if (!enabled) stats = null;
+    else if (stats == null) stats = new HashTableStats();
+  }
+
+  // Returns the statistics of the map, or null if they are not enabled. Deleted buckets are the
+  // tombstones.
+  public HashTableStats getStats() {
+    if (stats != null) {
+      int deleted = usedBuckets - (keyCount - sentinelKeyCount());
+      stats.setOccupancy(capacity, usedBuckets, deleted);
+    }
+    return stats;
+  }
+
+  // Returns the number of entries whose key is a sentinel, which are stored outside of the arrays.
+  protected abstract int sentinelKeyCount();
+
+  // Computes the capacity of the arrays when they are rebuilt with `tableKeys` keys. If most of
+  // the used buckets are deleted the capacity stays the same and only the deleted buckets are
+  // cleaned up.
+  protected final int rebuildCapacity(int tableKeys) {
+    if (tableKeys < threshold / 2) return capacity;
+    return probing.adjustCapacity(probing.increaseCapacity(capacity));
+  }
+
+  // Places the hash value in the domain [0, capacity)
+  protected final int normalizeIndex(int keyHash) {
+    return (keyHash & 0x7FFFFFFF) % capacity;
+  }
+
+  // Advances bucket index i to the x-th probe by adding the probe distance, instead of computing
+  // probe(x), whose products overflow for long probe sequences and would break the guarantee that
+  // every bucket is reached. The sum is taken as a long since it may exceed Integer.MAX_VALUE.
+  protected final int nextProbe(int i, int x, int step) {
+    return (int) (((long) i + probing.probeDistance(x, step)) % capacity);
+  }
+
+  // The step of double hashing, taken from the upper half of the key's hash.
+  protected final int step(long hash) {
+    if (probing != ProbingStrategy.DOUBLE_HASHING) return 0;
+    int step = normalizeIndex((int) (hash >>> 32));
+    // Fail safe to avoid infinite loop.
+    return step == 0 ? 1 : step;
+  }
+
+  // Scrambles the bits of the key (the finalizer of MurmurHash3), so that keys
+  // which are close together do not cluster in the table.
+  protected static long hash(long key) {
+    key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+    key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return key ^ (key >>> 33);
+  }
+}
@@ -0,0 +1,81 @@
+/**
+ * The probing functions and capacity rules of the open addressing hash tables, shared between the
+ * generic tables ({@link HashTableLinearProbing}, {@link HashTableQuadraticProbing} and {@link
+ * HashTableDoubleHashing}) and the primitive maps such as {@link IntIntMap}.
+ *
+ * <p>The x-th probe of a key looks at index (h(k) + probe(x, step)) mod capacity, where `step` is
+ * only used by double hashing and holds the key's normalized second hash.
+ */
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.math.BigInteger;
+
+public enum ProbingStrategy {
+
+  // P(x) = LINEAR_CONSTANT * x where the capacity is adjusted so that
+  // GCD(capacity, LINEAR_CONSTANT) = 1 so that all buckets can be probed.
+  LINEAR,
+
+  // P(x) = (x^2 + x) / 2 with a power of two capacity, which generates all
+  // the numbers in [0, capacity) without repetition.
+  QUADRATIC,
+
+  // P(x) = x * h2(k) with a prime capacity so that GCD(h2(k), capacity) = 1.
+  DOUBLE_HASHING;
+
+  // This is the linear constant used in the linear probing, it can be
+  // any positive number.
+  static final int LINEAR_CONSTANT = 17;
+
+  public int probe(int x, int step) {
+    switch (this) {
+      case LINEAR:
+        return LINEAR_CONSTANT * x;
+      case QUADRATIC:
+        return (x * x + x) >> 1;
+      default:
+        return x * step;
+    }
+  }
+
+  // Returns probe(x) - probe(x - 1). Advancing an index by these distances visits the same buckets
+  // as probe(x) without computing the products, which overflow for long probe sequences.
+  public int probeDistance(int x, int step) {
+    switch (this) {
+      case LINEAR:
+        return LINEAR_CONSTANT;
+      case QUADRATIC:
+        return x;
+      default:
+        return step;
+    }
+  }
+
+  // Returns the capacity to grow to from the current capacity, before adjusting it.
+  public int increaseCapacity(int capacity) {
+    if (this == QUADRATIC) return Integer.highestOneBit(capacity) << 1;
+    return (2 * capacity) + 1;
+  }
+
+  // Returns the smallest capacity >= `capacity` for which the probing function reaches every
+  // bucket.
+  public int adjustCapacity(int capacity) {
+    switch (this) {
+      case LINEAR:
+        while (gcd(LINEAR_CONSTANT, capacity) != 1) capacity++;
+        return capacity;
+      case QUADRATIC:
+        int pow2 = Integer.highestOneBit(capacity);
+        return capacity == pow2 ? capacity : increaseCapacity(capacity);
+      default:
+        while (!(new BigInteger(String.valueOf(capacity)).isProbablePrime(20))) capacity++;
+        return capacity;
+    }
+  }
+
+  // Finds the greatest common denominator of a and b.
+  static int gcd(int a, int b) {
+    if (b == 0) return a;
+    return gcd(b, a % b);
+  }
+}
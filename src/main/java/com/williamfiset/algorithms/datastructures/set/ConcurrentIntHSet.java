@@ -0,0 +1,329 @@
+/**
+ * A thread safe set of primitive ints, meant for deduplicating large batches of ids.
+ *
+ * <p>The elements are split between a fixed number of segments by the high bits of their hash.
+ * Every segment is an open addressing table like {@link IntHSet} guarded by its own StampedLock,
+ * so writers to different segments never wait for each other, and lookups are optimistic reads
+ * which only take the lock when a writer changed the segment during the lookup.
+ *
+ * <p>The bulk operations work on all segments in parallel. addAll partitions the array by segment
+ * so that every segment adds its share under a single lock acquisition, and retainAll and
+ * intersection filter the segments in parallel without holding a lock while reading the other set.
+ */
+package com.williamfiset.algorithms.datastructures.set;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+
+public class ConcurrentIntHSet {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+  private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+  private static final int MAXIMUM_SEGMENTS = 1 << 16;
+
+  private static final int FREE = 0;
+
+  // An open addressing table of the elements whose hash selects the segment. The elements are only
+  // written while holding the write lock.
+  static final class Segment extends StampedLock {
+    final float loadFactor;
+    int[] elements;
+    int threshold;
+    boolean hasFree;
+
+    // The number of elements in the segment, read without locking by size().
+    volatile int size;
+
+    Segment(int capacity, float loadFactor) {
+      this.loadFactor = loadFactor;
+      allocate(HSet.tableSizeFor(capacity, loadFactor));
+    }
+
+    void allocate(int slots) {
+      elements = new int[slots];
+      threshold = Math.min(slots - 1, (int) (slots * loadFactor));
+    }
+
+    boolean add(int elem) {
+      if (elem == FREE) {
+        if (hasFree) return false;
+        hasFree = true;
+        size++;
+        return true;
+      }
+      int mask = elements.length - 1;
+      int i = IntHSet.hash(elem) & mask;
+      for (int e; (e = elements[i]) != FREE; i = (i + 1) & mask) if (e == elem) return false;
+      elements[i] = elem;
+      if (++size > threshold) rehash(2 * elements.length);
+      return true;
+    }
+
+    boolean remove(int elem) {
+      if (elem == FREE) {
+        if (!hasFree) return false;
+        hasFree = false;
+        size--;
+        return true;
+      }
+      int mask = elements.length - 1;
+      int i = IntHSet.hash(elem) & mask;
+      for (int e; (e = elements[i]) != elem; i = (i + 1) & mask) if (e == FREE) return false;
+
+      // Move back the following elements of the cluster whose home slot is not cyclically between
+      // the free slot and the element.
+      for (int j = (i + 1) & mask; elements[j] != FREE; j = (j + 1) & mask) {
+        int home = IntHSet.hash(elements[j]) & mask;
+        if (((j - home) & mask) >= ((j - i) & mask)) {
+          elements[i] = elements[j];
+          i = j;
+        }
+      }
+      elements[i] = FREE;
+      size--;
+      return true;
+    }
+
+    // Searches the table without locking. A writer may change the table during the search, so the
+    // result is only valid if the lock is validated afterwards. The array is read once and the
+    // search makes at most one pass over it, so a racing writer can neither make it fail nor loop.
+    boolean contains(int elem) {
+      if (elem == FREE) return hasFree;
+      int[] table = elements;
+      int mask = table.length - 1;
+      for (int i = IntHSet.hash(elem) & mask, n = 0; n <= mask; i = (i + 1) & mask, n++) {
+        int e = table[i];
+        if (e == elem) return true;
+        if (e == FREE) return false;
+      }
+      return false;
+    }
+
+    int[] toArray() {
+      int[] result = new int[size];
+      int n = 0;
+      if (hasFree) result[n++] = FREE;
+      for (int e : elements) if (e != FREE) result[n++] = e;
+      return result;
+    }
+
+    void rehash(int slots) {
+      int[] oldElements = elements;
+      allocate(slots);
+      int mask = slots - 1;
+      for (int e : oldElements) {
+        if (e == FREE) continue;
+        int i = IntHSet.hash(e) & mask;
+        while (elements[i] != FREE) i = (i + 1) & mask;
+        elements[i] = e;
+      }
+    }
+  }
+
+  private final Segment[] segments;
+
+  public ConcurrentIntHSet() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  public ConcurrentIntHSet(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  // Designated constructor. The concurrency level is the number of segments, rounded up to a power
+  // of two.
+  public ConcurrentIntHSet(int capacity, float loadFactor, int concurrencyLevel) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    if (concurrencyLevel <= 0 || concurrencyLevel > MAXIMUM_SEGMENTS)
+      throw new IllegalArgumentException("Illegal concurrencyLevel: " + concurrencyLevel);
+    int pow2 = Integer.highestOneBit(concurrencyLevel);
+    segments = new Segment[pow2 == concurrencyLevel ? pow2 : pow2 << 1];
+    int segmentCapacity = Math.max(1, (int) ((long) capacity / segments.length));
+    for (int s = 0; s < segments.length; s++)
+      segments[s] = new Segment(segmentCapacity, loadFactor);
+  }
+
+  // Selects the segment with the high bits of the hash, the low bits select the slot.
+  private int segmentIndex(int elem) {
+    return IntHSet.hash(elem) >>> 16 >>> (16 - Integer.numberOfTrailingZeros(segments.length));
+  }
+
+  // Returns the number of elements. The count is exact when no writer is active.
+  public int size() {
+    long size = 0;
+    for (Segment segment : segments) size += segment.size;
+    return (int) Math.min(size, Integer.MAX_VALUE);
+  }
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // Adds the element, returns true if it was not already in the set.
+  public boolean add(int elem) {
+    Segment segment = segments[segmentIndex(elem)];
+    long stamp = segment.writeLock();
+    try {
+      return segment.add(elem);
+    } finally {
+      segment.unlockWrite(stamp);
+    }
+  }
+
+  // Removes the element, returns true if it was in the set.
+  public boolean remove(int elem) {
+    Segment segment = segments[segmentIndex(elem)];
+    long stamp = segment.writeLock();
+    try {
+      return segment.remove(elem);
+    } finally {
+      segment.unlockWrite(stamp);
+    }
+  }
+
+  public boolean contains(int elem) {
+    Segment segment = segments[segmentIndex(elem)];
+    long stamp = segment.tryOptimisticRead();
+    boolean found = segment.contains(elem);
+    if (segment.validate(stamp)) return found;
+
+    // A writer changed the segment, search again holding the read lock.
+    stamp = segment.readLock();
+    try {
+      return segment.contains(elem);
+    } finally {
+      segment.unlockRead(stamp);
+    }
+  }
+
+  public void clear() {
+    for (Segment segment : segments) {
+      long stamp = segment.writeLock();
+      try {
+        Arrays.fill(segment.elements, FREE);
+        segment.hasFree = false;
+        segment.size = 0;
+      } finally {
+        segment.unlockWrite(stamp);
+      }
+    }
+  }
+
+  // Adds every element of the array, returns the number of elements which were not in the set.
+  // The elements are first grouped by segment, then the segments add their groups in parallel.
+  public int addAll(int[] elems) {
+    int n = segments.length;
+    int[] offsets = new int[n + 1];
+    for (int elem : elems) offsets[segmentIndex(elem) + 1]++;
+    for (int s = 0; s < n; s++) offsets[s + 1] += offsets[s];
+
+    int[] grouped = new int[elems.length];
+    int[] next = Arrays.copyOf(offsets, n);
+    for (int elem : elems) grouped[next[segmentIndex(elem)]++] = elem;
+
+    return IntStream.range(0, n)
+        .parallel()
+        .map(s -> addToSegment(s, grouped, offsets[s], offsets[s + 1]))
+        .sum();
+  }
+
+  // Adds elems[from, to), which all belong to segment s, under one lock acquisition. The segment
+  // grows as elements turn out to be new rather than being sized for the whole batch upfront,
+  // since batches of ids to deduplicate are often mostly elements already in the set.
+  private int addToSegment(int s, int[] elems, int from, int to) {
+    if (from == to) return 0;
+    Segment segment = segments[s];
+    long stamp = segment.writeLock();
+    try {
+      int added = 0;
+      for (int i = from; i < to; i++) if (segment.add(elems[i])) added++;
+      return added;
+    } finally {
+      segment.unlockWrite(stamp);
+    }
+  }
+
+  // Returns a copy of the elements of segment s.
+  private int[] segmentElements(int s) {
+    Segment segment = segments[s];
+    long stamp = segment.readLock();
+    try {
+      return segment.toArray();
+    } finally {
+      segment.unlockRead(stamp);
+    }
+  }
+
+  // Removes every element which is not in the other set, returns the number of elements removed.
+  // The segments are filtered in parallel. Elements added while the set is being filtered may be
+  // kept even if the other set does not contain them.
+  public int retainAll(ConcurrentIntHSet other) {
+    if (other == this) return 0;
+    return IntStream.range(0, segments.length)
+        .parallel()
+        .map(
+            s -> {
+              // No lock is held while reading the other set, which could otherwise deadlock with
+              // a retainAll on the other set.
+              int[] elems = segmentElements(s);
+              int rejected = 0;
+              for (int elem : elems) if (!other.contains(elem)) elems[rejected++] = elem;
+              if (rejected == 0) return 0;
+
+              Segment segment = segments[s];
+              long stamp = segment.writeLock();
+              try {
+                int removed = 0;
+                for (int i = 0; i < rejected; i++) if (segment.remove(elems[i])) removed++;
+                return removed;
+              } finally {
+                segment.unlockWrite(stamp);
+              }
+            })
+        .sum();
+  }
+
+  // Returns a new set of the elements in both sets, computed in parallel over the segments of the
+  // smaller set.
+  public static ConcurrentIntHSet intersection(ConcurrentIntHSet a, ConcurrentIntHSet b) {
+    if (a.size() > b.size()) return intersection(b, a);
+    // With the same number of segments an element of segment s of `a` is in segment s of the
+    // result, so every segment of the result is filled by a single task.
+    ConcurrentIntHSet result =
+        new ConcurrentIntHSet(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR, a.segments.length);
+    IntStream.range(0, a.segments.length)
+        .parallel()
+        .forEach(
+            s -> {
+              int[] elems = a.segmentElements(s);
+              int common = 0;
+              for (int elem : elems) if (b.contains(elem)) elems[common++] = elem;
+              result.addToSegment(s, elems, 0, common);
+            });
+    return result;
+  }
+
+  // Returns the elements of the set. Each segment is copied under its lock, so the array is exact
+  // when no writer is active.
+  public int[] toArray() {
+    int[][] parts = new int[segments.length][];
+    int total = 0;
+    for (int s = 0; s < segments.length; s++) total += (parts[s] = segmentElements(s)).length;
+    int[] result = new int[total];
+    int n = 0;
+    for (int[] part : parts) {
+      System.arraycopy(part, 0, result, n, part.length);
+      n += part.length;
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
@@ -1,12 +1,28 @@
+/**
+ * A hash set using open addressing with linear probing. Only the elements are stored, in a single
+ * power of two sized array, so there is no entry object or value per element.
+ *
+ * <p>Removals shift the following elements of the cluster back instead of leaving tombstones, so
+ * lookups never get slower because of earlier removals.
+ */
 package com.williamfiset.algorithms.datastructures.set;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 public class HSet<T> implements Iterable<T> {
 
-  private static final Object DUMMY = new Object();
   private static final int DEFAULT_CAPACITY = 3;
   private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private final float loadFactor;
+  private int size, mask, threshold, modificationCount;
 
-  private java.util.Map<T, Object> map;
+  // A free slot holds null.
+  private Object[] elements;
 
   public HSet() {
     this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
@@ -16,43 +32,140 @@ public class HSet<T> implements Iterable<T> {
     this(capacity, DEFAULT_LOAD_FACTOR);
   }
 
-  public HSet(int capacity, float load_factor) {
-    map = new java.util.HashMap<>(capacity, load_factor);
+  // Creates a set which holds `capacity` elements without being resized.
+  public HSet(int capacity, float loadFactor) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    // Some slot must always stay free so that unsuccessful searches terminate.
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    this.loadFactor = loadFactor;
+    allocate(tableSizeFor(Math.max(capacity, DEFAULT_CAPACITY), loadFactor));
   }
 
-  public int size() {
-    return map.size();
+  // Returns the power of two table size which holds `capacity` elements below the load factor.
+  static int tableSizeFor(long capacity, float loadFactor) {
+    long slots = (long) Math.ceil(capacity / (double) loadFactor) + 1;
+    if (slots > MAXIMUM_CAPACITY) throw new IllegalArgumentException("Capacity too large");
+    int pow2 = Integer.highestOneBit((int) slots);
+    return pow2 == slots ? pow2 : pow2 << 1;
   }
 
-  public void clear() {
-    map.clear();
+  private void allocate(int slots) {
+    elements = new Object[slots];
+    mask = slots - 1;
+    threshold = Math.min(slots - 1, (int) (slots * loadFactor));
+  }
+
+  // Spreads the bits of the hash code so that elements with similar hash codes do not cluster.
+  private static int hash(Object elem) {
+    int h = elem.hashCode() * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static void checkElement(Object elem) {
+    if (elem == null) throw new IllegalArgumentException("Null element");
+  }
+
+  public int size() {
+    return size;
   }
 
   public boolean isEmpty() {
-    return map.isEmpty();
+    return size == 0;
   }
 
+  public void clear() {
+    Arrays.fill(elements, null);
+    size = 0;
+    modificationCount++;
+  }
+
+  // Adds the element, returns true if it was not already in the set.
   public boolean add(T elem) {
-    return map.put(elem, DUMMY) == DUMMY;
+    checkElement(elem);
+    int i = hash(elem) & mask;
+    for (Object e; (e = elements[i]) != null; i = (i + 1) & mask) if (e.equals(elem)) return false;
+    elements[i] = elem;
+    modificationCount++;
+    if (++size > threshold) resize();
+    return true;
   }
 
+  // Removes the element, returns true if it was in the set.
   public boolean remove(T elem) {
-    return map.remove(elem) == DUMMY;
+    checkElement(elem);
+    int i = indexOf(elem);
+    if (i == -1) return false;
+
+    // Move back every following element of the cluster which may be moved to the free slot, i.e.
+    // whose home slot is not cyclically between the free slot and the element.
+    for (int j = (i + 1) & mask; elements[j] != null; j = (j + 1) & mask) {
+      int home = hash(elements[j]) & mask;
+      if (((j - home) & mask) >= ((j - i) & mask)) {
+        elements[i] = elements[j];
+        i = j;
+      }
+    }
+    elements[i] = null;
+    size--;
+    modificationCount++;
+    return true;
   }
 
   public boolean contains(T elem) {
-    return map.containsKey(elem);
+    checkElement(elem);
+    return indexOf(elem) != -1;
   }
 
-  public java.util.Iterator<T> iterator() {
-    return map.keySet().iterator();
+  // Returns the slot of the element, or -1 if the element is not in the set.
+  private int indexOf(Object elem) {
+    for (int i = hash(elem) & mask; elements[i] != null; i = (i + 1) & mask)
+      if (elements[i].equals(elem)) return i;
+    return -1;
+  }
+
+  // Doubles the table and reinserts every element.
+  private void resize() {
+    Object[] oldElements = elements;
+    allocate(2 * oldElements.length);
+    for (Object e : oldElements) {
+      if (e == null) continue;
+      int i = hash(e) & mask;
+      while (elements[i] != null) i = (i + 1) & mask;
+      elements[i] = e;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Iterator<T> iterator() {
+    final int MODIFICATION_COUNT = modificationCount;
+
+    return new Iterator<T>() {
+      int index, elementsLeft = size;
+
+      @Override
+      public boolean hasNext() {
+        // The contents of the set have been altered
+        if (MODIFICATION_COUNT != modificationCount) throw new ConcurrentModificationException();
+        return elementsLeft != 0;
+      }
+
+      @Override
+      public T next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        while (elements[index] == null) index++;
+        elementsLeft--;
+        return (T) elements[index++];
+      }
+    };
   }
 
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
     sb.append("[");
-    for (T key : map.keySet()) sb.append(key + ", ");
+    for (Object elem : elements) if (elem != null) sb.append(elem + ", ");
     sb.append("]");
     return sb.toString();
   }
@@ -0,0 +1,191 @@
+/**
+ * A set of primitive ints using open addressing with linear probing, which stores its elements in
+ * one int array and never boxes them. The free slot marker is 0, so whether 0 is in the set is
+ * kept in a separate flag.
+ *
+ * <p>Like {@link HSet}, removals shift the following elements of the cluster back instead of
+ * leaving tombstones.
+ */
+package com.williamfiset.algorithms.datastructures.set;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class IntHSet {
+
+  private static final int DEFAULT_CAPACITY = 3;
+  private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+  private static final int FREE = 0;
+
+  private final float loadFactor;
+  private int size, mask, threshold;
+  private int[] elements;
+  private boolean hasFree;
+
+  public IntHSet() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  public IntHSet(int capacity) {
+    this(capacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  // Creates a set which holds `capacity` elements without being resized.
+  public IntHSet(int capacity, float loadFactor) {
+    if (capacity < 0) throw new IllegalArgumentException("Illegal capacity: " + capacity);
+    if (!(loadFactor > 0 && loadFactor < 1))
+      throw new IllegalArgumentException("Illegal loadFactor: " + loadFactor);
+    this.loadFactor = loadFactor;
+    allocate(HSet.tableSizeFor(Math.max(capacity, DEFAULT_CAPACITY), loadFactor));
+  }
+
+  private void allocate(int slots) {
+    elements = new int[slots];
+    mask = slots - 1;
+    threshold = Math.min(slots - 1, (int) (slots * loadFactor));
+  }
+
+  // Scrambles the bits of the element (the finalizer of MurmurHash3), so that elements which are
+  // close together do not cluster in the table.
+  static int hash(int elem) {
+    elem = (elem ^ (elem >>> 16)) * 0x85ebca6b;
+    elem = (elem ^ (elem >>> 13)) * 0xc2b2ae35;
+    return elem ^ (elem >>> 16);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(elements, FREE);
+    hasFree = false;
+    size = 0;
+  }
+
+  // Adds the element, returns true if it was not already in the set.
+  public boolean add(int elem) {
+    if (elem == FREE) {
+      if (hasFree) return false;
+      hasFree = true;
+      size++;
+      return true;
+    }
+    int i = hash(elem) & mask;
+    for (int e; (e = elements[i]) != FREE; i = (i + 1) & mask) if (e == elem) return false;
+    elements[i] = elem;
+    if (++size > threshold) resize();
+    return true;
+  }
+
+  // Adds every element of the array, returns the number of elements which were not in the set.
+  public int addAll(int[] elems) {
+    int added = 0;
+    for (int elem : elems) if (add(elem)) added++;
+    return added;
+  }
+
+  // Removes the element, returns true if it was in the set.
+  public boolean remove(int elem) {
+    if (elem == FREE) {
+      if (!hasFree) return false;
+      hasFree = false;
+      size--;
+      return true;
+    }
+    int i = indexOf(elem);
+    if (i == -1) return false;
+    removeAt(i);
+    return true;
+  }
+
+  // Empties slot i, moving back the following elements of the cluster whose home slot is not
+  // cyclically between the free slot and the element.
+  private void removeAt(int i) {
+    for (int j = (i + 1) & mask; elements[j] != FREE; j = (j + 1) & mask) {
+      int home = hash(elements[j]) & mask;
+      if (((j - home) & mask) >= ((j - i) & mask)) {
+        elements[i] = elements[j];
+        i = j;
+      }
+    }
+    elements[i] = FREE;
+    size--;
+  }
+
+  public boolean contains(int elem) {
+    if (elem == FREE) return hasFree;
+    return indexOf(elem) != -1;
+  }
+
+  private int indexOf(int elem) {
+    for (int i = hash(elem) & mask, e; (e = elements[i]) != FREE; i = (i + 1) & mask)
+      if (e == elem) return i;
+    return -1;
+  }
+
+  // Removes every element which is not in the other set, returns the number of elements removed.
+  public int retainAll(IntHSet other) {
+    int before = size;
+    if (hasFree && !other.contains(FREE)) {
+      hasFree = false;
+      size--;
+    }
+    // A removal may move a later element into slot i, so slot i is checked again.
+    for (int i = 0; i < elements.length; ) {
+      if (elements[i] != FREE && !other.contains(elements[i])) removeAt(i);
+      else i++;
+    }
+    return before - size;
+  }
+
+  // Returns a set of the elements in both sets.
+  public static IntHSet intersection(IntHSet a, IntHSet b) {
+    if (a.size > b.size) return intersection(b, a);
+    IntHSet result = new IntHSet(a.size);
+    a.forEach(elem -> {
+      if (b.contains(elem)) result.add(elem);
+    });
+    return result;
+  }
+
+  // Calls the action for every element, in no particular order.
+  public void forEach(IntConsumer action) {
+    if (hasFree) action.accept(FREE);
+    for (int e : elements) if (e != FREE) action.accept(e);
+  }
+
+  public int[] toArray() {
+    int[] result = new int[size];
+    int n = 0;
+    if (hasFree) result[n++] = FREE;
+    for (int e : elements) if (e != FREE) result[n++] = e;
+    return result;
+  }
+
+  // Doubles the table and reinserts every element.
+  private void resize() {
+    int[] oldElements = elements;
+    allocate(2 * oldElements.length);
+    for (int e : oldElements) {
+      if (e == FREE) continue;
+      int i = hash(e) & mask;
+      while (elements[i] != FREE) i = (i + 1) & mask;
+      elements[i] = e;
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("[");
+    forEach(elem -> sb.append(elem + ", "));
+    sb.append("]");
+    return sb.toString();
+  }
+}
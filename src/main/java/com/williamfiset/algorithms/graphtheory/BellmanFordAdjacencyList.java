@@ -52,17 +52,21 @@ public class BellmanFordAdjacencyList {
     Arrays.fill(distances, Double.POSITIVE_INFINITY);
     distances[start] = 0;
 
-    for (int i = 0; i < vertices - 1; i++) {
+    // Stop early once a full pass relaxes no edge, in which case there is no negative cycle either.
+    boolean relaxedAnEdge = true;
+    for (int i = 0; i < vertices - 1 && relaxedAnEdge; i++) {
+      relaxedAnEdge = false;
       for (List<Edge> edges : graph) {
         for (Edge edge : edges) {
           if (distances[edge.from] + edge.cost < distances[edge.to]) {
             distances[edge.to] = distances[edge.from] + edge.cost;
+            relaxedAnEdge = true;
           }
         }
       }
     }
 
-    for (int i = 0; i < vertices - 1; i++) {
+    for (int i = 0; i < vertices - 1 && relaxedAnEdge; i++) {
       for (List<Edge> edges : graph) {
         for (Edge edge : edges) {
           if (distances[edge.from] + edge.cost < distances[edge.to]) {
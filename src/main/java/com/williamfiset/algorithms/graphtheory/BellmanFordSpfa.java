@@ -0,0 +1,327 @@
+/**
+ * A queue based variant of the Bellman-Ford algorithm, also known as the Shortest Path Faster
+ * Algorithm (SPFA). Instead of relaxing every edge V-1 times like {@link BellmanFordEdgeList},
+ * {@link BellmanFordAdjacencyList} and {@link BellmanFordAdjacencyMatrix} do, only the edges
+ * leaving nodes whose distance changed are relaxed, and the algorithm stops as soon as the queue
+ * runs empty.
+ *
+ * <p>Negative cycles are detected with Tarjan's subtree disassembly: the shortest path tree is
+ * kept as a preorder list and whenever the distance of a node v improves, v and its whole subtree
+ * are removed from the tree (their distances are outdated anyway). If the node u whose edge
+ * improved v is part of that subtree, the tree path from v to u plus the edge (u, v) is a negative
+ * cycle. The cycle is reported, all nodes reachable from it get a distance of -∞ and the search
+ * continues on the rest of the graph. findNegativeCycle() looks for a cycle anywhere in the graph,
+ * which is what detecting arbitrage in a currency graph with edge costs -log(rate) needs.
+ *
+ * <p>In parallel mode, synchronous rounds relax all edges at once (each node pulls the best
+ * distance over its incoming edges) and stop as soon as a round changes nothing. Negative cycles
+ * are detected by walking the predecessor graph after every round.
+ *
+ * <p>Time Complexity: O(VE) in the worst case, but usually far fewer relaxations, see
+ * getRelaxationCount().
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class BellmanFordSpfa {
+
+  private final int n;
+  private final CsrGraph graph;
+  private CsrGraph transpose;
+  private boolean parallel;
+
+  private double[] dist;
+  private int[] parent;
+  private boolean[] poisoned;
+  private List<List<Integer>> cycles;
+  private long relaxations;
+
+  // The shortest path tree as a circular preorder list with node depths, only used by the queue
+  // based solver. Index n is a virtual root connected to every node by findNegativeCycle().
+  private int[] next, prev, depth;
+  private boolean[] inTree;
+
+  /** @param graph - A directed graph in CSR form, the edge costs are stored in graph.weights. */
+  public BellmanFordSpfa(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+    if (graph.weights == null) throw new IllegalArgumentException("Graph must have edge weights");
+    this.n = graph.n;
+    this.graph = graph;
+  }
+
+  // Relax edges in synchronous parallel rounds instead of using the sequential queue.
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  /**
+   * Finds the shortest distance from `start` to all other nodes. Nodes which can be reached
+   * through a negative cycle get a distance of Double.NEGATIVE_INFINITY and unreachable nodes a
+   * distance of Double.POSITIVE_INFINITY, just like {@link BellmanFordAdjacencyList}.
+   */
+  public double[] bellmanFord(int start) {
+    if (start < 0 || start >= n) throw new IllegalArgumentException("Invalid start node: " + start);
+    solve(start, false);
+    return dist;
+  }
+
+  // Returns a negative cycle anywhere in the graph, or an empty list if there is none. There is an
+  // edge from each node of the cycle to the next one and from the last node back to the first.
+  public List<Integer> findNegativeCycle() {
+    solve(-1, true);
+    return cycles.isEmpty() ? new ArrayList<>() : cycles.get(0);
+  }
+
+  // Returns the negative cycles found by the last call to bellmanFord(). Every negative cycle
+  // reachable from the start shares at least one node with a returned cycle.
+  public List<List<Integer>> getNegativeCycles() {
+    return cycles;
+  }
+
+  // Returns the number of distance improvements made by the last search.
+  public long getRelaxationCount() {
+    return relaxations;
+  }
+
+  // A negative `start` means that every node starts at distance 0.
+  private void solve(int start, boolean stopAtFirstCycle) {
+    dist = new double[n];
+    parent = new int[n];
+    poisoned = new boolean[n];
+    cycles = new ArrayList<>();
+    relaxations = 0;
+    Arrays.fill(dist, start < 0 ? 0 : Double.POSITIVE_INFINITY);
+    Arrays.fill(parent, -1);
+    if (start >= 0) dist[start] = 0;
+
+    if (parallel) solveInRounds(stopAtFirstCycle);
+    else solveWithQueue(start, stopAtFirstCycle);
+    next = prev = depth = null;
+    inTree = null;
+  }
+
+  private void solveWithQueue(int start, boolean stopAtFirstCycle) {
+    int[] offsets = graph.offsets, targets = graph.targets;
+    double[] weights = graph.weights;
+    int root = start < 0 ? n : start;
+    next = new int[n + 1];
+    prev = new int[n + 1];
+    depth = new int[n + 1];
+    inTree = new boolean[n + 1];
+    next[root] = prev[root] = root;
+    inTree[root] = true;
+
+    // Each node is in the queue at most once, so a circular buffer of size n suffices.
+    boolean[] inQueue = new boolean[n];
+    int[] queue = new int[Math.max(n, 1)];
+    int head = 0, size = 0;
+    if (start >= 0) {
+      queue[size++] = start;
+      inQueue[start] = true;
+    } else {
+      for (int i = 0; i < n; i++) {
+        depth[i] = 1;
+        insertAfter(prev[root], i);
+        queue[size++] = i;
+        inQueue[i] = true;
+      }
+    }
+
+    while (size > 0) {
+      int u = queue[head];
+      head = (head + 1) % queue.length;
+      size--;
+      inQueue[u] = false;
+
+      // Nodes removed from the tree since they were queued have an outdated distance, they will
+      // be queued again once their distance improves.
+      for (int e = offsets[u]; e < offsets[u + 1] && inTree[u]; e++) {
+        int v = targets[e];
+        double d = dist[u] + weights[e];
+        if (poisoned[v] || d >= dist[v]) continue;
+        relaxations++;
+        dist[v] = d;
+        if (inTree[v] && disassemble(v, u)) {
+          List<Integer> cycle = new ArrayList<>();
+          for (int x = u; x != v; x = parent[x]) cycle.add(x);
+          cycle.add(v);
+          Collections.reverse(cycle);
+          cycles.add(cycle);
+          if (stopAtFirstCycle) return;
+          poison(cycle);
+          continue;
+        }
+        parent[v] = u;
+        depth[v] = depth[u] + 1;
+        insertAfter(u, v);
+        if (!inQueue[v]) {
+          queue[(head + size++) % queue.length] = v;
+          inQueue[v] = true;
+        }
+      }
+    }
+  }
+
+  // Removes v and its subtree from the shortest path tree and returns true if u was part of it.
+  private boolean disassemble(int v, int u) {
+    boolean found = u == v;
+    int x = next[v];
+    while (x != v && depth[x] > depth[v]) {
+      inTree[x] = false;
+      found |= x == u;
+      x = next[x];
+    }
+    next[prev[v]] = x;
+    prev[x] = prev[v];
+    inTree[v] = false;
+    return found;
+  }
+
+  private void insertAfter(int at, int node) {
+    next[node] = next[at];
+    prev[node] = at;
+    prev[next[at]] = node;
+    next[at] = node;
+    inTree[node] = true;
+  }
+
+  // Marks all nodes reachable from the cycle as having a distance of -∞ and removes them from the
+  // search. Nodes in the subtree of a poisoned node are poisoned too, so the preorder list of the
+  // remaining tree stays valid when poisoned nodes are unlinked one by one.
+  private void poison(List<Integer> cycle) {
+    int[] offsets = graph.offsets, targets = graph.targets;
+    int[] stack = new int[n];
+    int size = 0;
+    for (int node : cycle) {
+      if (poisoned[node]) continue;
+      poisoned[node] = true;
+      stack[size++] = node;
+    }
+    while (size > 0) {
+      int at = stack[--size];
+      dist[at] = Double.NEGATIVE_INFINITY;
+      if (inTree != null && inTree[at]) {
+        next[prev[at]] = next[at];
+        prev[next[at]] = prev[at];
+        inTree[at] = false;
+      }
+      for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+        if (!poisoned[targets[e]]) {
+          poisoned[targets[e]] = true;
+          stack[size++] = targets[e];
+        }
+      }
+    }
+  }
+
+  private void solveInRounds(boolean stopAtFirstCycle) {
+    if (transpose == null) transpose = graph.transpose();
+    double[] parentCost = new double[n];
+    int[] stamp = new int[n];
+    double[] nextDist = dist.clone();
+
+    while (true) {
+      double[] current = dist, updated = nextDist;
+      long changed =
+          IntStream.range(0, n)
+              .parallel()
+              .filter(v -> pull(v, current, updated, parentCost))
+              .count();
+      if (changed == 0) return;
+      relaxations += changed;
+      nextDist = dist;
+      dist = updated;
+
+      for (List<Integer> cycle; (cycle = negativeParentCycle(parentCost, stamp)) != null; ) {
+        cycles.add(cycle);
+        if (stopAtFirstCycle) return;
+        poison(cycle);
+      }
+    }
+  }
+
+  // Sets updated[v] to the best distance over the incoming edges of v and returns true if it
+  // improved on current[v].
+  private boolean pull(int v, double[] current, double[] updated, double[] parentCost) {
+    if (poisoned[v]) {
+      updated[v] = Double.NEGATIVE_INFINITY;
+      return false;
+    }
+    int[] offsets = transpose.offsets, sources = transpose.targets;
+    double[] weights = transpose.weights;
+    double best = current[v];
+    int bestEdge = -1;
+    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+      int u = sources[e];
+      if (!poisoned[u] && current[u] + weights[e] < best) {
+        best = current[u] + weights[e];
+        bestEdge = e;
+      }
+    }
+    updated[v] = best;
+    if (bestEdge == -1) return false;
+    parent[v] = sources[bestEdge];
+    parentCost[v] = weights[bestEdge];
+    return true;
+  }
+
+  // Walks the predecessor graph and returns a cycle of negative cost, or null if there is none.
+  // Predecessors are updated at different rounds, so cycles of cost zero are possible and skipped.
+  private List<Integer> negativeParentCycle(double[] parentCost, int[] stamp) {
+    Arrays.fill(stamp, 0);
+    for (int s = 0; s < n; s++) {
+      int x = s;
+      while (x != -1 && stamp[x] == 0 && !poisoned[x]) {
+        stamp[x] = s + 1;
+        x = parent[x];
+      }
+      if (x == -1 || stamp[x] != s + 1 || poisoned[x]) continue;
+
+      List<Integer> cycle = new ArrayList<>();
+      double cost = 0;
+      int y = x;
+      do {
+        cycle.add(y);
+        cost += parentCost[y];
+        y = parent[y];
+      } while (y != x);
+      if (cost < 0) {
+        Collections.reverse(cycle);
+        return cycle;
+      }
+    }
+    return null;
+  }
+
+  public static void main(String[] args) {
+    // Same graph as in BellmanFordAdjacencyList#main
+    int n = 9, start = 0;
+    int[] from = {0, 1, 2, 4, 3, 1, 1, 5, 6, 5};
+    int[] to = {1, 2, 4, 3, 2, 5, 6, 6, 7, 7};
+    double[] cost = {1, 1, 1, -3, 1, 4, 4, 5, 4, 3};
+    BellmanFordSpfa solver = new BellmanFordSpfa(CsrGraph.directed(n, from, to, cost));
+
+    // Prints: [0.0, 1.0, -Infinity, -Infinity, -Infinity, 5.0, 5.0, 8.0, Infinity]
+    System.out.println(Arrays.toString(solver.bellmanFord(start)));
+
+    // Prints: [[2, 4, 3]]
+    System.out.println(solver.getNegativeCycles());
+
+    // Exchange rates between USD (0), EUR (1), GBP (2) and JPY (3). An edge of cost -log(rate)
+    // makes the cost of a cycle negative exactly when trading around it yields a profit.
+    int[] a = {0, 1, 1, 2, 2, 0, 0, 3};
+    int[] b = {1, 0, 2, 1, 0, 2, 3, 0};
+    double[] rate = {0.9, 1.1, 0.9, 1.1, 1.25, 0.79, 150, 0.0066};
+    double[] logRate = Arrays.stream(rate).map(r -> -Math.log(r)).toArray();
+    BellmanFordSpfa arbitrage = new BellmanFordSpfa(CsrGraph.directed(4, a, b, logRate));
+
+    // Prints: Arbitrage: [2, 0, 1]
+    System.out.println("Arbitrage: " + arbitrage.findNegativeCycle());
+  }
+}
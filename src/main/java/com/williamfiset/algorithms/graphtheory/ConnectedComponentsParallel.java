@@ -0,0 +1,201 @@
+/**
+ * Finds the connected components of a large undirected graph using all available cores. This
+ * produces exactly the same component count and labels as {@link
+ * ConnectedComponentsDfsSolverAdjacencyList}, i.e. components are numbered 1, 2, 3, ... in the
+ * order of their smallest node.
+ *
+ * <p>Edges are hooked into a lock-free union find: the parent pointers live in an
+ * AtomicIntegerArray, a root is only ever linked below a smaller root using compare-and-set (as in
+ * the Shiloach-Vishkin algorithm) and find operations halve paths as they go. Because parent
+ * pointers only ever decrease, concurrent unions and finds never create cycles and the root of
+ * every component ends up being its smallest node.
+ *
+ * <p>For CSR input the Afforest strategy is used to skip most of the edges:
+ *
+ * <ol>
+ *   <li>Link every node with its first two neighbors, which usually already merges most of the
+ *       graph into one giant component.
+ *   <li>Sample nodes to find the largest intermediate component.
+ *   <li>Process the remaining edges of all nodes outside of that component only. Edges between the
+ *       giant component and another node are still seen from the other node's side.
+ * </ol>
+ *
+ * <p>Besides the input graph, which is never copied, the solver only needs a few int arrays of
+ * size V, so memory stays bounded no matter how many edges are processed.
+ *
+ * <p>Time Complexity: O((V + E) * α(V) / p) expected for p cores
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+public class ConnectedComponentsParallel {
+
+  // Number of neighbors each node is linked with before sampling the giant component.
+  private static final int NEIGHBOR_ROUNDS = 2;
+
+  // Number of nodes sampled to find the largest intermediate component.
+  private static final int SAMPLES = 1024;
+
+  private final int n;
+  private final CsrGraph graph;
+  private final int[] edgeU, edgeV;
+
+  private int componentCount;
+  private int[] components;
+  private boolean solved;
+  private AtomicIntegerArray parent;
+
+  /** @param graph - An undirected graph in CSR form storing every edge in both directions. */
+  public ConnectedComponentsParallel(CsrGraph graph) {
+    if (graph == null) throw new NullPointerException();
+    this.n = graph.n;
+    this.graph = graph;
+    this.edgeU = this.edgeV = null;
+  }
+
+  /** @param n - The number of nodes, the undirected edges are (u[i], v[i]). */
+  public ConnectedComponentsParallel(int n, int[] u, int[] v) {
+    if (u == null || v == null) throw new NullPointerException();
+    if (u.length != v.length) throw new IllegalArgumentException("Edge arrays differ in size");
+    this.n = n;
+    this.graph = null;
+    this.edgeU = u;
+    this.edgeV = v;
+  }
+
+  public int[] getComponents() {
+    solve();
+    return components;
+  }
+
+  public int countComponents() {
+    solve();
+    return componentCount;
+  }
+
+  public void solve() {
+    if (solved) return;
+
+    parent = new AtomicIntegerArray(n);
+    IntStream.range(0, n).parallel().forEach(i -> parent.set(i, i));
+
+    if (graph != null) afforest();
+    else IntStream.range(0, edgeU.length).parallel().forEach(i -> union(edgeU[i], edgeV[i]));
+
+    label();
+    parent = null;
+    solved = true;
+  }
+
+  private void afforest() {
+    int[] offsets = graph.offsets, targets = graph.targets;
+
+    for (int r = 0; r < NEIGHBOR_ROUNDS; r++) {
+      final int round = r;
+      IntStream.range(0, n)
+          .parallel()
+          .forEach(
+              v -> {
+                int e = offsets[v] + round;
+                if (e < offsets[v + 1]) union(v, targets[e]);
+              });
+      compress();
+    }
+
+    int giant = sampleLargestComponent();
+    IntStream.range(0, n)
+        .parallel()
+        .forEach(
+            v -> {
+              if (find(v) == giant) return;
+              for (int e = offsets[v] + NEIGHBOR_ROUNDS; e < offsets[v + 1]; e++) {
+                union(v, targets[e]);
+              }
+            });
+  }
+
+  // Returns the (approximately) most frequent root among randomly sampled nodes.
+  private int sampleLargestComponent() {
+    if (n == 0) return -1;
+    SplittableRandom random = new SplittableRandom(n);
+    int[] sample = new int[SAMPLES];
+    for (int i = 0; i < SAMPLES; i++) sample[i] = find(random.nextInt(n));
+    Arrays.sort(sample);
+    int best = sample[0], bestCount = 0;
+    for (int i = 0, j = 0; i < SAMPLES; i = j) {
+      while (j < SAMPLES && sample[j] == sample[i]) j++;
+      if (j - i > bestCount) {
+        best = sample[i];
+        bestCount = j - i;
+      }
+    }
+    return best;
+  }
+
+  // Points every node directly at its root.
+  private void compress() {
+    IntStream.range(0, n).parallel().forEach(i -> parent.set(i, find(i)));
+  }
+
+  // Since the root of every component is its smallest node, numbering the roots in increasing order
+  // gives the same labels as a sequential DFS from nodes 0, 1, 2, ...
+  private void label() {
+    compress();
+    int[] rank = new int[n];
+    IntStream.range(0, n).parallel().forEach(i -> rank[i] = parent.get(i) == i ? 1 : 0);
+    Arrays.parallelPrefix(rank, Integer::sum);
+    componentCount = n == 0 ? 0 : rank[n - 1];
+    components = new int[n];
+    IntStream.range(0, n).parallel().forEach(i -> components[i] = rank[parent.get(i)]);
+  }
+
+  private void union(int u, int v) {
+    while (true) {
+      u = find(u);
+      v = find(v);
+      if (u == v) return;
+      // Always link the larger root below the smaller one.
+      if (u < v) {
+        int tmp = u;
+        u = v;
+        v = tmp;
+      }
+      if (parent.compareAndSet(u, u, v)) return;
+    }
+  }
+
+  // Find with lock-free path halving.
+  private int find(int x) {
+    while (true) {
+      int p = parent.get(x);
+      if (p == x) return x;
+      int gp = parent.get(p);
+      if (p != gp) parent.compareAndSet(x, p, gp);
+      x = gp;
+    }
+  }
+
+  public static void main(String[] args) {
+    // Same graph as in ConnectedComponentsDfsSolverAdjacencyList#main with the five components
+    // {0,1,7}, {2,5}, {4,8}, {3,6,9}, {10}
+    int n = 11;
+    int[] u = {0, 1, 7, 2, 4, 3, 6};
+    int[] v = {1, 7, 0, 5, 8, 6, 9};
+
+    ConnectedComponentsParallel fromCsr =
+        new ConnectedComponentsParallel(CsrGraph.undirected(n, u, v));
+    ConnectedComponentsParallel fromEdges = new ConnectedComponentsParallel(n, u, v);
+
+    // Prints: Number of components: 5
+    System.out.printf("Number of components: %d\n", fromCsr.countComponents());
+
+    // Both print: [1, 1, 2, 3, 4, 2, 3, 1, 4, 3, 5]
+    System.out.println(Arrays.toString(fromCsr.getComponents()));
+    System.out.println(Arrays.toString(fromEdges.getComponents()));
+  }
+}
@@ -0,0 +1,386 @@
+/**
+ * A fully dynamic connectivity structure for undirected graphs supporting edge insertions, edge
+ * deletions and connectivity queries. Unlike {@link
+ * com.williamfiset.algorithms.datastructures.unionfind.UnionFind}, removing an edge does not
+ * require rebuilding the components from scratch.
+ *
+ * <p>This is the algorithm of Holm, de Lichtenberg and Thorup. Every edge has a level between 0
+ * and log2(V). F_i is a spanning forest of the edges with level >= i, so F_0 is a spanning forest
+ * of the whole graph and F_0 ⊇ F_1 ⊇ ... Each forest is stored as Euler tour trees, i.e. the
+ * Euler tour of each tree is kept in a treap, which allows linking and cutting trees in O(log(V)).
+ *
+ * <p>When a tree edge of level l is deleted, a replacement edge is searched for at levels l, l-1,
+ * ..., 0. At level i the smaller of the two halves is scanned: its tree edges of level i are moved
+ * up to level i + 1 and its non-tree edges of level i are tried one by one, each one either
+ * reconnecting the halves or being moved up a level. Since a tree of F_i has at most V/2^i nodes,
+ * the levels of an edge only increase O(log(V)) times, which pays for the scans.
+ *
+ * <p>Time Complexity: O(log²(V)) amortized per update, O(log(V)) per query
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+public class DynamicConnectivity {
+
+  private static class Edge {
+    final int u, v;
+    int level;
+    boolean isTreeEdge;
+    // The two Euler tour nodes of this edge in each forest F_0, ..., F_level, for tree edges.
+    final Node[] uv, vu;
+
+    Edge(int u, int v, int maxLevel) {
+      this.u = u;
+      this.v = v;
+      uv = new Node[maxLevel + 1];
+      vu = new Node[maxLevel + 1];
+    }
+  }
+
+  // A node of the treap storing an Euler tour. Each vertex has one node per forest, each tree edge
+  // has two (one per direction).
+  private static class Node {
+    Node left, right, parent;
+    final int priority, vertex;
+    final Edge edge;
+
+    // Number of nodes and vertex nodes in this subtree.
+    int count, vertices;
+
+    // hasTreeEdge: this is the edge node of a tree edge whose level equals the forest's level.
+    // hasNonTreeEdges: this is a vertex node with non-tree edges at the forest's level.
+    boolean hasTreeEdge, hasNonTreeEdges, anyTreeEdge, anyNonTreeEdges;
+
+    Node(int priority, int vertex, Edge edge) {
+      this.priority = priority;
+      this.vertex = vertex;
+      this.edge = edge;
+      update(this);
+    }
+  }
+
+  private final int n, maxLevel;
+  private final Random random = new Random(1);
+  private final Map<Long, Edge> edges = new HashMap<>();
+
+  // vertexNodes[i][v] is the node of vertex v in forest F_i and nonTreeEdges[i][v] are the
+  // non-tree edges of level i incident to v. Both are created lazily.
+  private final Node[][] vertexNodes;
+  private final Set<Edge>[][] nonTreeEdges;
+
+  private int componentCount;
+
+  @SuppressWarnings("unchecked")
+  public DynamicConnectivity(int n) {
+    if (n < 0) throw new IllegalArgumentException("n cannot be negative");
+    this.n = n;
+    this.maxLevel = n <= 1 ? 0 : 31 - Integer.numberOfLeadingZeros(n);
+    vertexNodes = new Node[maxLevel + 1][];
+    nonTreeEdges = new Set[maxLevel + 1][];
+    componentCount = n;
+  }
+
+  // Adds the undirected edge (u, v). Returns false if the edge already exists or is a self loop.
+  public boolean addEdge(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    long key = key(u, v);
+    if (u == v || edges.containsKey(key)) return false;
+    Edge e = new Edge(u, v, maxLevel);
+    edges.put(key, e);
+    if (connected(u, v)) {
+      addNonTreeEdge(e);
+    } else {
+      e.isTreeEdge = true;
+      link(0, e);
+      componentCount--;
+    }
+    return true;
+  }
+
+  // Removes the undirected edge (u, v). Returns false if there is no such edge.
+  public boolean removeEdge(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    Edge e = edges.remove(key(u, v));
+    if (e == null) return false;
+    if (!e.isTreeEdge) {
+      removeNonTreeEdge(e);
+      return true;
+    }
+
+    for (int i = 0; i <= e.level; i++) cut(i, e);
+    for (int i = e.level; i >= 0; i--) {
+      if (replace(i, e.u, e.v)) return true;
+    }
+    componentCount++;
+    return true;
+  }
+
+  public boolean hasEdge(int u, int v) {
+    return edges.containsKey(key(u, v));
+  }
+
+  public boolean connected(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    return u == v || root(vertexNode(0, u)) == root(vertexNode(0, v));
+  }
+
+  // Returns the number of vertices in the component containing v.
+  public int componentSize(int v) {
+    checkVertex(v);
+    return root(vertexNode(0, v)).vertices;
+  }
+
+  public int countComponents() {
+    return componentCount;
+  }
+
+  public int edgeCount() {
+    return edges.size();
+  }
+
+  // Searches level i for an edge reconnecting the trees of u and v in F_i, which were just split.
+  private boolean replace(int i, int u, int v) {
+    Node ru = root(vertexNode(i, u)), rv = root(vertexNode(i, v));
+    Node small = ru.vertices <= rv.vertices ? ru : rv;
+
+    // Move all tree edges of level i in the smaller tree up to level i + 1. This only changes
+    // flags in F_i, so `small` stays the root of its treap.
+    while (small.anyTreeEdge) {
+      Node node = small;
+      while (!node.hasTreeEdge) {
+        node = node.left != null && node.left.anyTreeEdge ? node.left : node.right;
+      }
+      Edge e = node.edge;
+      node.hasTreeEdge = false;
+      refresh(node);
+      e.level++;
+      link(e.level, e);
+    }
+
+    // Try the non-tree edges of level i leaving the smaller tree.
+    while (small.anyNonTreeEdges) {
+      Node node = small;
+      while (!node.hasNonTreeEdges) {
+        node = node.left != null && node.left.anyNonTreeEdges ? node.left : node.right;
+      }
+      Edge e = nonTreeEdges[i][node.vertex].iterator().next();
+      removeNonTreeEdge(e);
+      int other = e.u == node.vertex ? e.v : e.u;
+      if (root(vertexNode(i, other)) != small) {
+        e.isTreeEdge = true;
+        for (int j = 0; j <= i; j++) link(j, e);
+        return true;
+      }
+      e.level++;
+      addNonTreeEdge(e);
+    }
+    return false;
+  }
+
+  private void addNonTreeEdge(Edge e) {
+    addNonTreeEdge(e, e.u);
+    addNonTreeEdge(e, e.v);
+  }
+
+  private void addNonTreeEdge(Edge e, int at) {
+    Set<Edge>[] level = nonTreeEdges[e.level];
+    if (level == null) level = nonTreeEdges[e.level] = newSetArray(n);
+    if (level[at] == null) level[at] = new HashSet<>();
+    level[at].add(e);
+    Node node = vertexNode(e.level, at);
+    if (!node.hasNonTreeEdges) {
+      node.hasNonTreeEdges = true;
+      refresh(node);
+    }
+  }
+
+  private void removeNonTreeEdge(Edge e) {
+    removeNonTreeEdge(e, e.u);
+    removeNonTreeEdge(e, e.v);
+  }
+
+  private void removeNonTreeEdge(Edge e, int at) {
+    Set<Edge> set = nonTreeEdges[e.level][at];
+    set.remove(e);
+    if (set.isEmpty()) {
+      Node node = vertexNode(e.level, at);
+      node.hasNonTreeEdges = false;
+      refresh(node);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Set<Edge>[] newSetArray(int n) {
+    return new Set[n];
+  }
+
+  private Node vertexNode(int level, int v) {
+    if (vertexNodes[level] == null) vertexNodes[level] = new Node[n];
+    Node node = vertexNodes[level][v];
+    if (node == null) node = vertexNodes[level][v] = new Node(random.nextInt(), v, null);
+    return node;
+  }
+
+  // Links the trees of e.u and e.v in F_level by concatenating their Euler tours:
+  // tour(u) + (u, v) + tour(v) + (v, u).
+  private void link(int level, Edge e) {
+    Node a = reroot(vertexNode(level, e.u));
+    Node b = reroot(vertexNode(level, e.v));
+    Node uv = e.uv[level] = new Node(random.nextInt(), -1, e);
+    Node vu = e.vu[level] = new Node(random.nextInt(), -1, e);
+    uv.hasTreeEdge = e.level == level;
+    update(uv);
+    join(join(a, uv), join(b, vu));
+  }
+
+  // Cuts the tour A (u, v) B (v, u) C of tree edge e in F_level into A C and B.
+  private void cut(int level, Edge e) {
+    Node x = e.uv[level], y = e.vu[level];
+    e.uv[level] = e.vu[level] = null;
+    Node root = root(x);
+    int i = index(x), j = index(y);
+    if (i > j) {
+      int tmp = i;
+      i = j;
+      j = tmp;
+    }
+    Node[] parts = split(root, i);
+    Node a = parts[0];
+    parts = split(parts[1], 1);
+    parts = split(parts[1], j - i - 1);
+    Node b = parts[0];
+    parts = split(parts[1], 1);
+    join(a, parts[1]);
+    if (b != null) b.parent = null;
+  }
+
+  // Rotates the Euler tour containing `node` so that it starts at `node`, and returns its root.
+  private static Node reroot(Node node) {
+    Node[] parts = split(root(node), index(node));
+    return join(parts[1], parts[0]);
+  }
+
+  private static Node root(Node node) {
+    while (node.parent != null) node = node.parent;
+    return node;
+  }
+
+  // Returns the position of `node` in its Euler tour.
+  private static int index(Node node) {
+    int index = count(node.left);
+    for (; node.parent != null; node = node.parent) {
+      if (node.parent.right == node) index += count(node.parent.left) + 1;
+    }
+    return index;
+  }
+
+  private static Node join(Node a, Node b) {
+    Node root = merge(a, b);
+    if (root != null) root.parent = null;
+    return root;
+  }
+
+  private static Node merge(Node a, Node b) {
+    if (a == null) return b;
+    if (b == null) return a;
+    if (a.priority > b.priority) {
+      a.right = merge(a.right, b);
+      a.right.parent = a;
+      update(a);
+      return a;
+    }
+    b.left = merge(a, b.left);
+    b.left.parent = b;
+    update(b);
+    return b;
+  }
+
+  // Splits the treap into its first k nodes and the remaining nodes.
+  private static Node[] split(Node t, int k) {
+    if (t == null) return new Node[2];
+    Node[] parts;
+    if (count(t.left) >= k) {
+      parts = split(t.left, k);
+      t.left = parts[1];
+      if (t.left != null) t.left.parent = t;
+      parts[1] = t;
+    } else {
+      parts = split(t.right, k - count(t.left) - 1);
+      t.right = parts[0];
+      if (t.right != null) t.right.parent = t;
+      parts[0] = t;
+    }
+    update(t);
+    if (parts[0] != null) parts[0].parent = null;
+    if (parts[1] != null) parts[1].parent = null;
+    return parts;
+  }
+
+  private static int count(Node node) {
+    return node == null ? 0 : node.count;
+  }
+
+  private static void update(Node x) {
+    x.count = 1;
+    x.vertices = x.vertex >= 0 ? 1 : 0;
+    x.anyTreeEdge = x.hasTreeEdge;
+    x.anyNonTreeEdges = x.hasNonTreeEdges;
+    addChild(x, x.left);
+    addChild(x, x.right);
+  }
+
+  // Adds the aggregates of a child subtree to those of x.
+  private static void addChild(Node x, Node child) {
+    if (child == null) return;
+    x.count += child.count;
+    x.vertices += child.vertices;
+    x.anyTreeEdge |= child.anyTreeEdge;
+    x.anyNonTreeEdges |= child.anyNonTreeEdges;
+  }
+
+  // Recomputes the aggregates of `node` and all its ancestors.
+  private static void refresh(Node node) {
+    for (; node != null; node = node.parent) update(node);
+  }
+
+  private long key(int u, int v) {
+    return (long) Math.min(u, v) * n + Math.max(u, v);
+  }
+
+  private void checkVertex(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid vertex: " + v);
+  }
+
+  public static void main(String[] args) {
+    // A network of 6 routers with a redundant link between 1 and 2.
+    DynamicConnectivity network = new DynamicConnectivity(6);
+    network.addEdge(0, 1);
+    network.addEdge(1, 2);
+    network.addEdge(0, 2);
+    network.addEdge(2, 3);
+    network.addEdge(4, 5);
+
+    // Prints: 2 components, 0-3 connected: true
+    System.out.printf(
+        "%d components, 0-3 connected: %b\n", network.countComponents(), network.connected(0, 3));
+
+    // The redundant link (0, 2) takes over when (1, 2) goes down.
+    network.removeEdge(1, 2);
+    // Prints: 2 components, 0-3 connected: true
+    System.out.printf(
+        "%d components, 0-3 connected: %b\n", network.countComponents(), network.connected(0, 3));
+
+    network.removeEdge(0, 2);
+    // Prints: 3 components, 0-3 connected: false
+    System.out.printf(
+        "%d components, 0-3 connected: %b\n", network.countComponents(), network.connected(0, 3));
+  }
+}
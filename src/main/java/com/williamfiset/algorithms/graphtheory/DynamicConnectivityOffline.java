@@ -0,0 +1,209 @@
+/**
+ * Offline dynamic connectivity: answers a batch of connectivity queries interleaved with edge
+ * insertions and deletions once the whole sequence of operations is known. This is much simpler and
+ * faster in practice than the online {@link DynamicConnectivity} when the workload is available up
+ * front, e.g. when replaying a log of network link changes.
+ *
+ * <p>Every edge is alive during an interval of queries. These intervals are stored in a segment
+ * tree over the queries, so each interval is split into O(log(Q)) tree nodes. A depth first
+ * traversal of the segment tree then adds the edges of a node to a union find, answers the query at
+ * each leaf and undoes the unions again when leaving the node. Undoing is possible because the
+ * union find uses union by size without path compression, so every union changes exactly one
+ * parent pointer.
+ *
+ * <p>Time Complexity: O((E+Q)log(Q)log(V)) for E edge operations and Q queries
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DynamicConnectivityOffline {
+
+  private final int n;
+
+  // Edges with the query interval [start, end) during which they are alive, end = -1 while open.
+  private final List<int[]> intervals = new ArrayList<>();
+  private final Map<Long, Deque<Integer>> openEdges = new HashMap<>();
+  private final List<int[]> queries = new ArrayList<>();
+
+  private boolean[] connected;
+  private int[] componentCounts;
+
+  public DynamicConnectivityOffline(int n) {
+    if (n < 0) throw new IllegalArgumentException("n cannot be negative");
+    this.n = n;
+  }
+
+  // Adds the undirected edge (u, v). Parallel edges are allowed.
+  public void addEdge(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    openEdges.computeIfAbsent(key(u, v), k -> new ArrayDeque<>()).push(intervals.size());
+    intervals.add(new int[] {u, v, queries.size(), -1});
+    connected = null;
+  }
+
+  // Removes one copy of the undirected edge (u, v).
+  public void removeEdge(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    Deque<Integer> open = openEdges.get(key(u, v));
+    if (open == null || open.isEmpty()) {
+      throw new IllegalArgumentException("Edge (" + u + ", " + v + ") does not exist");
+    }
+    intervals.get(open.pop())[3] = queries.size();
+    connected = null;
+  }
+
+  // Asks whether u and v are connected at this point of the sequence and returns the index of the
+  // query.
+  public int query(int u, int v) {
+    checkVertex(u);
+    checkVertex(v);
+    queries.add(new int[] {u, v});
+    connected = null;
+    return queries.size() - 1;
+  }
+
+  // Returns for every query whether its two vertices were connected.
+  public boolean[] solve() {
+    if (connected == null) run();
+    return connected.clone();
+  }
+
+  // Returns for every query the number of connected components at the time of the query.
+  public int[] getComponentCounts() {
+    if (connected == null) run();
+    return componentCounts.clone();
+  }
+
+  private void run() {
+    int q = queries.size();
+    connected = new boolean[q];
+    componentCounts = new int[q];
+    if (q == 0) return;
+
+    List<List<Integer>> segments = new ArrayList<>(4 * q);
+    for (int i = 0; i < 4 * q; i++) segments.add(new ArrayList<>());
+    for (int i = 0; i < intervals.size(); i++) {
+      int[] edge = intervals.get(i);
+      int end = edge[3] == -1 ? q : edge[3];
+      if (edge[2] < end) insert(segments, 1, 0, q, edge[2], end, i);
+    }
+    traverse(segments, new RollbackUnionFind(n), 1, 0, q);
+  }
+
+  // Stores edge `id` in the segment tree nodes covering the queries [from, to).
+  private void insert(
+      List<List<Integer>> segments, int node, int lo, int hi, int from, int to, int id) {
+    if (to <= lo || hi <= from) return;
+    if (from <= lo && hi <= to) {
+      segments.get(node).add(id);
+      return;
+    }
+    int mid = (lo + hi) >>> 1;
+    insert(segments, 2 * node, lo, mid, from, to, id);
+    insert(segments, 2 * node + 1, mid, hi, from, to, id);
+  }
+
+  private void traverse(
+      List<List<Integer>> segments, RollbackUnionFind uf, int node, int lo, int hi) {
+    int snapshot = uf.snapshot();
+    for (int id : segments.get(node)) {
+      int[] edge = intervals.get(id);
+      uf.union(edge[0], edge[1]);
+    }
+    if (hi - lo == 1) {
+      int[] query = queries.get(lo);
+      connected[lo] = uf.find(query[0]) == uf.find(query[1]);
+      componentCounts[lo] = uf.components;
+    } else {
+      int mid = (lo + hi) >>> 1;
+      traverse(segments, uf, 2 * node, lo, mid);
+      traverse(segments, uf, 2 * node + 1, mid, hi);
+    }
+    uf.rollback(snapshot);
+  }
+
+  // A union find with union by size and without path compression, so unions can be undone in
+  // reverse order.
+  private static class RollbackUnionFind {
+    final int[] parent, size, history;
+    int historySize, components;
+
+    RollbackUnionFind(int n) {
+      parent = new int[n];
+      size = new int[n];
+      history = new int[n];
+      for (int i = 0; i < n; i++) parent[i] = i;
+      Arrays.fill(size, 1);
+      components = n;
+    }
+
+    int find(int x) {
+      while (parent[x] != x) x = parent[x];
+      return x;
+    }
+
+    void union(int a, int b) {
+      a = find(a);
+      b = find(b);
+      if (a == b) return;
+      if (size[a] < size[b]) {
+        int tmp = a;
+        a = b;
+        b = tmp;
+      }
+      parent[b] = a;
+      size[a] += size[b];
+      history[historySize++] = b;
+      components--;
+    }
+
+    int snapshot() {
+      return historySize;
+    }
+
+    // Undoes all unions made after `snapshot` was taken.
+    void rollback(int snapshot) {
+      while (historySize > snapshot) {
+        int b = history[--historySize];
+        size[parent[b]] -= size[b];
+        parent[b] = b;
+        components++;
+      }
+    }
+  }
+
+  private long key(int u, int v) {
+    return (long) Math.min(u, v) * n + Math.max(u, v);
+  }
+
+  private void checkVertex(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid vertex: " + v);
+  }
+
+  public static void main(String[] args) {
+    DynamicConnectivityOffline log = new DynamicConnectivityOffline(4);
+    log.addEdge(0, 1);
+    log.addEdge(1, 2);
+    log.query(0, 2);
+    log.removeEdge(1, 2);
+    log.query(0, 2);
+    log.addEdge(2, 3);
+    log.addEdge(3, 0);
+    log.query(0, 2);
+
+    // Prints: [true, false, true]
+    System.out.println(Arrays.toString(log.solve()));
+
+    // Prints: [2, 3, 1]
+    System.out.println(Arrays.toString(log.getComponentCounts()));
+  }
+}
@@ -0,0 +1,211 @@
+/**
+ * An iterative implementation of Hierholzer's algorithm for finding an Eulerian path on graphs
+ * stored in compressed sparse row (CSR) form. This is meant for very large graphs (e.g. de Bruijn
+ * graphs with hundreds of millions of edges) where the recursive implementation in {@link
+ * EulerianPathDirectedEdgesAdjacencyList} overflows the call stack.
+ *
+ * <p>Instead of recursing, the current trail is kept on an explicit int stack and each node keeps
+ * a cursor to the next unused edge in its CSR slice. Every edge is therefore looked at exactly
+ * once. Finished nodes are written into the free top end of the same stack array, which at the
+ * end holds the path, so apart from the graph itself the solver only allocates a few int arrays
+ * (the cursors, the stack and a union find used to check connectivity). The path can also be
+ * streamed to an IntConsumer, which needs no memory beyond that of the solver.
+ *
+ * <p>Both directed graphs and undirected graphs (see {@link CsrGraph#undirected}) are supported,
+ * including self loops and repeated edges between nodes.
+ *
+ * <p>Run: ./gradlew run -Palgorithm=graphtheory.EulerianPathIterativeCsr
+ *
+ * <p>Time Complexity: O(V + E)
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+public class EulerianPathIterativeCsr {
+
+  // Returns the edgeCount + 1 node ids of an Eulerian path in the directed graph or null if no path
+  // exists or the edges are not all connected.
+  public static int[] directedEulerianPath(CsrGraph graph) {
+    int start = findDirectedStart(graph);
+    if (start == -1) return null;
+    return hierholzer(graph, start, null);
+  }
+
+  // Feeds the nodes of an Eulerian path of the directed graph to `consumer` in path order without
+  // allocating a second array for the path. Returns false (and emits nothing) if no Eulerian path
+  // exists.
+  public static boolean streamDirectedEulerianPath(CsrGraph graph, IntConsumer consumer) {
+    int[] path = directedEulerianPath(graph);
+    if (path == null) return false;
+    for (int node : path) consumer.accept(node);
+    return true;
+  }
+
+  // Returns the edgeCount + 1 node ids of an Eulerian path in the undirected graph or null if no
+  // path exists or the edges are not all connected. The graph must have been built with edge ids.
+  public static int[] undirectedEulerianPath(CsrGraph graph) {
+    int start = findUndirectedStart(graph);
+    if (start == -1) return null;
+    return hierholzer(graph, start, usedEdges(graph));
+  }
+
+  // Feeds the nodes of an Eulerian path of the undirected graph to `consumer` without allocating a
+  // second array for the path. Returns false (and emits nothing) if no Eulerian path exists.
+  public static boolean streamUndirectedEulerianPath(CsrGraph graph, IntConsumer consumer) {
+    int[] path = undirectedEulerianPath(graph);
+    if (path == null) return false;
+    for (int node : path) consumer.accept(node);
+    return true;
+  }
+
+  // Runs Hierholzer's algorithm and returns the Eulerian path. For undirected graphs `used` marks
+  // the edge ids already taken (each edge is stored twice), for directed graphs it is null.
+  //
+  // Nodes are finished in reverse path order. Every edge pushes one node, so the nodes on the stack
+  // plus the finished nodes never exceed m + 1, and the finished nodes are written backwards from
+  // the end of the stack array without ever overlapping the stack. Once the stack is empty the
+  // array holds the whole path in forward order.
+  private static int[] hierholzer(CsrGraph graph, int start, long[] used) {
+    int[] offsets = graph.offsets, targets = graph.targets, edgeIds = graph.edgeIds;
+    int[] cursor = Arrays.copyOf(offsets, graph.n);
+    int m = used == null ? graph.edgeCount() : graph.edgeCount() / 2;
+    int[] stack = new int[m + 1];
+    int top = 0, finished = stack.length;
+    stack[top++] = start;
+
+    while (top > 0) {
+      int at = stack[top - 1];
+      int end = offsets[at + 1];
+      int e = cursor[at];
+      if (used != null) {
+        // Skip the other half of undirected edges which were already taken.
+        while (e < end && (used[edgeIds[e] >>> 6] & (1L << edgeIds[e])) != 0) e++;
+      }
+      if (e < end) {
+        if (used != null) used[edgeIds[e] >>> 6] |= 1L << edgeIds[e];
+        cursor[at] = e + 1;
+        stack[top++] = targets[e];
+      } else {
+        cursor[at] = e;
+        stack[--finished] = at;
+        top--;
+      }
+    }
+    return stack;
+  }
+
+  private static long[] usedEdges(CsrGraph graph) {
+    if (graph.edgeIds == null)
+      throw new IllegalArgumentException("Undirected graph must be built with edge ids");
+    return new long[(graph.edgeCount() / 2 + 63) >>> 6];
+  }
+
+  // Returns the node a directed Eulerian path must start at, or -1 if there is no Eulerian path.
+  private static int findDirectedStart(CsrGraph graph) {
+    int n = graph.n;
+    if (graph.edgeCount() == 0) return -1;
+    int[] in = new int[n];
+    for (int to : graph.targets) in[to]++;
+
+    int start = -1, startNodes = 0, endNodes = 0;
+    for (int i = 0; i < n; i++) {
+      int diff = graph.degree(i) - in[i];
+      if (diff > 1 || diff < -1) return -1;
+      if (diff == 1) {
+        startNodes++;
+        start = i;
+      } else if (diff == -1) {
+        endNodes++;
+      } else if (graph.degree(i) > 0 && startNodes == 0) {
+        start = i;
+      }
+    }
+    if (!((startNodes == 0 && endNodes == 0) || (startNodes == 1 && endNodes == 1))) return -1;
+    return edgesConnected(graph) ? start : -1;
+  }
+
+  // Returns the node an undirected Eulerian path must start at, or -1 if there is no Eulerian path.
+  private static int findUndirectedStart(CsrGraph graph) {
+    if (graph.edgeCount() == 0) return -1;
+    int start = -1, oddNodes = 0;
+    for (int i = 0; i < graph.n; i++) {
+      int degree = graph.degree(i);
+      if (degree % 2 == 1) {
+        oddNodes++;
+        start = i;
+      } else if (degree > 0 && oddNodes == 0) {
+        start = i;
+      }
+    }
+    if (oddNodes != 0 && oddNodes != 2) return -1;
+    return edgesConnected(graph) ? start : -1;
+  }
+
+  // Checks with a union find that all nodes with at least one edge are weakly connected. Doing this
+  // upfront means no partial path is ever handed to a consumer.
+  private static boolean edgesConnected(CsrGraph graph) {
+    int n = graph.n;
+    int[] parent = new int[n];
+    for (int i = 0; i < n; i++) parent[i] = i;
+    boolean[] hasEdge = new boolean[n];
+    for (int from = 0; from < n; from++) {
+      for (int e = graph.offsets[from]; e < graph.offsets[from + 1]; e++) {
+        int to = graph.targets[e];
+        hasEdge[from] = hasEdge[to] = true;
+        int a = find(parent, from), b = find(parent, to);
+        if (a != b) parent[a] = b;
+      }
+    }
+    int root = -1;
+    for (int i = 0; i < n; i++) {
+      if (!hasEdge[i]) continue;
+      int r = find(parent, i);
+      if (root == -1) root = r;
+      else if (r != root) return false;
+    }
+    return true;
+  }
+
+  // Find with path halving.
+  private static int find(int[] parent, int p) {
+    while (parent[p] != p) {
+      parent[p] = parent[parent[p]];
+      p = parent[p];
+    }
+    return p;
+  }
+
+  /* Examples */
+
+  public static void main(String[] args) {
+    directedExample();
+    undirectedExample();
+  }
+
+  private static void directedExample() {
+    // Same graph as in EulerianPathDirectedEdgesAdjacencyList#exampleFromSlides
+    int[] from = {1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 5, 6};
+    int[] to = {2, 3, 2, 4, 4, 1, 2, 5, 3, 6, 6, 3};
+    CsrGraph graph = CsrGraph.directed(7, from, to);
+
+    // Outputs path: [1, 2, 2, 4, 3, 1, 3, 2, 4, 6, 3, 5, 6]
+    System.out.println(Arrays.toString(directedEulerianPath(graph)));
+
+    // Streams a path node by node, outputs: 1 2 2 4 3 1 3 2 4 6 3 5 6
+    StringBuilder sb = new StringBuilder();
+    streamDirectedEulerianPath(graph, node -> sb.append(node).append(' '));
+    System.out.println(sb.toString().trim());
+  }
+
+  private static void undirectedExample() {
+    int[] u = {0, 1, 2, 2, 3};
+    int[] v = {1, 2, 0, 3, 3};
+    CsrGraph graph = CsrGraph.undirected(4, u, v);
+
+    // Outputs path: [3, 3, 2, 1, 0, 2]
+    System.out.println(Arrays.toString(undirectedEulerianPath(graph)));
+  }
+}
@@ -0,0 +1,287 @@
+/**
+ * Computes the exact diameter and all eccentricities of a large undirected, unweighted graph
+ * without running a breadth first search (BFS) from every node like {@link GraphDiameter} does.
+ *
+ * <p>The diameter is found with the iFUB (iterative Fringe Upper Bound) algorithm: a double sweep
+ * gives a lower bound and a central node u, after which nodes are processed level by level from
+ * the furthest fringe of u inwards. Once the largest eccentricity found exceeds twice the
+ * distance of the remaining levels from u no other node can be further apart and the search
+ * stops. On real world graphs this typically needs only a handful of BFS runs.
+ *
+ * <p>Eccentricities are computed with the bounding algorithm of Takes and Kosters which keeps a
+ * lower and an upper bound for the eccentricity of every node. Each BFS from a node v tightens the
+ * bounds of all other nodes w through ecc(w) >= max(d(v, w), ecc(v) - d(v, w)) and ecc(w) <=
+ * ecc(v) + d(v, w), and nodes whose bounds meet are pruned.
+ *
+ * <p>BFS runs reuse preallocated workspaces. In parallel mode the BFS runs of one iFUB fringe
+ * level execute concurrently with one workspace per thread, and the Takes-Kosters bound updates
+ * are spread over all cores.
+ *
+ * <p>Like {@link GraphDiameter}, the eccentricity of a node is the distance to the furthest node
+ * it can reach, so for disconnected graphs the diameter is the largest diameter of any component.
+ *
+ * <p>Time Complexity: O(V(V + E)) in the worst case but usually O(k(V + E)) for a small number k
+ * of BFS runs, see getBfsCount().
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class GraphDiameterIfub {
+
+  // Below this many nodes work is not worth splitting across threads.
+  private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+  private final CsrGraph graph;
+  private final boolean parallel;
+  private final Bfs bfs;
+  private final ThreadLocal<Bfs> workspaces;
+  private final AtomicLong bfsCount = new AtomicLong();
+
+  // A reusable breadth first search workspace. Only the nodes touched by the previous search are
+  // reset, so a BFS costs time proportional to the size of the component it explores.
+  private static class Bfs {
+    final CsrGraph graph;
+    final int[] dist, queue;
+    int size;
+
+    Bfs(CsrGraph graph) {
+      this.graph = graph;
+      dist = new int[graph.n];
+      queue = new int[graph.n];
+      Arrays.fill(dist, -1);
+    }
+
+    // Runs a BFS from `start` and returns its eccentricity. Afterwards queue[0, size) holds the
+    // reachable nodes sorted by their distance dist[node] from `start`.
+    int run(int start) {
+      for (int i = 0; i < size; i++) dist[queue[i]] = -1;
+      int[] offsets = graph.offsets, targets = graph.targets;
+      int head = 0;
+      size = 0;
+      queue[size++] = start;
+      dist[start] = 0;
+      while (head < size) {
+        int at = queue[head++];
+        int d = dist[at] + 1;
+        for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+          int to = targets[e];
+          if (dist[to] == -1) {
+            dist[to] = d;
+            queue[size++] = to;
+          }
+        }
+      }
+      return dist[queue[size - 1]];
+    }
+
+    int last() {
+      return queue[size - 1];
+    }
+  }
+
+  public GraphDiameterIfub(CsrGraph graph) {
+    this(graph, true);
+  }
+
+  // The graph must be undirected, i.e. contain every edge in both directions.
+  public GraphDiameterIfub(CsrGraph graph, boolean parallel) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+    this.graph = graph;
+    this.parallel = parallel;
+    bfs = new Bfs(graph);
+    workspaces = ThreadLocal.withInitial(() -> new Bfs(graph));
+  }
+
+  // Returns the number of BFS runs performed by the last call to diameter() or eccentricities().
+  public long getBfsCount() {
+    return bfsCount.get();
+  }
+
+  // Computes the diameter of the graph, the largest eccentricity of any node.
+  public int diameter() {
+    bfsCount.set(0);
+    int n = graph.n;
+    boolean[] seen = new boolean[n];
+    int diameter = 0;
+    for (int r = 0; r < n; r++) {
+      if (seen[r] || graph.degree(r) == 0) continue;
+      diameter = Math.max(diameter, componentDiameter(r, seen));
+    }
+    return diameter;
+  }
+
+  // Runs iFUB on the component containing `r` and marks its nodes as seen.
+  private int componentDiameter(int r, boolean[] seen) {
+    run(bfs, r);
+    for (int i = 0; i < bfs.size; i++) seen[bfs.queue[i]] = true;
+
+    // Two double sweeps (the 4-sweep heuristic) give a lower bound and a central node u.
+    int lowerBound = 0, u = r;
+    for (int sweep = 0; sweep < 2; sweep++) {
+      if (sweep > 0) run(bfs, u);
+      int ecc = run(bfs, bfs.last());
+      lowerBound = Math.max(lowerBound, ecc);
+      u = middleOfPath(ecc);
+    }
+
+    int eccU = run(bfs, u);
+    lowerBound = Math.max(lowerBound, eccU);
+    int size = bfs.size;
+    int[] order = Arrays.copyOf(bfs.queue, size);
+    int[] levelEnd = new int[eccU + 1];
+    for (int i = 0; i < size; i++) levelEnd[bfs.dist[order[i]]] = i + 1;
+
+    // Process the fringes of u from the outermost level inwards.
+    for (int level = eccU; level > 0 && lowerBound < 2 * level; level--) {
+      int maxEcc = fringeEccentricity(order, levelEnd[level - 1], levelEnd[level]);
+      if (Math.max(lowerBound, maxEcc) > 2 * (level - 1)) return Math.max(lowerBound, maxEcc);
+      lowerBound = Math.max(lowerBound, maxEcc);
+    }
+    return lowerBound;
+  }
+
+  // Walks back from the furthest node of the last BFS towards its start and returns the node
+  // halfway along the path. When a node has several neighbors one step closer to the start the walk
+  // rotates between them, which keeps it away from the border of grid like graphs.
+  private int middleOfPath(int length) {
+    int node = bfs.last();
+    for (int steps = length / 2; steps > 0; steps--) {
+      int lo = graph.offsets[node], hi = graph.offsets[node + 1], closer = 0;
+      for (int e = lo; e < hi; e++) if (bfs.dist[graph.targets[e]] == bfs.dist[node] - 1) closer++;
+      if (closer == 0) throw new IllegalStateException("Graph must be undirected");
+      int pick = steps % closer;
+      for (int e = lo; ; e++) {
+        int to = graph.targets[e];
+        if (bfs.dist[to] == bfs.dist[node] - 1 && pick-- == 0) {
+          node = to;
+          break;
+        }
+      }
+    }
+    return node;
+  }
+
+  // Returns the largest eccentricity of the nodes order[lo, hi).
+  private int fringeEccentricity(int[] order, int lo, int hi) {
+    if (parallel && hi - lo > 1) {
+      return IntStream.range(lo, hi)
+          .parallel()
+          .map(i -> run(workspaces.get(), order[i]))
+          .max()
+          .getAsInt();
+    }
+    int max = 0;
+    for (int i = lo; i < hi; i++) max = Math.max(max, run(bfs, order[i]));
+    return max;
+  }
+
+  // Computes the eccentricity of every node.
+  public int[] eccentricities() {
+    bfsCount.set(0);
+    int n = graph.n;
+    int[] ecc = new int[n];
+    boolean[] seen = new boolean[n];
+    // Shared by all components. Only the entries of a component's own nodes are written, so the
+    // bounds need no reset between components.
+    int[] lower = new int[n], upper = new int[n];
+    for (int r = 0; r < n; r++) {
+      if (seen[r] || graph.degree(r) == 0) continue;
+      componentEccentricities(r, seen, ecc, lower, upper);
+    }
+    return ecc;
+  }
+
+  // Runs the Takes-Kosters bounding algorithm on the component containing `r`.
+  private void componentEccentricities(
+      int r, boolean[] seen, int[] ecc, int[] lower, int[] upper) {
+
+    // The first BFS both discovers the component and provides the first bounds.
+    int e = run(bfs, r);
+    int size = bfs.size;
+    int[] candidates = Arrays.copyOf(bfs.queue, size);
+    for (int w : candidates) {
+      seen[w] = true;
+      upper[w] = Integer.MAX_VALUE;
+    }
+
+    boolean pickUpper = true;
+    int v = r;
+    while (true) {
+      updateBounds(candidates, size, e, lower, upper);
+
+      // Remove the nodes whose eccentricity is now known.
+      int kept = 0;
+      for (int i = 0; i < size; i++) {
+        int w = candidates[i];
+        if (lower[w] == upper[w]) ecc[w] = lower[w];
+        else candidates[kept++] = w;
+      }
+      size = kept;
+      if (size == 0) return;
+
+      // Alternate between the node with the largest upper bound and the node with the smallest
+      // lower bound, breaking ties by degree.
+      v = candidates[0];
+      for (int i = 1; i < size; i++) {
+        int w = candidates[i];
+        int a = pickUpper ? upper[v] : -lower[v];
+        int b = pickUpper ? upper[w] : -lower[w];
+        if (b > a || (b == a && graph.degree(w) > graph.degree(v))) v = w;
+      }
+      pickUpper = !pickUpper;
+      e = run(bfs, v);
+    }
+  }
+
+  // Tightens the eccentricity bounds of the candidates with the last BFS, of eccentricity `e`.
+  private void updateBounds(int[] candidates, int size, int e, int[] lower, int[] upper) {
+    int[] dist = bfs.dist;
+    if (parallel && size >= PARALLEL_THRESHOLD) {
+      IntStream.range(0, size)
+          .parallel()
+          .forEach(i -> tighten(candidates[i], dist, e, lower, upper));
+    } else {
+      for (int i = 0; i < size; i++) tighten(candidates[i], dist, e, lower, upper);
+    }
+  }
+
+  private static void tighten(int w, int[] dist, int e, int[] lower, int[] upper) {
+    int d = dist[w];
+    lower[w] = Math.max(lower[w], Math.max(d, e - d));
+    upper[w] = Math.min(upper[w], e + d);
+  }
+
+  private int run(Bfs workspace, int start) {
+    bfsCount.incrementAndGet();
+    return workspace.run(start);
+  }
+
+  public static void main(String[] args) {
+    // A 1000 x 1000 grid graph has diameter 1998.
+    int side = 1000, n = side * side;
+    int m = 2 * side * (side - 1);
+    int[] u = new int[m], v = new int[m];
+    for (int i = 0, k = 0; i < side; i++) {
+      for (int j = 0; j < side; j++) {
+        int id = i * side + j;
+        if (j + 1 < side) {
+          u[k] = id;
+          v[k++] = id + 1;
+        }
+        if (i + 1 < side) {
+          u[k] = id;
+          v[k++] = id + side;
+        }
+      }
+    }
+    GraphDiameterIfub solver = new GraphDiameterIfub(CsrGraph.undirected(n, u, v));
+
+    // Prints: Diameter: 1998
+    System.out.println("Diameter: " + solver.diameter());
+    System.out.println("BFS runs: " + solver.getBfsCount() + " (instead of " + n + ")");
+  }
+}
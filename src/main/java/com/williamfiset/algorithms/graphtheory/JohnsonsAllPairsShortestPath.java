@@ -0,0 +1,218 @@
+/**
+ * Johnson's algorithm finds the shortest paths between all pairs of nodes of a sparse directed
+ * graph which may have negative edge costs (but no negative cycles) in O(V*E*log(V)) time, much
+ * faster than the O(V^3) of {@link FloydWarshallSolver} when E is small compared to V^2.
+ *
+ * <p>A single Bellman-Ford run (see {@link BellmanFordAdjacencyList}) from a virtual node with a
+ * zero cost edge to every node computes a potential h(v) for each node. Reweighting every edge
+ * (u, v) to cost(u, v) + h(u) - h(v) makes all costs non-negative without changing which paths are
+ * shortest, so Dijkstra's algorithm can then be run from every node. The original distance is
+ * recovered as d(s, t) = d'(s, t) - h(s) + h(t).
+ *
+ * <p>The Dijkstra runs are independent and execute in parallel with one reusable workspace per
+ * thread. Since a V x V matrix does not fit in memory for large graphs, every row of distances is
+ * handed to a caller supplied {@link RowSink} as soon as it is computed.
+ *
+ * <p>Time Complexity: O(VE + V(V + E)log(V))
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class JohnsonsAllPairsShortestPath {
+
+  // Receives the distances from `source` to all other nodes. May be called concurrently from
+  // several threads, and the `distances` array is reused once the call returns.
+  @FunctionalInterface
+  public interface RowSink {
+    void accept(int source, double[] distances);
+  }
+
+  private final int n;
+  private final CsrGraph graph;
+  private final boolean parallel;
+
+  private double[] potential;
+  private double[] reweighted;
+  private ThreadLocal<Dijkstra> workspaces;
+
+  // A reusable Dijkstra workspace with an indexed binary heap stored in primitive arrays. Only the
+  // nodes touched by the previous run are reset.
+  private class Dijkstra {
+    final double[] dist = new double[n], row = new double[n];
+    final int[] heap = new int[n], pos = new int[n], touched = new int[n];
+    int heapSize, touchedCount;
+
+    Dijkstra() {
+      Arrays.fill(dist, Double.POSITIVE_INFINITY);
+      Arrays.fill(pos, -1);
+    }
+
+    // Computes the original (not reweighted) distances from `source` into `row`.
+    double[] run(int source) {
+      for (int i = 0; i < touchedCount; i++) {
+        dist[touched[i]] = Double.POSITIVE_INFINITY;
+        pos[touched[i]] = -1;
+      }
+      touchedCount = heapSize = 0;
+      decreaseKey(source, 0);
+
+      int[] offsets = graph.offsets, targets = graph.targets;
+      while (heapSize > 0) {
+        int at = poll();
+        for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+          int to = targets[e];
+          double d = dist[at] + reweighted[e];
+          if (d < dist[to] && pos[to] != -2) decreaseKey(to, d);
+        }
+      }
+
+      Arrays.fill(row, Double.POSITIVE_INFINITY);
+      for (int i = 0; i < touchedCount; i++) {
+        int node = touched[i];
+        row[node] = dist[node] - potential[source] + potential[node];
+      }
+      return row;
+    }
+
+    // Sets the distance of `node` to `d` and inserts it into the heap if needed.
+    void decreaseKey(int node, double d) {
+      if (pos[node] == -1) {
+        touched[touchedCount++] = node;
+        pos[node] = heapSize;
+        heap[heapSize++] = node;
+      }
+      dist[node] = d;
+      siftUp(pos[node]);
+    }
+
+    // Removes the closest node from the heap and marks it as settled (pos = -2).
+    int poll() {
+      int min = heap[0];
+      pos[min] = -2;
+      if (--heapSize > 0) {
+        heap[0] = heap[heapSize];
+        pos[heap[0]] = 0;
+        siftDown(0);
+      }
+      return min;
+    }
+
+    void siftUp(int i) {
+      int node = heap[i];
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (dist[heap[parent]] <= dist[node]) break;
+        heap[i] = heap[parent];
+        pos[heap[i]] = i;
+        i = parent;
+      }
+      heap[i] = node;
+      pos[node] = i;
+    }
+
+    void siftDown(int i) {
+      int node = heap[i];
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= heapSize) break;
+        if (child + 1 < heapSize && dist[heap[child + 1]] < dist[heap[child]]) child++;
+        if (dist[heap[child]] >= dist[node]) break;
+        heap[i] = heap[child];
+        pos[heap[i]] = i;
+        i = child;
+      }
+      heap[i] = node;
+      pos[node] = i;
+    }
+  }
+
+  public JohnsonsAllPairsShortestPath(CsrGraph graph) {
+    this(graph, true);
+  }
+
+  /** @param graph - A directed graph in CSR form, the edge costs are stored in graph.weights. */
+  public JohnsonsAllPairsShortestPath(CsrGraph graph, boolean parallel) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+    if (graph.weights == null) throw new IllegalArgumentException("Graph must have edge weights");
+    this.n = graph.n;
+    this.graph = graph;
+    this.parallel = parallel;
+  }
+
+  // Computes the shortest distance between every pair of nodes and passes the distances from each
+  // source to `sink`, in no particular order. Unreachable nodes have a distance of +∞. Throws an
+  // IllegalStateException if the graph contains a negative cycle.
+  public void solve(RowSink sink) {
+    if (sink == null) throw new IllegalArgumentException("Sink cannot be null");
+    reweight();
+    IntStream sources = IntStream.range(0, n);
+    if (parallel) sources = sources.parallel();
+    sources.forEach(s -> sink.accept(s, workspaces.get().run(s)));
+  }
+
+  // Convenience method for small graphs which collects all rows into a V x V matrix.
+  public double[][] getApspMatrix() {
+    double[][] matrix = new double[n][];
+    solve((source, distances) -> matrix[source] = distances.clone());
+    return matrix;
+  }
+
+  // Runs Bellman-Ford from a virtual node n with a zero cost edge to every node to get the node
+  // potentials, then computes the non-negative reweighted edge costs.
+  private void reweight() {
+    if (potential != null) return;
+    List<BellmanFordAdjacencyList.Edge>[] bfGraph = BellmanFordAdjacencyList.createGraph(n + 1);
+    for (int u = 0; u < n; u++) {
+      BellmanFordAdjacencyList.addEdge(bfGraph, n, u, 0);
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        BellmanFordAdjacencyList.addEdge(bfGraph, u, graph.targets[e], graph.weights[e]);
+      }
+    }
+    double[] h = BellmanFordAdjacencyList.bellmanFord(bfGraph, n + 1, n);
+    for (int u = 0; u < n; u++) {
+      if (h[u] == Double.NEGATIVE_INFINITY) {
+        throw new IllegalStateException("Graph contains a negative cycle");
+      }
+    }
+
+    double[] w = new double[graph.edgeCount()];
+    for (int u = 0; u < n; u++) {
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        // Rounding errors may leave tiny negative costs which Dijkstra cannot handle.
+        w[e] = Math.max(0, graph.weights[e] + h[u] - h[graph.targets[e]]);
+      }
+    }
+    potential = h;
+    reweighted = w;
+    workspaces = ThreadLocal.withInitial(Dijkstra::new);
+  }
+
+  public static void main(String[] args) {
+    int n = 5;
+    int[] from = {0, 0, 1, 2, 3, 3, 4};
+    int[] to = {1, 2, 3, 1, 4, 2, 0};
+    double[] cost = {4, 1, -2, 2, 3, 1, 1};
+    JohnsonsAllPairsShortestPath solver =
+        new JohnsonsAllPairsShortestPath(CsrGraph.directed(n, from, to, cost));
+
+    // Prints:
+    // [0.0, 3.0, 1.0, 1.0, 4.0]
+    // [2.0, 0.0, -1.0, -2.0, 1.0]
+    // [4.0, 2.0, 0.0, 0.0, 3.0]
+    // [4.0, 3.0, 1.0, 0.0, 3.0]
+    // [1.0, 4.0, 2.0, 2.0, 0.0]
+    for (double[] row : solver.getApspMatrix()) System.out.println(Arrays.toString(row));
+
+    // Rows can also be consumed one by one without storing the whole matrix.
+    double[] farthest = new double[n];
+    solver.solve(
+        (source, distances) -> farthest[source] = Arrays.stream(distances).max().getAsDouble());
+
+    // Prints: [4.0, 2.0, 4.0, 4.0, 4.0]
+    System.out.println(Arrays.toString(farthest));
+  }
+}
@@ -0,0 +1,149 @@
+/**
+ * A level synchronous, parallel version of Kahn's algorithm which, besides a topological ordering,
+ * returns the topological layers of a directed acyclic graph. Layer 0 holds all nodes without
+ * incoming edges and layer i + 1 holds the nodes whose last remaining incoming edge comes from
+ * layer i. Nodes inside the same layer do not depend on each other, so a scheduler can run them
+ * concurrently.
+ *
+ * <p>Each layer (the current zero in-degree frontier) is processed in parallel: the in-degrees are
+ * kept in an AtomicIntegerArray and the thread which decrements a node's in-degree to zero appends
+ * it to the next layer. Every layer is sorted afterwards so the output does not depend on thread
+ * scheduling.
+ *
+ * <p>Like {@link Kahns}, an IllegalArgumentException is thrown if the graph contains a cycle.
+ *
+ * <p>./gradlew run -Palgorithm=graphtheory.KahnsParallelLayers
+ *
+ * <p>Time complexity: O(V+E) work, O(L) synchronization rounds for L layers
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import static com.williamfiset.algorithms.utils.graphutils.Utils.addDirectedEdge;
+import static com.williamfiset.algorithms.utils.graphutils.Utils.createEmptyAdjacencyList;
+
+public class KahnsParallelLayers {
+
+  // Frontiers smaller than this are processed sequentially.
+  private static final int PARALLEL_THRESHOLD = 1 << 11;
+
+  // A topological ordering split into layers. Layer i consists of the nodes
+  // order[layerOffsets[i]], ..., order[layerOffsets[i + 1] - 1].
+  public static class Layers {
+    public final int[] order, layerOffsets;
+
+    Layers(int[] order, int[] layerOffsets) {
+      this.order = order;
+      this.layerOffsets = layerOffsets;
+    }
+
+    public int layerCount() {
+      return layerOffsets.length - 1;
+    }
+
+    // Returns the nodes in layer `i`.
+    public int[] layer(int i) {
+      return Arrays.copyOfRange(order, layerOffsets[i], layerOffsets[i + 1]);
+    }
+  }
+
+  // Given an acyclic graph `adjList` represented as an adjacency list, return its topological
+  // layers.
+  public Layers kahns(List<List<Integer>> adjList) {
+    return kahns(CsrGraph.fromAdjacencyList(adjList));
+  }
+
+  // Given an acyclic graph in CSR form, return its topological layers.
+  public Layers kahns(CsrGraph graph) {
+    int n = graph.n;
+    int[] offsets = graph.offsets, targets = graph.targets;
+
+    // Calculate the in-degree of each node.
+    AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+    int m = graph.edgeCount();
+    parallelRange(0, m, m >= PARALLEL_THRESHOLD).forEach(e -> inDegree.incrementAndGet(targets[e]));
+
+    int[] order = new int[n];
+    int[] layerOffsets = new int[n + 2];
+    int[] start =
+        parallelRange(0, n, n >= PARALLEL_THRESHOLD).filter(i -> inDegree.get(i) == 0).toArray();
+    System.arraycopy(start, 0, order, 0, start.length);
+
+    int layers = 0;
+    AtomicInteger tail = new AtomicInteger(start.length);
+    while (layerOffsets[layers] < tail.get()) {
+      int lo = layerOffsets[layers], hi = tail.get();
+      layerOffsets[++layers] = hi;
+      parallelRange(lo, hi, hi - lo >= PARALLEL_THRESHOLD)
+          .forEach(
+              i -> {
+                int at = order[i];
+                for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+                  if (inDegree.decrementAndGet(targets[e]) == 0) {
+                    order[tail.getAndIncrement()] = targets[e];
+                  }
+                }
+              });
+      // The order in which threads append is arbitrary, sort to get a deterministic result.
+      if (tail.get() - hi >= PARALLEL_THRESHOLD) Arrays.parallelSort(order, hi, tail.get());
+      else Arrays.sort(order, hi, tail.get());
+    }
+
+    if (layerOffsets[layers] != n) {
+      throw new IllegalArgumentException("Graph is not acyclic! Detected a cycle.");
+    }
+    return new Layers(order, Arrays.copyOf(layerOffsets, layers + 1));
+  }
+
+  private static IntStream parallelRange(int lo, int hi, boolean parallel) {
+    IntStream range = IntStream.range(lo, hi);
+    return parallel ? range.parallel() : range;
+  }
+
+  // Example usage:
+  public static void main(String[] args) {
+    // Same graph as in Kahns#exampleFromSlides
+    List<List<Integer>> g = createEmptyAdjacencyList(14);
+    addDirectedEdge(g, 0, 2);
+    addDirectedEdge(g, 0, 3);
+    addDirectedEdge(g, 0, 6);
+    addDirectedEdge(g, 1, 4);
+    addDirectedEdge(g, 2, 6);
+    addDirectedEdge(g, 3, 1);
+    addDirectedEdge(g, 3, 4);
+    addDirectedEdge(g, 4, 5);
+    addDirectedEdge(g, 4, 8);
+    addDirectedEdge(g, 6, 7);
+    addDirectedEdge(g, 6, 11);
+    addDirectedEdge(g, 7, 4);
+    addDirectedEdge(g, 7, 12);
+    addDirectedEdge(g, 9, 2);
+    addDirectedEdge(g, 9, 10);
+    addDirectedEdge(g, 10, 6);
+    addDirectedEdge(g, 11, 12);
+    addDirectedEdge(g, 12, 8);
+
+    KahnsParallelLayers solver = new KahnsParallelLayers();
+    Layers layers = solver.kahns(g);
+
+    // Prints: [0, 9, 13, 2, 3, 10, 1, 6, 7, 11, 4, 12, 5, 8]
+    System.out.println(Arrays.toString(layers.order));
+
+    // Prints:
+    // [0, 9, 13]
+    // [2, 3, 10]
+    // [1, 6]
+    // [7, 11]
+    // [4, 12]
+    // [5, 8]
+    for (int i = 0; i < layers.layerCount(); i++) {
+      System.out.println(Arrays.toString(layers.layer(i)));
+    }
+  }
+}
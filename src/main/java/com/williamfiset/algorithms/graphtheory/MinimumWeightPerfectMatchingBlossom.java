@@ -0,0 +1,637 @@
+/**
+ * Finds a minimum weight perfect matching in a general (not necessarily bipartite) graph with
+ * Edmonds' blossom algorithm. Unlike the bitmask dynamic programs in the dp package, which are
+ * limited to about 20 nodes, this handles graphs with thousands of nodes.
+ *
+ * <p>The algorithm maintains a dual variable for every node and every blossom (an odd cycle of
+ * nodes contracted into a single node) such that every edge has a non-negative slack. It grows
+ * alternating trees from the unmatched nodes using only tight edges (slack 0), contracting a
+ * blossom whenever two nodes of the same tree are connected and augmenting the matching whenever
+ * two trees meet. When no tight edge makes progress, the duals are adjusted by the largest amount
+ * that keeps all slacks non-negative, which makes a new edge tight or lets a blossom be expanded.
+ *
+ * <p>This is the O(V^3) primal-dual formulation of Galil as described in "Efficient Algorithms for
+ * Finding Maximum Matching in Graphs" (1986), solving for maximum weight with negated costs among
+ * the maximum cardinality matchings.
+ *
+ * <p>Time Complexity: O(V^3)
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.dp.MwpmInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MinimumWeightPerfectMatchingBlossom implements MwpmInterface {
+
+  private final int n;
+  private int m;
+  private int[] from = new int[16], to = new int[16];
+  private double[] cost = new double[16];
+
+  private boolean solved;
+  private double minWeightCost;
+  private int[] partner;
+
+  // Solver state. The endpoints of edge k are endpoint[2k] and endpoint[2k + 1]. Blossoms are
+  // numbered n, ..., 2n - 1 and share the per-node arrays with the nodes themselves.
+  private int[] endpoint, mate, label, labelEnd, inBlossom, blossomParent, blossomBase, bestEdge;
+  private int[][] neighbors, blossomChildren, blossomEndpoints, blossomBestEdges;
+  private double[] dual;
+  private boolean[] allowEdge;
+  private IntList queue, unusedBlossoms;
+
+  /** @param n - The number of nodes in the graph, which must be even. */
+  public MinimumWeightPerfectMatchingBlossom(int n) {
+    if (n < 0 || n % 2 != 0) throw new IllegalArgumentException("n must be even: " + n);
+    this.n = n;
+  }
+
+  /**
+   * Creates a solver for the complete graph with the given cost matrix, like {@link
+   * com.williamfiset.algorithms.dp.MinimumWeightPerfectMatching}.
+   */
+  public MinimumWeightPerfectMatchingBlossom(double[][] cost) {
+    this(cost.length);
+    for (int i = 0; i < n; i++) for (int j = i + 1; j < n; j++) addEdge(i, j, cost[i][j]);
+  }
+
+  public void addEdge(int u, int v, double edgeCost) {
+    if (u < 0 || u >= n || v < 0 || v >= n) throw new IllegalArgumentException("Invalid edge");
+    if (u == v) throw new IllegalArgumentException("Self loops cannot be matched");
+    if (solved) throw new IllegalStateException("Cannot add edges after solving");
+    if (m == from.length) {
+      from = Arrays.copyOf(from, 2 * m);
+      to = Arrays.copyOf(to, 2 * m);
+      cost = Arrays.copyOf(cost, 2 * m);
+    }
+    from[m] = u;
+    to[m] = v;
+    cost[m++] = edgeCost;
+  }
+
+  @Override
+  public double getMinWeightCost() {
+    solve();
+    return minWeightCost;
+  }
+
+  /**
+   * Returns the matching as an array where the nodes at index 2*i and 2*i+1 form a matched pair.
+   * The pairs are sorted by their first node and the first node of each pair is the smaller one.
+   */
+  @Override
+  public int[] getMatching() {
+    solve();
+    int[] matching = new int[n];
+    for (int v = 0, i = 0; v < n; v++) {
+      if (v < partner[v]) {
+        matching[i++] = v;
+        matching[i++] = partner[v];
+      }
+    }
+    return matching;
+  }
+
+  // Returns the node matched with node v.
+  public int getMate(int v) {
+    solve();
+    return partner[v];
+  }
+
+  private void solve() {
+    if (solved) return;
+    initialize();
+    for (int stage = 0; stage < n; stage++) {
+      if (!runStage()) break;
+    }
+
+    partner = new int[n];
+    minWeightCost = 0;
+    for (int v = 0; v < n; v++) {
+      if (mate[v] == -1) throw new IllegalStateException("Graph has no perfect matching");
+      partner[v] = endpoint[mate[v]];
+      if (v < partner[v]) minWeightCost += cost[mate[v] / 2];
+    }
+    solved = true;
+    // Release the solver state.
+    endpoint = mate = label = labelEnd = inBlossom = blossomParent = blossomBase = bestEdge = null;
+    neighbors = blossomChildren = blossomEndpoints = blossomBestEdges = null;
+    dual = null;
+    allowEdge = null;
+  }
+
+  private void initialize() {
+    endpoint = new int[2 * m];
+    int[] degree = new int[n];
+    for (int k = 0; k < m; k++) {
+      endpoint[2 * k] = from[k];
+      endpoint[2 * k + 1] = to[k];
+      degree[from[k]]++;
+      degree[to[k]]++;
+    }
+    neighbors = new int[n][];
+    for (int v = 0; v < n; v++) neighbors[v] = new int[degree[v]];
+    for (int k = 0; k < m; k++) {
+      // neighbors[v] lists the remote endpoints of the edges of v.
+      neighbors[from[k]][--degree[from[k]]] = 2 * k + 1;
+      neighbors[to[k]][--degree[to[k]]] = 2 * k;
+    }
+
+    mate = new int[n];
+    Arrays.fill(mate, -1);
+    label = new int[2 * n];
+    labelEnd = new int[2 * n];
+    Arrays.fill(labelEnd, -1);
+    inBlossom = new int[n];
+    for (int v = 0; v < n; v++) inBlossom[v] = v;
+    blossomParent = new int[2 * n];
+    Arrays.fill(blossomParent, -1);
+    blossomChildren = new int[2 * n][];
+    blossomEndpoints = new int[2 * n][];
+    blossomBase = new int[2 * n];
+    for (int i = 0; i < 2 * n; i++) blossomBase[i] = i < n ? i : -1;
+    bestEdge = new int[2 * n];
+    Arrays.fill(bestEdge, -1);
+    blossomBestEdges = new int[2 * n][];
+    unusedBlossoms = new IntList();
+    for (int b = 2 * n - 1; b >= n; b--) unusedBlossoms.add(b);
+    // All node duals start at the maximum edge weight, i.e. the largest negated cost (or 0).
+    dual = new double[2 * n];
+    double maxWeight = 0;
+    for (int k = 0; k < m; k++) maxWeight = Math.max(maxWeight, -cost[k]);
+    Arrays.fill(dual, 0, n, maxWeight);
+    allowEdge = new boolean[m];
+    queue = new IntList();
+  }
+
+  // Edge weights are negated costs, so that a maximum weight matching has minimum cost.
+  private double slack(int k) {
+    return dual[from[k]] + dual[to[k]] + 2 * cost[k];
+  }
+
+  // Runs one stage, which grows alternating trees until the matching is augmented. Returns false
+  // if no augmenting path exists any more.
+  private boolean runStage() {
+    Arrays.fill(label, 0);
+    Arrays.fill(bestEdge, -1);
+    for (int b = n; b < 2 * n; b++) blossomBestEdges[b] = null;
+    Arrays.fill(allowEdge, false);
+    queue.clear();
+    for (int v = 0; v < n; v++) {
+      if (mate[v] == -1 && label[inBlossom[v]] == 0) assignLabel(v, 1, -1);
+    }
+
+    boolean augmented = false;
+    while (true) {
+      while (queue.size > 0 && !augmented) {
+        int v = queue.pop();
+        for (int p : neighbors[v]) {
+          int k = p / 2, w = endpoint[p];
+          if (inBlossom[v] == inBlossom[w]) continue;
+          double kSlack = 0;
+          if (!allowEdge[k]) {
+            kSlack = slack(k);
+            if (kSlack <= 0) allowEdge[k] = true;
+          }
+          if (allowEdge[k]) {
+            if (label[inBlossom[w]] == 0) {
+              // w is free, add it to the tree as a T-node.
+              assignLabel(w, 2, p ^ 1);
+            } else if (label[inBlossom[w]] == 1) {
+              // Two S-nodes: either a new blossom or an augmenting path.
+              int base = scanBlossom(v, w);
+              if (base >= 0) {
+                addBlossom(base, k);
+              } else {
+                augmentMatching(k);
+                augmented = true;
+                break;
+              }
+            } else if (label[w] == 0) {
+              // w is inside a T-blossom but has not been reached yet.
+              label[w] = 2;
+              labelEnd[w] = p ^ 1;
+            }
+          } else if (label[inBlossom[w]] == 1) {
+            int b = inBlossom[v];
+            if (bestEdge[b] == -1 || kSlack < slack(bestEdge[b])) bestEdge[b] = k;
+          } else if (label[w] == 0) {
+            if (bestEdge[w] == -1 || kSlack < slack(bestEdge[w])) bestEdge[w] = k;
+          }
+        }
+      }
+      if (augmented) break;
+
+      // No progress with tight edges, compute the dual adjustment.
+      int deltaType = -1, deltaEdge = -1, deltaBlossom = -1;
+      double delta = 0;
+      for (int v = 0; v < n; v++) {
+        if (label[inBlossom[v]] == 0 && bestEdge[v] != -1) {
+          double d = slack(bestEdge[v]);
+          if (deltaType == -1 || d < delta) {
+            delta = d;
+            deltaType = 2;
+            deltaEdge = bestEdge[v];
+          }
+        }
+      }
+      for (int b = 0; b < 2 * n; b++) {
+        if (blossomParent[b] == -1 && label[b] == 1 && bestEdge[b] != -1) {
+          double d = slack(bestEdge[b]) / 2;
+          if (deltaType == -1 || d < delta) {
+            delta = d;
+            deltaType = 3;
+            deltaEdge = bestEdge[b];
+          }
+        }
+      }
+      for (int b = n; b < 2 * n; b++) {
+        if (blossomBase[b] >= 0
+            && blossomParent[b] == -1
+            && label[b] == 2
+            && (deltaType == -1 || dual[b] < delta)) {
+          delta = dual[b];
+          deltaType = 4;
+          deltaBlossom = b;
+        }
+      }
+      if (deltaType == -1) {
+        // The matching has maximum cardinality.
+        deltaType = 1;
+        delta = 0;
+        for (int v = 0; v < n; v++) delta = Math.min(delta, dual[v]);
+        delta = Math.max(0, delta);
+      }
+
+      for (int v = 0; v < n; v++) {
+        if (label[inBlossom[v]] == 1) dual[v] -= delta;
+        else if (label[inBlossom[v]] == 2) dual[v] += delta;
+      }
+      for (int b = n; b < 2 * n; b++) {
+        if (blossomBase[b] >= 0 && blossomParent[b] == -1) {
+          if (label[b] == 1) dual[b] += delta;
+          else if (label[b] == 2) dual[b] -= delta;
+        }
+      }
+
+      if (deltaType == 1) {
+        break;
+      } else if (deltaType == 2) {
+        allowEdge[deltaEdge] = true;
+        int i = from[deltaEdge];
+        if (label[inBlossom[i]] == 0) i = to[deltaEdge];
+        queue.add(i);
+      } else if (deltaType == 3) {
+        allowEdge[deltaEdge] = true;
+        queue.add(from[deltaEdge]);
+      } else {
+        expandBlossom(deltaBlossom, false);
+      }
+    }
+    if (!augmented) return false;
+
+    // Expand S-blossoms whose dual variable dropped to zero.
+    for (int b = n; b < 2 * n; b++) {
+      if (blossomParent[b] == -1 && blossomBase[b] >= 0 && label[b] == 1 && dual[b] == 0) {
+        expandBlossom(b, true);
+      }
+    }
+    return true;
+  }
+
+  // Labels node w and its top level blossom with t (1 = S, 2 = T), reached through endpoint p.
+  private void assignLabel(int w, int t, int p) {
+    int b = inBlossom[w];
+    label[w] = label[b] = t;
+    labelEnd[w] = labelEnd[b] = p;
+    bestEdge[w] = bestEdge[b] = -1;
+    if (t == 1) {
+      for (int v : leaves(b)) queue.add(v);
+    } else {
+      // The mate of the blossom's base becomes an S-node.
+      int base = blossomBase[b];
+      assignLabel(endpoint[mate[base]], 1, mate[base] ^ 1);
+    }
+  }
+
+  // Traces back from v and w towards the roots of their trees. Returns the base of the new blossom
+  // if both paths meet, or -1 if they reach different roots (an augmenting path).
+  private int scanBlossom(int v, int w) {
+    IntList path = new IntList();
+    int base = -1;
+    while (v != -1 || w != -1) {
+      int b = inBlossom[v];
+      if ((label[b] & 4) != 0) {
+        base = blossomBase[b];
+        break;
+      }
+      path.add(b);
+      label[b] = 5;
+      if (labelEnd[b] == -1) {
+        v = -1;
+      } else {
+        v = endpoint[labelEnd[b]];
+        b = inBlossom[v];
+        v = endpoint[labelEnd[b]];
+      }
+      if (w != -1) {
+        int tmp = v;
+        v = w;
+        w = tmp;
+      }
+    }
+    for (int i = 0; i < path.size; i++) label[path.get(i)] = 1;
+    return base;
+  }
+
+  // Contracts the cycle closed by edge k into a new S-blossom with the given base.
+  private void addBlossom(int base, int k) {
+    int v = from[k], w = to[k];
+    int bb = inBlossom[base], bv = inBlossom[v], bw = inBlossom[w];
+    int b = unusedBlossoms.pop();
+    blossomBase[b] = base;
+    blossomParent[b] = -1;
+    blossomParent[bb] = b;
+
+    IntList children = new IntList(), endpoints = new IntList();
+    while (bv != bb) {
+      blossomParent[bv] = b;
+      children.add(bv);
+      endpoints.add(labelEnd[bv]);
+      v = endpoint[labelEnd[bv]];
+      bv = inBlossom[v];
+    }
+    children.add(bb);
+    children.reverse();
+    endpoints.reverse();
+    endpoints.add(2 * k);
+    while (bw != bb) {
+      blossomParent[bw] = b;
+      children.add(bw);
+      endpoints.add(labelEnd[bw] ^ 1);
+      w = endpoint[labelEnd[bw]];
+      bw = inBlossom[w];
+    }
+    blossomChildren[b] = children.toArray();
+    blossomEndpoints[b] = endpoints.toArray();
+
+    label[b] = 1;
+    labelEnd[b] = labelEnd[bb];
+    dual[b] = 0;
+    for (int x : leaves(b)) {
+      // Former T-nodes become S-nodes and need to be scanned.
+      if (label[inBlossom[x]] == 2) queue.add(x);
+      inBlossom[x] = b;
+    }
+
+    // Keep the least slack edge to each neighboring S-blossom.
+    int[] bestEdgeTo = new int[2 * n];
+    Arrays.fill(bestEdgeTo, -1);
+    for (int child : blossomChildren[b]) {
+      if (blossomBestEdges[child] == null) {
+        for (int x : leaves(child)) {
+          for (int p : neighbors[x]) considerBestEdge(b, p / 2, bestEdgeTo);
+        }
+      } else {
+        for (int e : blossomBestEdges[child]) considerBestEdge(b, e, bestEdgeTo);
+      }
+      blossomBestEdges[child] = null;
+      bestEdge[child] = -1;
+    }
+    IntList best = new IntList();
+    bestEdge[b] = -1;
+    for (int e : bestEdgeTo) {
+      if (e == -1) continue;
+      best.add(e);
+      if (bestEdge[b] == -1 || slack(e) < slack(bestEdge[b])) bestEdge[b] = e;
+    }
+    blossomBestEdges[b] = best.toArray();
+  }
+
+  private void considerBestEdge(int b, int k, int[] bestEdgeTo) {
+    int j = inBlossom[to[k]] == b ? from[k] : to[k];
+    int bj = inBlossom[j];
+    if (bj != b && label[bj] == 1 && (bestEdgeTo[bj] == -1 || slack(k) < slack(bestEdgeTo[bj]))) {
+      bestEdgeTo[bj] = k;
+    }
+  }
+
+  // Replaces blossom b by its children. Sub-blossoms with a zero dual are expanded recursively at
+  // the end of a stage, otherwise a T-blossom's children are relabeled along the alternating path.
+  private void expandBlossom(int b, boolean endStage) {
+    for (int s : blossomChildren[b]) {
+      blossomParent[s] = -1;
+      if (s < n) {
+        inBlossom[s] = s;
+      } else if (endStage && dual[s] == 0) {
+        expandBlossom(s, endStage);
+      } else {
+        for (int v : leaves(s)) inBlossom[v] = s;
+      }
+    }
+
+    if (!endStage && label[b] == 2) {
+      int[] children = blossomChildren[b], endpoints = blossomEndpoints[b];
+      int len = children.length;
+      int entryChild = inBlossom[endpoint[labelEnd[b] ^ 1]];
+      int j = indexOf(children, entryChild), jStep, endpointTrick;
+      if ((j & 1) != 0) {
+        j -= len;
+        jStep = 1;
+        endpointTrick = 0;
+      } else {
+        jStep = -1;
+        endpointTrick = 1;
+      }
+      int p = labelEnd[b];
+      while (j != 0) {
+        // Relabel the T-sub-blossom and the S-sub-blossom after it.
+        label[endpoint[p ^ 1]] = 0;
+        int q = endpoints[Math.floorMod(j - endpointTrick, len)];
+        label[endpoint[q ^ endpointTrick ^ 1]] = 0;
+        assignLabel(endpoint[p ^ 1], 2, p);
+        allowEdge[q / 2] = true;
+        j += jStep;
+        p = endpoints[Math.floorMod(j - endpointTrick, len)] ^ endpointTrick;
+        allowEdge[p / 2] = true;
+        j += jStep;
+      }
+      // The base sub-blossom becomes a T-blossom but keeps its label on the path.
+      int bv = children[Math.floorMod(j, len)];
+      label[endpoint[p ^ 1]] = label[bv] = 2;
+      labelEnd[endpoint[p ^ 1]] = labelEnd[bv] = p;
+      bestEdge[bv] = -1;
+      j += jStep;
+      // Sub-blossoms on the other side of the cycle may have T-labeled nodes which need relabeling.
+      while (children[Math.floorMod(j, len)] != entryChild) {
+        bv = children[Math.floorMod(j, len)];
+        if (label[bv] == 1) {
+          j += jStep;
+          continue;
+        }
+        int reached = -1;
+        for (int v : leaves(bv)) {
+          if (label[v] != 0) {
+            reached = v;
+            break;
+          }
+        }
+        if (reached != -1) {
+          label[reached] = 0;
+          label[endpoint[mate[blossomBase[bv]]]] = 0;
+          assignLabel(reached, 2, labelEnd[reached]);
+        }
+        j += jStep;
+      }
+    }
+
+    label[b] = labelEnd[b] = -1;
+    blossomChildren[b] = blossomEndpoints[b] = null;
+    blossomBase[b] = -1;
+    blossomBestEdges[b] = null;
+    bestEdge[b] = -1;
+    unusedBlossoms.add(b);
+  }
+
+  // Swaps matched and unmatched edges on the path inside blossom b from node v to its base, which
+  // makes v the new base.
+  private void augmentBlossom(int b, int v) {
+    int t = v;
+    while (blossomParent[t] != b) t = blossomParent[t];
+    if (t >= n) augmentBlossom(t, v);
+
+    int[] children = blossomChildren[b], endpoints = blossomEndpoints[b];
+    int len = children.length;
+    int i = indexOf(children, t), j = i, jStep, endpointTrick;
+    if ((i & 1) != 0) {
+      j -= len;
+      jStep = 1;
+      endpointTrick = 0;
+    } else {
+      jStep = -1;
+      endpointTrick = 1;
+    }
+    while (j != 0) {
+      j += jStep;
+      t = children[Math.floorMod(j, len)];
+      int p = endpoints[Math.floorMod(j - endpointTrick, len)] ^ endpointTrick;
+      if (t >= n) augmentBlossom(t, endpoint[p]);
+      j += jStep;
+      t = children[Math.floorMod(j, len)];
+      if (t >= n) augmentBlossom(t, endpoint[p ^ 1]);
+      mate[endpoint[p]] = p ^ 1;
+      mate[endpoint[p ^ 1]] = p;
+    }
+
+    // Rotate the children so that the new base comes first.
+    blossomChildren[b] = rotate(children, i);
+    blossomEndpoints[b] = rotate(endpoints, i);
+    blossomBase[b] = blossomBase[blossomChildren[b][0]];
+  }
+
+  // Augments the matching along the path through edge k between the roots of two trees.
+  private void augmentMatching(int k) {
+    int[] starts = {from[k], to[k]}, ends = {2 * k + 1, 2 * k};
+    for (int side = 0; side < 2; side++) {
+      int s = starts[side], p = ends[side];
+      while (true) {
+        int bs = inBlossom[s];
+        if (bs >= n) augmentBlossom(bs, s);
+        mate[s] = p;
+        if (labelEnd[bs] == -1) break;
+        int t = endpoint[labelEnd[bs]];
+        int bt = inBlossom[t];
+        s = endpoint[labelEnd[bt]];
+        int j = endpoint[labelEnd[bt] ^ 1];
+        if (bt >= n) augmentBlossom(bt, j);
+        mate[j] = labelEnd[bt];
+        p = labelEnd[bt] ^ 1;
+      }
+    }
+  }
+
+  // Returns the nodes contained in blossom b.
+  private List<Integer> leaves(int b) {
+    List<Integer> leaves = new ArrayList<>();
+    IntList stack = new IntList();
+    stack.add(b);
+    while (stack.size > 0) {
+      int at = stack.pop();
+      if (at < n) {
+        leaves.add(at);
+      } else {
+        int[] children = blossomChildren[at];
+        for (int i = children.length - 1; i >= 0; i--) stack.add(children[i]);
+      }
+    }
+    return leaves;
+  }
+
+  private static int indexOf(int[] array, int value) {
+    for (int i = 0; i < array.length; i++) if (array[i] == value) return i;
+    throw new IllegalStateException("Blossom child not found");
+  }
+
+  private static int[] rotate(int[] array, int i) {
+    int[] rotated = new int[array.length];
+    for (int j = 0; j < array.length; j++) rotated[j] = array[(i + j) % array.length];
+    return rotated;
+  }
+
+  // A minimal growable int array used as a list and a stack.
+  private static class IntList {
+    int[] data = new int[8];
+    int size;
+
+    void add(int value) {
+      if (size == data.length) data = Arrays.copyOf(data, 2 * size);
+      data[size++] = value;
+    }
+
+    int get(int i) {
+      return data[i];
+    }
+
+    int pop() {
+      return data[--size];
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    void reverse() {
+      for (int i = 0, j = size - 1; i < j; i++, j--) {
+        int tmp = data[i];
+        data[i] = data[j];
+        data[j] = tmp;
+      }
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(data, size);
+    }
+  }
+
+  public static void main(String[] args) {
+    // Two triangles 0-1-2 and 3-4-5 joined by the expensive edge (2, 3). A perfect matching has to
+    // use one of the edges between the triangles.
+    MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(6);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(1, 2, 2);
+    mwpm.addEdge(0, 2, 3);
+    mwpm.addEdge(3, 4, 1);
+    mwpm.addEdge(4, 5, 2);
+    mwpm.addEdge(3, 5, 3);
+    mwpm.addEdge(2, 3, 10);
+    mwpm.addEdge(0, 5, 20);
+
+    // Prints: 13.0
+    System.out.println(mwpm.getMinWeightCost());
+
+    // Prints: [0, 1, 2, 3, 4, 5]
+    System.out.println(Arrays.toString(mwpm.getMatching()));
+  }
+}
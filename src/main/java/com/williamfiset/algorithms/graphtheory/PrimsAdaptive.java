@@ -0,0 +1,321 @@
+/**
+ * A single entry point for Prim's minimum spanning tree algorithm which picks the graph
+ * representation based on the density of the graph, instead of leaving the choice between {@link
+ * EagerPrimsAdjacencyList} and {@link LazyPrimsAdjacencyMatrix} to the caller.
+ *
+ * <p>Sparse graphs are stored as a {@link CsrGraph} and solved with an indexed d-ary heap whose
+ * keys are stored in a primitive array, which takes O(Elog_d(V)) time. Dense graphs are stored in
+ * a flat V x V cost matrix and solved with the classic O(V^2) scan for the closest node, which has
+ * no heap overhead at all and accesses memory sequentially.
+ *
+ * <p>{@link com.williamfiset.algorithms.graphtheory.analysis.PrimsGraphRepresentationAnaylsis}
+ * found the matrix to be faster above roughly 33% density, which is the default crossover. Since
+ * the exact value depends on the machine, {@link #calibrate} can measure it with a short
+ * micro-benchmark, and the measured value can be passed to the overloads taking a crossover.
+ * Graphs with more than {@link #MAX_DENSE_NODES} nodes never use the matrix, which would not fit
+ * in a Java array.
+ *
+ * <p>Time Complexity: O(min(V^2, Elog_d(V)))
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.Arrays;
+import java.util.Random;
+
+public class PrimsAdaptive {
+
+  public static class Result {
+    public final double cost;
+
+    // The ids of the tree edges, i.e. indexes into the edge arrays the graph was built from.
+    public final int[] edgeIds;
+
+    Result(double cost, int[] edgeIds) {
+      this.cost = cost;
+      this.edgeIds = edgeIds;
+    }
+  }
+
+  // The density, the number of edges divided by the V(V-1)/2 possible edges, from which on the
+  // dense algorithm is used unless the caller passes its own crossover.
+  public static final double DEFAULT_CROSSOVER = 0.33;
+
+  // The most nodes whose V x V cost matrix fits in a Java array.
+  public static final int MAX_DENSE_NODES = 46340;
+
+  public static double density(int n, int m) {
+    return n < 2 ? 1 : m / ((double) n * (n - 1) / 2);
+  }
+
+  public static boolean usesDenseRepresentation(int n, int m) {
+    return usesDenseRepresentation(n, m, DEFAULT_CROSSOVER);
+  }
+
+  // Returns true if the dense algorithm is used for a graph with n nodes and m edges at the given
+  // crossover density. Positive infinity disables the dense algorithm.
+  public static boolean usesDenseRepresentation(int n, int m, double crossover) {
+    if (!(crossover >= 0)) throw new IllegalArgumentException("Invalid crossover: " + crossover);
+    return n <= MAX_DENSE_NODES && density(n, m) >= crossover;
+  }
+
+  /**
+   * Finds a minimum spanning tree of an undirected graph given as an edge list, building either a
+   * cost matrix or a CSR graph depending on the density.
+   *
+   * @param n - The number of nodes.
+   * @param from - from[i] and to[i] are the endpoints of edge i.
+   * @param cost - cost[i] is the cost of edge i.
+   * @return the tree, or null if the graph is not connected.
+   */
+  public static Result mst(int n, int[] from, int[] to, double[] cost) {
+    return mst(n, from, to, cost, DEFAULT_CROSSOVER);
+  }
+
+  // Same as mst(n, from, to, cost) but switches to the dense algorithm at the given crossover
+  // density, e.g. one measured with calibrate().
+  public static Result mst(int n, int[] from, int[] to, double[] cost, double crossover) {
+    checkEdges(n, from, to, cost);
+    return usesDenseRepresentation(n, from.length, crossover)
+        ? denseMst(n, from, to, cost)
+        : sparseMst(CsrGraph.undirected(n, from, to, cost));
+  }
+
+  public static Result sparseMst(int n, int[] from, int[] to, double[] cost) {
+    checkEdges(n, from, to, cost);
+    return sparseMst(CsrGraph.undirected(n, from, to, cost));
+  }
+
+  // O(V^2) Prim's over a flat cost matrix built from the edge list.
+  public static Result denseMst(int n, int[] from, int[] to, double[] cost) {
+    checkEdges(n, from, to, cost);
+    if (n > MAX_DENSE_NODES) {
+      throw new IllegalArgumentException("Too many nodes for a cost matrix: " + n);
+    }
+    // Keep the cheapest of any parallel edges.
+    double[] matrix = new double[n * n];
+    int[] ids = new int[n * n];
+    Arrays.fill(matrix, Double.POSITIVE_INFINITY);
+    for (int i = 0; i < from.length; i++) {
+      int uv = from[i] * n + to[i], vu = to[i] * n + from[i];
+      if (cost[i] < matrix[uv]) {
+        matrix[uv] = matrix[vu] = cost[i];
+        ids[uv] = ids[vu] = i;
+      }
+    }
+
+    // dist[v] is the cost of the cheapest edge from the tree to v, which is edge via[v].
+    double[] dist = new double[n];
+    int[] via = new int[n];
+    boolean[] inTree = new boolean[n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    int[] edgeIds = new int[Math.max(0, n - 1)];
+    double total = 0;
+    int at = 0;
+    for (int step = 0; step < n; step++) {
+      inTree[at] = true;
+      if (step > 0) {
+        edgeIds[step - 1] = via[at];
+        total += dist[at];
+      }
+      int next = -1;
+      for (int v = 0, row = at * n; v < n; v++) {
+        if (inTree[v]) continue;
+        if (matrix[row + v] < dist[v]) {
+          dist[v] = matrix[row + v];
+          via[v] = ids[row + v];
+        }
+        if (next == -1 || dist[v] < dist[next]) next = v;
+      }
+      if (next == -1) break;
+      if (dist[next] == Double.POSITIVE_INFINITY) return null;
+      at = next;
+    }
+    return new Result(total, edgeIds);
+  }
+
+  // O(Elog_d(V)) Prim's over the CSR arrays with an indexed d-ary heap, for graphs which are
+  // already stored in CSR form.
+  public static Result sparseMst(CsrGraph graph) {
+    if (graph == null) throw new IllegalArgumentException("Graph cannot be null");
+    if (graph.weights == null || graph.edgeIds == null) {
+      throw new IllegalArgumentException("Graph must be undirected and weighted");
+    }
+    int n = graph.n;
+    if (n == 0) return new Result(0, new int[0]);
+    int[] offsets = graph.offsets, targets = graph.targets, graphIds = graph.edgeIds;
+    double[] weights = graph.weights;
+    // Using E/V as the heap degree balances the cost of decrease key and poll.
+    IndexedDHeap heap = new IndexedDHeap(n, Math.max(2, graph.edgeCount() / Math.max(1, n)));
+    int[] via = new int[n];
+    boolean[] inTree = new boolean[n];
+    int[] edgeIds = new int[Math.max(0, n - 1)];
+    double total = 0;
+    int count = 0;
+
+    int at = 0;
+    while (true) {
+      inTree[at] = true;
+      for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+        int to = targets[e];
+        if (!inTree[to] && heap.decreaseKey(to, weights[e])) via[to] = graphIds[e];
+      }
+      if (heap.size == 0) break;
+      total += heap.minKey();
+      at = heap.poll();
+      edgeIds[count++] = via[at];
+    }
+    return count == n - 1 ? new Result(total, edgeIds) : null;
+  }
+
+  private static void checkEdges(int n, int[] from, int[] to, double[] cost) {
+    if (from == null || to == null || cost == null) {
+      throw new IllegalArgumentException("Null input");
+    }
+    if (n < 0) throw new IllegalArgumentException("Invalid number of nodes: " + n);
+    if (from.length != to.length || from.length != cost.length) {
+      throw new IllegalArgumentException("Edge arrays must have the same length");
+    }
+  }
+
+  // An indexed min d-ary heap of nodes keyed by doubles, all in primitive arrays.
+  private static class IndexedDHeap {
+    final int d;
+    final double[] key;
+    final int[] heap, pos;
+    int size;
+
+    IndexedDHeap(int n, int d) {
+      this.d = d;
+      key = new double[n];
+      heap = new int[n];
+      pos = new int[n];
+      Arrays.fill(pos, -1);
+    }
+
+    // Inserts the node or lowers its key. Returns false if the node's key is already lower.
+    boolean decreaseKey(int node, double k) {
+      if (pos[node] == -1) {
+        pos[node] = size;
+        heap[size++] = node;
+      } else if (key[node] <= k) {
+        return false;
+      }
+      key[node] = k;
+      siftUp(pos[node]);
+      return true;
+    }
+
+    double minKey() {
+      return key[heap[0]];
+    }
+
+    int poll() {
+      int min = heap[0];
+      if (--size > 0) {
+        heap[0] = heap[size];
+        pos[heap[0]] = 0;
+        siftDown(0);
+      }
+      return min;
+    }
+
+    void siftUp(int i) {
+      int node = heap[i];
+      while (i > 0) {
+        int parent = (i - 1) / d;
+        if (key[heap[parent]] <= key[node]) break;
+        heap[i] = heap[parent];
+        pos[heap[i]] = i;
+        i = parent;
+      }
+      heap[i] = node;
+      pos[node] = i;
+    }
+
+    void siftDown(int i) {
+      int node = heap[i];
+      while (true) {
+        int first = d * i + 1, best = -1;
+        for (int c = first; c < first + d && c < size; c++) {
+          if (best == -1 || key[heap[c]] < key[heap[best]]) best = c;
+        }
+        if (best == -1 || key[heap[best]] >= key[node]) break;
+        heap[i] = heap[best];
+        pos[heap[i]] = i;
+        i = best;
+      }
+      heap[i] = node;
+      pos[node] = i;
+    }
+  }
+
+  /**
+   * Times both algorithms, including building their graph representation, on random graphs of
+   * decreasing density and returns the lowest density at which the dense algorithm still wins.
+   * Nothing is stored, the result only takes effect when passed to the overloads taking a
+   * crossover, so calibrating never changes the choice made for other callers.
+   *
+   * @return the measured crossover.
+   */
+  public static double calibrate() {
+    int n = 1000;
+    double[] densities = new double[20];
+    for (int i = 0; i < densities.length; i++) densities[i] = 0.05 * (i + 1);
+    int[][] from = new int[densities.length][], to = new int[densities.length][];
+    double[][] cost = new double[densities.length][];
+    Random random = new Random(0);
+    for (int i = 0; i < densities.length; i++) {
+      // A path through all nodes to make the graph connected, plus random edges.
+      int m = Math.max(n - 1, (int) (densities[i] * n * (n - 1) / 2));
+      from[i] = new int[m];
+      to[i] = new int[m];
+      cost[i] = new double[m];
+      for (int j = 0; j < m; j++) {
+        from[i][j] = j < n - 1 ? j : random.nextInt(n);
+        to[i][j] = j < n - 1 ? j + 1 : random.nextInt(n);
+        cost[i][j] = random.nextDouble();
+      }
+    }
+
+    // Warm up the JIT on a mid density graph.
+    int mid = densities.length / 2;
+    for (int r = 0; r < 5; r++) {
+      sparseMst(n, from[mid], to[mid], cost[mid]);
+      denseMst(n, from[mid], to[mid], cost[mid]);
+    }
+
+    double result = Double.POSITIVE_INFINITY;
+    for (int i = densities.length - 1; i >= 0; i--) {
+      long sparse = Long.MAX_VALUE, dense = Long.MAX_VALUE;
+      for (int r = 0; r < 3; r++) {
+        long start = System.nanoTime();
+        sparseMst(n, from[i], to[i], cost[i]);
+        sparse = Math.min(sparse, System.nanoTime() - start);
+        start = System.nanoTime();
+        denseMst(n, from[i], to[i], cost[i]);
+        dense = Math.min(dense, System.nanoTime() - start);
+      }
+      if (dense > sparse) break;
+      result = densities[i];
+    }
+    return result;
+  }
+
+  public static void main(String[] args) {
+    // Same graph as in EagerPrimsAdjacencyList#example1
+    int[] u = {0, 1, 2, 0, 0, 1, 2, 2, 9, 4, 5, 6, 4, 5, 3, 6, 3, 7};
+    int[] v = {1, 2, 9, 4, 3, 3, 7, 8, 8, 5, 6, 8, 3, 3, 6, 7, 7, 8};
+    double[] w = {5, 4, 2, 1, 4, 2, 4, 1, 0, 1, 7, 4, 2, 5, 11, 1, 2, 6};
+
+    // Prints: density 0.40, dense: true, MST cost: 14.0
+    System.out.printf(
+        "density %.2f, dense: %b, MST cost: %.1f\n",
+        density(10, u.length), usesDenseRepresentation(10, u.length), mst(10, u, v, w).cost);
+
+    // Prints: 14.0 14.0
+    System.out.println(denseMst(10, u, v, w).cost + " " + sparseMst(10, u, v, w).cost);
+
+    System.out.printf("Calibrated crossover: %.2f\n", calibrate());
+  }
+}
@@ -0,0 +1,275 @@
+/**
+ * A Steiner tree solver for large sparse graphs which also returns the edges of the tree. Like
+ * {@link SteinerTree} it runs the Dreyfus-Wagner dynamic program over subsets of terminals, where
+ * dp[mask][v] is the cost of the cheapest tree connecting the terminals in `mask` and node v.
+ *
+ * <p>Instead of computing all pairs shortest paths with Floyd-Warshall up front, the distances are
+ * propagated with one Dijkstra run per subset over the sparse graph, starting from all nodes at
+ * once with dp[mask][v] as their initial distances (Erickson, Monma and Veinott). This replaces the
+ * O(V^3) precomputation and the O(V^2) relaxation per subset by O(Elog(V)) per subset.
+ *
+ * <p>A subset only depends on its proper subsets, so all subsets with the same number of terminals
+ * are computed in parallel. Further work is saved by only enumerating the splits of a subset whose
+ * first part contains its lowest terminal, which skips each split's mirror image, and by using the
+ * last terminal as the root of the tree so that only subsets of the other terminals are needed.
+ *
+ * <p>Time Complexity: O(3^T * V + 2^T * Elog(V)), memory O(2^T * V)
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class SteinerTreeParallel {
+
+  public static class Result {
+    // The total cost of the tree, +∞ if the terminals are not connected.
+    public final double cost;
+
+    // The ids of the edges in the tree, i.e. the indexes into the edge arrays the graph was built
+    // from with CsrGraph.undirected. Empty if the terminals are not connected.
+    public final int[] edgeIds;
+
+    Result(double cost, int[] edgeIds) {
+      this.cost = cost;
+      this.edgeIds = edgeIds;
+    }
+  }
+
+  // Special values of back[mask][v], which otherwise is the CSR index of the edge used to reach v,
+  // or -2 - submask if the tree at v is the union of the trees of submask and mask ^ submask.
+  private static final int TERMINAL = -1, UNREACHED = Integer.MIN_VALUE;
+
+  private final CsrGraph graph;
+  private final int[] terminals;
+  private final int root, k, full;
+  private final double[][] dp;
+  private final int[][] back;
+  private final ThreadLocal<Heap> heaps = ThreadLocal.withInitial(Heap::new);
+
+  private SteinerTreeParallel(CsrGraph graph, int[] terminals) {
+    this.graph = graph;
+    this.terminals = terminals;
+    this.root = terminals[terminals.length - 1];
+    this.k = terminals.length - 1;
+    this.full = (1 << k) - 1;
+    dp = new double[1 << k][];
+    back = new int[1 << k][];
+  }
+
+  public static Result solve(CsrGraph graph, int[] terminals) {
+    return solve(graph, terminals, true);
+  }
+
+  /**
+   * Finds a minimum cost tree connecting all terminal nodes.
+   *
+   * @param graph - An undirected graph built with CsrGraph.undirected with non-negative weights.
+   * @param terminals - The nodes to connect.
+   * @param parallel - Whether subsets of the same size are processed in parallel.
+   */
+  public static Result solve(CsrGraph graph, int[] terminals, boolean parallel) {
+    if (graph == null || terminals == null) throw new IllegalArgumentException("Null input");
+    if (graph.weights == null || graph.edgeIds == null) {
+      throw new IllegalArgumentException("Graph must be undirected and weighted");
+    }
+    if (terminals.length > 31) throw new IllegalArgumentException("Too many terminals");
+    for (double w : graph.weights) {
+      if (!(w >= 0)) throw new IllegalArgumentException("Edge weights must be non-negative");
+    }
+    for (int t : terminals) {
+      if (t < 0 || t >= graph.n) throw new IllegalArgumentException("Invalid terminal: " + t);
+    }
+    if (terminals.length <= 1) return new Result(0, new int[0]);
+    return new SteinerTreeParallel(graph, terminals).run(parallel);
+  }
+
+  private Result run(boolean parallel) {
+    // Group the subsets by their number of terminals.
+    List<List<Integer>> bySize = new ArrayList<>();
+    for (int i = 0; i <= k; i++) bySize.add(new ArrayList<>());
+    for (int mask = 1; mask <= full; mask++) bySize.get(Integer.bitCount(mask)).add(mask);
+
+    for (int size = 1; size <= k; size++) {
+      IntStream masks = bySize.get(size).stream().mapToInt(Integer::intValue);
+      if (parallel) masks = masks.parallel();
+      masks.forEach(this::computeSubset);
+    }
+
+    double cost = dp[full][root];
+    if (cost == Double.POSITIVE_INFINITY) return new Result(cost, new int[0]);
+    return new Result(cost, reconstruct());
+  }
+
+  private void computeSubset(int mask) {
+    int n = graph.n;
+    double[] d = new double[n];
+    int[] b = new int[n];
+    Arrays.fill(d, Double.POSITIVE_INFINITY);
+    Arrays.fill(b, UNREACHED);
+
+    if (Integer.bitCount(mask) == 1) {
+      int terminal = terminals[Integer.numberOfTrailingZeros(mask)];
+      d[terminal] = 0;
+      b[terminal] = TERMINAL;
+    } else {
+      // Merge step: only splits whose first part contains the lowest terminal of the mask.
+      int lowest = mask & -mask, rest = mask ^ lowest;
+      for (int sub = (rest - 1) & rest; ; sub = (sub - 1) & rest) {
+        int s = sub | lowest;
+        double[] left = dp[s], right = dp[mask ^ s];
+        for (int v = 0; v < n; v++) {
+          double cost = left[v] + right[v];
+          if (cost < d[v]) {
+            d[v] = cost;
+            b[v] = -2 - s;
+          }
+        }
+        if (sub == 0) break;
+      }
+    }
+
+    // For the full subset only the cost at the root is needed.
+    dijkstra(d, b, mask == full ? root : -1);
+    dp[mask] = d;
+    back[mask] = b;
+  }
+
+  // Relaxes the distances in `d` starting from all nodes with a finite distance. Stops early once
+  // `target` is settled, if it is not -1.
+  private void dijkstra(double[] d, int[] b, int target) {
+    int[] offsets = graph.offsets, targets = graph.targets;
+    double[] weights = graph.weights;
+    Heap heap = heaps.get();
+    heap.size = 0;
+    for (int v = 0; v < graph.n; v++) if (d[v] < Double.POSITIVE_INFINITY) heap.push(d[v], v);
+    while (heap.size > 0) {
+      double dist = heap.minKey();
+      int at = heap.pop();
+      if (dist > d[at]) continue;
+      if (at == target) break;
+      for (int e = offsets[at]; e < offsets[at + 1]; e++) {
+        int to = targets[e];
+        double nd = dist + weights[e];
+        if (nd < d[to]) {
+          d[to] = nd;
+          b[to] = e;
+          heap.push(nd, to);
+        }
+      }
+    }
+  }
+
+  // Follows the back pointers from the root of the full subset and collects the edges.
+  private int[] reconstruct() {
+    boolean[] used = new boolean[graph.edgeCount() / 2];
+    Deque<int[]> stack = new ArrayDeque<>();
+    stack.push(new int[] {full, root});
+    while (!stack.isEmpty()) {
+      int[] state = stack.pop();
+      int mask = state[0], v = state[1];
+      int b = back[mask][v];
+      if (b == TERMINAL) continue;
+      if (b >= 0) {
+        used[graph.edgeIds[b]] = true;
+        stack.push(new int[] {mask, source(b)});
+      } else {
+        int s = -2 - b;
+        stack.push(new int[] {s, v});
+        stack.push(new int[] {mask ^ s, v});
+      }
+    }
+    return IntStream.range(0, used.length).filter(i -> used[i]).toArray();
+  }
+
+  // Returns the node whose adjacency list contains CSR index e.
+  private int source(int e) {
+    int lo = 0, hi = graph.n - 1;
+    while (lo < hi) {
+      int mid = (lo + hi + 1) >>> 1;
+      if (graph.offsets[mid] <= e) lo = mid;
+      else hi = mid - 1;
+    }
+    return lo;
+  }
+
+  // A binary min heap of (key, node) pairs in primitive arrays. Nodes may appear more than once,
+  // stale entries are skipped by the caller.
+  private static class Heap {
+    double[] keys = new double[16];
+    int[] nodes = new int[16];
+    int size;
+
+    void push(double key, int node) {
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, 2 * size);
+        nodes = Arrays.copyOf(nodes, 2 * size);
+      }
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (keys[parent] <= key) break;
+        keys[i] = keys[parent];
+        nodes[i] = nodes[parent];
+        i = parent;
+      }
+      keys[i] = key;
+      nodes[i] = node;
+    }
+
+    double minKey() {
+      return keys[0];
+    }
+
+    int pop() {
+      int min = nodes[0];
+      double key = keys[--size];
+      int node = nodes[size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) break;
+        if (child + 1 < size && keys[child + 1] < keys[child]) child++;
+        if (keys[child] >= key) break;
+        keys[i] = keys[child];
+        nodes[i] = nodes[child];
+        i = child;
+      }
+      keys[i] = key;
+      nodes[i] = node;
+      return min;
+    }
+  }
+
+  public static void main(String[] args) {
+    // The second graph from SteinerTree#main:
+    //
+    //   [0]-3-[1]
+    //    |     |
+    //    5     4
+    //    |     |
+    //   [2]   [3]
+    //    | \   |
+    //    7  8  1
+    //    |   \ |
+    //   [4]-2-[5]
+    int[] u = {0, 0, 1, 2, 2, 3, 4};
+    int[] v = {1, 2, 3, 4, 5, 5, 5};
+    double[] w = {3, 5, 4, 7, 8, 1, 2};
+    CsrGraph graph = CsrGraph.undirected(6, u, v, w);
+
+    Result result = SteinerTreeParallel.solve(graph, new int[] {0, 4, 5});
+
+    // Prints: 10.0
+    System.out.println(result.cost);
+
+    // Prints: (0, 1) (1, 3) (3, 5) (4, 5)
+    for (int id : result.edgeIds) System.out.printf("(%d, %d) ", u[id], v[id]);
+    System.out.println();
+  }
+}
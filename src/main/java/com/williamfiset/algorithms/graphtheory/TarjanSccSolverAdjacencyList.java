@@ -30,6 +30,7 @@ public class TarjanSccSolverAdjacencyList {
   private final int n;
   private final List<List<Integer>> adjList;
 
+  private boolean solved;
   private int id;
   private int sccCount;
   private boolean[] visited;
@@ -46,7 +47,20 @@ public class TarjanSccSolverAdjacencyList {
     this.adjList = adjList;
   }
 
+  // Returns the number of strongly connected components in the graph.
+  public int sccCount() {
+    if (!solved) solve();
+    return sccCount;
+  }
+
+  // Returns an array where sccs[i] is the id of the strongly connected component node i belongs to.
+  public int[] getSccs() {
+    if (!solved) solve();
+    return sccs;
+  }
+
   public void solve() {
+    if (solved) return;
     ids = new int[n];
     low = new int[n];
     sccs = new int[n];
@@ -59,6 +73,7 @@ public class TarjanSccSolverAdjacencyList {
         dfs(i);
       }
     }
+    solved = true;
   }
 
   public static void main(String[] arg) {
@@ -81,7 +96,7 @@ public class TarjanSccSolverAdjacencyList {
 
     TarjanSccSolverAdjacencyList solver = new TarjanSccSolverAdjacencyList(graph);
 
-    int[] sccs = solver.sccs;
+    int[] sccs = solver.getSccs();
     Map<Integer, List<Integer>> multimap = new HashMap<>();
     for (int i = 0; i < n; i++) {
       if (!multimap.containsKey(sccs[i])) multimap.put(sccs[i], new ArrayList<>());
@@ -93,7 +108,7 @@ public class TarjanSccSolverAdjacencyList {
     // Nodes: [0, 1, 2] form a Strongly Connected Component.
     // Nodes: [3, 7] form a Strongly Connected Component.
     // Nodes: [4, 5, 6] form a Strongly Connected Component.
-    System.out.printf("Number of Strongly Connected Components: %d\n", solver.sccCount);
+    System.out.printf("Number of Strongly Connected Components: %d\n", solver.sccCount());
     for (List<Integer> scc : multimap.values()) {
       System.out.println("Nodes: " + scc + " form a Strongly Connected Component.");
     }
@@ -0,0 +1,454 @@
+/**
+ * A heuristic solver for the symmetric traveling salesman problem based on local search. Unlike
+ * the dynamic programming solvers, which are limited to about 32 nodes, this solver scales to
+ * instances with many thousands of nodes at the cost of no longer being exact.
+ *
+ * <p>The solver works as follows:
+ *
+ * <ol>
+ *   <li>For every node compute a candidate list holding its k nearest neighbors. Improving moves
+ *       are only searched for among these candidates.
+ *   <li>Build a seed tour, either the nearest neighbor tour or a tour supplied by the caller (for
+ *       example the best individual found by the genetic algorithm).
+ *   <li>Improve the tour with 2-opt and Or-opt moves until no improving move exists. Don't-look
+ *       bits make sure only nodes near a recent change are examined again.
+ *   <li>Optionally, perturb the local optimum with random Or-3opt kicks (swapping two adjacent
+ *       segments, a move 2-opt cannot easily undo), re-optimize and keep the tour if it improved.
+ * </ol>
+ *
+ * <p>The tour is stored as an array of nodes plus the position of every node in that array. A
+ * reversal always flips the shorter of the two sides of the tour.
+ *
+ * <p>Time Complexity: O(n^2 * k) to build the candidate lists, after which each improving move
+ * costs O(k) to find and O(n) in the worst case to apply.
+ *
+ * <p>./gradlew run -Palgorithm=graphtheory.TspLocalSearch
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class TspLocalSearch {
+
+  private static final double EPS = 1e-9;
+
+  // The longest segment moved by an Or-opt move.
+  private static final int MAX_SEGMENT_LENGTH = 3;
+
+  // Kicks only swap segments inside a window of this many positions.
+  private static final int KICK_WINDOW = 50;
+
+  private final int n;
+  private final double[][] distance;
+
+  private int k = 10;
+  private int kicks = 0;
+  private int[] initialTour;
+  private Random random = new Random();
+
+  private double referenceCost = Double.NaN, gap;
+  private long nanosToReachGap = -1;
+  private long startTime;
+
+  private int[][] neighbors;
+  private int[] tour, pos;
+
+  // Don't-look bits are represented by membership of the work queue.
+  private int[] queue;
+  private boolean[] inQueue;
+  private int queueHead, queueSize;
+
+  private List<Integer> bestTour;
+  private double tourCost;
+  private boolean ranSolver = false;
+
+  // The distance matrix is assumed to be symmetric.
+  public TspLocalSearch(double[][] distance) {
+    n = distance.length;
+    if (n <= 2) throw new IllegalStateException("N <= 2 not yet supported.");
+    if (n != distance[0].length) throw new IllegalStateException("Matrix must be square (n x n)");
+    this.distance = distance;
+  }
+
+  // Sets how many nearest neighbors are considered as candidates for every node (default 10).
+  public void setNeighborListSize(int k) {
+    if (k <= 0) throw new IllegalArgumentException("Neighbor list size must be positive.");
+    this.k = k;
+  }
+
+  // Sets the number of Or-3opt kicks performed after the first local optimum (default 0).
+  public void setKicks(int kicks) {
+    if (kicks < 0) throw new IllegalArgumentException("Number of kicks must be non-negative.");
+    this.kicks = kicks;
+  }
+
+  // Seeds the search with the given permutation of the nodes instead of the nearest neighbor tour.
+  public void setInitialTour(int[] initialTour) {
+    if (initialTour.length != n) throw new IllegalArgumentException("Tour must visit all nodes.");
+    boolean[] seen = new boolean[n];
+    for (int node : initialTour) {
+      if (node < 0 || node >= n || seen[node])
+        throw new IllegalArgumentException("Tour must be a permutation of the nodes.");
+      seen[node] = true;
+    }
+    this.initialTour = initialTour.clone();
+  }
+
+  // Fixes the seed of the random number generator used for the kicks.
+  public void setSeed(long seed) {
+    random = new Random(seed);
+  }
+
+  // Records how long the solver takes to find a tour whose cost is within `gap` (e.g. 0.05 for 5%)
+  // of `referenceCost`, usually the optimal tour cost or a lower bound.
+  public void setTargetGap(double referenceCost, double gap) {
+    if (gap < 0) throw new IllegalArgumentException("Gap must be non-negative.");
+    this.referenceCost = referenceCost;
+    this.gap = gap;
+  }
+
+  // Returns the tour found starting and ending at node 0.
+  public List<Integer> getTour() {
+    if (!ranSolver) solve();
+    return bestTour;
+  }
+
+  // Returns the cost of the tour found.
+  public double getTourCost() {
+    if (!ranSolver) solve();
+    return tourCost;
+  }
+
+  // Returns the number of nanoseconds it took to come within the target gap of the reference
+  // cost, or -1 if no target was set or the target was never reached.
+  public long getNanosToReachGap() {
+    if (!ranSolver) solve();
+    return nanosToReachGap;
+  }
+
+  public void solve() {
+    if (ranSolver) return;
+    startTime = System.nanoTime();
+
+    buildNeighborLists();
+    tour = initialTour != null ? initialTour.clone() : nearestNeighborTour();
+    pos = new int[n];
+    for (int i = 0; i < n; i++) pos[tour[i]] = i;
+
+    queue = new int[n];
+    inQueue = new boolean[n];
+    for (int i = 0; i < n; i++) push(tour[i]);
+
+    tourCost = computeCost(tour);
+    checkGap();
+    localSearch();
+
+    int[] best = tour.clone();
+    double bestCost = tourCost;
+    for (int i = 0; i < kicks; i++) {
+      kick();
+      localSearch();
+      if (tourCost < bestCost - EPS) {
+        best = tour.clone();
+        bestCost = tourCost;
+      } else {
+        // Revert to the best tour found so far.
+        System.arraycopy(best, 0, tour, 0, n);
+        for (int j = 0; j < n; j++) pos[tour[j]] = j;
+        tourCost = bestCost;
+      }
+    }
+
+    bestTour = new ArrayList<>(n + 1);
+    int start = pos[0];
+    for (int i = 0; i <= n; i++) bestTour.add(tour[(start + i) % n]);
+    tourCost = computeCost(tour);
+    ranSolver = true;
+  }
+
+  // Keep improving the tour until every node has its don't-look bit set.
+  private void localSearch() {
+    while (queueSize > 0) {
+      int a = pop();
+      while (improveTwoOpt(a) || improveOrOpt(a)) {}
+    }
+  }
+
+  // Tries to find an improving 2-opt move removing one of the two tour edges adjacent to `a`.
+  private boolean improveTwoOpt(int a) {
+    for (int dir = 0; dir < 2; dir++) {
+      int b = dir == 0 ? next(a) : prev(a);
+      double dab = distance[a][b];
+      for (int c : neighbors[a]) {
+        double g1 = dab - distance[a][c];
+        if (g1 <= EPS) break;
+        int d = dir == 0 ? next(c) : prev(c);
+        if (c == b || d == a) continue;
+        double delta = g1 + distance[c][d] - distance[b][d];
+        if (delta > EPS) {
+          move(a, b, c, d);
+          tourCost -= delta;
+          push(a);
+          push(b);
+          push(c);
+          push(d);
+          checkGap();
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Tries to find an improving Or-opt move relocating a segment of up to three nodes which begins
+  // or ends at `a`, possibly reversing the segment.
+  private boolean improveOrOpt(int a) {
+    if (n < MAX_SEGMENT_LENGTH + 3) return false;
+    for (int len = 1; len <= MAX_SEGMENT_LENGTH; len++) {
+      for (int dir = 0; dir < (len == 1 ? 1 : 2); dir++) {
+        int s1 = a, s2 = a;
+        for (int i = 1; i < len; i++) {
+          if (dir == 0) s2 = next(s2);
+          else s1 = prev(s1);
+        }
+        int p = prev(s1), nx = next(s2);
+        double g1 = distance[p][s1] + distance[s2][nx] - distance[p][nx];
+        if (g1 <= EPS) continue;
+        for (int end = 0; end < 2; end++) {
+          int s = end == 0 ? s1 : s2;
+          for (int c : neighbors[s]) {
+            if (distance[s][c] >= g1) break;
+            if (inSegment(c, s1, len)) continue;
+            if (tryInsertion(s1, s2, len, p, nx, g1, prev(c), c)
+                || tryInsertion(s1, s2, len, p, nx, g1, c, next(c))) return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  // Evaluates moving the segment s1..s2 between the adjacent nodes u and v = next(u).
+  private boolean tryInsertion(int s1, int s2, int len, int p, int nx, double g1, int u, int v) {
+    if (inSegment(u, s1, len) || inSegment(v, s1, len)) return false;
+    double forwardCost = distance[u][s1] + distance[s2][v];
+    double reversedCost = distance[u][s2] + distance[s1][v];
+    boolean reversed = reversedCost < forwardCost;
+    double delta = g1 + distance[u][v] - Math.min(forwardCost, reversedCost);
+    if (delta <= EPS) return false;
+
+    // Remove (p, s1), (s2, nx), (u, v) and add (p, nx), (u, s2), (s1, v).
+    move(p, s1, u, v);
+    move(p, u, nx, s2);
+    // Flip the segment to get (u, s1), (s2, v) instead.
+    if (!reversed && s1 != s2) move(u, s2, s1, v);
+
+    tourCost -= delta;
+    push(p);
+    push(nx);
+    push(s1);
+    push(s2);
+    push(u);
+    push(v);
+    checkGap();
+    return true;
+  }
+
+  // Swaps two adjacent random segments within a small window of the tour, a so-called double bridge
+  // or Or-3opt move.
+  private void kick() {
+    if (n < 8) return;
+    int window = Math.min(KICK_WINDOW, n - 2);
+    int start = random.nextInt(n);
+    int[] cuts = {1 + random.nextInt(window), 1 + random.nextInt(window)};
+    Arrays.sort(cuts);
+    if (cuts[0] == cuts[1]) return;
+
+    // The window is start | A = (start, start + cuts[0]] | B = (start + cuts[0], start + cuts[1]].
+    int lenA = cuts[0], lenB = cuts[1] - cuts[0];
+    int[] segment = new int[lenA + lenB];
+    for (int i = 0; i < lenB; i++) segment[i] = tour[(start + lenA + 1 + i) % n];
+    for (int i = 0; i < lenA; i++) segment[lenB + i] = tour[(start + 1 + i) % n];
+
+    int before = tour[start], after = tour[(start + cuts[1] + 1) % n];
+    int a1 = tour[(start + 1) % n], a2 = tour[(start + lenA) % n];
+    int b1 = tour[(start + lenA + 1) % n], b2 = tour[(start + cuts[1]) % n];
+    tourCost +=
+        distance[before][b1]
+            + distance[b2][a1]
+            + distance[a2][after]
+            - distance[before][a1]
+            - distance[a2][b1]
+            - distance[b2][after];
+
+    for (int i = 0; i < segment.length; i++) {
+      int at = (start + 1 + i) % n;
+      tour[at] = segment[i];
+      pos[segment[i]] = at;
+    }
+    push(before);
+    push(after);
+    push(a1);
+    push(a2);
+    push(b1);
+    push(b2);
+  }
+
+  // Replaces the tour edges (t1, t2) and (t3, t4) with (t1, t3) and (t2, t4). Either t2 = next(t1)
+  // and t4 = next(t3), or t2 = prev(t1) and t4 = prev(t3).
+  private void move(int t1, int t2, int t3, int t4) {
+    if (next(t1) == t2) reverse(t2, t3);
+    else reverse(t3, t2);
+  }
+
+  // Reverses the path from `from` to `to` following the tour forwards. If that path is longer than
+  // half the tour then the rest of the tour is reversed instead, which gives the same cycle.
+  private void reverse(int from, int to) {
+    int i = pos[from], j = pos[to];
+    int len = ((j - i + n) % n) + 1;
+    if (2 * len > n) {
+      int tmp = i;
+      i = (j + 1) % n;
+      j = (tmp - 1 + n) % n;
+      len = n - len;
+    }
+    for (int s = 0; s < len / 2; s++) {
+      int a = tour[i], b = tour[j];
+      tour[i] = b;
+      pos[b] = i;
+      tour[j] = a;
+      pos[a] = j;
+      i = i + 1 == n ? 0 : i + 1;
+      j = j == 0 ? n - 1 : j - 1;
+    }
+  }
+
+  // Checks whether `node` belongs to the segment of length `len` starting at `s1`.
+  private boolean inSegment(int node, int s1, int len) {
+    return ((pos[node] - pos[s1] + n) % n) < len;
+  }
+
+  private int next(int node) {
+    int i = pos[node] + 1;
+    return tour[i == n ? 0 : i];
+  }
+
+  private int prev(int node) {
+    int i = pos[node];
+    return tour[i == 0 ? n - 1 : i - 1];
+  }
+
+  private void push(int node) {
+    if (inQueue[node]) return;
+    inQueue[node] = true;
+    queue[(queueHead + queueSize++) % n] = node;
+  }
+
+  private int pop() {
+    int node = queue[queueHead];
+    queueHead = (queueHead + 1) % n;
+    queueSize--;
+    inQueue[node] = false;
+    return node;
+  }
+
+  private void checkGap() {
+    if (nanosToReachGap >= 0 || Double.isNaN(referenceCost)) return;
+    if (tourCost <= referenceCost * (1 + gap) + EPS) nanosToReachGap = System.nanoTime() - startTime;
+  }
+
+  // Computes the k nearest neighbors of every node sorted by increasing distance.
+  private void buildNeighborLists() {
+    int size = Math.min(k, n - 1);
+    neighbors = new int[n][size];
+    for (int i = 0; i < n; i++) {
+      int[] list = neighbors[i];
+      int count = 0;
+      for (int j = 0; j < n; j++) {
+        if (i == j) continue;
+        double d = distance[i][j];
+        if (count == size && d >= distance[i][list[size - 1]]) continue;
+        // Insertion sort the new candidate into the list.
+        int at = count < size ? count++ : size - 1;
+        while (at > 0 && distance[i][list[at - 1]] > d) {
+          list[at] = list[at - 1];
+          at--;
+        }
+        list[at] = j;
+      }
+    }
+  }
+
+  // Constructs a tour starting at node 0 which always travels to the closest unvisited node. The
+  // candidate lists are checked first and a full scan is only done when they are exhausted.
+  private int[] nearestNeighborTour() {
+    int[] order = new int[n];
+    boolean[] visited = new boolean[n];
+    int at = 0;
+    visited[0] = true;
+    for (int i = 1; i < n; i++) {
+      int best = -1;
+      for (int c : neighbors[at]) {
+        if (!visited[c]) {
+          best = c;
+          break;
+        }
+      }
+      if (best == -1) {
+        for (int j = 0; j < n; j++) {
+          if (!visited[j] && (best == -1 || distance[at][j] < distance[at][best])) best = j;
+        }
+      }
+      order[i] = at = best;
+      visited[best] = true;
+    }
+    return order;
+  }
+
+  private double computeCost(int[] order) {
+    double cost = distance[order[n - 1]][order[0]];
+    for (int i = 1; i < n; i++) cost += distance[order[i - 1]][order[i]];
+    return cost;
+  }
+
+  public static void main(String[] args) {
+    // Place n cities evenly spaced on a circle, the optimal tour visits them in order.
+    int n = 2000;
+    double[][] x = new double[n][2];
+    for (int i = 0; i < n; i++) {
+      double angle = 2 * Math.PI * i / n;
+      x[i][0] = Math.cos(angle);
+      x[i][1] = Math.sin(angle);
+    }
+    double[][] distance = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        distance[i][j] = Math.hypot(x[i][0] - x[j][0], x[i][1] - x[j][1]);
+      }
+    }
+    double optimal = n * distance[0][1];
+
+    // Start from a random tour to give the local search something to do.
+    Random random = new Random(0);
+    int[] seed = new int[n];
+    for (int i = 0; i < n; i++) seed[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = seed[i];
+      seed[i] = seed[j];
+      seed[j] = tmp;
+    }
+
+    TspLocalSearch solver = new TspLocalSearch(distance);
+    solver.setInitialTour(seed);
+    solver.setKicks(100);
+    solver.setTargetGap(optimal, 0.01);
+
+    System.out.printf("Optimal cost: %.4f\n", optimal);
+    System.out.printf("Tour cost: %.4f\n", solver.getTourCost());
+    System.out.printf("Time to 1%% gap: %.2f ms\n", solver.getNanosToReachGap() / 1e6);
+  }
+}
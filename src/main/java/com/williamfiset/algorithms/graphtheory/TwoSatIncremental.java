@@ -0,0 +1,207 @@
+/**
+ * An incremental 2SAT solver which answers whether the clauses added so far are still satisfiable
+ * after every new clause, without solving the whole problem again like {@link
+ * TwoSatSolverAdjacencyList} does.
+ *
+ * <p>Literals use the same encoding as {@link TwoSatSolverAdjacencyList}: variable i is literal 2i
+ * and its negation is literal 2i + 1, so the negation of any literal p is p ^ 1.
+ *
+ * <p>The solver maintains the implication graph together with an assignment satisfying all
+ * clauses. A new clause (p or q) that the assignment violates is handled by unit propagation: p is
+ * set to true along with every currently false literal it implies. If that would make some literal
+ * and its negation true at once, p is impossible and q is tried instead. If both fail the clauses
+ * are unsatisfiable. Otherwise every clause is still satisfied, since propagation only stops at
+ * literals which are already true and whose implications are therefore true as well. Each step
+ * only visits the literals whose value actually flips.
+ *
+ * <p>Assumptions are temporary unit clauses which can be retracted again in any order. They are
+ * propagated the same way, while the assumed literals are pinned to true. Retracting an
+ * assumption never invalidates the assignment, and only when the assumptions were in conflict are
+ * the remaining assumptions propagated again.
+ *
+ * <p>Time Complexity: O(V+E) per added clause or assumption in the worst case
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TwoSatIncremental {
+
+  private final int n;
+  private final List<List<Integer>> graph;
+  private final List<Integer> assumptions = new ArrayList<>();
+
+  // truth[p] is the value of literal p in the current assignment, pins[p] is the number of times
+  // literal p is assumed.
+  private final boolean[] truth;
+  private final int[] pins;
+
+  private boolean clausesSatisfiable = true;
+  private boolean assumptionsConflict;
+
+  // Workspace for propagate().
+  private final boolean[] marked;
+  private final int[] queue;
+
+  /** @param n - The number of variables, literals are numbered 0, 1, ..., 2n - 1. */
+  public TwoSatIncremental(int n) {
+    if (n < 0) throw new IllegalArgumentException("Number of variables cannot be negative");
+    this.n = n;
+    graph = TwoSatSolverAdjacencyList.createImplicationGraph(n);
+    truth = new boolean[2 * n];
+    pins = new int[2 * n];
+    marked = new boolean[2 * n];
+    queue = new int[2 * n];
+    // Start with all variables false, which satisfies the empty set of clauses.
+    for (int i = 0; i < n; i++) truth[2 * i + 1] = true;
+  }
+
+  // Returns true if the clauses together with the current assumptions are satisfiable.
+  public boolean isSatisfiable() {
+    return clausesSatisfiable && !assumptionsConflict;
+  }
+
+  // Adds the clause (p or q) and returns whether the problem is still satisfiable.
+  public boolean addOrClause(int p, int q) {
+    checkLiteral(p);
+    checkLiteral(q);
+    TwoSatSolverAdjacencyList.addOrClause(graph, p, q);
+    if (!clausesSatisfiable || truth[p] || truth[q]) return isSatisfiable();
+
+    boolean usePins = !assumptionsConflict;
+    if (propagate(p, usePins) || propagate(q, usePins)) return isSatisfiable();
+
+    // The clause contradicts the assumptions, or the other clauses themselves.
+    if (usePins && (propagate(p, false) || propagate(q, false))) assumptionsConflict = true;
+    else clausesSatisfiable = false;
+    return false;
+  }
+
+  // Adds the clauses (p or q) and (~p or ~q) and returns whether the problem is still satisfiable.
+  public boolean addXorClause(int p, int q) {
+    addOrClause(p, q);
+    return addOrClause(p ^ 1, q ^ 1);
+  }
+
+  // Temporarily assumes that `literal` is true and returns whether the problem is still
+  // satisfiable.
+  public boolean assume(int literal) {
+    checkLiteral(literal);
+    assumptions.add(literal);
+    pins[literal]++;
+    if (clausesSatisfiable && !assumptionsConflict && !propagate(literal, true)) {
+      assumptionsConflict = true;
+    }
+    return isSatisfiable();
+  }
+
+  // Retracts one previous assumption of `literal`.
+  public void retract(int literal) {
+    if (!assumptions.remove((Integer) literal)) {
+      throw new IllegalArgumentException("Literal " + literal + " is not assumed");
+    }
+    pins[literal]--;
+    if (assumptionsConflict && clausesSatisfiable) reapplyAssumptions();
+  }
+
+  // Retracts all assumptions.
+  public void retractAll() {
+    for (int literal : assumptions) pins[literal]--;
+    assumptions.clear();
+    assumptionsConflict = false;
+  }
+
+  public List<Integer> getAssumptions() {
+    return new ArrayList<>(assumptions);
+  }
+
+  // Returns a satisfying assignment where value[i] is the value of variable i.
+  public boolean[] getAssignment() {
+    if (!isSatisfiable()) throw new IllegalStateException("Problem is not satisfiable");
+    boolean[] value = new boolean[n];
+    for (int i = 0; i < n; i++) value[i] = truth[2 * i];
+    return value;
+  }
+
+  // The assignment still satisfies all clauses, so only the assumptions need to be propagated
+  // again. Pinned literals which have not been propagated yet may still be false, in which case a
+  // conflict between two assumptions is found when the second one is propagated.
+  private void reapplyAssumptions() {
+    assumptionsConflict = false;
+    for (int literal : assumptions) {
+      if (!propagate(literal, true)) {
+        assumptionsConflict = true;
+        return;
+      }
+    }
+  }
+
+  // Tries to make `literal` true together with all currently false literals it implies. Returns
+  // false and leaves the assignment unchanged if a literal and its negation would both become true,
+  // or, if `usePins` is set, if the negation of an assumed literal would become true.
+  private boolean propagate(int literal, boolean usePins) {
+    if (truth[literal]) return true;
+    int head = 0, tail = 0;
+    marked[literal] = true;
+    queue[tail++] = literal;
+    boolean conflict = usePins && pins[literal ^ 1] > 0;
+
+    while (head < tail && !conflict) {
+      int at = queue[head++];
+      for (int to : graph.get(at)) {
+        if (marked[to]) continue;
+        if (marked[to ^ 1] || (usePins && !truth[to] && pins[to ^ 1] > 0)) {
+          conflict = true;
+          break;
+        }
+        marked[to] = true;
+        queue[tail++] = to;
+      }
+      // Literals which are already true are marked to detect conflicts, but not expanded.
+      while (head < tail && truth[queue[head]]) head++;
+    }
+
+    for (int i = 0; i < tail; i++) {
+      int p = queue[i];
+      marked[p] = false;
+      if (!conflict && !truth[p]) {
+        truth[p] = true;
+        truth[p ^ 1] = false;
+      }
+    }
+    return !conflict;
+  }
+
+  private void checkLiteral(int literal) {
+    if (literal < 0 || literal >= 2 * n) {
+      throw new IllegalArgumentException("Invalid literal: " + literal);
+    }
+  }
+
+  public static void main(String[] args) {
+    // Variables 0, 1 and 2 are literals 0, 2 and 4, their negations are 1, 3 and 5.
+    TwoSatIncremental solver = new TwoSatIncremental(3);
+
+    // Prints: true true true
+    System.out.println(solver.addOrClause(0, 2)); // (x0 or x1)
+    System.out.println(solver.addOrClause(1, 4)); // (~x0 or x2)
+    System.out.println(solver.addOrClause(3, 5)); // (~x1 or ~x2)
+
+    // Assuming x2 forces x1 to be false and therefore x0 to be true.
+    // Prints: true [true, false, true]
+    System.out.println(solver.assume(4));
+    System.out.println(Arrays.toString(solver.getAssignment()));
+
+    // Prints: false
+    System.out.println(solver.assume(1)); // also assume ~x0
+
+    // Retracting x2 resolves the conflict.
+    solver.retract(4);
+
+    // Prints: true [false, true, false]
+    System.out.println(solver.isSatisfiable());
+    System.out.println(Arrays.toString(solver.getAssignment()));
+  }
+}
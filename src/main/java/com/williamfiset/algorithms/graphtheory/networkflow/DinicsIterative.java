@@ -0,0 +1,395 @@
+/**
+ * A non-recursive implementation of Dinic's network flow algorithm. Unlike {@link Dinics}, the
+ * blocking flow of each level graph is found with an explicit stack of edges, so long level graphs
+ * cannot overflow the call stack. Every node keeps a current-arc pointer to its first edge which
+ * may still lead to the sink, and all working arrays are allocated once and reused between phases.
+ *
+ * <p>After the BFS from the source builds the level graph, a reversed BFS from the sink removes all
+ * nodes which cannot reach the sink inside the level graph, so the blocking flow search never
+ * enters them. Nodes found to be dead ends during the search are removed as well.
+ *
+ * <p>Optionally the blocking flow can be computed with a link-cut tree (a Sleator-Tarjan dynamic
+ * tree) instead. The tree remembers the partial augmenting paths found so far, which bounds the
+ * work per phase by O(Elog(V)) instead of O(VE). This pays off on graphs with many long augmenting
+ * paths of small capacity, e.g. unit capacity networks with deep level graphs.
+ *
+ * <p>Time Complexity: O(EV²), or O(VElog(V)) with dynamic trees
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+
+public class DinicsIterative extends NetworkFlowSolverBase {
+
+  private final boolean useDynamicTrees;
+
+  private Edge[][] adj;
+  private int[] level, next, queue, alive;
+  private Edge[] path;
+  private int phase;
+
+  // The remaining capacity of each node's tree edge when it was linked, only used with dynamic
+  // trees. An entry is written whenever its node is linked, so it is never cleared.
+  private long[] linkedCapacity;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public DinicsIterative(int n, int s, int t) {
+    this(n, s, t, false);
+  }
+
+  /** @param useDynamicTrees - Find blocking flows with a link-cut tree. */
+  public DinicsIterative(int n, int s, int t, boolean useDynamicTrees) {
+    super(n, s, t);
+    this.useDynamicTrees = useDynamicTrees;
+  }
+
+  @Override
+  public void solve() {
+    adj = new Edge[n][];
+    for (int i = 0; i < n; i++) adj[i] = graph[i].toArray(new Edge[0]);
+    level = new int[n];
+    next = new int[n];
+    queue = new int[n];
+    alive = new int[n];
+    path = new Edge[n];
+    linkedCapacity = useDynamicTrees ? new long[n] : null;
+    LinkCutTree tree = useDynamicTrees ? new LinkCutTree(n) : null;
+
+    while (bfs()) {
+      Arrays.fill(next, 0);
+      maxFlow += useDynamicTrees ? dynamicTreeBlockingFlow(tree) : blockingFlow();
+    }
+
+    for (int i = 0; i < n; i++) if (level[i] != -1) minCut[i] = true;
+  }
+
+  // Computes the level of each node, the minimum number of edges from the source. Afterwards all
+  // nodes which cannot reach the sink in the level graph get level -1.
+  private boolean bfs() {
+    Arrays.fill(level, -1);
+    int head = 0, tail = 0;
+    level[s] = 0;
+    queue[tail++] = s;
+    while (head < tail) {
+      int at = queue[head++];
+      for (Edge edge : adj[at]) {
+        if (edge.remainingCapacity() > 0 && level[edge.to] == -1) {
+          level[edge.to] = level[at] + 1;
+          queue[tail++] = edge.to;
+        }
+      }
+    }
+    if (level[t] == -1) return false;
+
+    // Reversed BFS from the sink along edges of the level graph.
+    phase++;
+    head = tail = 0;
+    alive[t] = phase;
+    queue[tail++] = t;
+    while (head < tail) {
+      int at = queue[head++];
+      for (Edge edge : adj[at]) {
+        // edge.residual is the edge from edge.to into `at`.
+        int from = edge.to;
+        if (alive[from] != phase
+            && level[from] == level[at] - 1
+            && edge.residual.remainingCapacity() > 0) {
+          alive[from] = phase;
+          queue[tail++] = from;
+        }
+      }
+    }
+    for (int i = 0; i < n; i++) if (alive[i] != phase) level[i] = -1;
+    return true;
+  }
+
+  private boolean isLevelEdge(int at, Edge edge) {
+    return edge.remainingCapacity() > 0 && level[edge.to] == level[at] + 1;
+  }
+
+  // Finds a blocking flow with an explicit stack holding the edges of the current path.
+  private long blockingFlow() {
+    long total = 0;
+    int top = 0, at = s;
+    while (true) {
+      if (at == t) {
+        // Augment along the path and retreat to the tail of the first saturated edge.
+        long bottleNeck = INF;
+        int saturated = 0;
+        for (int i = 0; i < top; i++) {
+          if (path[i].remainingCapacity() < bottleNeck) {
+            bottleNeck = path[i].remainingCapacity();
+            saturated = i;
+          }
+        }
+        for (int i = 0; i < top; i++) path[i].augment(bottleNeck);
+        total += bottleNeck;
+        top = saturated;
+        at = path[top].from;
+        continue;
+      }
+
+      Edge[] edges = adj[at];
+      while (next[at] < edges.length && !isLevelEdge(at, edges[next[at]])) next[at]++;
+      if (next[at] < edges.length) {
+        path[top++] = edges[next[at]];
+        at = edges[next[at]].to;
+      } else {
+        // Dead end, remove `at` from the level graph and retreat.
+        if (at == s) return total;
+        level[at] = -1;
+        at = path[--top].from;
+        next[at]++;
+      }
+    }
+  }
+
+  // Finds a blocking flow by growing a forest of partial paths towards the sink. The parent of a
+  // node in the link-cut tree is the head of its current arc and its value is the remaining
+  // capacity of that arc, so the path from the source to its root is an augmenting path once the
+  // root is the sink. Flow is only written back to an edge when it is cut from the tree.
+  private long dynamicTreeBlockingFlow(LinkCutTree tree) {
+    tree.reset();
+    Edge[] parentEdge = path;
+    long[] linkedCapacity = this.linkedCapacity;
+    Arrays.fill(parentEdge, null);
+    long total = 0;
+
+    while (true) {
+      int root = tree.findRoot(s);
+      if (root == t) {
+        int u = tree.pathMin(s);
+        long bottleNeck = tree.value(u);
+        tree.addToPath(s, -bottleNeck);
+        tree.setValue(t, INF);
+        total += bottleNeck;
+        // Cut all saturated edges on the path.
+        for (u = tree.pathMin(s); tree.value(u) == 0; u = tree.pathMin(s)) {
+          cut(tree, u, parentEdge, linkedCapacity);
+          next[u]++;
+        }
+        continue;
+      }
+
+      Edge[] edges = adj[root];
+      while (next[root] < edges.length && !isLevelEdge(root, edges[next[root]])) next[root]++;
+      if (next[root] < edges.length) {
+        Edge edge = edges[next[root]];
+        parentEdge[root] = edge;
+        linkedCapacity[root] = edge.remainingCapacity();
+        tree.setValue(root, linkedCapacity[root]);
+        tree.link(root, edge.to);
+      } else {
+        // Dead end, remove `root` from the level graph and cut all tree edges pointing to it.
+        if (root == s) break;
+        level[root] = -1;
+        for (Edge edge : edges) {
+          int child = edge.to;
+          if (parentEdge[child] == edge.residual) {
+            cut(tree, child, parentEdge, linkedCapacity);
+            next[child]++;
+          }
+        }
+      }
+    }
+
+    // Write back the flow of the edges still in the tree.
+    for (int u = 0; u < n; u++) if (parentEdge[u] != null) cut(tree, u, parentEdge, linkedCapacity);
+    return total;
+  }
+
+  private static void cut(LinkCutTree tree, int u, Edge[] parentEdge, long[] linkedCapacity) {
+    parentEdge[u].augment(linkedCapacity[u] - tree.value(u));
+    tree.cut(u);
+    tree.setValue(u, INF);
+    parentEdge[u] = null;
+  }
+
+  // A link-cut tree over rooted trees supporting path minimum and path add queries. The path of a
+  // node is the path from the node up to the root of its tree.
+  private static class LinkCutTree {
+    final int[] left, right, parent, stack;
+    final long[] value, min, lazy;
+
+    LinkCutTree(int n) {
+      stack = new int[n];
+      left = new int[n];
+      right = new int[n];
+      parent = new int[n];
+      value = new long[n];
+      min = new long[n];
+      lazy = new long[n];
+    }
+
+    void reset() {
+      Arrays.fill(left, -1);
+      Arrays.fill(right, -1);
+      Arrays.fill(parent, -1);
+      Arrays.fill(value, INF);
+      Arrays.fill(min, INF);
+      Arrays.fill(lazy, 0);
+    }
+
+    // Returns the root of the tree containing x.
+    int findRoot(int x) {
+      access(x);
+      while (left[x] != -1) {
+        push(x);
+        x = left[x];
+      }
+      splay(x);
+      return x;
+    }
+
+    // Makes the tree root x a child of p.
+    void link(int x, int p) {
+      access(x);
+      parent[x] = p;
+    }
+
+    // Removes the edge from x to its parent.
+    void cut(int x) {
+      access(x);
+      if (left[x] != -1) {
+        parent[left[x]] = -1;
+        left[x] = -1;
+        update(x);
+      }
+    }
+
+    long value(int x) {
+      access(x);
+      return value[x];
+    }
+
+    void setValue(int x, long v) {
+      access(x);
+      value[x] = v;
+      update(x);
+    }
+
+    void addToPath(int x, long delta) {
+      access(x);
+      apply(x, delta);
+    }
+
+    // Returns a node with the minimum value on the path of x.
+    int pathMin(int x) {
+      access(x);
+      long target = min[x];
+      while (true) {
+        push(x);
+        if (value[x] == target) break;
+        x = left[x] != -1 && min[left[x]] == target ? left[x] : right[x];
+      }
+      splay(x);
+      return x;
+    }
+
+    private boolean isSplayRoot(int x) {
+      int p = parent[x];
+      return p == -1 || (left[p] != x && right[p] != x);
+    }
+
+    private void apply(int x, long delta) {
+      if (x == -1) return;
+      value[x] += delta;
+      min[x] += delta;
+      lazy[x] += delta;
+    }
+
+    private void push(int x) {
+      if (lazy[x] != 0) {
+        apply(left[x], lazy[x]);
+        apply(right[x], lazy[x]);
+        lazy[x] = 0;
+      }
+    }
+
+    private void update(int x) {
+      long m = value[x];
+      if (left[x] != -1) m = Math.min(m, min[left[x]]);
+      if (right[x] != -1) m = Math.min(m, min[right[x]]);
+      min[x] = m;
+    }
+
+    private void rotate(int x) {
+      int p = parent[x], g = parent[p];
+      if (!isSplayRoot(p)) {
+        if (left[g] == p) left[g] = x;
+        else right[g] = x;
+      }
+      parent[x] = g;
+      if (left[p] == x) {
+        left[p] = right[x];
+        if (right[x] != -1) parent[right[x]] = p;
+        right[x] = p;
+      } else {
+        right[p] = left[x];
+        if (left[x] != -1) parent[left[x]] = p;
+        left[x] = p;
+      }
+      parent[p] = x;
+      update(p);
+      update(x);
+    }
+
+    private void splay(int x) {
+      pushFromSplayRoot(x);
+      while (!isSplayRoot(x)) {
+        int p = parent[x];
+        if (!isSplayRoot(p)) {
+          int g = parent[p];
+          rotate((left[g] == p) == (left[p] == x) ? p : x);
+        }
+        rotate(x);
+      }
+    }
+
+    // Pushes pending additions down from the root of x's splay tree to x.
+    private void pushFromSplayRoot(int x) {
+      int size = 0;
+      stack[size++] = x;
+      while (!isSplayRoot(x)) stack[size++] = x = parent[x];
+      while (size > 0) push(stack[--size]);
+    }
+
+    // Makes the path from the root to x the preferred path, with x at the root of its splay tree.
+    private void access(int x) {
+      for (int y = x, last = -1; y != -1; last = y, y = parent[y]) {
+        splay(y);
+        right[y] = last;
+        update(y);
+      }
+      splay(x);
+    }
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // Same graph as in Dinics#testSmallFlowGraph
+    int n = 6, s = n - 1, t = n - 2;
+    for (boolean useDynamicTrees : new boolean[] {false, true}) {
+      DinicsIterative solver = new DinicsIterative(n, s, t, useDynamicTrees);
+      solver.addEdge(s, 0, 10);
+      solver.addEdge(s, 1, 10);
+      solver.addEdge(2, t, 10);
+      solver.addEdge(3, t, 10);
+      solver.addEdge(0, 1, 2);
+      solver.addEdge(0, 2, 4);
+      solver.addEdge(0, 3, 8);
+      solver.addEdge(1, 3, 9);
+      solver.addEdge(3, 2, 6);
+
+      System.out.println(solver.getMaxFlow()); // 19
+    }
+  }
+}
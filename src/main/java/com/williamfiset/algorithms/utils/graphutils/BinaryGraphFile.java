@@ -0,0 +1,451 @@
+/**
+ * A compact binary file format for CSR graphs, so that large graphs are parsed once and then
+ * loaded by mapping the file into memory instead of rebuilding them edge by edge.
+ *
+ * <p>All values are little-endian. The file consists of:
+ *
+ * <pre>
+ *   header   32 bytes: magic "CSRG", version (int), flags (int, bit 0 = weighted), n (int),
+ *            m (long, the number of stored edges), 8 reserved bytes
+ *   offsets  n + 1 longs, the edges of node i are [offsets[i], offsets[i + 1])
+ *   targets  m ints
+ *   weights  m doubles, only if weighted, after padding the targets to a multiple of 8 bytes
+ * </pre>
+ *
+ * <p>Text edge lists are converted in two streaming passes: the first counts the degree of every
+ * node, the second writes every edge straight into its final place in the mapped output file. Only
+ * the O(V) offsets are kept in memory, so the number of edges is not limited by the heap or by the
+ * 2^31 array size limit.
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public final class BinaryGraphFile {
+
+  static final int MAGIC = 0x47525343; // "CSRG" in little-endian byte order
+  static final int VERSION = 1;
+  static final int WEIGHTED = 1;
+  static final int HEADER_BYTES = 32;
+
+  // Segments hold 2^27 elements, i.e. at most 1GiB of longs or doubles per mapping.
+  static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+  private BinaryGraphFile() {}
+
+  @FunctionalInterface
+  public interface EdgeConsumer {
+    // The weight is ignored for unweighted graphs.
+    void accept(int from, int to, double weight);
+  }
+
+  // A repeatable sequence of edges.
+  @FunctionalInterface
+  public interface EdgeSource {
+    void forEachEdge(EdgeConsumer consumer) throws IOException;
+  }
+
+  // Writes a CsrGraph. Edge ids are not stored.
+  public static void write(CsrGraph graph, Path path) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      Output out = new Output(channel);
+      long m = graph.edgeCount();
+      writeHeader(out, graph.n, m, graph.weights != null);
+      for (int offset : graph.offsets) out.putLong(offset);
+      for (int target : graph.targets) out.putInt(target);
+      if (graph.weights != null) {
+        if (m % 2 != 0) out.putInt(0);
+        for (double w : graph.weights) out.putDouble(w);
+      }
+      out.flush();
+    }
+  }
+
+  public static MappedCsrGraph map(Path path) throws IOException {
+    return map(path, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  /**
+   * Maps a graph file into memory.
+   *
+   * @param segmentShift - Every array is mapped in segments of 2^segmentShift elements.
+   */
+  static MappedCsrGraph map(Path path, int segmentShift) throws IOException {
+    if (segmentShift < 1 || segmentShift > 27) {
+      throw new IllegalArgumentException("Invalid segment shift: " + segmentShift);
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining() && channel.read(header) >= 0) {}
+      if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a binary graph file: " + path);
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IOException("Unsupported version: " + header.getInt(4));
+      }
+      boolean weighted = (header.getInt(8) & WEIGHTED) != 0;
+      int n = header.getInt(12);
+      long m = header.getLong(16);
+      if (n < 0 || m < 0) throw new IOException("Corrupt header: " + path);
+      Layout layout = new Layout(n, m, weighted);
+      if (channel.size() < layout.size) throw new IOException("Truncated file: " + path);
+
+      FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+      MappedByteBuffer[] o = mapArray(channel, mode, layout.offsets, n + 1L, 8, segmentShift);
+      MappedByteBuffer[] t = mapArray(channel, mode, layout.targets, m, 4, segmentShift);
+      MappedByteBuffer[] w =
+          weighted ? mapArray(channel, mode, layout.weights, m, 8, segmentShift) : null;
+
+      LongBuffer[] offsets = new LongBuffer[o.length];
+      for (int i = 0; i < o.length; i++) offsets[i] = o[i].asLongBuffer();
+      IntBuffer[] targets = new IntBuffer[t.length];
+      for (int i = 0; i < t.length; i++) targets[i] = t[i].asIntBuffer();
+      DoubleBuffer[] weights = null;
+      if (weighted) {
+        weights = new DoubleBuffer[w.length];
+        for (int i = 0; i < w.length; i++) weights[i] = w[i].asDoubleBuffer();
+      }
+      return new MappedCsrGraph(n, m, segmentShift, offsets, targets, weights);
+    }
+  }
+
+  /**
+   * Converts a text edge list into a binary graph file. Every non-empty line which does not start
+   * with '#' or '%' holds an edge "from to" or "from to weight" separated by whitespace, where the
+   * nodes are non-negative integers. Either all edges have a weight or none do. The number of
+   * nodes is one more than the largest node id.
+   *
+   * @param undirected - Whether every edge is also stored in the reverse direction.
+   */
+  public static void convertEdgeList(Path text, Path out, boolean undirected) throws IOException {
+    convertEdgeList(text, out, undirected, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  static void convertEdgeList(Path text, Path out, boolean undirected, int segmentShift)
+      throws IOException {
+    // First pass: count the degree of every node and find the number of nodes.
+    long[] degree = new long[16];
+    int n = 0;
+    long m = 0;
+    boolean weighted = false;
+    try (EdgeListReader reader = new EdgeListReader(Files.newInputStream(text))) {
+      while (reader.next()) {
+        if (m == 0) weighted = reader.weighted;
+        else if (reader.weighted != weighted) {
+          throw new IllegalArgumentException(
+              "Line " + reader.line + ": either all edges or no edges must have a weight");
+        }
+        int max = Math.max(reader.from, reader.to);
+        if (max >= degree.length) degree = Arrays.copyOf(degree, Math.max(max + 1, 2 * n));
+        n = Math.max(n, max + 1);
+        degree[reader.from]++;
+        if (undirected) degree[reader.to]++;
+        m++;
+      }
+    }
+
+    writeEdges(
+        out,
+        n,
+        weighted,
+        undirected,
+        degree,
+        consumer -> {
+          try (EdgeListReader reader = new EdgeListReader(Files.newInputStream(text))) {
+            while (reader.next()) consumer.accept(reader.from, reader.to, reader.weight);
+          }
+        },
+        segmentShift);
+  }
+
+  /**
+   * Writes the edges of `source` to a binary graph file without holding them in memory. The
+   * source is iterated twice, so it must produce the same edges every time.
+   *
+   * @param n - The number of nodes, all edges must be between nodes in [0, n).
+   * @param undirected - Whether every edge is also stored in the reverse direction.
+   */
+  public static void write(
+      Path out, int n, boolean weighted, boolean undirected, EdgeSource source)
+      throws IOException {
+    if (n < 0) throw new IllegalArgumentException("Invalid number of nodes: " + n);
+    // First pass: count the degree of every node.
+    long[] degree = new long[n];
+    source.forEachEdge(
+        (from, to, weight) -> {
+          if (from < 0 || from >= n || to < 0 || to >= n) {
+            throw new IllegalArgumentException("Invalid edge: " + from + " -> " + to);
+          }
+          degree[from]++;
+          if (undirected) degree[to]++;
+        });
+    writeEdges(out, n, weighted, undirected, degree, source, DEFAULT_SEGMENT_SHIFT);
+  }
+
+  // Second pass of writing a file once the degrees are known: places every edge of the source at
+  // the next free position of its node in the mapped file.
+  private static void writeEdges(
+      Path out,
+      int n,
+      boolean weighted,
+      boolean undirected,
+      long[] degree,
+      EdgeSource source,
+      int segmentShift)
+      throws IOException {
+    long[] offsets = new long[n + 1];
+    for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + degree[i];
+    long m = offsets[n];
+    Layout layout = new Layout(n, m, weighted);
+
+    try (FileChannel channel =
+        FileChannel.open(
+            out,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      Output header = new Output(channel);
+      writeHeader(header, n, m, weighted);
+      for (long offset : offsets) header.putLong(offset);
+      header.flush();
+
+      FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+      MappedByteBuffer[] t = mapArray(channel, mode, layout.targets, m, 4, segmentShift);
+      MappedByteBuffer[] w =
+          weighted ? mapArray(channel, mode, layout.weights, m, 8, segmentShift) : null;
+      long mask = (1L << segmentShift) - 1;
+      long[] cursor = offsets;
+      source.forEachEdge(
+          (from, to, weight) -> {
+            long at = cursor[from]++;
+            t[(int) (at >>> segmentShift)].putInt((int) (at & mask) * 4, to);
+            if (weighted) w[(int) (at >>> segmentShift)].putDouble((int) (at & mask) * 8, weight);
+            if (undirected) {
+              at = cursor[to]++;
+              t[(int) (at >>> segmentShift)].putInt((int) (at & mask) * 4, from);
+              if (weighted) {
+                w[(int) (at >>> segmentShift)].putDouble((int) (at & mask) * 8, weight);
+              }
+            }
+          });
+      for (MappedByteBuffer buffer : t) buffer.force();
+      if (weighted) for (MappedByteBuffer buffer : w) buffer.force();
+    }
+  }
+
+  private static void writeHeader(Output out, int n, long m, boolean weighted) throws IOException {
+    out.putInt(MAGIC);
+    out.putInt(VERSION);
+    out.putInt(weighted ? WEIGHTED : 0);
+    out.putInt(n);
+    out.putLong(m);
+    out.putLong(0);
+  }
+
+  // Maps `count` elements of `size` bytes starting at byte `position` in segments of
+  // 2^segmentShift elements.
+  private static MappedByteBuffer[] mapArray(
+      FileChannel channel,
+      FileChannel.MapMode mode,
+      long position,
+      long count,
+      int size,
+      int segmentShift)
+      throws IOException {
+    long perSegment = 1L << segmentShift;
+    int segments = (int) Math.max(1, (count + perSegment - 1) / perSegment);
+    MappedByteBuffer[] buffers = new MappedByteBuffer[segments];
+    for (int s = 0; s < segments; s++) {
+      long first = s * perSegment;
+      long length = Math.min(perSegment, count - first);
+      buffers[s] = channel.map(mode, position + first * size, length * size);
+      buffers[s].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return buffers;
+  }
+
+  // The byte positions of the arrays in a file.
+  private static class Layout {
+    final long offsets, targets, weights, size;
+
+    Layout(int n, long m, boolean weighted) {
+      offsets = HEADER_BYTES;
+      targets = offsets + 8 * (n + 1L);
+      weights = targets + 4 * (m + m % 2);
+      size = weighted ? weights + 8 * m : targets + 4 * m;
+    }
+  }
+
+  // Buffered little-endian output to a channel.
+  private static class Output {
+    final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    Output(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    void putInt(int value) throws IOException {
+      if (buffer.remaining() < 4) flush();
+      buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+      if (buffer.remaining() < 8) flush();
+      buffer.putLong(value);
+    }
+
+    void putDouble(double value) throws IOException {
+      if (buffer.remaining() < 8) flush();
+      buffer.putDouble(value);
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) channel.write(buffer);
+      buffer.clear();
+    }
+  }
+
+  // Reads the edges of a text edge list one line at a time without creating a String per line.
+  private static class EdgeListReader implements Closeable {
+    final InputStream in;
+    final byte[] buffer = new byte[1 << 16];
+    int length, position;
+    final StringBuilder token = new StringBuilder();
+
+    long line;
+    int from, to;
+    double weight;
+    boolean weighted;
+
+    EdgeListReader(InputStream in) {
+      this.in = new BufferedInputStream(in, 1 << 16);
+    }
+
+    int peek() throws IOException {
+      if (position == length) {
+        length = in.read(buffer);
+        position = 0;
+        if (length <= 0) {
+          length = 0;
+          return -1;
+        }
+      }
+      return buffer[position];
+    }
+
+    // Skips spaces and tabs and returns the next character without consuming it.
+    int skipBlanks() throws IOException {
+      int c;
+      while ((c = peek()) == ' ' || c == '\t') position++;
+      return c;
+    }
+
+    // Reads the next edge, returns false at the end of the input.
+    boolean next() throws IOException {
+      while (true) {
+        int c = skipBlanks();
+        if (c == -1) return false;
+        line++;
+        if (c == '#' || c == '%') {
+          // Skip the comment including its newline, which would otherwise count as another line.
+          while ((c = peek()) != -1 && c != '\n') position++;
+          if (c == '\n') position++;
+          continue;
+        }
+        int tokens = 0;
+        while ((c = skipBlanks()) != -1 && c != '\n' && c != '\r') {
+          token.setLength(0);
+          while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+            token.append((char) c);
+            position++;
+          }
+          if (tokens == 0) from = parseNode();
+          else if (tokens == 1) to = parseNode();
+          else if (tokens == 2) weight = parseWeight();
+          else throw new IllegalArgumentException("Line " + line + ": too many values");
+          tokens++;
+        }
+        while ((c = peek()) == '\r' || c == '\n') {
+          position++;
+          if (c == '\n') break;
+        }
+        if (tokens == 0) continue;
+        if (tokens == 1) throw new IllegalArgumentException("Line " + line + ": missing node");
+        weighted = tokens == 3;
+        return true;
+      }
+    }
+
+    int parseNode() {
+      long value = 0;
+      for (int i = 0; i < token.length(); i++) {
+        char c = token.charAt(i);
+        if (c < '0' || c > '9') {
+          throw new IllegalArgumentException("Line " + line + ": invalid node " + token);
+        }
+        value = 10 * value + (c - '0');
+        if (value >= Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("Line " + line + ": node id too large " + token);
+        }
+      }
+      return (int) value;
+    }
+
+    double parseWeight() {
+      try {
+        return Double.parseDouble(token.toString());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Line " + line + ": invalid weight " + token);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path text = Files.createTempFile("graph", ".txt");
+    Path binary = Files.createTempFile("graph", ".csrg");
+    Files.write(text, "# from to weight\n0 1 2.5\n1 2 1.0\n0 2 4.0\n".getBytes());
+
+    convertEdgeList(text, binary, true);
+    MappedCsrGraph graph = map(binary);
+
+    // Prints: nodes: 3, edges: 6
+    System.out.printf("nodes: %d, edges: %d\n", graph.n, graph.edgeCount());
+
+    // Prints:
+    // 0 -> 1 (2.5)
+    // 0 -> 2 (4.0)
+    for (long e = graph.edgeStart(0); e < graph.edgeStart(1); e++) {
+      System.out.printf("0 -> %d (%.1f)\n", graph.target(e), graph.weight(e));
+    }
+
+    Files.delete(text);
+    Files.delete(binary);
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * A graph stored in compressed sparse row (CSR) form. The edges leaving node `i` are found at
+ * indexes [offsets[i], offsets[i + 1]) of the `targets` array (and of `weights` and `edgeIds` when
+ * present). Compared to a List<List<Integer>> adjacency list this uses two primitive arrays in
+ * total, so graphs with hundreds of millions of edges fit in memory and can be scanned quickly.
+ *
+ * <p>Undirected graphs store every edge twice, once in each direction, and `edgeIds` maps both
+ * halves back to the index of the original edge.
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.util.Arrays;
+import java.util.List;
+
+public final class CsrGraph {
+
+  public final int n;
+  public final int[] offsets, targets;
+
+  // Optional, null when the graph is unweighted.
+  public final double[] weights;
+
+  // Optional, only set for undirected graphs.
+  public final int[] edgeIds;
+
+  public CsrGraph(int n, int[] offsets, int[] targets, double[] weights, int[] edgeIds) {
+    if (offsets.length != n + 1)
+      throw new IllegalArgumentException("offsets must have n+1 entries");
+    if (offsets[n] != targets.length)
+      throw new IllegalArgumentException("offsets[n] must equal the number of targets");
+    if (weights != null && weights.length != targets.length)
+      throw new IllegalArgumentException("weights and targets must have the same length");
+    if (edgeIds != null && edgeIds.length != targets.length)
+      throw new IllegalArgumentException("edgeIds and targets must have the same length");
+    this.n = n;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.edgeIds = edgeIds;
+  }
+
+  // Returns the number of stored (directed) edges.
+  public int edgeCount() {
+    return targets.length;
+  }
+
+  public int degree(int node) {
+    return offsets[node + 1] - offsets[node];
+  }
+
+  // Builds a directed graph with the edges from[i] -> to[i].
+  public static CsrGraph directed(int n, int[] from, int[] to) {
+    return directed(n, from, to, null);
+  }
+
+  // Builds a directed graph with the edges from[i] -> to[i] of cost weights[i].
+  public static CsrGraph directed(int n, int[] from, int[] to, double[] weights) {
+    if (from.length != to.length) throw new IllegalArgumentException("Edge arrays differ in size");
+    int m = from.length;
+    int[] offsets = countingOffsets(n, from, null);
+    int[] cursor = Arrays.copyOf(offsets, n);
+    int[] targets = new int[m];
+    double[] w = weights == null ? null : new double[m];
+    for (int i = 0; i < m; i++) {
+      int at = cursor[from[i]]++;
+      targets[at] = to[i];
+      if (w != null) w[at] = weights[i];
+    }
+    return new CsrGraph(n, offsets, targets, w, null);
+  }
+
+  // Builds an undirected graph with the edges u[i] <-> v[i]. Both halves of edge i get edge id i.
+  public static CsrGraph undirected(int n, int[] u, int[] v) {
+    return undirected(n, u, v, null);
+  }
+
+  public static CsrGraph undirected(int n, int[] u, int[] v, double[] weights) {
+    if (u.length != v.length) throw new IllegalArgumentException("Edge arrays differ in size");
+    int m = u.length;
+    int[] offsets = countingOffsets(n, u, v);
+    int[] cursor = Arrays.copyOf(offsets, n);
+    int[] targets = new int[2 * m];
+    int[] edgeIds = new int[2 * m];
+    double[] w = weights == null ? null : new double[2 * m];
+    for (int i = 0; i < m; i++) {
+      int a = cursor[u[i]]++;
+      targets[a] = v[i];
+      edgeIds[a] = i;
+      int b = cursor[v[i]]++;
+      targets[b] = u[i];
+      edgeIds[b] = i;
+      if (w != null) w[a] = w[b] = weights[i];
+    }
+    return new CsrGraph(n, offsets, targets, w, edgeIds);
+  }
+
+  // Converts a List<List<Integer>> adjacency list as used by most graph algorithms in this
+  // repository into CSR form.
+  public static CsrGraph fromAdjacencyList(List<List<Integer>> graph) {
+    int n = graph.size();
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < n; i++) offsets[i + 1] = offsets[i] + graph.get(i).size();
+    int[] targets = new int[offsets[n]];
+    for (int i = 0, j = 0; i < n; i++) for (int to : graph.get(i)) targets[j++] = to;
+    return new CsrGraph(n, offsets, targets, null, null);
+  }
+
+  // Collects edges one at a time, e.g. from a generator, and builds a CsrGraph from them.
+  public static final class Builder {
+    private final int n;
+    private final boolean weighted;
+    private int m;
+    private int[] from = new int[16], to = new int[16];
+    private double[] weights;
+
+    public Builder(int n, boolean weighted) {
+      if (n < 0) throw new IllegalArgumentException("Invalid number of nodes: " + n);
+      this.n = n;
+      this.weighted = weighted;
+      if (weighted) weights = new double[16];
+    }
+
+    public Builder addEdge(int from, int to) {
+      return addEdge(from, to, 0);
+    }
+
+    // The weight is ignored if the builder is unweighted.
+    public Builder addEdge(int from, int to, double weight) {
+      if (from < 0 || from >= n || to < 0 || to >= n) {
+        throw new IllegalArgumentException("Invalid edge: " + from + " -> " + to);
+      }
+      if (m == this.from.length) {
+        int capacity = (int) Math.min(Integer.MAX_VALUE - 8, 2L * m);
+        if (capacity == m) throw new IllegalStateException("Too many edges");
+        this.from = Arrays.copyOf(this.from, capacity);
+        this.to = Arrays.copyOf(this.to, capacity);
+        if (weighted) weights = Arrays.copyOf(weights, capacity);
+      }
+      this.from[m] = from;
+      this.to[m] = to;
+      if (weighted) weights[m] = weight;
+      m++;
+      return this;
+    }
+
+    public int edgeCount() {
+      return m;
+    }
+
+    public CsrGraph buildDirected() {
+      return directed(n, Arrays.copyOf(from, m), Arrays.copyOf(to, m), trimmedWeights());
+    }
+
+    // Both halves of edge i, the i-th added edge, get edge id i.
+    public CsrGraph buildUndirected() {
+      return undirected(n, Arrays.copyOf(from, m), Arrays.copyOf(to, m), trimmedWeights());
+    }
+
+    private double[] trimmedWeights() {
+      return weighted ? Arrays.copyOf(weights, m) : null;
+    }
+  }
+
+  // Returns the graph with all edges reversed.
+  public CsrGraph transpose() {
+    int m = targets.length;
+    int[] tOffsets = countingOffsets(n, targets, null);
+    int[] cursor = Arrays.copyOf(tOffsets, n);
+    int[] tTargets = new int[m];
+    double[] tWeights = weights == null ? null : new double[m];
+    int[] tEdgeIds = edgeIds == null ? null : new int[m];
+    for (int from = 0; from < n; from++) {
+      for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+        int at = cursor[targets[e]]++;
+        tTargets[at] = from;
+        if (tWeights != null) tWeights[at] = weights[e];
+        if (tEdgeIds != null) tEdgeIds[at] = edgeIds[e];
+      }
+    }
+    return new CsrGraph(n, tOffsets, tTargets, tWeights, tEdgeIds);
+  }
+
+  // Computes prefix sums of how often each node appears in `a` (and `b`, if not null).
+  private static int[] countingOffsets(int n, int[] a, int[] b) {
+    int[] offsets = new int[n + 1];
+    for (int node : a) offsets[node + 1]++;
+    if (b != null) for (int node : b) offsets[node + 1]++;
+    for (int i = 0; i < n; i++) offsets[i + 1] += offsets[i];
+    return offsets;
+  }
+}
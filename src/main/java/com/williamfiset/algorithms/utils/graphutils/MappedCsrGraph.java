@@ -0,0 +1,91 @@
+/**
+ * A read-only view of a graph file written by {@link BinaryGraphFile}, backed by memory mapped
+ * buffers instead of heap arrays. Nothing is copied or parsed when the file is opened; the
+ * operating system pages the edges in as they are accessed, so graphs larger than memory can be
+ * scanned.
+ *
+ * <p>A single mapping is limited to 2^31 bytes, so every array of the file is mapped as a sequence
+ * of segments of 2^segmentShift elements each. Edge indexes are longs, which allows more than 2^31
+ * edges.
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+public final class MappedCsrGraph {
+
+  public final int n;
+  private final long m;
+  private final int shift;
+  private final long mask;
+  private final LongBuffer[] offsets;
+  private final IntBuffer[] targets;
+
+  // Null when the graph is unweighted.
+  private final DoubleBuffer[] weights;
+
+  MappedCsrGraph(
+      int n,
+      long m,
+      int segmentShift,
+      LongBuffer[] offsets,
+      IntBuffer[] targets,
+      DoubleBuffer[] weights) {
+    this.n = n;
+    this.m = m;
+    this.shift = segmentShift;
+    this.mask = (1L << segmentShift) - 1;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+  }
+
+  // Returns the number of stored (directed) edges.
+  public long edgeCount() {
+    return m;
+  }
+
+  public boolean isWeighted() {
+    return weights != null;
+  }
+
+  // The edges leaving `node` have the indexes [edgeStart(node), edgeStart(node + 1)).
+  public long edgeStart(int node) {
+    long i = node;
+    return offsets[(int) (i >>> shift)].get((int) (i & mask));
+  }
+
+  public long degree(int node) {
+    return edgeStart(node + 1) - edgeStart(node);
+  }
+
+  public int target(long edge) {
+    return targets[(int) (edge >>> shift)].get((int) (edge & mask));
+  }
+
+  public double weight(long edge) {
+    if (weights == null) throw new IllegalStateException("Graph is unweighted");
+    return weights[(int) (edge >>> shift)].get((int) (edge & mask));
+  }
+
+  // Copies the graph into a heap allocated CsrGraph, as accepted by the algorithms in this
+  // repository.
+  public CsrGraph toCsrGraph() {
+    if (m > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("Too many edges for a CsrGraph: " + m);
+    }
+    int[] o = new int[n + 1];
+    for (int i = 0; i <= n; i++) o[i] = (int) edgeStart(i);
+    int[] t = new int[(int) m];
+    double[] w = weights == null ? null : new double[(int) m];
+    for (int s = 0, at = 0; s < targets.length; s++) {
+      int length = targets[s].limit();
+      targets[s].duplicate().get(t, at, length);
+      if (w != null) weights[s].duplicate().get(w, at, length);
+      at += length;
+    }
+    return new CsrGraph(n, o, t, w, null);
+  }
+}
@@ -0,0 +1,518 @@
+/**
+ * Reproducible generators of large synthetic graphs for benchmarking: R-MAT, Erdős–Rényi G(n, p)
+ * and G(n, m), weighted 2D grids and layered DAGs with power-law out-degrees.
+ *
+ * <p>The edges of a generator are split into chunks which are generated in parallel, each with its
+ * own {@link SplittableRandom} derived from the seed and the chunk index. The edges are always
+ * emitted in chunk order, so a seed produces exactly the same graph whether or not it is generated
+ * in parallel and however often it is iterated. That makes it possible to stream the edges into a
+ * {@link CsrGraph.Builder} or straight into a binary graph file, which takes two passes over the
+ * edges, without ever holding the whole edge list in memory.
+ *
+ * <p>Example: ParallelGraphGenerator.rmat(20, 16L << 20, 0.57, 0.19, 0.19, 42).toCsrGraph(true)
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import com.williamfiset.algorithms.utils.graphutils.BinaryGraphFile.EdgeConsumer;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public abstract class ParallelGraphGenerator implements BinaryGraphFile.EdgeSource {
+
+  // The approximate number of edges generated per chunk.
+  static final int CHUNK_EDGES = 1 << 16;
+
+  final long seed;
+  private boolean parallel = true;
+
+  ParallelGraphGenerator(long seed) {
+    this.seed = seed;
+  }
+
+  public abstract int nodeCount();
+
+  public abstract boolean isWeighted();
+
+  abstract int chunkCount();
+
+  // Emits the edges of one chunk, using only `random` as a source of randomness.
+  abstract void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out);
+
+  public ParallelGraphGenerator parallel(boolean parallel) {
+    this.parallel = parallel;
+    return this;
+  }
+
+  // Emits all edges in a fixed order. The consumer is called from a single thread at a time.
+  @Override
+  public void forEachEdge(EdgeConsumer consumer) {
+    int chunks = chunkCount();
+    // Generate a few chunks per thread at a time to bound the memory used by the buffers.
+    int batch = parallel ? 4 * ForkJoinPool.getCommonPoolParallelism() : 1;
+    for (int first = 0; first < chunks; first += batch) {
+      int start = first;
+      EdgeBuffer[] buffers = new EdgeBuffer[Math.min(batch, chunks - first)];
+      IntStream range = IntStream.range(0, buffers.length);
+      if (parallel) range = range.parallel();
+      range.forEach(
+          i -> {
+            buffers[i] = new EdgeBuffer(isWeighted());
+            generateChunk(start + i, chunkRandom(start + i), buffers[i]);
+          });
+      for (EdgeBuffer buffer : buffers) buffer.replay(consumer);
+    }
+  }
+
+  // Builds the graph in memory. If undirected, every edge is stored in both directions.
+  public CsrGraph toCsrGraph(boolean undirected) {
+    CsrGraph.Builder builder = new CsrGraph.Builder(nodeCount(), isWeighted());
+    forEachEdge(builder::addEdge);
+    return undirected ? builder.buildUndirected() : builder.buildDirected();
+  }
+
+  // Streams the graph into a binary graph file, see BinaryGraphFile#map.
+  public void writeTo(Path path, boolean undirected) throws IOException {
+    BinaryGraphFile.write(path, nodeCount(), isWeighted(), undirected, this);
+  }
+
+  SplittableRandom chunkRandom(int chunk) {
+    return new SplittableRandom(mix(seed + mix(chunk + 1L)));
+  }
+
+  // The 64 bit finalizer of MurmurHash3, spreads nearby seeds over the whole range.
+  static long mix(long z) {
+    z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+    z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    return z ^ (z >>> 33);
+  }
+
+  /**
+   * R-MAT (recursive matrix) graph with 2^scale nodes and the given number of edges, the model used
+   * by the Graph500 benchmark. Each edge picks one quadrant of the adjacency matrix with
+   * probabilities a, b, c and 1 - a - b - c, and recurses into it once per bit of the node ids. The
+   * result has a skewed, power-law like degree distribution. Node ids are not permuted, so low ids
+   * have the highest degrees. May contain self loops and duplicate edges.
+   */
+  public static ParallelGraphGenerator rmat(
+      int scale, long edges, double a, double b, double c, long seed) {
+    if (scale < 0 || scale > 30) throw new IllegalArgumentException("Invalid scale: " + scale);
+    if (edges < 0) throw new IllegalArgumentException("Invalid number of edges: " + edges);
+    if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+      throw new IllegalArgumentException("Invalid quadrant probabilities");
+    }
+    return new Rmat(scale, edges, a, b, c, seed);
+  }
+
+  /**
+   * Erdős–Rényi G(n, p) graph where every possible edge exists independently with probability p.
+   * Instead of flipping a coin per pair, the gap to the next edge is drawn from a geometric
+   * distribution (Batagelj and Brandes), so generation takes O(n + m) time.
+   *
+   * @param directed - If true, every ordered pair u != v is a possible edge, otherwise every pair
+   *     u < v.
+   */
+  public static ParallelGraphGenerator gnp(int n, double p, boolean directed, long seed) {
+    if (n < 0) throw new IllegalArgumentException("Invalid number of nodes: " + n);
+    if (!(p >= 0 && p <= 1)) throw new IllegalArgumentException("Invalid probability: " + p);
+    return new Gnp(n, p, directed, seed);
+  }
+
+  /**
+   * Erdős–Rényi G(n, m) graph with m distinct edges chosen uniformly at random among all possible
+   * edges, see {@link #gnp} for `directed`. The edges are sampled by drawing random pair indexes in
+   * parallel, sorting them and redrawing duplicates. If more than half of all pairs are requested,
+   * the pairs which are left out are sampled instead. At most 2^31 - 9 indexes can be sampled.
+   */
+  public static ParallelGraphGenerator gnm(int n, long m, boolean directed, long seed) {
+    if (n < 0) throw new IllegalArgumentException("Invalid number of nodes: " + n);
+    long pairs = Gnp.pairCount(n, directed);
+    if (m < 0 || m > pairs) throw new IllegalArgumentException("Invalid number of edges: " + m);
+    if (Math.min(m, pairs - m) > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Too many edges to sample: " + m);
+    }
+    return new Gnm(n, m, directed, seed);
+  }
+
+  /**
+   * A rows x cols grid where node r * cols + c is connected to its right and lower neighbour, with
+   * weights drawn uniformly from [minWeight, maxWeight). Every edge is emitted once, so build the
+   * graph as undirected to get a road network like graph.
+   */
+  public static ParallelGraphGenerator grid(
+      int rows, int cols, double minWeight, double maxWeight, long seed) {
+    if (rows < 0 || cols < 0 || (long) rows * cols > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid grid size: " + rows + " x " + cols);
+    }
+    if (!(minWeight <= maxWeight)) throw new IllegalArgumentException("Invalid weight range");
+    return new Grid(rows, cols, minWeight, maxWeight, seed);
+  }
+
+  /**
+   * A DAG of `levels` levels of `width` nodes each, where node i * width + j belongs to level i.
+   * Every node outside of the last level has edges to distinct random nodes of the next level. Its
+   * out-degree follows a power law with P(degree >= d) = d^(1 - exponent), capped at maxDegree.
+   */
+  public static ParallelGraphGenerator powerLawDag(
+      int levels, int width, double exponent, int maxDegree, long seed) {
+    if (levels < 0 || width < 0 || (long) levels * width > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid size: " + levels + " x " + width);
+    }
+    if (!(exponent > 1)) throw new IllegalArgumentException("The exponent must be > 1");
+    if (maxDegree < 1 || maxDegree > width) {
+      throw new IllegalArgumentException("Invalid max degree: " + maxDegree);
+    }
+    return new PowerLawDag(levels, width, exponent, maxDegree, seed);
+  }
+
+  private static class Rmat extends ParallelGraphGenerator {
+    final int scale;
+    final long edges;
+    final double a, ab, abc;
+
+    Rmat(int scale, long edges, double a, double b, double c, long seed) {
+      super(seed);
+      this.scale = scale;
+      this.edges = edges;
+      this.a = a;
+      this.ab = a + b;
+      this.abc = a + b + c;
+    }
+
+    @Override
+    public int nodeCount() {
+      return 1 << scale;
+    }
+
+    @Override
+    public boolean isWeighted() {
+      return false;
+    }
+
+    @Override
+    int chunkCount() {
+      return Math.toIntExact((edges + CHUNK_EDGES - 1) / CHUNK_EDGES);
+    }
+
+    @Override
+    void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out) {
+      long count = Math.min(CHUNK_EDGES, edges - (long) chunk * CHUNK_EDGES);
+      for (long i = 0; i < count; i++) {
+        int u = 0, v = 0;
+        for (int bit = 1 << scale >>> 1; bit > 0; bit >>>= 1) {
+          double r = random.nextDouble();
+          if (r >= abc) {
+            u |= bit;
+            v |= bit;
+          } else if (r >= ab) {
+            u |= bit;
+          } else if (r >= a) {
+            v |= bit;
+          }
+        }
+        out.accept(u, v, 0);
+      }
+    }
+  }
+
+  // Enumerates the possible edges of G(n, p) and G(n, m) by index.
+  private static class Gnp extends ParallelGraphGenerator {
+    final int n;
+    final double p;
+    final boolean directed;
+    final long pairs, pairsPerChunk;
+
+    Gnp(int n, double p, boolean directed, long seed) {
+      super(seed);
+      this.n = n;
+      this.p = p;
+      this.directed = directed;
+      this.pairs = pairCount(n, directed);
+      // Aim for CHUNK_EDGES expected edges per chunk, but keep the number of chunks an int.
+      long perChunk = p == 0 ? pairs : (long) Math.min(pairs, CHUNK_EDGES / p);
+      long minPerChunk = (pairs + Integer.MAX_VALUE - 1) / Integer.MAX_VALUE;
+      this.pairsPerChunk = Math.max(1, Math.max(perChunk, minPerChunk));
+    }
+
+    static long pairCount(int n, boolean directed) {
+      long pairs = (long) n * (n - 1);
+      return directed ? pairs : pairs / 2;
+    }
+
+    @Override
+    public int nodeCount() {
+      return n;
+    }
+
+    @Override
+    public boolean isWeighted() {
+      return false;
+    }
+
+    @Override
+    int chunkCount() {
+      return p == 0 ? 0 : (int) ((pairs + pairsPerChunk - 1) / pairsPerChunk);
+    }
+
+    @Override
+    void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out) {
+      long lo = chunk * pairsPerChunk, hi = Math.min(pairs, lo + pairsPerChunk);
+      double logQ = Math.log1p(-p);
+      for (long i = lo - 1; ; ) {
+        // The number of pairs skipped before the next edge is geometrically distributed.
+        double skip = p == 1 ? 0 : Math.floor(Math.log1p(-random.nextDouble()) / logQ);
+        if (skip >= hi - i - 1) break;
+        i += 1 + (long) skip;
+        emitPair(n, directed, i, out);
+      }
+    }
+
+    // Emits the possible edge with the given index. Directed pairs are numbered row by row,
+    // undirected pairs u < v as i = v * (v - 1) / 2 + u.
+    static void emitPair(int n, boolean directed, long i, EdgeConsumer out) {
+      if (directed) {
+        int u = (int) (i / (n - 1)), r = (int) (i % (n - 1));
+        out.accept(u, r < u ? r : r + 1, 0);
+      } else {
+        long v = (long) ((1 + Math.sqrt(1 + 8.0 * i)) / 2);
+        while (v * (v - 1) / 2 > i) v--;
+        while (v * (v + 1) / 2 <= i) v++;
+        out.accept((int) (i - v * (v - 1) / 2), (int) v, 0);
+      }
+    }
+  }
+
+  private static class Gnm extends ParallelGraphGenerator {
+    final int n;
+    final long m, pairs;
+    final boolean directed, complement;
+
+    // The sorted pair indexes of the edges, or of the non-edges if `complement` is set.
+    private long[] sample;
+
+    Gnm(int n, long m, boolean directed, long seed) {
+      super(seed);
+      this.n = n;
+      this.m = m;
+      this.directed = directed;
+      this.pairs = Gnp.pairCount(n, directed);
+      this.complement = m > pairs / 2;
+    }
+
+    @Override
+    public int nodeCount() {
+      return n;
+    }
+
+    @Override
+    public boolean isWeighted() {
+      return false;
+    }
+
+    @Override
+    int chunkCount() {
+      long total = complement ? pairs : m, perChunk = complement ? 2L * CHUNK_EDGES : CHUNK_EDGES;
+      return (int) ((total + perChunk - 1) / perChunk);
+    }
+
+    @Override
+    public void forEachEdge(EdgeConsumer consumer) {
+      synchronized (this) {
+        if (sample == null) sample = sampleDistinct(complement ? pairs - m : m);
+      }
+      super.forEachEdge(consumer);
+    }
+
+    // Draws k distinct indexes in [0, pairs) and returns them sorted.
+    private long[] sampleDistinct(long count) {
+      int k = (int) count;
+      long[] result = new long[k];
+      int distinct = 0;
+      for (int round = 0; distinct < k; round++) {
+        // Draw the missing indexes in parallel chunks, each with its own generator.
+        int from = distinct, missing = k - distinct;
+        int chunks = (missing + CHUNK_EDGES - 1) / CHUNK_EDGES;
+        long roundSeed = mix(seed ^ mix(-1L - round));
+        IntStream.range(0, chunks)
+            .parallel()
+            .forEach(
+                c -> {
+                  SplittableRandom random = new SplittableRandom(mix(roundSeed + mix(c + 1L)));
+                  int end = from + Math.min(missing, (c + 1) * CHUNK_EDGES);
+                  for (int i = from + c * CHUNK_EDGES; i < end; i++) {
+                    result[i] = random.nextLong(pairs);
+                  }
+                });
+        Arrays.parallelSort(result, 0, k);
+        distinct = 0;
+        for (int i = 0; i < k; i++) {
+          if (i == 0 || result[i] != result[distinct - 1]) result[distinct++] = result[i];
+        }
+        // Move the duplicates' slots to the end, where the next round overwrites them.
+        Arrays.fill(result, distinct, k, Long.MAX_VALUE);
+      }
+      return result;
+    }
+
+    @Override
+    void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out) {
+      if (!complement) {
+        int end = (int) Math.min(m, (long) (chunk + 1) * CHUNK_EDGES);
+        for (int i = chunk * CHUNK_EDGES; i < end; i++) Gnp.emitPair(n, directed, sample[i], out);
+        return;
+      }
+      // Emit every pair of the chunk's index range which is not in the sample.
+      long lo = (long) chunk * 2 * CHUNK_EDGES, hi = Math.min(pairs, lo + 2L * CHUNK_EDGES);
+      int at = Arrays.binarySearch(sample, lo);
+      if (at < 0) at = -at - 1;
+      for (long i = lo; i < hi; i++) {
+        if (at < sample.length && sample[at] == i) at++;
+        else Gnp.emitPair(n, directed, i, out);
+      }
+    }
+  }
+
+  private static class Grid extends ParallelGraphGenerator {
+    final int rows, cols, rowsPerChunk;
+    final double minWeight, range;
+
+    Grid(int rows, int cols, double minWeight, double maxWeight, long seed) {
+      super(seed);
+      this.rows = rows;
+      this.cols = cols;
+      this.minWeight = minWeight;
+      this.range = maxWeight - minWeight;
+      this.rowsPerChunk = Math.max(1, CHUNK_EDGES / Math.max(1, 2 * cols));
+    }
+
+    @Override
+    public int nodeCount() {
+      return rows * cols;
+    }
+
+    @Override
+    public boolean isWeighted() {
+      return true;
+    }
+
+    @Override
+    int chunkCount() {
+      return cols == 0 ? 0 : (rows + rowsPerChunk - 1) / rowsPerChunk;
+    }
+
+    @Override
+    void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out) {
+      int end = (int) Math.min(rows, (long) (chunk + 1) * rowsPerChunk);
+      for (int r = chunk * rowsPerChunk; r < end; r++) {
+        for (int c = 0; c < cols; c++) {
+          int node = r * cols + c;
+          if (c + 1 < cols) out.accept(node, node + 1, minWeight + range * random.nextDouble());
+          if (r + 1 < rows) out.accept(node, node + cols, minWeight + range * random.nextDouble());
+        }
+      }
+    }
+  }
+
+  private static class PowerLawDag extends ParallelGraphGenerator {
+    final int levels, width, maxDegree, nodesPerChunk;
+    final double inverseExponent;
+
+    PowerLawDag(int levels, int width, double exponent, int maxDegree, long seed) {
+      super(seed);
+      this.levels = levels;
+      this.width = width;
+      this.maxDegree = maxDegree;
+      this.inverseExponent = -1 / (exponent - 1);
+      this.nodesPerChunk = Math.max(1, CHUNK_EDGES / 4);
+    }
+
+    @Override
+    public int nodeCount() {
+      return levels * width;
+    }
+
+    @Override
+    public boolean isWeighted() {
+      return false;
+    }
+
+    @Override
+    int chunkCount() {
+      // Nodes of the last level have no outgoing edges.
+      long sources = levels == 0 ? 0 : (long) (levels - 1) * width;
+      return (int) ((sources + nodesPerChunk - 1) / nodesPerChunk);
+    }
+
+    @Override
+    void generateChunk(int chunk, SplittableRandom random, EdgeConsumer out) {
+      int[] chosen = new int[maxDegree];
+      int end = (int) Math.min((long) (levels - 1) * width, (long) (chunk + 1) * nodesPerChunk);
+      for (int node = chunk * nodesPerChunk; node < end; node++) {
+        // Inverse transform sampling of the Pareto distribution.
+        double d = Math.pow(1 - random.nextDouble(), inverseExponent);
+        int degree = (int) Math.min(maxDegree, Math.floor(d));
+        // Floyd's algorithm picks `degree` distinct nodes of the next level.
+        int count = 0;
+        for (int j = width - degree; j < width; j++) {
+          int t = random.nextInt(j + 1);
+          for (int k = 0; k < count; k++) {
+            if (chosen[k] == t) {
+              t = j;
+              break;
+            }
+          }
+          chosen[count++] = t;
+        }
+        int next = (node / width + 1) * width;
+        for (int k = 0; k < count; k++) out.accept(node, next + chosen[k], 0);
+      }
+    }
+  }
+
+  // Collects the edges of one chunk.
+  private static class EdgeBuffer implements EdgeConsumer {
+    int size;
+    int[] from = new int[64], to = new int[64];
+    double[] weights;
+
+    EdgeBuffer(boolean weighted) {
+      if (weighted) weights = new double[64];
+    }
+
+    @Override
+    public void accept(int u, int v, double weight) {
+      if (size == from.length) {
+        from = Arrays.copyOf(from, 2 * size);
+        to = Arrays.copyOf(to, 2 * size);
+        if (weights != null) weights = Arrays.copyOf(weights, 2 * size);
+      }
+      from[size] = u;
+      to[size] = v;
+      if (weights != null) weights[size] = weight;
+      size++;
+    }
+
+    void replay(EdgeConsumer consumer) {
+      for (int i = 0; i < size; i++) {
+        consumer.accept(from[i], to[i], weights == null ? 0 : weights[i]);
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    // Prints: 16 nodes, 64 edges
+    CsrGraph rmat = rmat(4, 32, 0.57, 0.19, 0.19, 42).toCsrGraph(true);
+    System.out.printf("%d nodes, %d edges\n", rmat.n, rmat.edgeCount());
+
+    // Prints: 1000 nodes, 4889 edges (about 0.01 * 1000 * 999 / 2 = 4995 expected)
+    CsrGraph gnp = gnp(1000, 0.01, false, 42).toCsrGraph(false);
+    System.out.printf("%d nodes, %d edges\n", gnp.n, gnp.edgeCount());
+
+    // Prints: 12 nodes, 17 edges
+    CsrGraph grid = grid(3, 4, 1, 10, 42).toCsrGraph(false);
+    System.out.printf("%d nodes, %d edges\n", grid.n, grid.edgeCount());
+  }
+}
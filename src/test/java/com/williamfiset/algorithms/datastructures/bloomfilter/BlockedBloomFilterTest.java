@@ -0,0 +1,116 @@
+package com.williamfiset.algorithms.datastructures.bloomfilter;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class BlockedBloomFilterTest {
+
+  static final Random RANDOM = new Random();
+
+  // Adds `n` keys and returns the measured false positive rate over other keys. The added keys are
+  // the even numbers and the tested keys the odd ones, so no tested key was added.
+  static double falsePositiveRate(BlockedBloomFilter filter, int n, int queries) {
+    long seed = RANDOM.nextLong();
+    for (int i = 0; i < n; i++) filter.add(BlockedBloomFilter.hash(seed + 2L * i));
+    int falsePositives = 0;
+    for (int i = 0; i < queries; i++)
+      if (filter.mightContain(BlockedBloomFilter.hash(seed + 2L * i + 1))) falsePositives++;
+    return (double) falsePositives / queries;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalNumberOfHashes() {
+    new BlockedBloomFilter(10, BlockedBloomFilter.MAX_HASHES + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalFalsePositiveRate() {
+    BlockedBloomFilter.create(1000, 0);
+  }
+
+  @Test
+  public void testNoFalseNegatives() {
+    BlockedBloomFilter filter = BlockedBloomFilter.create(50_000, 0.01);
+    long[] hashes = new long[50_000];
+    for (int i = 0; i < hashes.length; i++) hashes[i] = RANDOM.nextLong();
+    filter.addAll(hashes);
+    for (long hash : hashes) assertThat(filter.mightContain(hash)).isTrue();
+
+    boolean[] out = new boolean[hashes.length];
+    filter.mightContain(hashes, out);
+    for (boolean found : out) assertThat(found).isTrue();
+  }
+
+  // Every key sets at most k bits, all inside one 512-bit block.
+  @Test
+  public void testBitsOfAKeyShareABlock() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(64, 8);
+    for (int loop = 0; loop < 1000; loop++) {
+      filter.clear();
+      filter.add(RANDOM.nextLong());
+      long[] words = filter.words();
+      int block = -1, bits = 0;
+      for (int i = 0; i < words.length; i++) {
+        if (words[i] == 0) continue;
+        if (block == -1) block = i / BlockedBloomFilter.BLOCK_WORDS;
+        assertThat(i / BlockedBloomFilter.BLOCK_WORDS).isEqualTo(block);
+        bits += Long.bitCount(words[i]);
+      }
+      assertThat(bits).isAtLeast(1);
+      assertThat(bits).isAtMost(8);
+    }
+  }
+
+  // A hash whose lower half is 0 still spreads its bits over the block.
+  @Test
+  public void testZeroLowerHalf() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(4, 8);
+    filter.add(7L << 32);
+    int bits = 0;
+    for (long word : filter.words()) bits += Long.bitCount(word);
+    assertThat(bits).isAtLeast(6);
+    assertThat(filter.mightContain(7L << 32)).isTrue();
+  }
+
+  @Test
+  public void testBatchMatchesSingleQueries() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(16, 6);
+    for (int i = 0; i < 2000; i++) filter.add(RANDOM.nextLong());
+    long[] hashes = new long[10_000];
+    for (int i = 0; i < hashes.length; i++) hashes[i] = RANDOM.nextLong();
+    boolean[] out = new boolean[hashes.length];
+    filter.mightContain(hashes, out);
+    for (int i = 0; i < hashes.length; i++)
+      assertThat(out[i]).isEqualTo(filter.mightContain(hashes[i]));
+  }
+
+  // The measured false positive rate stays close to the rate the filter was created for, and
+  // matches the estimate from the fill ratio.
+  @Test
+  public void testFalsePositiveRate() {
+    for (double target : new double[] {0.05, 0.01, 0.001}) {
+      BlockedBloomFilter filter = BlockedBloomFilter.create(100_000, target);
+      double measured = falsePositiveRate(filter, 100_000, 1_000_000);
+      assertThat(measured).isLessThan(1.5 * target);
+      double estimate = Math.pow(filter.fillRatio(), filter.getNumHashes());
+      assertThat(measured).isGreaterThan(estimate / 2);
+    }
+  }
+
+  // Sequential keys are hashed before they are added, so they spread over all blocks.
+  @Test
+  public void testSequentialKeysFillBlocksEvenly() {
+    BlockedBloomFilter filter = new BlockedBloomFilter(1024, 4);
+    for (long key = 0; key < 100_000; key++) filter.add(BlockedBloomFilter.hash(key));
+    long[] words = filter.words();
+    for (int b = 0; b < filter.getNumBlocks(); b++) {
+      int bits = 0;
+      for (int w = 0; w < BlockedBloomFilter.BLOCK_WORDS; w++)
+        bits += Long.bitCount(words[b * BlockedBloomFilter.BLOCK_WORDS + w]);
+      assertThat(bits).isGreaterThan(200);
+    }
+  }
+}
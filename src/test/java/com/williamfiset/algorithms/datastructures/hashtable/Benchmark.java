@@ -7,6 +7,7 @@ package com.williamfiset.algorithms.datastructures.hashtable;
 
 import java.util.HashMap;
 import java.util.Random;
+import java.util.function.Predicate;
 
 public class Benchmark {
 
@@ -30,8 +31,14 @@ public class Benchmark {
   public static void main(String[] args) {
     testLinearProbing();
     testQuadraticProbing();
+    testQuadraticProbingStats();
     testDoubleHashing();
-    testHashMapSpeed();
+    testCuckoo();
+    testRobinHood();
+    testSwissTable();
+    testMissHeavyLookups();
+    double hashMapTime = testHashMapSpeed();
+    for (ProbingStrategy probing : ProbingStrategy.values()) testIntIntMap(probing, hashMapTime);
   }
 
   public static void testLinearProbing() {
@@ -62,6 +69,88 @@ public class Benchmark {
     System.out.println("Quadratic probing: " + (end - start) / 1e9);
   }
 
+  // Integer keys hash to themselves and the quadratic probing table has a power of two capacity,
+  // so keys which are multiples of a large power of two all start probing from the same bucket.
+  public static void testQuadraticProbingStats() {
+    for (int stride : new int[] {1, 1 << 10}) {
+      HashTableQuadraticProbing<Integer, Integer> hashtable = new HashTableQuadraticProbing<>();
+      hashtable.setStatsEnabled(true);
+      for (int i = 0; i < 20_000; i++) hashtable.put(i * stride, i);
+      for (int i = 0; i < 20_000; i++) hashtable.get(i * stride);
+      System.out.println("Quadratic probing, keys i * " + stride + ":");
+      System.out.println(hashtable.getStats());
+    }
+  }
+
+  public static void testRobinHood() {
+
+    HashTableRobinHood<Integer, Integer> hashtable = new HashTableRobinHood<>();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      hashtable.insert(keys[i], values[i]);
+      int val = hashtable.get(keys[i]);
+      if (val != values[i]) System.out.println("Not good..");
+    }
+    long end = System.nanoTime();
+    System.out.println("Robin Hood hashing: " + (end - start) / 1e9);
+    System.out.println("Robin Hood max probe distance: " + hashtable.getMaxProbeDistance());
+  }
+
+  public static void testSwissTable() {
+
+    HashTableSwiss<Integer, Integer> hashtable = new HashTableSwiss<>();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      hashtable.insert(keys[i], values[i]);
+      int val = hashtable.get(keys[i]);
+      if (val != values[i]) System.out.println("Not good..");
+    }
+    long end = System.nanoTime();
+    System.out.println("Swiss table: " + (end - start) / 1e9);
+  }
+
+  // Lookups of which 9 in 10 miss, where the cost of an unsuccessful search dominates.
+  public static void testMissHeavyLookups() {
+
+    HashTableLinearProbing<Integer, Integer> linear = new HashTableLinearProbing<>();
+    HashTableRobinHood<Integer, Integer> robinHood = new HashTableRobinHood<>();
+    HashTableSwiss<Integer, Integer> swiss = new HashTableSwiss<>();
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+    for (int i = 0; i < N; i++) {
+      linear.put(keys[i], values[i]);
+      robinHood.put(keys[i], values[i]);
+      swiss.put(keys[i], values[i]);
+      jmap.put(keys[i], values[i]);
+    }
+
+    // The keys are all smaller than MOD, so the random queries from MOD on miss. They are boxed up
+    // front so the timings only measure the lookups.
+    Integer[] queries = new Integer[N];
+    for (int i = 0; i < N; i++)
+      queries[i] = i % 10 == 0 ? keys[i] : MOD + RANDOM.nextInt(Integer.MAX_VALUE - MOD);
+
+    // Warm up and then time each table
+    for (int round = 0; round < 2; round++) {
+      boolean print = round == 1;
+      timeLookups("Linear probing", linear::containsKey, queries, print);
+      timeLookups("Robin Hood hashing", robinHood::containsKey, queries, print);
+      timeLookups("Swiss table", swiss::containsKey, queries, print);
+      timeLookups("HashMap", jmap::containsKey, queries, print);
+    }
+  }
+
+  static void timeLookups(
+      String name, Predicate<Integer> containsKey, Integer[] queries, boolean print) {
+    int hits = 0;
+    long start = System.nanoTime();
+    for (Integer query : queries) if (containsKey.test(query)) hits++;
+    long end = System.nanoTime();
+    double time = (end - start) / 1e9;
+    if (print) System.out.printf("%s (90%% misses): %s, %d hits\n", name, time, hits);
+  }
+
   public static void testDoubleHashing() {
 
     HashTableDoubleHashing<DoubleHashingTestObject, Integer> hashtable =
@@ -78,7 +167,23 @@ public class Benchmark {
     System.out.println("Double hashing: " + (end - start) / 1e9);
   }
 
-  public static void testHashMapSpeed() {
+  // The same keys as the double hashing test, whose second hashes pick the second cuckoo bucket.
+  public static void testCuckoo() {
+
+    HashTableCuckoo<DoubleHashingTestObject, Integer> hashtable = new HashTableCuckoo<>();
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      hashtable.insert(doubleHashKeys[i], values[i]);
+      int val = hashtable.get(doubleHashKeys[i]);
+      if (val != values[i]) System.out.println("Not good..");
+    }
+    long end = System.nanoTime();
+    System.out.println("Cuckoo hashing: " + (end - start) / 1e9);
+    System.out.println("Cuckoo rehashes: " + hashtable.getRehashCount());
+  }
+
+  public static double testHashMapSpeed() {
 
     HashMap<Integer, Integer> jmap = new HashMap<>();
 
@@ -90,5 +195,22 @@ public class Benchmark {
     }
     long end = System.nanoTime();
     System.out.println("HashMap: " + (end - start) / 1e9);
+    return (end - start) / 1e9;
+  }
+
+  // The same workload with int keys and values which are never boxed.
+  public static void testIntIntMap(ProbingStrategy probing, double hashMapTime) {
+
+    IntIntMap map = new IntIntMap(7, 0.65, probing);
+
+    long start = System.nanoTime();
+    for (int i = 0; i < N; i++) {
+      map.put(keys[i], values[i]);
+      int val = map.get(keys[i]);
+      if (val != values[i]) System.out.println("Not good..");
+    }
+    long end = System.nanoTime();
+    double time = (end - start) / 1e9;
+    System.out.printf("IntIntMap (%s): %s (%.1fx HashMap)\n", probing, time, hashMapTime / time);
   }
 }
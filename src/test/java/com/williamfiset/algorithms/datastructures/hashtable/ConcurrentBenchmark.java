@@ -0,0 +1,103 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Compares the throughput of ConcurrentHashTableSeparateChaining with ConcurrentHashMap for
+// several read/write ratios, with every available core running a mix of gets, puts and removes.
+public class ConcurrentBenchmark {
+
+  static final int KEYS = 1 << 18;
+  static final int OPS_PER_THREAD = 2_000_000;
+  static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  interface ConcurrentMapAdapter {
+    Integer get(Integer key);
+
+    Integer put(Integer key, Integer value);
+
+    Integer remove(Integer key);
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    System.out.println("Threads: " + THREADS);
+    for (double readRatio : new double[] {0.5, 0.9, 0.99}) {
+      // Run each benchmark twice and only report the second run, after the JIT warmed up.
+      benchmark(readRatio, false);
+      benchmark(readRatio, true);
+    }
+  }
+
+  static void benchmark(double readRatio, boolean report) throws InterruptedException {
+    ConcurrentHashTableSeparateChaining<Integer, Integer> table =
+        new ConcurrentHashTableSeparateChaining<>();
+    ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+
+    double tableOps = run(readRatio, new ConcurrentMapAdapter() {
+      public Integer get(Integer key) {
+        return table.get(key);
+      }
+
+      public Integer put(Integer key, Integer value) {
+        return table.put(key, value);
+      }
+
+      public Integer remove(Integer key) {
+        return table.remove(key);
+      }
+    });
+    double mapOps = run(readRatio, new ConcurrentMapAdapter() {
+      public Integer get(Integer key) {
+        return map.get(key);
+      }
+
+      public Integer put(Integer key, Integer value) {
+        return map.put(key, value);
+      }
+
+      public Integer remove(Integer key) {
+        return map.remove(key);
+      }
+    });
+
+    if (report) {
+      System.out.printf(
+          "%2.0f%% reads: ConcurrentHashTableSeparateChaining %6.1f Mops/s, "
+              + "ConcurrentHashMap %6.1f Mops/s (%.2fx)%n",
+          100 * readRatio, tableOps / 1e6, mapOps / 1e6, tableOps / mapOps);
+    }
+  }
+
+  // Returns the operations per second of all threads together. Half the key range is inserted
+  // first, and writes put and remove with equal probability so the size stays about the same.
+  static double run(double readRatio, ConcurrentMapAdapter map) throws InterruptedException {
+    for (int key = 0; key < KEYS; key += 2) map.put(key, key);
+
+    Thread[] threads = new Thread[THREADS];
+    for (int t = 0; t < THREADS; t++) {
+      final SplittableRandom random = new SplittableRandom(t);
+      threads[t] = new Thread(() -> {
+        long sink = 0;
+        for (int op = 0; op < OPS_PER_THREAD; op++) {
+          Integer key = random.nextInt(KEYS);
+          double r = random.nextDouble();
+          if (r < readRatio) {
+            Integer value = map.get(key);
+            if (value != null) sink += value;
+          } else if (r < (1 + readRatio) / 2) {
+            map.put(key, key);
+          } else {
+            map.remove(key);
+          }
+        }
+        if (sink == 42) System.out.print("");
+      });
+    }
+
+    long start = System.nanoTime();
+    for (Thread thread : threads) thread.start();
+    for (Thread thread : threads) thread.join();
+    long end = System.nanoTime();
+    return (double) THREADS * OPS_PER_THREAD / ((end - start) / 1e9);
+  }
+}
@@ -0,0 +1,158 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ConcurrentHashTableSeparateChainingTest {
+
+  static final Random RANDOM = new Random();
+  static final int THREADS = 8;
+
+  ConcurrentHashTableSeparateChaining<Integer, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new ConcurrentHashTableSeparateChaining<>();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey() {
+    map.put(null, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation1() {
+    new ConcurrentHashTableSeparateChaining<>(-3, 0.5, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation2() {
+    new ConcurrentHashTableSeparateChaining<>(5, Double.NaN, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation3() {
+    new ConcurrentHashTableSeparateChaining<>(5, 0.75, 0);
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+    for (int loop = 0; loop < 100; loop++) {
+      map.clear();
+      jmap.clear();
+      int maxKey = 1 + RANDOM.nextInt(1000);
+      for (int i = 0; i < 2000; i++) {
+        int key = RANDOM.nextInt(maxKey);
+        if (RANDOM.nextDouble() < 0.3) assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+        else assertThat(map.put(key, i)).isEqualTo(jmap.put(key, i));
+        assertThat(map.get(key)).isEqualTo(jmap.get(key));
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+      }
+      assertThat(new HashSet<>(map.keys())).isEqualTo(jmap.keySet());
+      HashMap<Integer, Integer> entries = new HashMap<>();
+      map.forEach(entries::put);
+      assertThat(entries).isEqualTo(jmap);
+    }
+  }
+
+  // Threads insert disjoint keys while the table resizes many times.
+  @Test
+  public void testConcurrentInsertions() throws InterruptedException {
+    final int perThread = 20_000;
+    runThreads(
+        t -> {
+          for (int i = 0; i < perThread; i++) map.put(t * perThread + i, i);
+        });
+    assertThat(map.size()).isEqualTo(THREADS * perThread);
+    assertThat(map.getCapacity()).isAtLeast(THREADS * perThread);
+    for (int t = 0; t < THREADS; t++)
+      for (int i = 0; i < perThread; i++) assertThat(map.get(t * perThread + i)).isEqualTo(i);
+  }
+
+  // Readers running next to inserting and removing writers only ever see the value stored with a
+  // key, and the keys which are never removed are always found.
+  @Test
+  public void testReadersDuringWrites() throws InterruptedException {
+    final int keys = 50_000;
+    for (int i = 0; i < keys; i += 2) map.put(i, -i);
+    AtomicBoolean failed = new AtomicBoolean();
+    runThreads(
+        t -> {
+          Random random = new Random(t);
+          for (int op = 0; op < 100_000; op++) {
+            int key = random.nextInt(keys);
+            if (t % 2 == 0) {
+              Integer value = map.get(key);
+              if (value != null && value != -key) failed.set(true);
+              if (key % 2 == 0 && value == null) failed.set(true);
+            } else if (key % 2 == 1) {
+              if (random.nextBoolean()) map.put(key, -key);
+              else map.remove(key);
+            }
+          }
+        });
+    assertThat(failed.get()).isFalse();
+    for (int i = 0; i < keys; i += 2) assertThat(map.get(i)).isEqualTo(-i);
+  }
+
+  // Threads race to insert and remove the same keys, each key must be removed exactly as many
+  // times as it was inserted by a thread that found it absent.
+  @Test
+  public void testConcurrentInsertRemoveCounts() throws InterruptedException {
+    final int keys = 1000;
+    final int[][] added = new int[THREADS][keys], removed = new int[THREADS][keys];
+    runThreads(
+        t -> {
+          Random random = new Random(t);
+          for (int op = 0; op < 50_000; op++) {
+            int key = random.nextInt(keys);
+            if (random.nextBoolean()) {
+              if (map.put(key, key) == null) added[t][key]++;
+            } else if (map.remove(key) != null) {
+              removed[t][key]++;
+            }
+          }
+        });
+    int present = 0;
+    for (int key = 0; key < keys; key++) {
+      int balance = 0;
+      for (int t = 0; t < THREADS; t++) balance += added[t][key] - removed[t][key];
+      assertThat(balance).isEqualTo(map.containsKey(key) ? 1 : 0);
+      if (balance == 1) present++;
+    }
+    assertThat(map.size()).isEqualTo(present);
+  }
+
+  interface ThreadBody {
+    void run(int thread);
+  }
+
+  static void runThreads(ThreadBody body) throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> errors = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      final int thread = t;
+      Thread th = new Thread(() -> body.run(thread));
+      th.setUncaughtExceptionHandler((x, e) -> {
+        synchronized (errors) {
+          errors.add(e);
+        }
+      });
+      threads.add(th);
+      th.start();
+    }
+    for (Thread th : threads) th.join();
+    assertThat(errors).isEmpty();
+  }
+}
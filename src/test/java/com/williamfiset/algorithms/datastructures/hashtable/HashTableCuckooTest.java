@@ -0,0 +1,150 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HashTableCuckooTest {
+
+  // An object with a chosen hash value, used to force collisions.
+  static class HashObject {
+    final int hash, data;
+
+    public HashObject(int hash, int data) {
+      this.hash = hash;
+      this.data = data;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      HashObject ho = (HashObject) o;
+      return hashCode() == ho.hashCode() && data == ho.data;
+    }
+  }
+
+  // Colliding hash codes, but distinct second hashes.
+  static class SecondaryHashObject extends HashObject implements SecondaryHash {
+    public SecondaryHashObject(int hash, int data) {
+      super(hash, data);
+    }
+
+    @Override
+    public int hashCode2() {
+      return data * 31 + 7;
+    }
+  }
+
+  static final Random RANDOM = new Random();
+
+  HashTableCuckoo<Integer, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new HashTableCuckoo<>();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey() {
+    map.put(null, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation() {
+    new HashTableCuckoo<>(-3);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLoadFactor() {
+    new HashTableCuckoo<>(10, 0.99);
+  }
+
+  @Test
+  public void testUpdatingValue() {
+    assertThat(map.add(1, 1)).isNull();
+    assertThat(map.add(1, 5)).isEqualTo(1);
+    assertThat(map.get(1)).isEqualTo(5);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  // Keys sharing both hashes all compete for the same two buckets, so most of them end up in the
+  // stash.
+  @Test
+  public void testCollidingKeys() {
+    HashTableCuckoo<HashObject, Integer> m = new HashTableCuckoo<>();
+    for (int i = 0; i < 100; i++) m.put(new HashObject(88, i), i);
+    assertThat(m.size()).isEqualTo(100);
+    for (int i = 0; i < 100; i += 3) assertThat(m.remove(new HashObject(88, i))).isEqualTo(i);
+    for (int i = 0; i < 100; i++) {
+      Integer expected = i % 3 == 0 ? null : i;
+      assertThat(m.get(new HashObject(88, i))).isEqualTo(expected);
+    }
+  }
+
+  // With a SecondaryHash the colliding hash codes still spread over many second buckets.
+  @Test
+  public void testSecondaryHashKeys() {
+    HashTableCuckoo<HashObject, Integer> m = new HashTableCuckoo<>();
+    for (int i = 0; i < 2000; i++) m.put(new SecondaryHashObject(i % 4, i), i);
+    for (int i = 0; i < 2000; i++) {
+      assertThat(m.get(new SecondaryHashObject(i % 4, i))).isEqualTo(i);
+    }
+    assertThat(m.getStashSize()).isAtMost(HashTableCuckoo.STASH_SIZE);
+  }
+
+  // Filling the table to its load factor displaces keys along long chains without losing any.
+  @Test
+  public void testHighLoad() {
+    HashTableCuckoo<Integer, Integer> m = new HashTableCuckoo<>(1 << 14, 0.95);
+    int capacity = m.getCapacity();
+    int n = (int) (capacity * 0.95) - 1;
+    for (int i = 0; i < n; i++) m.put(RANDOM.nextInt(), i);
+    for (int key : m) assertThat(m.containsKey(key)).isTrue();
+    assertThat(m.size()).isEqualTo(m.keys().size());
+    assertThat(m.getStashSize()).isAtMost(HashTableCuckoo.STASH_SIZE);
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+    for (int loop = 0; loop < 300; loop++) {
+      map.clear();
+      jmap.clear();
+      int maxKey = 1 + RANDOM.nextInt(1000);
+      double removeProbability = RANDOM.nextDouble();
+      for (int i = 0; i < 1000; i++) {
+        int key = RANDOM.nextInt(maxKey);
+        if (RANDOM.nextDouble() < removeProbability) {
+          assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+        } else {
+          assertThat(map.put(key, i)).isEqualTo(jmap.put(key, i));
+        }
+        assertThat(map.get(key)).isEqualTo(jmap.get(key));
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+      }
+      assertThat(new HashSet<>(map.keys())).isEqualTo(jmap.keySet());
+      Set<Integer> iterated = new HashSet<>();
+      for (Integer key : map) iterated.add(key);
+      assertThat(iterated).isEqualTo(jmap.keySet());
+    }
+  }
+
+  @Test(expected = java.util.ConcurrentModificationException.class)
+  public void testConcurrentModificationException() {
+    map.add(1, 1);
+    map.add(2, 1);
+    map.add(3, 1);
+    for (Integer key : map) map.add(4, 4);
+  }
+}
@@ -260,6 +260,43 @@ public class HashTableSeparateChainingTest {
     }
   }
 
+  @Test
+  public void testIncrementalResize() {
+
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+
+    for (int loop = 0; loop < LOOPS / 10; loop++) {
+
+      HashTableSeparateChaining<Integer, Integer> m = new HashTableSeparateChaining<>();
+      m.setIncrementalResize(true);
+      jmap.clear();
+      boolean resized = false;
+
+      for (int i = 0; i < 2000; i++) {
+        Integer key = randInt(0, 1000);
+        if (Math.random() < 0.3) assertThat(m.remove(key)).isEqualTo(jmap.remove(key));
+        else assertThat(m.put(key, i)).isEqualTo(jmap.put(key, i));
+
+        assertThat(m.get(key)).isEqualTo(jmap.get(key));
+        assertThat(m.size()).isEqualTo(jmap.size());
+        resized |= m.isResizing();
+      }
+      assertThat(resized).isTrue();
+
+      // The keys still in the old table are found too
+      for (Integer key : jmap.keySet()) assertThat(m.get(key)).isEqualTo(jmap.get(key));
+      assertThat(new HashSet<>(m.keys())).isEqualTo(jmap.keySet());
+      Set<Integer> iterated = new HashSet<>();
+      for (Integer key : m) iterated.add(key);
+      assertThat(iterated).isEqualTo(jmap.keySet());
+
+      // Turning incremental resizing off completes the resize
+      m.setIncrementalResize(false);
+      assertThat(m.isResizing()).isFalse();
+      assertThat(new HashSet<>(m.keys())).isEqualTo(jmap.keySet());
+    }
+  }
+
   @Test
   public void randomIteratorTests() {
 
@@ -0,0 +1,169 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import com.williamfiset.algorithms.datastructures.hashtable.HashTableStats.Operation;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HashTableStatsTest {
+
+  // An object with a chosen hash value, used to force collisions.
+  static class HashObject {
+    final int hash, data;
+
+    public HashObject(int hash, int data) {
+      this.hash = hash;
+      this.data = data;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      HashObject ho = (HashObject) o;
+      return hashCode() == ho.hashCode() && data == ho.data;
+    }
+  }
+
+  static final int N = 1000;
+
+  static long histogramTotal(HashTableStats stats, Operation operation) {
+    long total = 0;
+    for (long bin : stats.getProbeHistogram(operation)) total += bin;
+    return total;
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertThat(new HashTableLinearProbing<Integer, Integer>().getStats()).isNull();
+    assertThat(new HashTableSeparateChaining<Integer, Integer>().getStats()).isNull();
+    assertThat(new HashTableSwiss<Integer, Integer>().getStats()).isNull();
+    assertThat(new IntIntMap().getStats()).isNull();
+
+    HashTableRobinHood<Integer, Integer> map = new HashTableRobinHood<>();
+    map.setStatsEnabled(true);
+    assertThat(map.getStats()).isNotNull();
+    map.setStatsEnabled(false);
+    assertThat(map.getStats()).isNull();
+  }
+
+  @Test
+  public void testHistogramClampsLongProbes() {
+    HashTableStats stats = new HashTableStats();
+    stats.recordProbes(Operation.GET, 1);
+    stats.recordProbes(Operation.GET, 3);
+    stats.recordProbes(Operation.GET, 1000);
+    long[] histogram = stats.getProbeHistogram(Operation.GET);
+    assertThat(histogram[1]).isEqualTo(1);
+    assertThat(histogram[3]).isEqualTo(1);
+    assertThat(histogram[HashTableStats.HISTOGRAM_SIZE - 1]).isEqualTo(1);
+    assertThat(stats.getMaxProbeLength(Operation.GET)).isEqualTo(1000);
+    assertThat(stats.getAverageProbeLength(Operation.GET)).isEqualTo(1004 / 3.0);
+    stats.reset();
+    assertThat(stats.getOperationCount(Operation.GET)).isEqualTo(0);
+  }
+
+  // Every public operation is recorded exactly once, and the keys re-inserted by a resize are not
+  // recorded as insertions.
+  @Test
+  public void testOpenAddressingCounts() {
+    HashTableLinearProbing<Integer, Integer> incremental = new HashTableLinearProbing<>();
+    incremental.setIncrementalResize(true);
+    List<HashTableOpenAddressingBase<Integer, Integer>> maps =
+        Arrays.asList(
+            new HashTableLinearProbing<>(), new HashTableQuadraticProbing<>(), incremental);
+    for (HashTableOpenAddressingBase<Integer, Integer> map : maps) {
+      map.setStatsEnabled(true);
+      for (int i = 0; i < N; i++) map.put(i, i);
+      for (int i = 0; i < N; i++) map.get(i);
+      for (int i = 0; i < N; i += 2) map.remove(i);
+
+      HashTableStats stats = map.getStats();
+      assertThat(histogramTotal(stats, Operation.INSERT)).isEqualTo(N);
+      assertThat(stats.getOperationCount(Operation.GET)).isEqualTo(N);
+      assertThat(stats.getOperationCount(Operation.REMOVE)).isEqualTo(N / 2);
+      assertThat(stats.getAverageProbeLength(Operation.GET)).isAtLeast(1.0);
+      assertThat(stats.getResizeCount()).isGreaterThan(0L);
+      assertThat(stats.getTombstones()).isAtLeast(1);
+      assertThat(stats.getTombstoneRatio()).isGreaterThan(0.0);
+    }
+  }
+
+  @Test
+  public void testSeparateChainingMaxChainLength() {
+    HashTableSeparateChaining<HashObject, Integer> map = new HashTableSeparateChaining<>();
+    map.setStatsEnabled(true);
+    for (int i = 0; i < 50; i++) map.put(new HashObject(7, i), i);
+    map.get(new HashObject(7, 49));
+    map.get(new HashObject(7, 50));
+
+    HashTableStats stats = map.getStats();
+    assertThat(stats.getMaxChainLength()).isEqualTo(50);
+    assertThat(stats.getUsedBuckets()).isEqualTo(1);
+    assertThat(stats.getTombstones()).isEqualTo(0);
+    // A hit compares the entries up to the key, a miss the whole chain
+    assertThat(stats.getProbeHistogram(Operation.GET)[HashTableStats.HISTOGRAM_SIZE - 1])
+        .isEqualTo(2);
+    assertThat(stats.getMaxProbeLength(Operation.GET)).isEqualTo(50);
+  }
+
+  @Test
+  public void testPrimitiveMapTombstones() {
+    IntIntMap map = new IntIntMap(4 * N);
+    map.setStatsEnabled(true);
+    for (int i = 1; i <= N; i++) map.put(i, i);
+    for (int i = 1; i <= N / 4; i++) map.remove(i);
+    map.put(0, 5);
+
+    HashTableStats stats = map.getStats();
+    assertThat(stats.getUsedBuckets()).isEqualTo(N);
+    assertThat(stats.getTombstones()).isEqualTo(N / 4);
+    assertThat(stats.getTombstoneRatio()).isEqualTo(0.25);
+    assertThat(stats.getOperationCount(Operation.INSERT)).isEqualTo(N);
+    assertThat(stats.getResizeCount()).isEqualTo(0L);
+  }
+
+  @Test
+  public void testOtherTablesRecordOperations() {
+    HashTableRobinHood<Integer, Integer> robinHood = new HashTableRobinHood<>();
+    HashTableSwiss<Integer, Integer> swiss = new HashTableSwiss<>();
+    HashTableCuckoo<Integer, Integer> cuckoo = new HashTableCuckoo<>();
+    ConcurrentHashTableSeparateChaining<Integer, Integer> concurrent =
+        new ConcurrentHashTableSeparateChaining<>();
+    robinHood.setStatsEnabled(true);
+    swiss.setStatsEnabled(true);
+    cuckoo.setStatsEnabled(true);
+    concurrent.setStatsEnabled(true);
+    for (int i = 0; i < N; i++) {
+      robinHood.put(i, i);
+      swiss.put(i, i);
+      cuckoo.put(i, i);
+      concurrent.put(i, i);
+    }
+    for (int i = 0; i < 2 * N; i++) {
+      robinHood.get(i);
+      swiss.get(i);
+      cuckoo.get(i);
+      concurrent.get(i);
+    }
+    for (HashTableStats stats :
+        new HashTableStats[] {
+          robinHood.getStats(), swiss.getStats(), cuckoo.getStats(), concurrent.getStats()
+        }) {
+      assertThat(stats.getOperationCount(Operation.INSERT)).isEqualTo(N);
+      assertThat(stats.getOperationCount(Operation.GET)).isEqualTo(2 * N);
+      assertThat(stats.getResizeCount()).isGreaterThan(0L);
+      assertThat(stats.getUsedBuckets()).isAtMost(stats.getBuckets());
+      assertThat(stats.getTombstones()).isEqualTo(0);
+    }
+    // Cuckoo lookups inspect at most both buckets and the stash
+    assertThat(cuckoo.getStats().getMaxProbeLength(Operation.GET)).isAtMost(3);
+    assertThat(concurrent.getStats().getMaxChainLength()).isAtLeast(1);
+  }
+}
@@ -0,0 +1,156 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HashTableSwissTest {
+
+  // An object with a chosen hash value, used to force collisions.
+  static class HashObject {
+    final int hash, data;
+
+    public HashObject(int hash, int data) {
+      this.hash = hash;
+      this.data = data;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      HashObject ho = (HashObject) o;
+      return hashCode() == ho.hashCode() && data == ho.data;
+    }
+  }
+
+  static final Random RANDOM = new Random();
+
+  HashTableSwiss<Integer, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new HashTableSwiss<>();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullKey() {
+    map.put(null, 5);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCreation() {
+    new HashTableSwiss<>(-3);
+  }
+
+  @Test
+  public void testMatchByte() {
+    for (int loop = 0; loop < 10_000; loop++) {
+      long group = RANDOM.nextLong();
+      int b = RANDOM.nextInt(128);
+      if (RANDOM.nextBoolean()) group = (group & ~(0xFFL << 24)) | ((long) b << 24);
+      long match = HashTableSwiss.matchByte(group, b);
+      for (int j = 0; j < 8; j++) {
+        int value = (int) (group >>> (8 * j)) & 0xFF;
+        boolean flagged = (match >>> (8 * j + 7) & 1) == 1;
+        // Every true match is flagged, and a false positive is always b ^ 1.
+        if (value == b) assertThat(flagged).isTrue();
+        else if (flagged) assertThat(value).isEqualTo(b ^ 1);
+      }
+    }
+  }
+
+  @Test
+  public void testMatchEmpty() {
+    int[] bytes = {HashTableSwiss.EMPTY, HashTableSwiss.DELETED, 0, 1, 0x7F, 0x42};
+    for (int loop = 0; loop < 10_000; loop++) {
+      long group = 0;
+      for (int j = 0; j < 8; j++) group |= (long) bytes[RANDOM.nextInt(bytes.length)] << (8 * j);
+      long empty = HashTableSwiss.matchEmpty(group);
+      long emptyOrDeleted = HashTableSwiss.matchEmptyOrDeleted(group);
+      for (int j = 0; j < 8; j++) {
+        int value = (int) (group >>> (8 * j)) & 0xFF;
+        assertThat((empty >>> (8 * j + 7) & 1) == 1).isEqualTo(value == HashTableSwiss.EMPTY);
+        assertThat((emptyOrDeleted >>> (8 * j + 7) & 1) == 1).isEqualTo(value >= 0x80);
+      }
+    }
+  }
+
+  @Test
+  public void testUpdatingValue() {
+    assertThat(map.add(1, 1)).isNull();
+    assertThat(map.add(1, 5)).isEqualTo(1);
+    assertThat(map.get(1)).isEqualTo(5);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCollidingKeys() {
+    HashTableSwiss<HashObject, Integer> m = new HashTableSwiss<>();
+    for (int i = 0; i < 100; i++) m.put(new HashObject(88, i), i);
+    for (int i = 0; i < 100; i += 3) m.remove(new HashObject(88, i));
+    for (int i = 0; i < 100; i++) {
+      Integer expected = i % 3 == 0 ? null : i;
+      assertThat(m.get(new HashObject(88, i))).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void testRandomMapOperations() {
+    HashMap<Integer, Integer> jmap = new HashMap<>();
+    for (int loop = 0; loop < 300; loop++) {
+      map.clear();
+      jmap.clear();
+      int maxKey = 1 + RANDOM.nextInt(1000);
+      double removeProbability = RANDOM.nextDouble();
+      for (int i = 0; i < 1000; i++) {
+        int key = RANDOM.nextInt(maxKey);
+        if (RANDOM.nextDouble() < removeProbability) {
+          assertThat(map.remove(key)).isEqualTo(jmap.remove(key));
+        } else {
+          assertThat(map.put(key, i)).isEqualTo(jmap.put(key, i));
+        }
+        assertThat(map.get(key)).isEqualTo(jmap.get(key));
+        assertThat(map.containsKey(key)).isEqualTo(jmap.containsKey(key));
+        assertThat(map.size()).isEqualTo(jmap.size());
+      }
+      assertThat(new HashSet<>(map.keys())).isEqualTo(jmap.keySet());
+      Set<Integer> iterated = new HashSet<>();
+      for (Integer key : map) iterated.add(key);
+      assertThat(iterated).isEqualTo(jmap.keySet());
+    }
+  }
+
+  // Churning keys through a table of constant size reuses DELETED buckets and rebuilds the table
+  // in place instead of growing it.
+  @Test
+  public void testChurnDoesNotGrow() {
+    HashTableSwiss<Integer, Integer> m = new HashTableSwiss<>(1000);
+    int capacity = m.getCapacity();
+    for (int i = 0; i < 1000; i++) m.put(i, i);
+    for (int i = 1000; i < 200_000; i++) {
+      assertThat(m.remove(i - 1000)).isEqualTo(i - 1000);
+      m.put(i, i);
+    }
+    assertThat(m.getCapacity()).isEqualTo(capacity);
+    for (int i = 0; i < 199_000; i++) assertThat(m.containsKey(i)).isFalse();
+    for (int i = 199_000; i < 200_000; i++) assertThat(m.get(i)).isEqualTo(i);
+  }
+
+  @Test(expected = java.util.ConcurrentModificationException.class)
+  public void testConcurrentModificationException() {
+    map.add(1, 1);
+    map.add(2, 1);
+    map.add(3, 1);
+    for (Integer key : map) map.add(4, 4);
+  }
+}
@@ -0,0 +1,142 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class IntIntMapTest {
+
+  static final Random RANDOM = new Random(41);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCapacity() {
+    new IntIntMap(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLoadFactor() {
+    new IntIntMap(10, 1.0, ProbingStrategy.LINEAR);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullProbingStrategy() {
+    new IntIntMap(10, 0.5, null);
+  }
+
+  @Test
+  public void testSentinelKeys() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      IntIntMap map = new IntIntMap(7, 0.65, probing);
+      assertThat(map.containsKey(0)).isFalse();
+      assertThat(map.getOrDefault(Integer.MIN_VALUE, -1)).isEqualTo(-1);
+      assertThat(map.put(0, 5)).isEqualTo(0);
+      assertThat(map.put(Integer.MIN_VALUE, 6)).isEqualTo(0);
+      assertThat(map.put(0, 7)).isEqualTo(5);
+      assertThat(map.size()).isEqualTo(2);
+      assertThat(map.get(0)).isEqualTo(7);
+      assertThat(map.get(Integer.MIN_VALUE)).isEqualTo(6);
+      assertThat(map.remove(0)).isEqualTo(7);
+      assertThat(map.containsKey(0)).isFalse();
+      assertThat(map.remove(0)).isEqualTo(0);
+      assertThat(map.size()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testStoredZeroValue() {
+    IntIntMap map = new IntIntMap();
+    map.put(3, 0);
+    assertThat(map.containsKey(3)).isTrue();
+    assertThat(map.getOrDefault(3, -1)).isEqualTo(0);
+    assertThat(map.getOrDefault(4, -1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void testCapacityFollowsProbingStrategy() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      IntIntMap map = new IntIntMap(7, 0.65, probing);
+      for (int i = 1; i <= 1000; i++) map.put(i, i);
+      int capacity = map.getCapacity();
+      if (probing == ProbingStrategy.LINEAR) assertThat(capacity % 17).isNotEqualTo(0);
+      if (probing == ProbingStrategy.QUADRATIC) assertThat(Integer.bitCount(capacity)).isEqualTo(1);
+      assertThat(map.size()).isEqualTo(1000);
+    }
+  }
+
+  // Long probe sequences keep visiting (h + x * step) mod capacity after x * step overflows an int,
+  // so double hashing with a prime capacity still reaches every bucket.
+  @Test
+  public void testLongProbeSequencesDoNotOverflow() {
+    IntIntMap map = new IntIntMap(1 << 20, 0.65, ProbingStrategy.DOUBLE_HASHING);
+    int capacity = map.getCapacity(), step = capacity - 1;
+    for (int i = 0, x = 1; x <= 100_000; x++) {
+      i = map.nextProbe(i, x, step);
+      assertThat(i).isEqualTo((int) ((long) x * step % capacity));
+    }
+  }
+
+  @Test
+  public void testDeletedBucketsAreReclaimed() {
+    IntIntMap map = new IntIntMap(100, 0.5, ProbingStrategy.LINEAR);
+    int capacity = map.getCapacity();
+    for (int i = 1; i <= 100_000; i++) {
+      map.put(i, i);
+      map.remove(i);
+    }
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.getCapacity()).isEqualTo(capacity);
+  }
+
+  @Test
+  public void testClear() {
+    IntIntMap map = new IntIntMap();
+    for (int i = -50; i <= 50; i++) map.put(i, i);
+    map.clear();
+    assertThat(map.size()).isEqualTo(0);
+    for (int i = -50; i <= 50; i++) assertThat(map.containsKey(i)).isFalse();
+    map.put(1, 2);
+    assertThat(map.get(1)).isEqualTo(2);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      for (int loop = 0; loop < 20; loop++) {
+        double loadFactor = 0.3 + 0.6 * RANDOM.nextDouble();
+        IntIntMap map = new IntIntMap(1 + RANDOM.nextInt(50), loadFactor, probing);
+        Map<Integer, Integer> expected = new HashMap<>();
+        int range = 1 + RANDOM.nextInt(2000);
+        for (int op = 0; op < 5000; op++) {
+          // Include the sentinel keys once in a while.
+          int key = RANDOM.nextInt(50) == 0 ? Integer.MIN_VALUE : RANDOM.nextInt(range) - range / 2;
+          int value = RANDOM.nextInt();
+          if (RANDOM.nextInt(3) == 0) {
+            Integer old = expected.remove(key);
+            assertThat(map.remove(key)).isEqualTo(old == null ? 0 : old);
+          } else {
+            Integer old = expected.put(key, value);
+            assertThat(map.put(key, value)).isEqualTo(old == null ? 0 : old);
+          }
+          int probe = RANDOM.nextInt(range) - range / 2;
+          assertThat(map.containsKey(probe)).isEqualTo(expected.containsKey(probe));
+          assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+          assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+        int[] expectedKeys = expected.keySet().stream().mapToInt(i -> i).sorted().toArray();
+        assertThat(keys).isEqualTo(expectedKeys);
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+      }
+    }
+  }
+}
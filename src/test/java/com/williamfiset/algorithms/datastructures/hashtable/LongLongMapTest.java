@@ -0,0 +1,131 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LongLongMapTest {
+
+  static final Random RANDOM = new Random(42);
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalCapacity() {
+    new LongLongMap(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLoadFactor() {
+    new LongLongMap(10, 1.0, ProbingStrategy.LINEAR);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullProbingStrategy() {
+    new LongLongMap(10, 0.5, null);
+  }
+
+  @Test
+  public void testSentinelKeys() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      LongLongMap map = new LongLongMap(7, 0.65, probing);
+      assertThat(map.containsKey(0)).isFalse();
+      assertThat(map.getOrDefault(Long.MIN_VALUE, -1)).isEqualTo(-1L);
+      assertThat(map.put(0, 5)).isEqualTo(0L);
+      assertThat(map.put(Long.MIN_VALUE, 6)).isEqualTo(0L);
+      assertThat(map.put(0, 7)).isEqualTo(5L);
+      assertThat(map.size()).isEqualTo(2);
+      assertThat(map.get(0)).isEqualTo(7L);
+      assertThat(map.get(Long.MIN_VALUE)).isEqualTo(6L);
+      assertThat(map.remove(0)).isEqualTo(7L);
+      assertThat(map.containsKey(0)).isFalse();
+      assertThat(map.remove(0)).isEqualTo(0L);
+      assertThat(map.size()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testStoredZeroValue() {
+    LongLongMap map = new LongLongMap();
+    map.put(3, 0);
+    assertThat(map.containsKey(3)).isTrue();
+    assertThat(map.getOrDefault(3, -1)).isEqualTo(0L);
+    assertThat(map.getOrDefault(4, -1)).isEqualTo(-1L);
+  }
+
+  @Test
+  public void testCapacityFollowsProbingStrategy() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      LongLongMap map = new LongLongMap(7, 0.65, probing);
+      for (int i = 1; i <= 1000; i++) map.put(i, i);
+      int capacity = map.getCapacity();
+      if (probing == ProbingStrategy.LINEAR) assertThat(capacity % 17).isNotEqualTo(0);
+      if (probing == ProbingStrategy.QUADRATIC) assertThat(Integer.bitCount(capacity)).isEqualTo(1);
+      assertThat(map.size()).isEqualTo(1000);
+    }
+  }
+
+  @Test
+  public void testDeletedBucketsAreReclaimed() {
+    LongLongMap map = new LongLongMap(100, 0.5, ProbingStrategy.LINEAR);
+    int capacity = map.getCapacity();
+    for (int i = 1; i <= 100_000; i++) {
+      map.put(i, i);
+      map.remove(i);
+    }
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.getCapacity()).isEqualTo(capacity);
+  }
+
+  @Test
+  public void testClear() {
+    LongLongMap map = new LongLongMap();
+    for (long i = -50; i <= 50; i++) map.put(i, i);
+    map.clear();
+    assertThat(map.size()).isEqualTo(0);
+    for (long i = -50; i <= 50; i++) assertThat(map.containsKey(i)).isFalse();
+    map.put(1, 2);
+    assertThat(map.get(1)).isEqualTo(2L);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      for (int loop = 0; loop < 20; loop++) {
+        double loadFactor = 0.3 + 0.6 * RANDOM.nextDouble();
+        LongLongMap map = new LongLongMap(1 + RANDOM.nextInt(50), loadFactor, probing);
+        Map<Long, Long> expected = new HashMap<>();
+        int range = 1 + RANDOM.nextInt(2000);
+        for (int op = 0; op < 5000; op++) {
+          // Include the sentinel keys once in a while.
+          long key = (long) (RANDOM.nextInt(range) - range / 2) << 32;
+          if (RANDOM.nextInt(50) == 0) key = Long.MIN_VALUE;
+          long value = RANDOM.nextLong();
+          if (RANDOM.nextInt(3) == 0) {
+            Long old = expected.remove(key);
+            assertThat(map.remove(key)).isEqualTo(old == null ? 0L : old);
+          } else {
+            Long old = expected.put(key, value);
+            assertThat(map.put(key, value)).isEqualTo(old == null ? 0L : old);
+          }
+          long probe = (long) (RANDOM.nextInt(range) - range / 2) << 32;
+          assertThat(map.containsKey(probe)).isEqualTo(expected.containsKey(probe));
+          assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+          assertThat(map.get(entry.getKey())).isEqualTo(entry.getValue());
+        }
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        long[] expectedKeys = expected.keySet().stream().mapToLong(i -> i).sorted().toArray();
+        assertThat(keys).isEqualTo(expectedKeys);
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+      }
+    }
+  }
+}
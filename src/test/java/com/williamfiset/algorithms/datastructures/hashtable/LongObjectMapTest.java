@@ -0,0 +1,59 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LongObjectMapTest {
+
+  static final Random RANDOM = new Random(43);
+
+  @Test
+  public void testSentinelKeysAndNullValues() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      LongObjectMap<String> map = new LongObjectMap<>(7, 0.65, probing);
+      assertThat(map.put(0, "zero")).isNull();
+      assertThat(map.put(Long.MIN_VALUE, "min")).isNull();
+      assertThat(map.put(5, null)).isNull();
+      assertThat(map.containsKey(5)).isTrue();
+      assertThat(map.getOrDefault(5, "default")).isNull();
+      assertThat(map.getOrDefault(6, "default")).isEqualTo("default");
+      assertThat(map.get(0)).isEqualTo("zero");
+      assertThat(map.remove(Long.MIN_VALUE)).isEqualTo("min");
+      assertThat(map.get(Long.MIN_VALUE)).isNull();
+      assertThat(map.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void testRandomOperations() {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      for (int loop = 0; loop < 20; loop++) {
+        LongObjectMap<String> map = new LongObjectMap<>(1 + RANDOM.nextInt(50), 0.5, probing);
+        Map<Long, String> expected = new HashMap<>();
+        int range = 1 + RANDOM.nextInt(2000);
+        for (int op = 0; op < 5000; op++) {
+          long key = RANDOM.nextInt(50) == 0 ? 0 : RANDOM.nextInt(range) * 1_000_000_007L;
+          if (RANDOM.nextInt(3) == 0) {
+            assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+          } else {
+            String value = Integer.toString(op);
+            assertThat(map.put(key, value)).isEqualTo(expected.put(key, value));
+          }
+          assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (long key = 0; key < range; key++) {
+          long k = key * 1_000_000_007L;
+          assertThat(map.get(k)).isEqualTo(expected.get(k));
+        }
+        Map<Long, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+      }
+    }
+  }
+}
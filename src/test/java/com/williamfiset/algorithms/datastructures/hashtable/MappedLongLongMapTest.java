@@ -0,0 +1,132 @@
+package com.williamfiset.algorithms.datastructures.hashtable;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class MappedLongLongMapTest {
+
+  static final Random RANDOM = new Random();
+
+  static Path tempFile() throws IOException {
+    Path file = Files.createTempFile("map", ".hmap");
+    file.toFile().deleteOnExit();
+    return file;
+  }
+
+  static void assertSameEntries(MappedLongLongMap map, HashMap<Long, Long> expected) {
+    assertThat(map.size()).isEqualTo(expected.size());
+    for (long key : expected.keySet()) {
+      assertThat(map.containsKey(key)).isTrue();
+      assertThat(map.get(key)).isEqualTo(expected.get(key));
+    }
+    HashMap<Long, Long> entries = new HashMap<>();
+    map.forEach(entries::put);
+    assertThat(entries).isEqualTo(expected);
+    assertThat(map.keys().length).isEqualTo(expected.size());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLoadFactor() throws IOException {
+    MappedLongLongMap.create(tempFile(), 10, 1.0, ProbingStrategy.LINEAR);
+  }
+
+  @Test(expected = IOException.class)
+  public void testOpenInvalidFile() throws IOException {
+    Path file = tempFile();
+    Files.write(file, new byte[100]);
+    MappedLongLongMap.open(file);
+  }
+
+  // A load factor outside (0, 1) in the header is reported like any other corrupt header.
+  @Test(expected = IOException.class)
+  public void testOpenCorruptLoadFactor() throws IOException {
+    Path file = tempFile();
+    MappedLongLongMap.create(file, 16).close();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      ByteBuffer loadFactor = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+      // The load factor is stored at byte 16 of the header.
+      channel.write(loadFactor.putDouble(0, 1.5), 16);
+    }
+    MappedLongLongMap.open(file);
+  }
+
+  @Test
+  public void testSentinelKeys() throws IOException {
+    try (MappedLongLongMap map = MappedLongLongMap.create(tempFile(), 16)) {
+      for (long key : new long[] {0, Long.MIN_VALUE}) {
+        assertThat(map.containsKey(key)).isFalse();
+        assertThat(map.put(key, 5)).isEqualTo(0L);
+        assertThat(map.put(key, 6)).isEqualTo(5L);
+        assertThat(map.get(key)).isEqualTo(6L);
+      }
+      assertThat(map.size()).isEqualTo(2);
+      assertThat(map.remove(0)).isEqualTo(6L);
+      assertThat(map.containsKey(0)).isFalse();
+      assertThat(map.containsKey(Long.MIN_VALUE)).isTrue();
+    }
+  }
+
+  // Random operations on tiny segments, so that the probe sequences cross many mappings and the
+  // map is resized into new files several times.
+  @Test
+  public void testRandomOperationsAcrossSegments() throws IOException {
+    for (ProbingStrategy probing : ProbingStrategy.values()) {
+      Path file = tempFile();
+      HashMap<Long, Long> jmap = new HashMap<>();
+      try (MappedLongLongMap map = MappedLongLongMap.create(file, 7, 0.65, probing, 3)) {
+        for (int i = 0; i < 5000; i++) {
+          long key = RANDOM.nextInt(2000) - 1000;
+          if (RANDOM.nextInt(3) == 0) {
+            assertThat(map.remove(key)).isEqualTo(jmap.getOrDefault(key, 0L));
+            jmap.remove(key);
+          } else {
+            long value = RANDOM.nextLong();
+            Long old = jmap.put(key, value);
+            assertThat(map.put(key, value)).isEqualTo(old == null ? 0L : old);
+          }
+        }
+        assertThat(map.getCapacity()).isGreaterThan(7);
+        assertSameEntries(map, jmap);
+      }
+    }
+  }
+
+  // A reopened file holds the same entries, including the sentinel keys, without being rebuilt.
+  @Test
+  public void testReopen() throws IOException {
+    Path file = tempFile();
+    HashMap<Long, Long> jmap = new HashMap<>();
+    try (MappedLongLongMap map =
+        MappedLongLongMap.create(file, 100, 0.5, ProbingStrategy.QUADRATIC)) {
+      for (int i = 0; i < 3000; i++) {
+        long key = RANDOM.nextLong();
+        map.put(key, i);
+        jmap.put(key, (long) i);
+      }
+      map.put(0, 42);
+      jmap.put(0L, 42L);
+      map.force();
+    }
+    try (MappedLongLongMap map = MappedLongLongMap.open(file)) {
+      assertThat(map.getProbingStrategy()).isEqualTo(ProbingStrategy.QUADRATIC);
+      assertSameEntries(map, jmap);
+      map.clear();
+      assertThat(map.isEmpty()).isTrue();
+    }
+    try (MappedLongLongMap map = MappedLongLongMap.open(file)) {
+      assertThat(map.size()).isEqualTo(0);
+      assertThat(map.containsKey(0)).isFalse();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.williamfiset.algorithms.datastructures.set;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ConcurrentIntHSetTest {
+
+  static final Random RANDOM = new Random();
+
+  static Set<Integer> toSet(int[] elems) {
+    Set<Integer> set = new HashSet<>();
+    for (int elem : elems) set.add(elem);
+    return set;
+  }
+
+  static int[] randomArray(int n, int bound) {
+    int[] elems = new int[n];
+    for (int i = 0; i < n; i++) elems[i] = RANDOM.nextInt(bound);
+    return elems;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalConcurrencyLevel() {
+    new ConcurrentIntHSet(16, 0.75f, 0);
+  }
+
+  @Test
+  public void testSingleThreadedOperations() {
+    for (int concurrencyLevel : new int[] {1, 3, 64}) {
+      ConcurrentIntHSet set = new ConcurrentIntHSet(0, 0.75f, concurrencyLevel);
+      HashSet<Integer> jset = new HashSet<>();
+      for (int i = 0; i < 5000; i++) {
+        int elem = RANDOM.nextInt(1000) - 500;
+        if (RANDOM.nextInt(3) == 0) assertThat(set.remove(elem)).isEqualTo(jset.remove(elem));
+        else assertThat(set.add(elem)).isEqualTo(jset.add(elem));
+        assertThat(set.contains(elem)).isEqualTo(jset.contains(elem));
+      }
+      assertThat(set.size()).isEqualTo(jset.size());
+      assertThat(toSet(set.toArray())).isEqualTo(jset);
+      set.clear();
+      assertThat(set.isEmpty()).isTrue();
+    }
+  }
+
+  @Test
+  public void testAddAll() {
+    ConcurrentIntHSet set = new ConcurrentIntHSet();
+    int[] elems = randomArray(100_000, 50_000);
+    assertThat(set.addAll(elems)).isEqualTo(toSet(elems).size());
+    assertThat(set.addAll(elems)).isEqualTo(0);
+    assertThat(toSet(set.toArray())).isEqualTo(toSet(elems));
+  }
+
+  @Test
+  public void testRetainAllAndIntersection() {
+    ConcurrentIntHSet a = new ConcurrentIntHSet(), b = new ConcurrentIntHSet(0, 0.5f, 4);
+    a.addAll(randomArray(20_000, 30_000));
+    b.addAll(randomArray(20_000, 30_000));
+    Set<Integer> expected = toSet(a.toArray());
+    expected.retainAll(toSet(b.toArray()));
+
+    assertThat(toSet(ConcurrentIntHSet.intersection(a, b).toArray())).isEqualTo(expected);
+    assertThat(toSet(ConcurrentIntHSet.intersection(b, a).toArray())).isEqualTo(expected);
+    int before = a.size();
+    assertThat(a.retainAll(b)).isEqualTo(before - expected.size());
+    assertThat(toSet(a.toArray())).isEqualTo(expected);
+    assertThat(a.retainAll(a)).isEqualTo(0);
+  }
+
+  // Threads add disjoint ranges while others look up elements which are never removed, every
+  // lookup of an element added before the lookups started must succeed.
+  @Test
+  public void testConcurrentAddsAndLookups() throws InterruptedException {
+    ConcurrentIntHSet set = new ConcurrentIntHSet(0, 0.75f, 4);
+    int threads = 4, perThread = 50_000;
+    for (int i = -1000; i < 0; i++) set.add(i);
+
+    AtomicInteger failures = new AtomicInteger();
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      final int base = t * perThread;
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) set.add(base + i);
+      }));
+      workers.add(new Thread(() -> {
+        Random random = new Random();
+        for (int i = 0; i < perThread; i++)
+          if (!set.contains(-1 - random.nextInt(1000))) failures.incrementAndGet();
+      }));
+    }
+    for (Thread worker : workers) worker.start();
+    for (Thread worker : workers) worker.join();
+
+    assertThat(failures.get()).isEqualTo(0);
+    assertThat(set.size()).isEqualTo(threads * perThread + 1000);
+    for (int i = 0; i < threads * perThread; i++) assertThat(set.contains(i)).isTrue();
+  }
+}
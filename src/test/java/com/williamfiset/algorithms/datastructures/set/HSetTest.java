@@ -75,9 +75,7 @@ public class HSetTest {
       for (int i = 0; i < TEST_SZ; i++) {
 
         int num = nums.get(i);
-        // assertThat(hs.add(num)).isEqualTo(s.add(num));
-        hs.add(num);
-        s.add(num);
+        assertThat(hs.add(num)).isEqualTo(s.add(num));
 
         // Make sure this is a bijection
         for (Integer n : s) hs.contains(n);
@@ -105,9 +103,7 @@ public class HSetTest {
 
         int num = nums.get(i);
         ConstObj obj = new ConstObj(java.util.Objects.hash(num), num);
-        // assertThat(hs.add(num)).isEqualTo(s.add(num));
-        hs.add(obj);
-        s.add(obj);
+        assertThat(hs.add(obj)).isEqualTo(s.add(obj));
 
         // Make sure this is a bijection
         for (ConstObj n : s) hs.contains(n);
@@ -136,6 +132,44 @@ public class HSetTest {
     assertThat(s.size()).isEqualTo(0);
   }
 
+  // Removals shift elements back within their cluster, which must keep every remaining element
+  // reachable, also when clusters wrap around the end of the table.
+  @Test
+  public void randomizedRemoveTest() {
+    HashSet<ConstObj> s = new HashSet<>();
+    for (int loop = 0; loop < LOOPS; loop++) {
+      HSet<ConstObj> hs = new HSet<>(8);
+      s.clear();
+      for (int i = 0; i < TEST_SZ; i++) {
+        // Few distinct hash values make long clusters
+        int num = r.nextInt(200);
+        ConstObj obj = new ConstObj(num % 13, num);
+        if (r.nextBoolean()) assertThat(hs.remove(obj)).isEqualTo(s.remove(obj));
+        else assertThat(hs.add(obj)).isEqualTo(s.add(obj));
+        assertThat(hs.size()).isEqualTo(s.size());
+      }
+      for (int num = 0; num < 200; num++) {
+        ConstObj obj = new ConstObj(num % 13, num);
+        assertThat(hs.contains(obj)).isEqualTo(s.contains(obj));
+      }
+      HashSet<ConstObj> iterated = new HashSet<>();
+      for (ConstObj obj : hs) iterated.add(obj);
+      assertThat(iterated).isEqualTo(s);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullElement() {
+    hs.add(null);
+  }
+
+  @Test(expected = java.util.ConcurrentModificationException.class)
+  public void testConcurrentModificationException() {
+    hs.add(1);
+    hs.add(2);
+    for (Integer n : hs) hs.add(3);
+  }
+
   // Generate a list of random numbers
   static List<Integer> genRandList(int sz) {
     List<Integer> lst = new ArrayList<>(sz);
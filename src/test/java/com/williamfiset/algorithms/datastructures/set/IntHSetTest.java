@@ -0,0 +1,90 @@
+package com.williamfiset.algorithms.datastructures.set;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class IntHSetTest {
+
+  static final Random RANDOM = new Random();
+
+  static Set<Integer> toSet(int[] elems) {
+    Set<Integer> set = new HashSet<>();
+    for (int elem : elems) set.add(elem);
+    return set;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalLoadFactor() {
+    new IntHSet(10, 1f);
+  }
+
+  // 0 is the free slot marker and is kept outside of the table.
+  @Test
+  public void testZero() {
+    IntHSet set = new IntHSet();
+    assertThat(set.contains(0)).isFalse();
+    assertThat(set.add(0)).isTrue();
+    assertThat(set.add(0)).isFalse();
+    assertThat(set.contains(0)).isTrue();
+    assertThat(set.size()).isEqualTo(1);
+    assertThat(set.toArray()).isEqualTo(new int[] {0});
+    assertThat(set.remove(0)).isTrue();
+    assertThat(set.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void testRandomOperations() {
+    HashSet<Integer> jset = new HashSet<>();
+    for (int loop = 0; loop < 100; loop++) {
+      IntHSet set = new IntHSet(RANDOM.nextInt(100));
+      jset.clear();
+      int maxElem = 1 + RANDOM.nextInt(2000);
+      for (int i = 0; i < 2000; i++) {
+        int elem = RANDOM.nextInt(maxElem) - maxElem / 2;
+        if (RANDOM.nextInt(3) == 0) assertThat(set.remove(elem)).isEqualTo(jset.remove(elem));
+        else assertThat(set.add(elem)).isEqualTo(jset.add(elem));
+        assertThat(set.size()).isEqualTo(jset.size());
+      }
+      for (int elem = -maxElem; elem <= maxElem; elem++)
+        assertThat(set.contains(elem)).isEqualTo(jset.contains(elem));
+      assertThat(toSet(set.toArray())).isEqualTo(jset);
+    }
+  }
+
+  @Test
+  public void testAddAll() {
+    int[] elems = new int[10_000];
+    for (int i = 0; i < elems.length; i++) elems[i] = RANDOM.nextInt(5000);
+    IntHSet set = new IntHSet();
+    int added = set.addAll(elems);
+    assertThat(added).isEqualTo(toSet(elems).size());
+    assertThat(set.addAll(elems)).isEqualTo(0);
+    assertThat(toSet(set.toArray())).isEqualTo(toSet(elems));
+  }
+
+  @Test
+  public void testRetainAllAndIntersection() {
+    for (int loop = 0; loop < 50; loop++) {
+      IntHSet a = new IntHSet(), b = new IntHSet();
+      for (int i = 0; i < 1000; i++) {
+        a.add(RANDOM.nextInt(1500));
+        b.add(RANDOM.nextInt(1500));
+      }
+      Set<Integer> expected = toSet(a.toArray());
+      expected.retainAll(toSet(b.toArray()));
+
+      assertThat(toSet(IntHSet.intersection(a, b).toArray())).isEqualTo(expected);
+      int before = a.size();
+      assertThat(a.retainAll(b)).isEqualTo(before - expected.size());
+      assertThat(toSet(a.toArray())).isEqualTo(expected);
+      for (int elem : a.toArray()) assertThat(a.contains(elem)).isTrue();
+    }
+    assertThat(Arrays.equals(new IntHSet().toArray(), new int[0])).isTrue();
+  }
+}
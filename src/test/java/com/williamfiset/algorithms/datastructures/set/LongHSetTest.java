@@ -0,0 +1,52 @@
+package com.williamfiset.algorithms.datastructures.set;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LongHSetTest {
+
+  static final Random RANDOM = new Random();
+
+  static Set<Long> toSet(long[] elems) {
+    Set<Long> set = new HashSet<>();
+    for (long elem : elems) set.add(elem);
+    return set;
+  }
+
+  @Test
+  public void testRandomOperations() {
+    HashSet<Long> jset = new HashSet<>();
+    for (int loop = 0; loop < 100; loop++) {
+      LongHSet set = new LongHSet();
+      jset.clear();
+      for (int i = 0; i < 2000; i++) {
+        // Elements which differ only in their upper half, or are 0
+        long elem = (long) RANDOM.nextInt(500) << 32;
+        if (RANDOM.nextInt(3) == 0) assertThat(set.remove(elem)).isEqualTo(jset.remove(elem));
+        else assertThat(set.add(elem)).isEqualTo(jset.add(elem));
+        assertThat(set.size()).isEqualTo(jset.size());
+      }
+      for (long elem : jset) assertThat(set.contains(elem)).isTrue();
+      assertThat(toSet(set.toArray())).isEqualTo(jset);
+    }
+  }
+
+  @Test
+  public void testRetainAll() {
+    LongHSet a = new LongHSet(), b = new LongHSet();
+    long[] elems = new long[2000];
+    for (int i = 0; i < elems.length; i++) elems[i] = RANDOM.nextLong() % 3000;
+    a.addAll(elems);
+    for (int i = 0; i < elems.length; i += 2) b.add(elems[i]);
+    Set<Long> expected = toSet(b.toArray());
+
+    a.retainAll(b);
+    assertThat(toSet(a.toArray())).isEqualTo(expected);
+    assertThat(toSet(LongHSet.intersection(a, b).toArray())).isEqualTo(expected);
+  }
+}
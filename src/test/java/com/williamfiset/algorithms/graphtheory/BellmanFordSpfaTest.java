@@ -0,0 +1,132 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class BellmanFordSpfaTest {
+
+  private static CsrGraph randomGraph(int n, int m, double minCost, double maxCost, Random random) {
+    int[] from = new int[m], to = new int[m];
+    double[] cost = new double[m];
+    for (int i = 0; i < m; i++) {
+      from[i] = random.nextInt(n);
+      to[i] = random.nextInt(n);
+      cost[i] = Math.round(minCost + random.nextDouble() * (maxCost - minCost));
+    }
+    return CsrGraph.directed(n, from, to, cost);
+  }
+
+  private static List<BellmanFordAdjacencyList.Edge>[] toEdgeLists(CsrGraph g) {
+    List<BellmanFordAdjacencyList.Edge>[] graph = BellmanFordAdjacencyList.createGraph(g.n);
+    for (int u = 0; u < g.n; u++) {
+      for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+        BellmanFordAdjacencyList.addEdge(graph, u, g.targets[e], g.weights[e]);
+      }
+    }
+    return graph;
+  }
+
+  // Checks that `cycle` is a cycle in `g` with a negative cost.
+  private static void verifyNegativeCycle(CsrGraph g, List<Integer> cycle) {
+    assertThat(cycle.isEmpty()).isFalse();
+    double total = 0;
+    for (int i = 0; i < cycle.size(); i++) {
+      int u = cycle.get(i), v = cycle.get((i + 1) % cycle.size());
+      double best = Double.POSITIVE_INFINITY;
+      for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+        if (g.targets[e] == v) best = Math.min(best, g.weights[e]);
+      }
+      assertThat(best).isLessThan(Double.POSITIVE_INFINITY);
+      total += best;
+    }
+    assertThat(total).isLessThan(0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnweightedGraph() {
+    new BellmanFordSpfa(CsrGraph.directed(2, new int[] {0}, new int[] {1}));
+  }
+
+  @Test
+  public void testNegativeSelfLoop() {
+    CsrGraph g =
+        CsrGraph.directed(3, new int[] {0, 1, 1}, new int[] {1, 1, 2}, new double[] {2, -1, 3});
+    for (boolean parallel : new boolean[] {false, true}) {
+      BellmanFordSpfa solver = new BellmanFordSpfa(g);
+      solver.setParallel(parallel);
+      assertThat(solver.bellmanFord(0))
+          .isEqualTo(new double[] {0, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY});
+      assertThat(solver.findNegativeCycle()).containsExactly(1);
+    }
+  }
+
+  @Test
+  public void testSameDistancesAsBellmanFord() {
+    Random random = new Random(7);
+    for (int loop = 0; loop < 400; loop++) {
+      // BellmanFordAdjacencyList makes no passes at all for a single node, so use two or more.
+      int n = 2 + random.nextInt(40);
+      // Only some of the graphs get negative edges, and thereby negative cycles.
+      double minCost = loop % 3 == 0 ? -5 : 0;
+      CsrGraph g = randomGraph(n, random.nextInt(3 * n), minCost, 20, random);
+      int start = random.nextInt(n);
+      double[] expected = BellmanFordAdjacencyList.bellmanFord(toEdgeLists(g), n, start);
+
+      for (boolean parallel : new boolean[] {false, true}) {
+        BellmanFordSpfa solver = new BellmanFordSpfa(g);
+        solver.setParallel(parallel);
+        assertThat(solver.bellmanFord(start)).isEqualTo(expected);
+        for (List<Integer> cycle : solver.getNegativeCycles()) verifyNegativeCycle(g, cycle);
+      }
+    }
+  }
+
+  @Test
+  public void testFindNegativeCycle() {
+    Random random = new Random(11);
+    for (int loop = 0; loop < 400; loop++) {
+      int n = 2 + random.nextInt(30);
+      CsrGraph g = randomGraph(n, random.nextInt(2 * n), -4, 20, random);
+
+      // A negative cycle exists anywhere iff some node gets -infinity from a virtual source,
+      // simulated here by running from every node.
+      boolean hasCycle = false;
+      for (int s = 0; s < n; s++) {
+        for (double d : BellmanFordAdjacencyList.bellmanFord(toEdgeLists(g), n, s)) {
+          hasCycle |= d == Double.NEGATIVE_INFINITY;
+        }
+      }
+
+      for (boolean parallel : new boolean[] {false, true}) {
+        BellmanFordSpfa solver = new BellmanFordSpfa(g);
+        solver.setParallel(parallel);
+        List<Integer> cycle = solver.findNegativeCycle();
+        if (hasCycle) verifyNegativeCycle(g, cycle);
+        else assertThat(cycle).isEmpty();
+      }
+    }
+  }
+
+  @Test
+  public void testEarlyExit() {
+    // A long path with a few shortcuts converges after very few relaxations.
+    int n = 100_000;
+    int[] from = new int[n - 1], to = new int[n - 1];
+    double[] cost = new double[n - 1];
+    for (int i = 0; i + 1 < n; i++) {
+      from[i] = i;
+      to[i] = i + 1;
+      cost[i] = 1;
+    }
+    BellmanFordSpfa solver = new BellmanFordSpfa(CsrGraph.directed(n, from, to, cost));
+    double[] dist = solver.bellmanFord(0);
+    assertThat(dist[n - 1]).isEqualTo((double) (n - 1));
+    assertThat(solver.getRelaxationCount()).isEqualTo((long) (n - 1));
+    assertThat(solver.getNegativeCycles()).isEmpty();
+  }
+}
@@ -0,0 +1,182 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.dp.MinimumWeightPerfectMatching;
+import com.williamfiset.algorithms.graphtheory.ChinesePostmanProblem.Edge;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ChinesePostmanProblemTest {
+
+  // Checks that the tour is closed, only uses existing edges and covers every edge, and that its
+  // cost matches.
+  private static void verifyTour(List<List<Edge>> g, ChinesePostmanProblem cpp) {
+    List<Integer> tour = cpp.getTour();
+    assertThat(tour.get(0)).isEqualTo(tour.get(tour.size() - 1));
+    Map<Long, Double> cheapest = new HashMap<>();
+    for (List<Edge> edges : g) {
+      for (Edge e : edges) cheapest.merge(key(g.size(), e.from, e.to), e.cost, Math::min);
+    }
+    double cost = 0;
+    Set<Long> covered = new HashSet<>();
+    for (int i = 0; i + 1 < tour.size(); i++) {
+      long k = key(g.size(), tour.get(i), tour.get(i + 1));
+      Double c = cheapest.get(k);
+      assertThat(c).isNotNull();
+      cost += c;
+      covered.add(k);
+    }
+    assertThat(covered).isEqualTo(cheapest.keySet());
+    // Parallel edges of different costs make the recomputed cost an underestimate.
+    assertThat(cost).isAtMost(cpp.getTourCost() + 1e-9);
+  }
+
+  private static long key(int n, int u, int v) {
+    return (long) Math.min(u, v) * n + Math.max(u, v);
+  }
+
+  // The total edge cost plus a minimum weight perfect matching of the odd nodes with shortest path
+  // costs computed by Floyd-Warshall.
+  private static double expectedCost(List<List<Edge>> g) {
+    int n = g.size();
+    double[][] dist = new double[n][n];
+    for (double[] row : dist) Arrays.fill(row, Double.POSITIVE_INFINITY);
+    double total = 0;
+    for (int i = 0; i < n; i++) {
+      dist[i][i] = 0;
+      for (Edge e : g.get(i)) {
+        total += e.cost / 2;
+        dist[e.from][e.to] = Math.min(dist[e.from][e.to], e.cost);
+      }
+    }
+    for (int k = 0; k < n; k++)
+      for (int i = 0; i < n; i++)
+        for (int j = 0; j < n; j++) dist[i][j] = Math.min(dist[i][j], dist[i][k] + dist[k][j]);
+
+    int[] odd = new int[n];
+    int k = 0;
+    for (int i = 0; i < n; i++) if (g.get(i).size() % 2 != 0) odd[k++] = i;
+    if (k == 0) return total;
+    double[][] cost = new double[k][k];
+    for (int i = 0; i < k; i++) for (int j = 0; j < k; j++) cost[i][j] = dist[odd[i]][odd[j]];
+    return total + new MinimumWeightPerfectMatching(cost).getMinWeightCost();
+  }
+
+  @Test
+  public void testExampleGraph() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(6);
+    ChinesePostmanProblem.addUndirectedEdge(g, 0, 1, 5);
+    ChinesePostmanProblem.addUndirectedEdge(g, 0, 2, 3);
+    ChinesePostmanProblem.addUndirectedEdge(g, 0, 3, 2);
+    ChinesePostmanProblem.addUndirectedEdge(g, 1, 4, 3);
+    ChinesePostmanProblem.addUndirectedEdge(g, 1, 5, 6);
+    ChinesePostmanProblem.addUndirectedEdge(g, 2, 3, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 3, 4, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 4, 5, 8);
+    ChinesePostmanProblem cpp = new ChinesePostmanProblem(g);
+    assertThat(cpp.getTourCost()).isEqualTo(34.0);
+    assertThat(cpp.getTour()).hasSize(11);
+    verifyTour(g, cpp);
+  }
+
+  @Test
+  public void testEulerianGraphWithSelfLoop() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(3);
+    ChinesePostmanProblem.addUndirectedEdge(g, 0, 1, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 1, 2, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 2, 0, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 1, 1, 4);
+    ChinesePostmanProblem cpp = new ChinesePostmanProblem(g);
+    assertThat(cpp.getTourCost()).isEqualTo(7.0);
+    assertThat(cpp.getTour()).hasSize(5);
+    verifyTour(g, cpp);
+  }
+
+  @Test
+  public void testNoEdges() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(3);
+    ChinesePostmanProblem cpp = new ChinesePostmanProblem(g);
+    assertThat(cpp.getTour()).isEmpty();
+    assertThat(cpp.getTourCost()).isEqualTo(0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDisconnectedGraph() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(4);
+    ChinesePostmanProblem.addUndirectedEdge(g, 0, 1, 1);
+    ChinesePostmanProblem.addUndirectedEdge(g, 2, 3, 1);
+    new ChinesePostmanProblem(g).getTour();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDirectedEdge() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(2);
+    ChinesePostmanProblem.addDirectedEdge(g, 0, 1, 1);
+    new ChinesePostmanProblem(g).getTour();
+  }
+
+  // The edges 0 -> 1 and 2 -> 1 balance the number of edges in each direction, but neither has a
+  // mirrored partner.
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnmirroredEdges() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(3);
+    ChinesePostmanProblem.addDirectedEdge(g, 0, 1, 1);
+    ChinesePostmanProblem.addDirectedEdge(g, 2, 1, 1);
+    new ChinesePostmanProblem(g).getTour();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMirroredEdgeWithOtherCost() {
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(2);
+    ChinesePostmanProblem.addDirectedEdge(g, 0, 1, 1);
+    ChinesePostmanProblem.addDirectedEdge(g, 1, 0, 2);
+    new ChinesePostmanProblem(g).getTour();
+  }
+
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(4);
+    for (int iter = 0; iter < 200; iter++) {
+      int n = 2 + random.nextInt(12);
+      List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(n);
+      // A random spanning tree keeps the graph connected.
+      for (int i = 1; i < n; i++) {
+        ChinesePostmanProblem.addUndirectedEdge(g, random.nextInt(i), i, 1 + random.nextInt(9));
+      }
+      for (int i = random.nextInt(2 * n); i > 0; i--) {
+        ChinesePostmanProblem.addUndirectedEdge(
+            g, random.nextInt(n), random.nextInt(n), 1 + random.nextInt(9));
+      }
+      ChinesePostmanProblem cpp = new ChinesePostmanProblem(g);
+      assertThat(cpp.getTourCost()).isWithin(1e-9).of(expectedCost(g));
+      verifyTour(g, cpp);
+    }
+  }
+
+  @Test
+  public void testGridWithManyOddNodes() {
+    // Every border node of a grid except the corners has an odd degree.
+    int side = 100, n = side * side;
+    List<List<Edge>> g = ChinesePostmanProblem.createEmptyGraph(n);
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int at = r * side + c;
+        if (c + 1 < side) ChinesePostmanProblem.addUndirectedEdge(g, at, at + 1, 1);
+        if (r + 1 < side) ChinesePostmanProblem.addUndirectedEdge(g, at, at + side, 1);
+      }
+    }
+    ChinesePostmanProblem cpp = new ChinesePostmanProblem(g);
+    // Each side has 98 odd nodes, which are paired with their neighbors along the border.
+    double edges = 2 * side * (side - 1);
+    assertThat(cpp.getTourCost()).isEqualTo(edges + 4 * ((side - 2) / 2));
+    verifyTour(g, cpp);
+  }
+}
@@ -0,0 +1,72 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.Utils;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ConnectedComponentsParallelTest {
+
+  @Test
+  public void testEmptyGraph() {
+    ConnectedComponentsParallel solver = new ConnectedComponentsParallel(0, new int[0], new int[0]);
+    assertThat(solver.countComponents()).isEqualTo(0);
+    assertThat(solver.getComponents()).isEqualTo(new int[0]);
+  }
+
+  @Test
+  public void testNoEdges() {
+    CsrGraph g = CsrGraph.undirected(4, new int[0], new int[0]);
+    ConnectedComponentsParallel solver = new ConnectedComponentsParallel(g);
+    assertThat(solver.countComponents()).isEqualTo(4);
+    assertThat(solver.getComponents()).isEqualTo(new int[] {1, 2, 3, 4});
+  }
+
+  @Test
+  public void testSameLabelsAsDfsSolver() {
+    Random random = new Random(5);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(200);
+      int m = random.nextInt(2 * n);
+      int[] u = new int[m], v = new int[m];
+      List<List<Integer>> graph = Utils.createEmptyAdjacencyList(n);
+      for (int i = 0; i < m; i++) {
+        u[i] = random.nextInt(n);
+        v[i] = random.nextInt(n);
+        Utils.addUndirectedEdge(graph, u[i], v[i]);
+      }
+
+      ConnectedComponentsDfsSolverAdjacencyList dfs =
+          new ConnectedComponentsDfsSolverAdjacencyList(graph);
+      ConnectedComponentsParallel fromCsr =
+          new ConnectedComponentsParallel(CsrGraph.undirected(n, u, v));
+      ConnectedComponentsParallel fromEdges = new ConnectedComponentsParallel(n, u, v);
+
+      assertThat(fromCsr.countComponents()).isEqualTo(dfs.countComponents());
+      assertThat(fromCsr.getComponents()).isEqualTo(dfs.getComponents());
+      assertThat(fromEdges.countComponents()).isEqualTo(dfs.countComponents());
+      assertThat(fromEdges.getComponents()).isEqualTo(dfs.getComponents());
+    }
+  }
+
+  @Test
+  public void testLargeGraph() {
+    // A long path split into `parts` equal pieces, far too deep for the recursive DFS solver.
+    int n = 1_000_000, parts = 10, m = n - parts;
+    int[] u = new int[m], v = new int[m];
+    for (int i = 1, k = 0; i < n; i++) {
+      if (i % (n / parts) == 0) continue;
+      u[k] = i - 1;
+      v[k++] = i;
+    }
+    ConnectedComponentsParallel solver =
+        new ConnectedComponentsParallel(CsrGraph.undirected(n, u, v));
+    assertThat(solver.countComponents()).isEqualTo(parts);
+    int[] components = solver.getComponents();
+    for (int i = 0; i < n; i++) assertThat(components[i]).isEqualTo(i / (n / parts) + 1);
+  }
+}
@@ -0,0 +1,76 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class DynamicConnectivityOfflineTest {
+
+  @Test
+  public void testNoQueries() {
+    DynamicConnectivityOffline dc = new DynamicConnectivityOffline(3);
+    dc.addEdge(0, 1);
+    assertThat(dc.solve()).hasLength(0);
+  }
+
+  @Test
+  public void testParallelEdges() {
+    DynamicConnectivityOffline dc = new DynamicConnectivityOffline(2);
+    dc.addEdge(0, 1);
+    dc.addEdge(1, 0);
+    dc.removeEdge(0, 1);
+    dc.query(0, 1);
+    dc.removeEdge(0, 1);
+    dc.query(0, 1);
+    assertThat(dc.solve()).isEqualTo(new boolean[] {true, false});
+    assertThat(dc.getComponentCounts()).isEqualTo(new int[] {1, 2});
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRemoveMissingEdge() {
+    new DynamicConnectivityOffline(3).removeEdge(0, 1);
+  }
+
+  @Test
+  public void testRandomOperationsAgainstOnlineSolver() {
+    Random random = new Random(3);
+    for (int n : new int[] {1, 6, 30, 200}) {
+      DynamicConnectivityOffline offline = new DynamicConnectivityOffline(n);
+      DynamicConnectivity online = new DynamicConnectivity(n);
+      List<int[]> present = new ArrayList<>();
+      List<Boolean> expected = new ArrayList<>();
+      List<Integer> expectedCounts = new ArrayList<>();
+      for (int step = 0; step < 5000; step++) {
+        int op = random.nextInt(3);
+        if (op == 0 && n > 1) {
+          int u = random.nextInt(n), v = random.nextInt(n);
+          if (u != v && !online.hasEdge(u, v)) {
+            online.addEdge(u, v);
+            offline.addEdge(u, v);
+            present.add(new int[] {u, v});
+          }
+        } else if (op == 1 && !present.isEmpty()) {
+          int[] e = present.remove(random.nextInt(present.size()));
+          online.removeEdge(e[0], e[1]);
+          offline.removeEdge(e[1], e[0]);
+        } else {
+          int u = random.nextInt(n), v = random.nextInt(n);
+          assertThat(offline.query(u, v)).isEqualTo(expected.size());
+          expected.add(online.connected(u, v));
+          expectedCounts.add(online.countComponents());
+        }
+      }
+      boolean[] answers = offline.solve();
+      int[] counts = offline.getComponentCounts();
+      assertThat(answers).hasLength(expected.size());
+      for (int i = 0; i < answers.length; i++) {
+        assertThat(answers[i]).isEqualTo(expected.get(i));
+        assertThat(counts[i]).isEqualTo(expectedCounts.get(i));
+      }
+    }
+  }
+}
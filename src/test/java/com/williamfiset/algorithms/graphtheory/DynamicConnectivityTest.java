@@ -0,0 +1,119 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class DynamicConnectivityTest {
+
+  // Labels the components of the graph with a BFS.
+  private static int[] components(int n, boolean[][] adj) {
+    int[] id = new int[n];
+    Arrays.fill(id, -1);
+    for (int s = 0, c = 0; s < n; s++, c++) {
+      if (id[s] != -1) continue;
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      queue.add(s);
+      id[s] = c;
+      while (!queue.isEmpty()) {
+        int at = queue.poll();
+        for (int to = 0; to < n; to++) {
+          if (adj[at][to] && id[to] == -1) {
+            id[to] = c;
+            queue.add(to);
+          }
+        }
+      }
+    }
+    return id;
+  }
+
+  @Test
+  public void testSmallExample() {
+    DynamicConnectivity dc = new DynamicConnectivity(5);
+    assertThat(dc.countComponents()).isEqualTo(5);
+    assertThat(dc.addEdge(0, 1)).isTrue();
+    assertThat(dc.addEdge(1, 2)).isTrue();
+    assertThat(dc.addEdge(2, 0)).isTrue();
+    assertThat(dc.addEdge(0, 2)).isFalse();
+    assertThat(dc.addEdge(3, 3)).isFalse();
+    assertThat(dc.countComponents()).isEqualTo(3);
+    assertThat(dc.componentSize(1)).isEqualTo(3);
+
+    assertThat(dc.removeEdge(0, 1)).isTrue();
+    assertThat(dc.connected(0, 1)).isTrue();
+    assertThat(dc.removeEdge(1, 0)).isFalse();
+    assertThat(dc.removeEdge(1, 2)).isTrue();
+    assertThat(dc.connected(0, 1)).isFalse();
+    assertThat(dc.connected(0, 2)).isTrue();
+    assertThat(dc.countComponents()).isEqualTo(4);
+    assertThat(dc.edgeCount()).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidVertex() {
+    new DynamicConnectivity(3).addEdge(0, 3);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    Random random = new Random(7);
+    for (int n : new int[] {2, 5, 12, 40}) {
+      DynamicConnectivity dc = new DynamicConnectivity(n);
+      boolean[][] adj = new boolean[n][n];
+      List<int[]> present = new ArrayList<>();
+      for (int step = 0; step < 3000; step++) {
+        // Mostly keep the graph around its connectivity threshold with a few deletions.
+        if (present.isEmpty() || random.nextInt(3) != 0) {
+          int u = random.nextInt(n), v = random.nextInt(n);
+          boolean added = dc.addEdge(u, v);
+          assertThat(added).isEqualTo(u != v && !adj[u][v]);
+          if (added) {
+            adj[u][v] = adj[v][u] = true;
+            present.add(new int[] {u, v});
+          }
+        } else {
+          int[] e = present.remove(random.nextInt(present.size()));
+          assertThat(dc.removeEdge(e[1], e[0])).isTrue();
+          adj[e[0]][e[1]] = adj[e[1]][e[0]] = false;
+        }
+        if (present.size() > 2 * n) {
+          int[] e = present.remove(random.nextInt(present.size()));
+          dc.removeEdge(e[0], e[1]);
+          adj[e[0]][e[1]] = adj[e[1]][e[0]] = false;
+        }
+
+        int[] id = components(n, adj);
+        int count = 0;
+        for (int i = 0; i < n; i++) if (id[i] == i) count++;
+        assertThat(dc.countComponents()).isEqualTo(count);
+        for (int q = 0; q < 5; q++) {
+          int u = random.nextInt(n), v = random.nextInt(n);
+          assertThat(dc.connected(u, v)).isEqualTo(id[u] == id[v]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongPathTornDown() {
+    // A cycle of 100000 nodes, so every deletion but the last finds a replacement edge.
+    int n = 100000;
+    DynamicConnectivity dc = new DynamicConnectivity(n);
+    for (int i = 0; i < n; i++) dc.addEdge(i, (i + 1) % n);
+    assertThat(dc.countComponents()).isEqualTo(1);
+    dc.removeEdge(n / 2, n / 2 + 1);
+    assertThat(dc.countComponents()).isEqualTo(1);
+    dc.removeEdge(0, 1);
+    assertThat(dc.countComponents()).isEqualTo(2);
+    assertThat(dc.connected(1, n / 2)).isTrue();
+    assertThat(dc.connected(0, n / 2)).isFalse();
+    assertThat(dc.componentSize(1)).isEqualTo(n / 2);
+  }
+}
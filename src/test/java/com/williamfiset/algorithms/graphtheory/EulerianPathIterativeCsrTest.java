@@ -0,0 +1,155 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class EulerianPathIterativeCsrTest {
+
+  // Verifies that `path` uses every edge (from[i], to[i]) exactly once.
+  private static void verifyPath(int[] path, int[] from, int[] to, boolean directed) {
+    assertThat(path).isNotNull();
+    assertThat(path.length).isEqualTo(from.length + 1);
+    Map<Long, Integer> counts = new HashMap<>();
+    for (int i = 0; i < from.length; i++) {
+      counts.merge(key(from[i], to[i], directed), 1, Integer::sum);
+    }
+    for (int i = 1; i < path.length; i++) {
+      long key = key(path[i - 1], path[i], directed);
+      Integer count = counts.get(key);
+      assertThat(count).isNotNull();
+      assertThat(count).isGreaterThan(0);
+      counts.put(key, count - 1);
+    }
+  }
+
+  private static long key(int u, int v, boolean directed) {
+    if (!directed && u > v) return key(v, u, true);
+    return ((long) u) << 32 | v;
+  }
+
+  private static int[] toArray(List<Integer> list) {
+    int[] array = new int[list.size()];
+    for (int i = 0; i < array.length; i++) array[i] = list.get(i);
+    return array;
+  }
+
+  // Creates the edges of a random walk, which always has an Eulerian path.
+  private static int[][] randomWalkEdges(int n, int m, Random random) {
+    int[] from = new int[m], to = new int[m];
+    int at = random.nextInt(n);
+    for (int i = 0; i < m; i++) {
+      from[i] = at;
+      to[i] = at = random.nextInt(n);
+    }
+    // Shuffle the edges so the walk is not simply the input order.
+    for (int i = m - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int a = from[i], b = to[i];
+      from[i] = from[j];
+      to[i] = to[j];
+      from[j] = a;
+      to[j] = b;
+    }
+    return new int[][] {from, to};
+  }
+
+  @Test
+  public void testSameGraphAsRecursiveSolver() {
+    int[] from = {1, 1, 2, 2, 2, 3, 3, 3, 4, 4, 5, 6};
+    int[] to = {2, 3, 2, 4, 4, 1, 2, 5, 3, 6, 6, 3};
+    CsrGraph graph = CsrGraph.directed(7, from, to);
+    int[] path = EulerianPathIterativeCsr.directedEulerianPath(graph);
+    verifyPath(path, from, to, true);
+    assertThat(path[0]).isEqualTo(1);
+    assertThat(path[path.length - 1]).isEqualTo(6);
+  }
+
+  @Test
+  public void testNoEulerianPath() {
+    CsrGraph graph = CsrGraph.directed(3, new int[] {0, 0}, new int[] {1, 2});
+    assertThat(EulerianPathIterativeCsr.directedEulerianPath(graph)).isNull();
+
+    CsrGraph star = CsrGraph.undirected(4, new int[] {0, 0, 0}, new int[] {1, 2, 3});
+    assertThat(EulerianPathIterativeCsr.undirectedEulerianPath(star)).isNull();
+  }
+
+  @Test
+  public void testDisconnectedGraph() {
+    CsrGraph graph = CsrGraph.directed(4, new int[] {0, 1, 2, 3}, new int[] {1, 0, 3, 2});
+    List<Integer> streamed = new ArrayList<>();
+    assertThat(EulerianPathIterativeCsr.directedEulerianPath(graph)).isNull();
+    assertThat(EulerianPathIterativeCsr.streamDirectedEulerianPath(graph, streamed::add)).isFalse();
+    assertThat(streamed).isEmpty();
+
+    CsrGraph undirected = CsrGraph.undirected(4, new int[] {0, 2}, new int[] {1, 3});
+    assertThat(EulerianPathIterativeCsr.undirectedEulerianPath(undirected)).isNull();
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    CsrGraph graph = CsrGraph.directed(3, new int[0], new int[0]);
+    assertThat(EulerianPathIterativeCsr.directedEulerianPath(graph)).isNull();
+  }
+
+  @Test
+  public void testSelfLoopsAndRepeatedEdges() {
+    int[] u = {0, 0, 1, 1, 1};
+    int[] v = {0, 1, 1, 2, 2};
+    int[] path = EulerianPathIterativeCsr.undirectedEulerianPath(CsrGraph.undirected(3, u, v));
+    verifyPath(path, u, v, false);
+  }
+
+  @Test
+  public void testRandomDirectedGraphs() {
+    Random random = new Random(1);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(20);
+      int[][] edges = randomWalkEdges(n, 1 + random.nextInt(100), random);
+      CsrGraph graph = CsrGraph.directed(n, edges[0], edges[1]);
+      verifyPath(EulerianPathIterativeCsr.directedEulerianPath(graph), edges[0], edges[1], true);
+
+      List<Integer> streamed = new ArrayList<>();
+      assertThat(EulerianPathIterativeCsr.streamDirectedEulerianPath(graph, streamed::add))
+          .isTrue();
+      verifyPath(toArray(streamed), edges[0], edges[1], true);
+    }
+  }
+
+  @Test
+  public void testRandomUndirectedGraphs() {
+    Random random = new Random(2);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(20);
+      int[][] edges = randomWalkEdges(n, 1 + random.nextInt(100), random);
+      CsrGraph graph = CsrGraph.undirected(n, edges[0], edges[1]);
+      verifyPath(EulerianPathIterativeCsr.undirectedEulerianPath(graph), edges[0], edges[1], false);
+
+      List<Integer> streamed = new ArrayList<>();
+      assertThat(EulerianPathIterativeCsr.streamUndirectedEulerianPath(graph, streamed::add))
+          .isTrue();
+      verifyPath(toArray(streamed), edges[0], edges[1], false);
+    }
+  }
+
+  @Test
+  public void testLongPathDoesNotOverflowStack() {
+    // A single cycle through one million nodes would need one million nested recursive calls.
+    int n = 1_000_000;
+    int[] from = new int[n], to = new int[n];
+    for (int i = 0; i < n; i++) {
+      from[i] = i;
+      to[i] = (i + 1) % n;
+    }
+    int[] path = EulerianPathIterativeCsr.directedEulerianPath(CsrGraph.directed(n, from, to));
+    assertThat(path.length).isEqualTo(n + 1);
+    for (int i = 1; i <= n; i++) assertThat(path[i]).isEqualTo((path[i - 1] + 1) % n);
+  }
+}
@@ -0,0 +1,173 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class GraphDiameterIfubTest {
+
+  // Computes all eccentricities by running a BFS from every node. Only the distances of the nodes
+  // reached are reset, so graphs of many small components stay cheap.
+  private static int[] bruteForceEccentricities(CsrGraph g) {
+    int[] ecc = new int[g.n];
+    int[] dist = new int[g.n];
+    Arrays.fill(dist, -1);
+    int[] reached = new int[g.n];
+    for (int s = 0; s < g.n; s++) {
+      int count = 0;
+      ArrayDeque<Integer> queue = new ArrayDeque<>();
+      queue.offer(s);
+      dist[s] = 0;
+      while (!queue.isEmpty()) {
+        int at = queue.poll();
+        reached[count++] = at;
+        ecc[s] = Math.max(ecc[s], dist[at]);
+        for (int e = g.offsets[at]; e < g.offsets[at + 1]; e++) {
+          if (dist[g.targets[e]] == -1) {
+            dist[g.targets[e]] = dist[at] + 1;
+            queue.offer(g.targets[e]);
+          }
+        }
+      }
+      for (int i = 0; i < count; i++) dist[reached[i]] = -1;
+    }
+    return ecc;
+  }
+
+  private static CsrGraph randomGraph(int n, int m, Random random) {
+    int[] u = new int[m], v = new int[m];
+    for (int i = 0; i < m; i++) {
+      u[i] = random.nextInt(n);
+      v[i] = random.nextInt(n);
+    }
+    return CsrGraph.undirected(n, u, v);
+  }
+
+  // Creates a random tree plus a few extra edges, which is always connected.
+  private static CsrGraph randomConnectedGraph(int n, int extra, Random random) {
+    int m = n - 1 + extra;
+    int[] u = new int[m], v = new int[m];
+    for (int i = 1; i < n; i++) {
+      u[i - 1] = i;
+      v[i - 1] = random.nextInt(i);
+    }
+    for (int i = n - 1; i < m; i++) {
+      u[i] = random.nextInt(n);
+      v[i] = random.nextInt(n);
+    }
+    return CsrGraph.undirected(n, u, v);
+  }
+
+  @Test
+  public void testSmallGraph() {
+    // Same graph as in GraphDiameter#main
+    int[] u = {4, 2, 0, 1, 1};
+    int[] v = {2, 0, 1, 2, 3};
+    GraphDiameterIfub solver = new GraphDiameterIfub(CsrGraph.undirected(5, u, v));
+    assertThat(solver.diameter()).isEqualTo(3);
+    assertThat(solver.eccentricities()).isEqualTo(new int[] {2, 2, 2, 3, 3});
+  }
+
+  // A perfect matching has n / 2 components, so per component work proportional to the whole
+  // graph would take quadratic time.
+  @Test
+  public void testPerfectMatching() {
+    int n = 100_000;
+    int[] u = new int[n / 2], v = new int[n / 2];
+    for (int i = 0; i < n / 2; i++) {
+      u[i] = 2 * i;
+      v[i] = 2 * i + 1;
+    }
+    CsrGraph g = CsrGraph.undirected(n, u, v);
+    GraphDiameterIfub solver = new GraphDiameterIfub(g);
+    assertThat(solver.eccentricities()).isEqualTo(bruteForceEccentricities(g));
+    assertThat(solver.diameter()).isEqualTo(1);
+  }
+
+  // Many small random trees of different sizes.
+  @Test
+  public void testManySmallComponents() {
+    Random random = new Random(28);
+    int n = 50_000;
+    int[] u = new int[n], v = new int[n];
+    int m = 0;
+    for (int start = 0; start < n; ) {
+      int size = Math.min(n - start, 1 + random.nextInt(8));
+      for (int i = 1; i < size; i++) {
+        u[m] = start + i;
+        v[m++] = start + random.nextInt(i);
+      }
+      start += size;
+    }
+    CsrGraph g = CsrGraph.undirected(n, Arrays.copyOf(u, m), Arrays.copyOf(v, m));
+    assertThat(new GraphDiameterIfub(g).eccentricities()).isEqualTo(bruteForceEccentricities(g));
+  }
+
+  @Test
+  public void testNoEdges() {
+    CsrGraph g = CsrGraph.undirected(5, new int[0], new int[0]);
+    GraphDiameterIfub solver = new GraphDiameterIfub(g);
+    assertThat(solver.diameter()).isEqualTo(0);
+    assertThat(solver.eccentricities()).isEqualTo(new int[5]);
+    assertThat(solver.getBfsCount()).isEqualTo(0L);
+  }
+
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(1);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(60);
+      CsrGraph g =
+          loop % 2 == 0
+              ? randomGraph(n, random.nextInt(2 * n), random)
+              : randomConnectedGraph(n, random.nextInt(n), random);
+      int[] expected = bruteForceEccentricities(g);
+      int diameter = Arrays.stream(expected).max().getAsInt();
+      for (boolean parallel : new boolean[] {false, true}) {
+        GraphDiameterIfub solver = new GraphDiameterIfub(g, parallel);
+        assertThat(solver.diameter()).isEqualTo(diameter);
+        assertThat(solver.eccentricities()).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testFewBfsRunsOnLargeGraph() {
+    // Sparse graphs with long tree like tails are the typical case where iFUB shines.
+    int n = 20000;
+    CsrGraph g = randomConnectedGraph(n, n / 1000, new Random(3));
+    GraphDiameterIfub solver = new GraphDiameterIfub(g);
+    int diameter = solver.diameter();
+    assertThat(diameter).isGreaterThan(0);
+    assertThat(solver.getBfsCount()).isLessThan(100L);
+  }
+
+  @Test
+  public void testLargeGridEccentricities() {
+    int side = 60, n = side * side;
+    int m = 2 * side * (side - 1);
+    int[] u = new int[m], v = new int[m];
+    for (int i = 0, k = 0; i < side; i++) {
+      for (int j = 0; j < side; j++) {
+        int id = i * side + j;
+        if (j + 1 < side) {
+          u[k] = id;
+          v[k++] = id + 1;
+        }
+        if (i + 1 < side) {
+          u[k] = id;
+          v[k++] = id + side;
+        }
+      }
+    }
+    CsrGraph g = CsrGraph.undirected(n, u, v);
+    GraphDiameterIfub solver = new GraphDiameterIfub(g);
+    assertThat(solver.diameter()).isEqualTo(2 * (side - 1));
+    assertThat(solver.eccentricities()).isEqualTo(bruteForceEccentricities(g));
+  }
+}
@@ -0,0 +1,84 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class JohnsonsAllPairsShortestPathTest {
+
+  // Creates a random graph with negative edge costs but without negative cycles: every edge costs
+  // a non-negative amount plus the difference of random node potentials, which cancel on cycles.
+  private static CsrGraph randomGraph(int n, int m, Random random) {
+    int[] potential = new int[n];
+    for (int i = 0; i < n; i++) potential[i] = random.nextInt(30);
+    int[] from = new int[m], to = new int[m];
+    double[] cost = new double[m];
+    for (int i = 0; i < m; i++) {
+      from[i] = random.nextInt(n);
+      to[i] = random.nextInt(n);
+      cost[i] = random.nextInt(20) + potential[from[i]] - potential[to[i]];
+    }
+    return CsrGraph.directed(n, from, to, cost);
+  }
+
+  private static double[][] floydWarshall(CsrGraph g) {
+    double[][] matrix = FloydWarshallSolver.createGraph(g.n);
+    for (int i = 0; i < g.n; i++) matrix[i][i] = 0;
+    for (int u = 0; u < g.n; u++) {
+      for (int e = g.offsets[u]; e < g.offsets[u + 1]; e++) {
+        matrix[u][g.targets[e]] = Math.min(matrix[u][g.targets[e]], g.weights[e]);
+      }
+    }
+    return new FloydWarshallSolver(matrix).getApspMatrix();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNegativeCycle() {
+    CsrGraph g =
+        CsrGraph.directed(3, new int[] {0, 1, 2}, new int[] {1, 2, 1}, new double[] {1, -2, 1});
+    new JohnsonsAllPairsShortestPath(g).getApspMatrix();
+  }
+
+  @Test
+  public void testSameAsFloydWarshall() {
+    Random random = new Random(3);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(40);
+      CsrGraph g = randomGraph(n, random.nextInt(3 * n), random);
+      double[][] expected = floydWarshall(g);
+      for (boolean parallel : new boolean[] {false, true}) {
+        double[][] actual = new JohnsonsAllPairsShortestPath(g, parallel).getApspMatrix();
+        assertThat(actual).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testStreamingRows() {
+    int n = 2000;
+    CsrGraph g = randomGraph(n, 4 * n, new Random(4));
+    double[][] expected = new JohnsonsAllPairsShortestPath(g, false).getApspMatrix();
+
+    // Only keep a checksum of each row, as a caller handling a huge graph would.
+    AtomicLongArray seen = new AtomicLongArray(n);
+    AtomicLong rows = new AtomicLong();
+    new JohnsonsAllPairsShortestPath(g)
+        .solve(
+            (source, distances) -> {
+              rows.incrementAndGet();
+              long checksum = 0;
+              for (int t = 0; t < n; t++) {
+                assertThat(distances[t]).isEqualTo(expected[source][t]);
+                checksum += Double.isInfinite(distances[t]) ? 1 : (long) distances[t];
+              }
+              seen.set(source, checksum + 1);
+            });
+    assertThat(rows.get()).isEqualTo((long) n);
+    for (int s = 0; s < n; s++) assertThat(seen.get(s)).isNotEqualTo(0L);
+  }
+}
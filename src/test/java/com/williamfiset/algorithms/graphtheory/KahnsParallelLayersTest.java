@@ -0,0 +1,91 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import com.williamfiset.algorithms.utils.graphutils.GraphGenerator;
+import com.williamfiset.algorithms.utils.graphutils.Utils;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class KahnsParallelLayersTest {
+
+  // The layer of a node is the length of the longest path reaching it from a source node.
+  private static int[] longestPathLayers(List<List<Integer>> g, int[] order) {
+    int[] layer = new int[g.size()];
+    for (int at : order) for (int to : g.get(at)) layer[to] = Math.max(layer[to], layer[at] + 1);
+    return layer;
+  }
+
+  private static void verifyLayers(List<List<Integer>> g, KahnsParallelLayers.Layers layers) {
+    int n = g.size();
+    assertThat(layers.order.length).isEqualTo(n);
+    assertThat(layers.layerOffsets[0]).isEqualTo(0);
+    assertThat(layers.layerOffsets[layers.layerCount()]).isEqualTo(n);
+
+    // The ordering produced by the sequential solver gives the expected layer of every node.
+    int[] expected = longestPathLayers(g, new Kahns().kahns(g));
+    boolean[] seen = new boolean[n];
+    for (int i = 0; i < layers.layerCount(); i++) {
+      int previous = -1;
+      for (int node : layers.layer(i)) {
+        assertThat(expected[node]).isEqualTo(i);
+        assertThat(seen[node]).isFalse();
+        assertThat(node).isGreaterThan(previous);
+        seen[node] = true;
+        previous = node;
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cycleInGraph() {
+    List<List<Integer>> g = Utils.createEmptyAdjacencyList(4);
+    Utils.addDirectedEdge(g, 0, 1);
+    Utils.addDirectedEdge(g, 1, 2);
+    Utils.addDirectedEdge(g, 2, 3);
+    Utils.addDirectedEdge(g, 3, 0);
+    new KahnsParallelLayers().kahns(g);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void cycleBehindAcyclicPart() {
+    List<List<Integer>> g = Utils.createEmptyAdjacencyList(4);
+    Utils.addDirectedEdge(g, 0, 1);
+    Utils.addDirectedEdge(g, 1, 2);
+    Utils.addDirectedEdge(g, 2, 3);
+    Utils.addDirectedEdge(g, 3, 2);
+    new KahnsParallelLayers().kahns(g);
+  }
+
+  @Test
+  public void emptyGraph() {
+    KahnsParallelLayers.Layers layers =
+        new KahnsParallelLayers().kahns(Utils.createEmptyAdjacencyList(0));
+    assertThat(layers.layerCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void randomTests() {
+    for (double p = 0.7; p <= 1.0; p += 0.02) {
+      GraphGenerator.DagGenerator dagGen = new GraphGenerator.DagGenerator(2, 20, 4, 15, p);
+      List<List<Integer>> g = dagGen.createDag();
+      verifyLayers(g, new KahnsParallelLayers().kahns(g));
+    }
+  }
+
+  @Test
+  public void largeRandomDag() {
+    // Edges always point from a smaller to a larger node id which guarantees a DAG.
+    Random random = new Random(9);
+    int n = 200_000;
+    List<List<Integer>> g = Utils.createEmptyAdjacencyList(n);
+    for (int i = 0; i < 4 * n; i++) {
+      int a = random.nextInt(n), b = random.nextInt(n);
+      if (a != b) Utils.addDirectedEdge(g, Math.min(a, b), Math.max(a, b));
+    }
+    verifyLayers(g, new KahnsParallelLayers().kahns(CsrGraph.fromAdjacencyList(g)));
+  }
+}
@@ -0,0 +1,127 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.dp.MinimumWeightPerfectMatching;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class MinimumWeightPerfectMatchingBlossomTest {
+
+  static final double INF = Double.POSITIVE_INFINITY;
+
+  // Tries all perfect matchings by always matching the lowest unmatched node.
+  private static double bruteForce(double[][] cost, int mask) {
+    int n = cost.length;
+    if (mask == (1 << n) - 1) return 0;
+    int i = Integer.numberOfTrailingZeros(~mask);
+    double best = INF;
+    for (int j = i + 1; j < n; j++) {
+      if ((mask & (1 << j)) != 0 || cost[i][j] == INF) continue;
+      best = Math.min(best, cost[i][j] + bruteForce(cost, mask | (1 << i) | (1 << j)));
+    }
+    return best;
+  }
+
+  private static void verifyMatching(double[][] cost, MinimumWeightPerfectMatchingBlossom mwpm) {
+    int[] matching = mwpm.getMatching();
+    assertThat(matching).hasLength(cost.length);
+    boolean[] seen = new boolean[cost.length];
+    double total = 0;
+    for (int i = 0; i < matching.length; i += 2) {
+      int u = matching[i], v = matching[i + 1];
+      assertThat(seen[u] || seen[v]).isFalse();
+      seen[u] = seen[v] = true;
+      assertThat(mwpm.getMate(u)).isEqualTo(v);
+      total += cost[u][v];
+    }
+    assertThat(total).isWithin(1e-6).of(mwpm.getMinWeightCost());
+  }
+
+  @Test
+  public void testTwoTriangles() {
+    MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(6);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(1, 2, 2);
+    mwpm.addEdge(0, 2, 3);
+    mwpm.addEdge(3, 4, 1);
+    mwpm.addEdge(4, 5, 2);
+    mwpm.addEdge(3, 5, 3);
+    mwpm.addEdge(2, 3, 10);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(13.0);
+    assertThat(mwpm.getMatching()).isEqualTo(new int[] {0, 1, 2, 3, 4, 5});
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    assertThat(new MinimumWeightPerfectMatchingBlossom(0).getMatching()).hasLength(0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoPerfectMatching() {
+    // A star has no perfect matching.
+    MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(4);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(0, 2, 1);
+    mwpm.addEdge(0, 3, 1);
+    mwpm.getMatching();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOddNodeCount() {
+    new MinimumWeightPerfectMatchingBlossom(3);
+  }
+
+  @Test
+  public void testRandomSparseGraphs() {
+    Random random = new Random(5);
+    for (int iter = 0; iter < 2000; iter++) {
+      int n = 2 * (1 + random.nextInt(6));
+      double[][] cost = new double[n][n];
+      for (double[] row : cost) Arrays.fill(row, INF);
+      MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(n);
+      // Few distinct (and some negative) costs produce many ties and nested blossoms.
+      double density = random.nextDouble();
+      for (int i = 0; i < n; i++) {
+        for (int j = i + 1; j < n; j++) {
+          if (random.nextDouble() > density) continue;
+          cost[i][j] = cost[j][i] = random.nextInt(8) - 2;
+          mwpm.addEdge(i, j, cost[i][j]);
+        }
+      }
+      double expected = bruteForce(cost, 0);
+      if (expected == INF) continue;
+      assertThat(mwpm.getMinWeightCost()).isEqualTo(expected);
+      verifyMatching(cost, mwpm);
+    }
+  }
+
+  @Test
+  public void testRandomCompleteGraphsAgainstDp() {
+    Random random = new Random(8);
+    for (int iter = 0; iter < 100; iter++) {
+      int n = 2 * (1 + random.nextInt(7));
+      double[][] cost = new double[n][n];
+      for (int i = 0; i < n; i++) {
+        for (int j = i + 1; j < n; j++) cost[i][j] = cost[j][i] = random.nextDouble() * 100;
+      }
+      double expected = new MinimumWeightPerfectMatching(cost).getMinWeightCost();
+      MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(cost);
+      assertThat(mwpm.getMinWeightCost()).isWithin(1e-9).of(expected);
+      verifyMatching(cost, mwpm);
+    }
+  }
+
+  @Test
+  public void testLargeGeometricInstance() {
+    // Points on a line matched with their neighbors: (0, 1), (2, 3), ...
+    int n = 400;
+    double[][] cost = new double[n][n];
+    for (int i = 0; i < n; i++) for (int j = 0; j < n; j++) cost[i][j] = Math.abs(i - j);
+    MinimumWeightPerfectMatchingBlossom mwpm = new MinimumWeightPerfectMatchingBlossom(cost);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(n / 2.0);
+    verifyMatching(cost, mwpm);
+  }
+}
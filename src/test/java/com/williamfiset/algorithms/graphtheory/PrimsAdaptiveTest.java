@@ -0,0 +1,107 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class PrimsAdaptiveTest {
+
+  @Test
+  public void testExampleGraph() {
+    int[] u = {0, 1, 2, 0, 0, 1, 2, 2, 9, 4, 5, 6, 4, 5, 3, 6, 3, 7};
+    int[] v = {1, 2, 9, 4, 3, 3, 7, 8, 8, 5, 6, 8, 3, 3, 6, 7, 7, 8};
+    double[] w = {5, 4, 2, 1, 4, 2, 4, 1, 0, 1, 7, 4, 2, 5, 11, 1, 2, 6};
+    for (PrimsAdaptive.Result result :
+        new PrimsAdaptive.Result[] {
+          PrimsAdaptive.mst(10, u, v, w),
+          PrimsAdaptive.denseMst(10, u, v, w),
+          PrimsAdaptive.sparseMst(CsrGraph.undirected(10, u, v, w))
+        }) {
+      assertThat(result.cost).isEqualTo(14.0);
+      assertThat(result.edgeIds).hasLength(9);
+      double sum = 0;
+      for (int id : result.edgeIds) sum += w[id];
+      assertThat(sum).isEqualTo(14.0);
+    }
+  }
+
+  @Test
+  public void testDisconnectedGraph() {
+    int[] u = {0, 2}, v = {1, 3};
+    double[] w = {1, 1};
+    assertThat(PrimsAdaptive.denseMst(4, u, v, w)).isNull();
+    assertThat(PrimsAdaptive.sparseMst(4, u, v, w)).isNull();
+  }
+
+  @Test
+  public void testSingleNode() {
+    PrimsAdaptive.Result result = PrimsAdaptive.mst(1, new int[0], new int[0], new double[0]);
+    assertThat(result.cost).isEqualTo(0.0);
+    assertThat(result.edgeIds).hasLength(0);
+  }
+
+  @Test
+  public void testNoNodes() {
+    PrimsAdaptive.Result result = PrimsAdaptive.sparseMst(0, new int[0], new int[0], new double[0]);
+    assertThat(result.cost).isEqualTo(0.0);
+    assertThat(result.edgeIds).hasLength(0);
+    assertThat(PrimsAdaptive.denseMst(0, new int[0], new int[0], new double[0]).edgeIds)
+        .hasLength(0);
+  }
+
+  @Test
+  public void testDispatchFollowsCrossover() {
+    assertThat(PrimsAdaptive.usesDenseRepresentation(3, 2, 0.9)).isEqualTo(false);
+    assertThat(PrimsAdaptive.usesDenseRepresentation(3, 2, 0.5)).isEqualTo(true);
+    assertThat(PrimsAdaptive.usesDenseRepresentation(3, 2)).isEqualTo(true);
+  }
+
+  // A complete graph this large would overflow the matrix size, so it always uses the CSR graph.
+  @Test
+  public void testLargeGraphsAreNeverDense() {
+    int n = PrimsAdaptive.MAX_DENSE_NODES + 1;
+    assertThat(PrimsAdaptive.usesDenseRepresentation(n, Integer.MAX_VALUE, 0)).isEqualTo(false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooLargeForDenseMst() {
+    int n = PrimsAdaptive.MAX_DENSE_NODES + 1;
+    PrimsAdaptive.denseMst(n, new int[0], new int[0], new double[0]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidCrossover() {
+    PrimsAdaptive.usesDenseRepresentation(3, 2, Double.NaN);
+  }
+
+  @Test
+  public void testRandomGraphsAgainstEagerPrims() {
+    Random random = new Random(38);
+    for (int t = 0; t < 200; t++) {
+      int n = 1 + random.nextInt(40);
+      int m = random.nextInt(n * n + 1);
+      int[] u = new int[m], v = new int[m];
+      double[] w = new double[m];
+      List<List<EagerPrimsAdjacencyList.Edge>> g = EagerPrimsAdjacencyList.createEmptyGraph(n);
+      for (int i = 0; i < m; i++) {
+        u[i] = random.nextInt(n);
+        v[i] = random.nextInt(n);
+        w[i] = random.nextInt(100);
+        EagerPrimsAdjacencyList.addUndirectedEdge(g, u[i], v[i], (int) w[i]);
+      }
+      Long expected = new EagerPrimsAdjacencyList(g).getMstCost();
+      PrimsAdaptive.Result dense = PrimsAdaptive.denseMst(n, u, v, w);
+      PrimsAdaptive.Result sparse = PrimsAdaptive.sparseMst(n, u, v, w);
+      if (expected == null) {
+        assertThat(dense).isNull();
+        assertThat(sparse).isNull();
+      } else {
+        assertThat(dense.cost).isEqualTo((double) expected);
+        assertThat(sparse.cost).isEqualTo((double) expected);
+      }
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import com.williamfiset.algorithms.datastructures.unionfind.UnionFind;
+import com.williamfiset.algorithms.utils.graphutils.CsrGraph;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class SteinerTreeParallelTest {
+
+  static final double INF = Double.POSITIVE_INFINITY;
+
+  // Checks that the returned edges cost `result.cost` in total and connect all terminals.
+  private static void verifyTree(
+      int n, int[] u, int[] v, double[] w, int[] terminals, SteinerTreeParallel.Result result) {
+    double total = 0;
+    UnionFind uf = new UnionFind(n);
+    for (int id : result.edgeIds) {
+      total += w[id];
+      uf.unify(u[id], v[id]);
+    }
+    assertThat(total).isWithin(1e-9).of(result.cost);
+    for (int t : terminals) assertThat(uf.connected(t, terminals[0])).isTrue();
+  }
+
+  @Test
+  public void testTrivialInputs() {
+    CsrGraph graph = CsrGraph.undirected(3, new int[] {0}, new int[] {1}, new double[] {4});
+    assertThat(SteinerTreeParallel.solve(graph, new int[] {}).cost).isEqualTo(0.0);
+    assertThat(SteinerTreeParallel.solve(graph, new int[] {2}).cost).isEqualTo(0.0);
+    assertThat(SteinerTreeParallel.solve(graph, new int[] {1, 1}).edgeIds).hasLength(0);
+
+    SteinerTreeParallel.Result disconnected = SteinerTreeParallel.solve(graph, new int[] {0, 2});
+    assertThat(disconnected.cost).isEqualTo(INF);
+    assertThat(disconnected.edgeIds).hasLength(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeWeight() {
+    CsrGraph graph = CsrGraph.undirected(2, new int[] {0}, new int[] {1}, new double[] {-1});
+    SteinerTreeParallel.solve(graph, new int[] {0, 1});
+  }
+
+  @Test
+  public void testTreeGraph() {
+    // Same graph as matrix1 in SteinerTreeTest.
+    int[] u = {0, 0, 1, 2};
+    int[] v = {1, 2, 3, 4};
+    double[] w = {3, 4, 5, 6};
+    CsrGraph graph = CsrGraph.undirected(5, u, v, w);
+    SteinerTreeParallel.Result result = SteinerTreeParallel.solve(graph, new int[] {3, 0, 4});
+    assertThat(result.cost).isEqualTo(18.0);
+    assertThat(result.edgeIds).isEqualTo(new int[] {0, 1, 2, 3});
+    assertThat(SteinerTreeParallel.solve(graph, new int[] {1, 2, 4}).edgeIds)
+        .isEqualTo(new int[] {0, 1, 3});
+  }
+
+  @Test
+  public void testRandomGraphsAgainstDreyfusWagner() {
+    Random random = new Random(11);
+    for (int iter = 0; iter < 200; iter++) {
+      int n = 2 + random.nextInt(12), m = random.nextInt(3 * n);
+      int[] u = new int[m], v = new int[m];
+      double[] w = new double[m];
+      double[][] matrix = new double[n][n];
+      for (double[] row : matrix) Arrays.fill(row, INF);
+      for (int i = 0; i < n; i++) matrix[i][i] = 0;
+      for (int i = 0; i < m; i++) {
+        u[i] = random.nextInt(n);
+        v[i] = random.nextInt(n);
+        w[i] = random.nextInt(10);
+        matrix[u[i]][v[i]] = matrix[v[i]][u[i]] = Math.min(matrix[u[i]][v[i]], w[i]);
+      }
+      int[] terminals = new int[1 + random.nextInt(Math.min(n, 6))];
+      for (int i = 0; i < terminals.length; i++) terminals[i] = random.nextInt(n);
+
+      CsrGraph graph = CsrGraph.undirected(n, u, v, w);
+      double expected = SteinerTree.minLengthSteinerTree(matrix, terminals);
+      for (boolean parallel : new boolean[] {false, true}) {
+        SteinerTreeParallel.Result result = SteinerTreeParallel.solve(graph, terminals, parallel);
+        assertThat(result.cost).isEqualTo(expected);
+        if (expected < INF) verifyTree(n, u, v, w, terminals, result);
+      }
+    }
+  }
+
+  @Test
+  public void testLargeGrid() {
+    // A 300 x 300 grid with unit weights, terminals in the corners and the center.
+    int side = 300, n = side * side;
+    int m = 2 * side * (side - 1);
+    int[] u = new int[m], v = new int[m];
+    double[] w = new double[m];
+    Arrays.fill(w, 1);
+    int e = 0;
+    for (int r = 0; r < side; r++) {
+      for (int c = 0; c < side; c++) {
+        int at = r * side + c;
+        if (c + 1 < side) {
+          u[e] = at;
+          v[e++] = at + 1;
+        }
+        if (r + 1 < side) {
+          u[e] = at;
+          v[e++] = at + side;
+        }
+      }
+    }
+    int[] terminals = {0, side - 1, n - side, n - 1, (side / 2) * side + side / 2};
+    SteinerTreeParallel.Result result =
+        SteinerTreeParallel.solve(CsrGraph.undirected(n, u, v, w), terminals);
+    // The rectilinear Steiner tree of the four corners spans one side and crosses to the other.
+    assertThat(result.cost).isEqualTo(3.0 * (side - 1));
+    verifyTree(n, u, v, w, terminals, result);
+  }
+}
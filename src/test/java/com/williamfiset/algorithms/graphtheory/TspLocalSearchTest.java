@@ -0,0 +1,138 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TspLocalSearchTest {
+
+  private static final double EPS = 1e-6;
+
+  private static double[][] randomEuclideanInstance(int n, Random random) {
+    double[][] points = new double[n][2];
+    for (double[] p : points) {
+      p[0] = random.nextDouble() * 1000;
+      p[1] = random.nextDouble() * 1000;
+    }
+    double[][] dist = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        dist[i][j] = Math.hypot(points[i][0] - points[j][0], points[i][1] - points[j][1]);
+      }
+    }
+    return dist;
+  }
+
+  private static double tourCost(double[][] dist, List<Integer> tour) {
+    double cost = 0;
+    for (int i = 1; i < tour.size(); i++) cost += dist[tour.get(i - 1)][tour.get(i)];
+    return cost;
+  }
+
+  private static void assertValidTour(List<Integer> tour, int n) {
+    assertThat(tour.size()).isEqualTo(n + 1);
+    assertThat(tour.get(0)).isEqualTo(0);
+    assertThat(tour.get(n)).isEqualTo(0);
+    boolean[] seen = new boolean[n];
+    for (int i = 0; i < n; i++) {
+      assertThat(seen[tour.get(i)]).isFalse();
+      seen[tour.get(i)] = true;
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNonSquareMatrix() {
+    double[][] dist = {
+      {1, 2, 3},
+      {4, 5, 6}
+    };
+    new TspLocalSearch(dist);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidInitialTour() {
+    double[][] dist = new double[4][4];
+    TspLocalSearch solver = new TspLocalSearch(dist);
+    solver.setInitialTour(new int[] {0, 1, 1, 3});
+  }
+
+  @Test
+  public void testSmallGraph() {
+    int n = 5;
+    double[][] dist = new double[n][n];
+    for (double[] row : dist) java.util.Arrays.fill(row, 100);
+    dist[1][3] = dist[3][1] = 1;
+    dist[3][0] = dist[0][3] = 2;
+    dist[0][2] = dist[2][0] = 3;
+    dist[2][4] = dist[4][2] = 4;
+    dist[4][1] = dist[1][4] = 5;
+
+    TspLocalSearch solver = new TspLocalSearch(dist);
+    assertThat(solver.getTourCost()).isWithin(EPS).of(15.0);
+    assertValidTour(solver.getTour(), n);
+  }
+
+  @Test
+  public void testReportedCostMatchesTour() {
+    Random random = new Random(7);
+    for (int n = 3; n < 200; n += 7) {
+      double[][] dist = randomEuclideanInstance(n, random);
+      TspLocalSearch solver = new TspLocalSearch(dist);
+      solver.setSeed(n);
+      solver.setKicks(20);
+      List<Integer> tour = solver.getTour();
+      assertValidTour(tour, n);
+      assertThat(solver.getTourCost()).isWithin(EPS).of(tourCost(dist, tour));
+    }
+  }
+
+  @Test
+  public void testCloseToOptimalOnSmallInstances() {
+    Random random = new Random(42);
+    for (int loop = 0; loop < 10; loop++) {
+      double[][] dist = randomEuclideanInstance(11, random);
+      double optimal = new TspDynamicProgrammingIterative(dist).getTourCost();
+      TspLocalSearch solver = new TspLocalSearch(dist);
+      solver.setSeed(loop);
+      solver.setKicks(50);
+      assertThat(solver.getTourCost()).isAtLeast(optimal - EPS);
+      assertThat(solver.getTourCost()).isAtMost(optimal * 1.05);
+    }
+  }
+
+  @Test
+  public void testImprovesOnSeedTour() {
+    Random random = new Random(3);
+    int n = 300;
+    double[][] dist = randomEuclideanInstance(n, random);
+    int[] seed = new int[n];
+    for (int i = 0; i < n; i++) seed[i] = i;
+    double seedCost = dist[n - 1][0];
+    for (int i = 1; i < n; i++) seedCost += dist[i - 1][i];
+
+    TspLocalSearch solver = new TspLocalSearch(dist);
+    solver.setInitialTour(seed);
+    assertThat(solver.getTourCost()).isLessThan(seedCost);
+  }
+
+  @Test
+  public void testTimeToReachGap() {
+    int n = 500;
+    double[][] dist = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        dist[i][j] = Math.min(Math.abs(i - j), n - Math.abs(i - j));
+      }
+    }
+    TspLocalSearch solver = new TspLocalSearch(dist);
+    solver.setTargetGap(n, 0.0);
+    assertThat(solver.getTourCost()).isWithin(EPS).of(n);
+    assertThat(solver.getNanosToReachGap()).isAtLeast(0L);
+
+    TspLocalSearch noTarget = new TspLocalSearch(dist);
+    assertThat(noTarget.getNanosToReachGap()).isEqualTo(-1L);
+  }
+}
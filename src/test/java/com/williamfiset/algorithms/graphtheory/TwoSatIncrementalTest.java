@@ -0,0 +1,110 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class TwoSatIncrementalTest {
+
+  private static boolean isTrue(boolean[] value, int literal) {
+    return value[literal / 2] ^ (literal % 2 == 1);
+  }
+
+  private static boolean satisfies(boolean[] value, List<int[]> clauses, List<Integer> units) {
+    for (int[] c : clauses) if (!isTrue(value, c[0]) && !isTrue(value, c[1])) return false;
+    for (int literal : units) if (!isTrue(value, literal)) return false;
+    return true;
+  }
+
+  // Tries all 2^n assignments.
+  private static boolean bruteForce(int n, List<int[]> clauses, List<Integer> units) {
+    boolean[] value = new boolean[n];
+    for (int mask = 0; mask < 1 << n; mask++) {
+      for (int i = 0; i < n; i++) value[i] = (mask >> i & 1) == 1;
+      if (satisfies(value, clauses, units)) return true;
+    }
+    return false;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLiteral() {
+    new TwoSatIncremental(2).addOrClause(0, 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRetractUnknownAssumption() {
+    new TwoSatIncremental(2).retract(1);
+  }
+
+  @Test
+  public void testSimpleImpossible() {
+    TwoSatIncremental solver = new TwoSatIncremental(1);
+    assertThat(solver.addOrClause(0, 0)).isTrue();
+    assertThat(solver.addOrClause(1, 1)).isFalse();
+    // Unsatisfiable clauses stay unsatisfiable.
+    assertThat(solver.addOrClause(0, 1)).isFalse();
+  }
+
+  @Test
+  public void testImpossibleFourNodeCycle() {
+    TwoSatIncremental solver = new TwoSatIncremental(2);
+    assertThat(solver.addOrClause(0, 2)).isTrue();
+    assertThat(solver.addOrClause(0, 3)).isTrue();
+    assertThat(solver.addOrClause(1, 2)).isTrue();
+    assertThat(solver.getAssignment()).isEqualTo(new boolean[] {true, true});
+    assertThat(solver.addOrClause(1, 3)).isFalse();
+  }
+
+  @Test
+  public void testAssumptions() {
+    TwoSatIncremental solver = new TwoSatIncremental(2);
+    solver.addOrClause(1, 2); // x0 implies x1
+    assertThat(solver.assume(0)).isTrue();
+    assertThat(solver.getAssignment()).isEqualTo(new boolean[] {true, true});
+    assertThat(solver.assume(3)).isFalse();
+    solver.retract(0);
+    assertThat(solver.isSatisfiable()).isTrue();
+    assertThat(solver.getAssignment()).isEqualTo(new boolean[] {false, false});
+
+    // Adding a clause which only contradicts the assumptions keeps the clauses satisfiable.
+    assertThat(solver.addOrClause(0, 0)).isFalse();
+    solver.retractAll();
+    assertThat(solver.isSatisfiable()).isTrue();
+    assertThat(solver.getAssignment()).isEqualTo(new boolean[] {true, true});
+  }
+
+  @Test
+  public void testRandomOperations() {
+    Random random = new Random(17);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(8);
+      TwoSatIncremental solver = new TwoSatIncremental(n);
+      List<int[]> clauses = new ArrayList<>();
+      List<Integer> assumptions = new ArrayList<>();
+
+      for (int op = 0; op < 4 * n; op++) {
+        int kind = random.nextInt(10);
+        if (kind < 6) {
+          int p = random.nextInt(2 * n), q = random.nextInt(2 * n);
+          clauses.add(new int[] {p, q});
+          solver.addOrClause(p, q);
+        } else if (kind < 8 || assumptions.isEmpty()) {
+          int literal = random.nextInt(2 * n);
+          assumptions.add(literal);
+          solver.assume(literal);
+        } else {
+          int literal = assumptions.remove(random.nextInt(assumptions.size()));
+          solver.retract(literal);
+        }
+
+        boolean expected = bruteForce(n, clauses, assumptions);
+        assertThat(solver.isSatisfiable()).isEqualTo(expected);
+        if (expected) assertThat(satisfies(solver.getAssignment(), clauses, assumptions)).isTrue();
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/**
+ * A benchmark comparing {@link Dinics} with {@link DinicsIterative}, with and without dynamic
+ * trees. Besides the graph from the networkflow examples it uses larger instances of the kinds of
+ * networks the examples model: bipartite matchings like MiceAndOwls, deep layered graphs and dense
+ * random networks.
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class DinicsBenchmark {
+
+  interface SolverFactory {
+    NetworkFlowSolverBase create(int n, int s, int t);
+  }
+
+  static final String[] NAMES = {"Dinics", "DinicsIterative", "DinicsIterative (dynamic trees)"};
+  static final SolverFactory[] FACTORIES = {
+    Dinics::new, DinicsIterative::new, (n, s, t) -> new DinicsIterative(n, s, t, true)
+  };
+
+  public static void main(String[] args) {
+    // The graph from DinicsExample, repeated many times to measure the fixed overhead.
+    run("Example graph (x10000)", 11, 10, 9, DinicsBenchmark::exampleGraph, 10000);
+    run("Unit capacity bipartite matching", 40002, 40000, 40001, g -> matching(g, 20000), 1);
+    run("Deep layered grid", 100002, 100000, 100001, g -> layeredGrid(g, 20, 5000), 1);
+    run("Long path", 200000, 0, 199999, g -> path(g, 200000), 1);
+    run("Random network", 2002, 2000, 2001, g -> randomNetwork(g, 2000, 40000), 1);
+  }
+
+  static void run(
+      String name, int n, int s, int t, Consumer<NetworkFlowSolverBase> graph, int repeats) {
+    System.out.println(name + ":");
+    for (int i = 0; i < FACTORIES.length; i++) {
+      long start = System.nanoTime();
+      long flow = 0;
+      try {
+        for (int r = 0; r < repeats; r++) {
+          NetworkFlowSolverBase solver = FACTORIES[i].create(n, s, t);
+          graph.accept(solver);
+          flow = solver.getMaxFlow();
+        }
+      } catch (StackOverflowError e) {
+        System.out.printf("  %-32s stack overflow\n", NAMES[i]);
+        continue;
+      }
+      long end = System.nanoTime();
+      System.out.printf("  %-32s flow = %d, %.3fs\n", NAMES[i], flow, (end - start) / 1e9);
+    }
+  }
+
+  // Same graph as in DinicsExample#main
+  static void exampleGraph(NetworkFlowSolverBase solver) {
+    int s = 10, t = 9;
+    solver.addEdge(s, 0, 5);
+    solver.addEdge(s, 1, 10);
+    solver.addEdge(s, 2, 15);
+    solver.addEdge(0, 3, 10);
+    solver.addEdge(1, 0, 15);
+    solver.addEdge(1, 4, 20);
+    solver.addEdge(2, 5, 25);
+    solver.addEdge(3, 4, 25);
+    solver.addEdge(3, 6, 10);
+    solver.addEdge(3, 7, 20);
+    solver.addEdge(4, 2, 5);
+    solver.addEdge(4, 7, 30);
+    solver.addEdge(5, 7, 20);
+    solver.addEdge(5, 8, 10);
+    solver.addEdge(7, 8, 15);
+    solver.addEdge(6, t, 5);
+    solver.addEdge(7, t, 15);
+    solver.addEdge(8, t, 10);
+  }
+
+  // Like MiceAndOwls: k mice each able to reach three of k holes of capacity one.
+  static void matching(NetworkFlowSolverBase solver, int k) {
+    int s = 2 * k, t = 2 * k + 1;
+    Random random = new Random(1);
+    for (int i = 0; i < k; i++) {
+      solver.addEdge(s, i, 1);
+      solver.addEdge(k + i, t, 1);
+      for (int j = 0; j < 3; j++) solver.addEdge(i, k + random.nextInt(k), 1);
+    }
+  }
+
+  // `width` unit capacity chains of length `depth`, with crossing edges between neighboring chains.
+  static void layeredGrid(NetworkFlowSolverBase solver, int width, int depth) {
+    int s = width * depth, t = s + 1;
+    for (int w = 0; w < width; w++) {
+      solver.addEdge(s, w * depth, 1);
+      solver.addEdge(w * depth + depth - 1, t, 1);
+      for (int d = 0; d + 1 < depth; d++) {
+        int at = w * depth + d;
+        solver.addEdge(at, at + 1, 1);
+        solver.addEdge(at, ((w + 1) % width) * depth + d + 1, 1);
+      }
+    }
+  }
+
+  static void path(NetworkFlowSolverBase solver, int n) {
+    for (int i = 0; i + 1 < n; i++) solver.addEdge(i, i + 1, 7);
+  }
+
+  static void randomNetwork(NetworkFlowSolverBase solver, int n, int m) {
+    int s = n, t = n + 1;
+    Random random = new Random(2);
+    for (int i = 0; i < n / 10; i++) {
+      solver.addEdge(s, random.nextInt(n), 1000);
+      solver.addEdge(random.nextInt(n), t, 1000);
+    }
+    for (int i = 0; i < m; i++) {
+      solver.addEdge(random.nextInt(n), random.nextInt(n), 1 + random.nextInt(100));
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.graphtheory.networkflow.NetworkFlowSolverBase.Edge;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class DinicsIterativeTest {
+
+  // Checks capacity constraints, flow conservation and that the min cut capacity equals the flow.
+  private static void verifyFlow(NetworkFlowSolverBase solver, int n, int s, int t) {
+    long flow = solver.getMaxFlow();
+    List<Edge>[] g = solver.getGraph();
+    boolean[] cut = solver.getMinCut();
+    long[] balance = new long[n];
+    long cutCapacity = 0;
+    for (int i = 0; i < n; i++) {
+      for (Edge e : g[i]) {
+        if (e.isResidual()) continue;
+        assertThat(e.flow).isAtLeast(0L);
+        assertThat(e.flow).isAtMost(e.capacity);
+        balance[e.from] -= e.flow;
+        balance[e.to] += e.flow;
+        if (cut[e.from] && !cut[e.to]) cutCapacity += e.capacity;
+      }
+    }
+    for (int i = 0; i < n; i++) {
+      if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+    }
+    assertThat(balance[t]).isEqualTo(flow);
+    assertThat(cut[s]).isTrue();
+    assertThat(cut[t]).isFalse();
+    assertThat(cutCapacity).isEqualTo(flow);
+  }
+
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(21);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 2 + random.nextInt(30), m = random.nextInt(5 * n);
+      int s = random.nextInt(n), t = (s + 1 + random.nextInt(n - 1)) % n;
+      // Small capacities create many ties and unit capacity paths.
+      int maxCapacity = loop % 2 == 0 ? 2 : 100;
+
+      NetworkFlowSolverBase expected = new EdmondsKarpAdjacencyList(n, s, t);
+      NetworkFlowSolverBase plain = new DinicsIterative(n, s, t);
+      NetworkFlowSolverBase dynamic = new DinicsIterative(n, s, t, true);
+      for (int i = 0; i < m; i++) {
+        int u = random.nextInt(n), v = random.nextInt(n), c = random.nextInt(maxCapacity);
+        expected.addEdge(u, v, c);
+        plain.addEdge(u, v, c);
+        dynamic.addEdge(u, v, c);
+      }
+
+      assertThat(plain.getMaxFlow()).isEqualTo(expected.getMaxFlow());
+      assertThat(dynamic.getMaxFlow()).isEqualTo(expected.getMaxFlow());
+      verifyFlow(plain, n, s, t);
+      verifyFlow(dynamic, n, s, t);
+    }
+  }
+
+  @Test
+  public void testLongLayeredGraph() {
+    // Two parallel paths of 100000 edges each, far too deep for a recursive DFS.
+    int len = 100_000, n = 2 * len + 1, s = 0, t = n - 1;
+    for (boolean useDynamicTrees : new boolean[] {false, true}) {
+      DinicsIterative solver = new DinicsIterative(n, s, t, useDynamicTrees);
+      for (int p = 0; p < 2; p++) {
+        int prev = s;
+        for (int i = 1; i < len; i++) {
+          int node = p * len + i;
+          solver.addEdge(prev, node, 5 + p);
+          prev = node;
+        }
+        solver.addEdge(prev, t, 5 + p);
+      }
+      assertThat(solver.getMaxFlow()).isEqualTo(11L);
+      verifyFlow(solver, n, s, t);
+    }
+  }
+
+  @Test
+  public void testUnitCapacityBipartiteMatching() {
+    // A matching between 2000 left and right nodes where left node i likes right nodes i and i + 1.
+    int k = 2000, n = 2 * k + 2, s = n - 2, t = n - 1;
+    for (boolean useDynamicTrees : new boolean[] {false, true}) {
+      DinicsIterative solver = new DinicsIterative(n, s, t, useDynamicTrees);
+      for (int i = 0; i < k; i++) {
+        solver.addEdge(s, i, 1);
+        solver.addEdge(k + i, t, 1);
+        solver.addEdge(i, k + i, 1);
+        if (i + 1 < k) solver.addEdge(i, k + i + 1, 1);
+      }
+      assertThat(solver.getMaxFlow()).isEqualTo((long) k);
+      verifyFlow(solver, n, s, t);
+    }
+  }
+}
@@ -21,6 +21,8 @@ public class MaxFlowTests {
   void createAllSolvers(int n, int s, int t) {
     solvers.add(new CapacityScalingSolverAdjacencyList(n, s, t));
     solvers.add(new Dinics(n, s, t));
+    solvers.add(new DinicsIterative(n, s, t));
+    solvers.add(new DinicsIterative(n, s, t, /* useDynamicTrees= */ true));
     solvers.add(new EdmondsKarpAdjacencyList(n, s, t));
     solvers.add(new FordFulkersonDfsSolverAdjacencyList(n, s, t));
     solvers.add(new MinCostMaxFlowWithBellmanFord(n, s, t));
@@ -0,0 +1,163 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+
+public class BinaryGraphFileTest {
+
+  private static CsrGraph randomGraph(Random random, int n, int m, boolean weighted) {
+    int[] from = new int[m], to = new int[m];
+    double[] w = weighted ? new double[m] : null;
+    for (int i = 0; i < m; i++) {
+      from[i] = random.nextInt(n);
+      to[i] = random.nextInt(n);
+      if (weighted) w[i] = random.nextDouble();
+    }
+    return CsrGraph.directed(n, from, to, w);
+  }
+
+  private static void assertSameGraph(MappedCsrGraph mapped, CsrGraph expected) {
+    assertThat(mapped.n).isEqualTo(expected.n);
+    assertThat(mapped.edgeCount()).isEqualTo((long) expected.edgeCount());
+    assertThat(mapped.isWeighted()).isEqualTo(expected.weights != null);
+    for (int i = 0; i <= expected.n; i++) {
+      assertThat(mapped.edgeStart(i)).isEqualTo((long) expected.offsets[i]);
+    }
+    for (int e = 0; e < expected.edgeCount(); e++) {
+      assertThat(mapped.target(e)).isEqualTo(expected.targets[e]);
+      if (expected.weights != null) assertThat(mapped.weight(e)).isEqualTo(expected.weights[e]);
+    }
+    CsrGraph copy = mapped.toCsrGraph();
+    assertThat(copy.offsets).isEqualTo(expected.offsets);
+    assertThat(copy.targets).isEqualTo(expected.targets);
+    assertThat(copy.weights).isEqualTo(expected.weights);
+  }
+
+  @Test
+  public void testWriteAndMap() throws IOException {
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      Random random = new Random(39);
+      for (boolean weighted : new boolean[] {true, false}) {
+        // An odd number of edges exercises the padding before the weights.
+        for (int m : new int[] {0, 1, 7, 1000}) {
+          CsrGraph graph = randomGraph(random, 50, m, weighted);
+          BinaryGraphFile.write(graph, file);
+          assertSameGraph(BinaryGraphFile.map(file), graph);
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testMultipleSegments() throws IOException {
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      CsrGraph graph = randomGraph(new Random(1), 37, 301, true);
+      BinaryGraphFile.write(graph, file);
+      for (int shift = 1; shift <= 5; shift++) {
+        assertSameGraph(BinaryGraphFile.map(file, shift), graph);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testConvertEdgeList() throws IOException {
+    Path text = Files.createTempFile("graph", ".txt");
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      String edges =
+          "# a comment\r\n0 1 1.5\r\n\r\n  3\t2 -2\n% another comment\n1 1 0.25\n2 0 1e3";
+      Files.write(text, edges.getBytes());
+      int[] from = {0, 3, 1, 2}, to = {1, 2, 1, 0};
+      double[] w = {1.5, -2, 0.25, 1000};
+
+      BinaryGraphFile.convertEdgeList(text, file, false, 1);
+      assertSameGraph(BinaryGraphFile.map(file, 1), CsrGraph.directed(4, from, to, w));
+
+      BinaryGraphFile.convertEdgeList(text, file, true, 2);
+      CsrGraph undirected = CsrGraph.undirected(4, from, to, w);
+      assertSameGraph(BinaryGraphFile.map(file, 2), undirected);
+      assertSameGraph(BinaryGraphFile.map(file), undirected);
+    } finally {
+      Files.delete(text);
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void testConvertLargeUnweightedEdgeList() throws IOException {
+    Path text = Files.createTempFile("graph", ".txt");
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      Random random = new Random(7);
+      int n = 500, m = 20001;
+      int[] from = new int[m], to = new int[m];
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < m; i++) {
+        // Make sure that the largest node appears, as it determines the number of nodes.
+        from[i] = i == 0 ? n - 1 : random.nextInt(n);
+        to[i] = random.nextInt(n);
+        sb.append(from[i]).append(' ').append(to[i]).append('\n');
+      }
+      Files.write(text, sb.toString().getBytes());
+
+      BinaryGraphFile.convertEdgeList(text, file, false, 10);
+      assertSameGraph(BinaryGraphFile.map(file, 10), CsrGraph.directed(n, from, to));
+    } finally {
+      Files.delete(text);
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMixedWeights() throws IOException {
+    Path text = Files.createTempFile("graph", ".txt");
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      Files.write(text, "0 1 1.0\n1 2\n".getBytes());
+      BinaryGraphFile.convertEdgeList(text, file, false);
+    } finally {
+      Files.delete(text);
+      Files.delete(file);
+    }
+  }
+
+  // Comment lines count as one line each in the line numbers of parse errors.
+  @Test
+  public void testErrorLineAfterComments() throws IOException {
+    Path text = Files.createTempFile("graph", ".txt");
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      Files.write(text, "# from to\n0 1\n% comment\r\n\n1 x\n".getBytes());
+      BinaryGraphFile.convertEdgeList(text, file, false);
+      fail("Expected a parse error");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).isEqualTo("Line 5: invalid node x");
+    } finally {
+      Files.delete(text);
+      Files.delete(file);
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testNotAGraphFile() throws IOException {
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      Files.write(file, "definitely not a graph file header".getBytes());
+      BinaryGraphFile.map(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
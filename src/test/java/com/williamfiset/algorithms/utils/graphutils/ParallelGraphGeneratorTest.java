@@ -0,0 +1,156 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class ParallelGraphGeneratorTest {
+
+  private static ParallelGraphGenerator[] generators() {
+    return new ParallelGraphGenerator[] {
+      ParallelGraphGenerator.rmat(10, 300_000, 0.57, 0.19, 0.19, 1),
+      ParallelGraphGenerator.gnp(3000, 0.02, false, 2),
+      ParallelGraphGenerator.gnp(500, 0.5, true, 3),
+      ParallelGraphGenerator.gnm(3000, 200_000, false, 4),
+      ParallelGraphGenerator.gnm(300, 80_000, true, 5),
+      ParallelGraphGenerator.grid(300, 400, 1, 2, 6),
+      ParallelGraphGenerator.powerLawDag(50, 2000, 2.5, 100, 7)
+    };
+  }
+
+  @Test
+  public void testParallelAndSequentialGenerateTheSameGraph() {
+    ParallelGraphGenerator[] parallel = generators(), sequential = generators();
+    for (int i = 0; i < parallel.length; i++) {
+      CsrGraph a = parallel[i].parallel(true).toCsrGraph(false);
+      CsrGraph b = sequential[i].parallel(false).toCsrGraph(false);
+      CsrGraph c = parallel[i].toCsrGraph(false);
+      assertThat(a.offsets).isEqualTo(b.offsets);
+      assertThat(a.targets).isEqualTo(b.targets);
+      assertThat(a.weights).isEqualTo(b.weights);
+      assertThat(a.targets).isEqualTo(c.targets);
+    }
+  }
+
+  @Test
+  public void testDifferentSeedsGenerateDifferentGraphs() {
+    CsrGraph a = ParallelGraphGenerator.gnp(1000, 0.1, false, 1).toCsrGraph(false);
+    CsrGraph b = ParallelGraphGenerator.gnp(1000, 0.1, false, 2).toCsrGraph(false);
+    assertThat(Arrays.equals(a.targets, b.targets)).isEqualTo(false);
+  }
+
+  @Test
+  public void testRmat() {
+    CsrGraph graph = ParallelGraphGenerator.rmat(8, 10_000, 0.57, 0.19, 0.19, 1).toCsrGraph(false);
+    assertThat(graph.n).isEqualTo(256);
+    assertThat(graph.edgeCount()).isEqualTo(10_000);
+    // Node 0 is in the densest quadrant at every level.
+    assertThat(graph.degree(0)).isAtLeast(graph.degree(255));
+  }
+
+  @Test
+  public void testGnpExtremes() {
+    assertThat(ParallelGraphGenerator.gnp(50, 0, false, 1).toCsrGraph(false).edgeCount())
+        .isEqualTo(0);
+    assertThat(ParallelGraphGenerator.gnp(50, 1, false, 1).toCsrGraph(false).edgeCount())
+        .isEqualTo(50 * 49 / 2);
+    CsrGraph complete = ParallelGraphGenerator.gnp(50, 1, true, 1).toCsrGraph(false);
+    assertThat(complete.edgeCount()).isEqualTo(50 * 49);
+    assertThat(distinctEdges(complete, true)).isEqualTo(50 * 49);
+  }
+
+  @Test
+  public void testGnpEdgeCountIsNearExpectation() {
+    int n = 20_000;
+    double p = 0.001, expected = p * n * (n - 1.0) / 2;
+    CsrGraph graph = ParallelGraphGenerator.gnp(n, p, false, 9).toCsrGraph(false);
+    // The standard deviation is about 447 edges.
+    assertThat(Math.abs(graph.edgeCount() - expected)).isAtMost(3000.0);
+    assertThat(distinctEdges(graph, false)).isEqualTo(graph.edgeCount());
+  }
+
+  @Test
+  public void testGnmHasExactlyMDistinctEdges() {
+    for (long m : new long[] {0, 1, 100, 150, 190}) {
+      CsrGraph graph = ParallelGraphGenerator.gnm(20, m, false, m).toCsrGraph(false);
+      assertThat(graph.edgeCount()).isEqualTo((int) m);
+      assertThat(distinctEdges(graph, false)).isEqualTo((int) m);
+    }
+    CsrGraph directed = ParallelGraphGenerator.gnm(1000, 500_000, true, 3).toCsrGraph(false);
+    assertThat(distinctEdges(directed, true)).isEqualTo(500_000);
+  }
+
+  @Test
+  public void testGrid() {
+    CsrGraph graph = ParallelGraphGenerator.grid(30, 40, 2, 5, 1).toCsrGraph(true);
+    assertThat(graph.n).isEqualTo(1200);
+    assertThat(graph.edgeCount()).isEqualTo(2 * (30 * 39 + 29 * 40));
+    for (int u = 0; u < graph.n; u++) {
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        int v = graph.targets[e];
+        assertThat(Math.abs(u - v) == 1 || Math.abs(u - v) == 40).isEqualTo(true);
+        assertThat(graph.weights[e]).isAtLeast(2.0);
+        assertThat(graph.weights[e]).isLessThan(5.0);
+      }
+    }
+  }
+
+  @Test
+  public void testPowerLawDag() {
+    int levels = 20, width = 500, maxDegree = 50;
+    CsrGraph graph =
+        ParallelGraphGenerator.powerLawDag(levels, width, 2.1, maxDegree, 1).toCsrGraph(false);
+    assertThat(graph.n).isEqualTo(levels * width);
+    int maxSeen = 0;
+    for (int u = 0; u < graph.n; u++) {
+      int degree = graph.degree(u);
+      maxSeen = Math.max(maxSeen, degree);
+      assertThat(degree).isAtMost(maxDegree);
+      if (u / width == levels - 1) assertThat(degree).isEqualTo(0);
+      else assertThat(degree).isAtLeast(1);
+      Set<Integer> targets = new HashSet<>();
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        assertThat(graph.targets[e] / width).isEqualTo(u / width + 1);
+        targets.add(graph.targets[e]);
+      }
+      assertThat(targets).hasSize(degree);
+    }
+    // The degree distribution has a heavy tail.
+    assertThat(maxSeen).isEqualTo(maxDegree);
+  }
+
+  @Test
+  public void testWriteToBinaryFile() throws IOException {
+    Path file = Files.createTempFile("graph", ".csrg");
+    try {
+      ParallelGraphGenerator generator = ParallelGraphGenerator.grid(100, 70, 0, 1, 3);
+      generator.writeTo(file, true);
+      CsrGraph expected = generator.toCsrGraph(true);
+      CsrGraph mapped = BinaryGraphFile.map(file).toCsrGraph();
+      assertThat(mapped.offsets).isEqualTo(expected.offsets);
+      assertThat(mapped.targets).isEqualTo(expected.targets);
+      assertThat(mapped.weights).isEqualTo(expected.weights);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private static int distinctEdges(CsrGraph graph, boolean directed) {
+    Set<Long> edges = new HashSet<>();
+    for (int u = 0; u < graph.n; u++) {
+      for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+        int v = graph.targets[e];
+        assertThat(u).isNotEqualTo(v);
+        if (!directed) assertThat(u).isLessThan(v);
+        edges.add((long) u * graph.n + v);
+      }
+    }
+    return edges.size();
+  }
+}